@@ -6,6 +6,7 @@ package com.goDelivery.goDelivery.modules.analytics;
  * Exposed services:
  *   - AnalyticsService → order/customer analytics
  *   - ReportService    → sales reports, revenue summaries
+ *   - RevenueRollupService → per-day restaurant revenue rollups
  *
  * Exposed DTOs:
  *   - RestaurantDashboard / EnhancedRestaurantDashboard
@@ -0,0 +1,51 @@
+package com.goDelivery.goDelivery.modules.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Revenue of paid, confirmed or delivered orders, summed per restaurant,
+ * branch, day and payment method. Maintained incrementally by
+ * {@link com.goDelivery.goDelivery.modules.analytics.service.RevenueRollupService}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "revenue_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_revenue_rollups_key",
+                columnNames = { "restaurant_id", "branch_id", "revenue_date", "payment_method" })
+})
+public class RevenueRollup {
+
+    // Orders placed directly with the restaurant are rolled up under this branch id
+    public static final long NO_BRANCH = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long rollupId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    @Column(name = "payment_method", nullable = false, length = 32)
+    private String paymentMethod;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount;
+}
@@ -0,0 +1,30 @@
+package com.goDelivery.goDelivery.modules.analytics.repository;
+
+import com.goDelivery.goDelivery.modules.analytics.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+        @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM RevenueRollup r WHERE r.restaurantId = :restaurantId")
+        Double sumTotalByRestaurant(@Param("restaurantId") Long restaurantId);
+
+        // Returns (revenueDate, totalAmount) rows for the given range
+        @Query("SELECT r.revenueDate, SUM(r.totalAmount) FROM RevenueRollup r "
+                        + "WHERE r.restaurantId = :restaurantId AND r.revenueDate BETWEEN :from AND :to "
+                        + "GROUP BY r.revenueDate")
+        List<Object[]> sumByDay(@Param("restaurantId") Long restaurantId,
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        // Returns (paymentMethod, totalAmount) rows
+        @Query("SELECT r.paymentMethod, SUM(r.totalAmount) FROM RevenueRollup r "
+                        + "WHERE r.restaurantId = :restaurantId GROUP BY r.paymentMethod")
+        List<Object[]> sumByPaymentMethod(@Param("restaurantId") Long restaurantId);
+}
@@ -3,7 +3,9 @@ package com.goDelivery.goDelivery.modules.analytics.service;
 import com.goDelivery.goDelivery.shared.enums.OrderStatus;
 import com.goDelivery.goDelivery.modules.analytics.dto.EnhancedRestaurantDashboard;
 import com.goDelivery.goDelivery.modules.analytics.dto.EnhancedRestaurantDashboard.*;
+import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusHistogram;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
+import com.goDelivery.goDelivery.modules.ordering.service.OrderStatisticsService;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
@@ -28,6 +30,7 @@ public class RestaurantDashboardService {
 
         private final RestaurantRepository restaurantRepository;
         private final OrderRepository orderRepository;
+        private final OrderStatisticsService orderStatisticsService;
 
         // ── Main entry point ──────────────────────────────────────────────────────
 
@@ -68,24 +71,18 @@ public class RestaurantDashboardService {
                 LocalDateTime yesterdayStart = LocalDate.now().minusDays(1).atStartOfDay();
                 LocalDateTime yesterdayEnd = LocalDate.now().minusDays(1).atTime(LocalTime.MAX);
 
-                Long ordersToday = orZero(orderRepository.countOrdersByRestaurantAndDateRange(restaurantId, todayStart,
-                                todayEnd));
+                OrderStatusHistogram today = orderStatisticsService.forRestaurant(restaurantId, todayStart, todayEnd);
+                Long ordersToday = today.getTotalOrders();
                 Double revenueToday = orderRepository.sumRevenueByRestaurantAndDateRange(restaurantId, todayStart,
                                 todayEnd);
                 Double revenueYesterday = orderRepository.sumRevenueByRestaurantAndDateRange(restaurantId,
                                 yesterdayStart, yesterdayEnd);
 
-                Long completedToday = orZero(orderRepository.countOrdersByStatusAndDateRange(OrderStatus.DELIVERED,
-                                todayStart, todayEnd));
-                Long cancelledToday = orZero(orderRepository.countOrdersByStatusAndDateRange(OrderStatus.CANCELLED,
-                                todayStart, todayEnd));
+                Long completedToday = today.count(OrderStatus.DELIVERED);
+                Long cancelledToday = today.count(OrderStatus.CANCELLED);
 
-                Long activeOrders = (long) (orderRepository
-                                .findByRestaurant_RestaurantIdAndOrderStatus(restaurantId, OrderStatus.PLACED).size()
-                                + orderRepository.findByRestaurant_RestaurantIdAndOrderStatus(restaurantId,
-                                                OrderStatus.CONFIRMED).size()
-                                + orderRepository.findByRestaurant_RestaurantIdAndOrderStatus(restaurantId,
-                                                OrderStatus.PREPARING).size());
+                Long activeOrders = orderStatisticsService.forRestaurant(restaurantId)
+                                .count(OrderStatus.PLACED, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
 
                 BigDecimal rev = bd(revenueToday);
                 BigDecimal avgOrderValue = ordersToday > 0
@@ -107,12 +104,11 @@ public class RestaurantDashboardService {
                 LocalDateTime start = startDate.atStartOfDay();
                 LocalDateTime end = endDate.atTime(LocalTime.MAX);
 
-                Long total = orZero(orderRepository.countOrdersByRestaurantAndDateRange(restaurantId, start, end));
-                Long completed = orZero(
-                                orderRepository.countOrdersByStatusAndDateRange(OrderStatus.DELIVERED, start, end));
-                Long cancelled = orZero(
-                                orderRepository.countOrdersByStatusAndDateRange(OrderStatus.CANCELLED, start, end));
-                Long pending = orZero(orderRepository.countOrdersByStatusAndDateRange(OrderStatus.PLACED, start, end));
+                OrderStatusHistogram histogram = orderStatisticsService.forRestaurant(restaurantId, start, end);
+                Long total = histogram.getTotalOrders();
+                Long completed = histogram.count(OrderStatus.DELIVERED);
+                Long cancelled = histogram.count(OrderStatus.CANCELLED);
+                Long pending = histogram.count(OrderStatus.PLACED);
 
                 BigDecimal completionRate = total > 0
                                 ? BigDecimal.valueOf(completed)
@@ -0,0 +1,170 @@
+package com.goDelivery.goDelivery.modules.analytics.service;
+
+import com.goDelivery.goDelivery.modules.analytics.model.RevenueRollup;
+import com.goDelivery.goDelivery.modules.branch.model.Branches;
+import com.goDelivery.goDelivery.modules.ordering.model.Order;
+import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import com.goDelivery.goDelivery.shared.enums.PaymentMenthod;
+import com.goDelivery.goDelivery.shared.enums.PaymentStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Keeps {@code revenue_rollups} in step with the orders table. On every
+ * insert, update or delete of an {@link Order} it compares the order's
+ * revenue contribution before and after the change and applies the
+ * difference, so payment and status transitions cost one or two row updates.
+ *
+ * Registered as a Hibernate event listener so that it sees the previous
+ * state of updated orders; bulk JPQL/SQL updates of orders bypass it and are
+ * only picked up by {@link RevenueRollupService#rebuild()}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevenueRollupListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final RevenueRollupService revenueRollupService;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            applyChange(null, contributionOf(order));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            // Without the previous state the change cannot be computed; the nightly rebuild corrects it
+            Contribution before = event.getOldState() != null
+                    ? contributionOf(event.getPersister(), event.getOldState())
+                    : null;
+            applyChange(before, contributionOf(order));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            applyChange(contributionOf(order), null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void applyChange(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            revenueRollupService.apply(before.restaurantId, before.branchId, before.revenueDate,
+                    before.paymentMethod, -1, -before.amount);
+        }
+        if (after != null) {
+            revenueRollupService.apply(after.restaurantId, after.branchId, after.revenueDate,
+                    after.paymentMethod, 1, after.amount);
+        }
+    }
+
+    private Contribution contributionOf(Order order) {
+        return contributionOf(order.getRestaurant(), order.getBranch(), order.getOrderStatus(),
+                order.getPaymentStatus(), order.getPaymentMethod(), order.getFinalAmount(),
+                order.getDeliveredAt(), order.getOrderConfirmedAt(), order.getPaymentCompletedAt(),
+                order.getOrderPlacedAt());
+    }
+
+    private Contribution contributionOf(EntityPersister persister, Object[] state) {
+        String[] names = persister.getPropertyNames();
+        return contributionOf(
+                (Restaurant) value(names, state, "restaurant"),
+                (Branches) value(names, state, "branch"),
+                (OrderStatus) value(names, state, "orderStatus"),
+                (PaymentStatus) value(names, state, "paymentStatus"),
+                (PaymentMenthod) value(names, state, "paymentMethod"),
+                (Float) value(names, state, "finalAmount"),
+                (LocalDate) value(names, state, "deliveredAt"),
+                (LocalDate) value(names, state, "orderConfirmedAt"),
+                (LocalDateTime) value(names, state, "PaymentCompletedAt"),
+                (LocalDateTime) value(names, state, "orderPlacedAt"));
+    }
+
+    /**
+     * Paid orders that are confirmed or delivered count towards revenue on
+     * the day they were delivered, else confirmed. Older rows without either
+     * date fall back to the payment and then the placement date.
+     */
+    private Contribution contributionOf(Restaurant restaurant, Branches branch, OrderStatus orderStatus,
+            PaymentStatus paymentStatus, PaymentMenthod paymentMethod, Float finalAmount,
+            LocalDate deliveredAt, LocalDate orderConfirmedAt, LocalDateTime paymentCompletedAt,
+            LocalDateTime orderPlacedAt) {
+        if (paymentStatus != PaymentStatus.PAID
+                || (orderStatus != OrderStatus.DELIVERED && orderStatus != OrderStatus.CONFIRMED)
+                || restaurant == null || finalAmount == null) {
+            return null;
+        }
+        LocalDate revenueDate = deliveredAt != null ? deliveredAt
+                : orderConfirmedAt != null ? orderConfirmedAt
+                : paymentCompletedAt != null ? paymentCompletedAt.toLocalDate()
+                : orderPlacedAt != null ? orderPlacedAt.toLocalDate()
+                : null;
+        if (revenueDate == null || paymentMethod == null) {
+            return null;
+        }
+        return new Contribution(restaurant.getRestaurantId(),
+                branch != null ? branch.getBranchId() : RevenueRollup.NO_BRANCH,
+                revenueDate, paymentMethod.name(), finalAmount.doubleValue());
+    }
+
+    private static Object value(String[] names, Object[] state, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return state[i];
+            }
+        }
+        throw new IllegalStateException("Order has no property " + name);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Contribution {
+        private final Long restaurantId;
+        private final long branchId;
+        private final LocalDate revenueDate;
+        private final String paymentMethod;
+        private final double amount;
+    }
+}
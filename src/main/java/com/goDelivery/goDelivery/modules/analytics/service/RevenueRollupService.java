@@ -0,0 +1,179 @@
+package com.goDelivery.goDelivery.modules.analytics.service;
+
+import com.goDelivery.goDelivery.modules.analytics.repository.RevenueRollupRepository;
+import com.goDelivery.goDelivery.modules.restaurant.dto.RestaurantRevenueDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves restaurant revenue from the {@code revenue_rollups} table instead of
+ * summing orders on every request.
+ *
+ * The table is kept current by {@link RevenueRollupListener}, which applies
+ * the change in an order's contribution in the same transaction as the order
+ * update. {@link #rebuild()} recomputes it from the orders table: on startup
+ * when it is empty, nightly to correct any drift, and on demand.
+ */
+@Slf4j
+@Service
+public class RevenueRollupService {
+
+    private static final String UPSERT_POSTGRES_SQL =
+            "INSERT INTO revenue_rollups (restaurant_id, branch_id, revenue_date, payment_method, order_count, total_amount) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (restaurant_id, branch_id, revenue_date, payment_method) DO UPDATE SET "
+                    + "order_count = revenue_rollups.order_count + EXCLUDED.order_count, "
+                    + "total_amount = revenue_rollups.total_amount + EXCLUDED.total_amount";
+
+    private static final String UPDATE_SQL =
+            "UPDATE revenue_rollups SET order_count = order_count + ?, total_amount = total_amount + ? "
+                    + "WHERE restaurant_id = ? AND branch_id = ? AND revenue_date = ? AND payment_method = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO revenue_rollups (restaurant_id, branch_id, revenue_date, payment_method, order_count, total_amount) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Must stay in line with RevenueRollupListener.contributionOf
+    private static final String REBUILD_SQL =
+            "INSERT INTO revenue_rollups (restaurant_id, branch_id, revenue_date, payment_method, order_count, total_amount) "
+                    + "SELECT restaurant_id, branch_id, revenue_date, payment_method, COUNT(*), SUM(amount) FROM ("
+                    + "SELECT o.restaurant_id, COALESCE(o.branch_id, 0) AS branch_id, "
+                    + "COALESCE(o.delivered_at, o.order_confirmed_at, CAST(o.payment_completed_at AS DATE), "
+                    + "CAST(o.order_placed_at AS DATE)) AS revenue_date, "
+                    + "o.payment_method, CAST(o.final_amount AS DOUBLE PRECISION) AS amount "
+                    + "FROM orders o WHERE o.payment_status = 'PAID' "
+                    + "AND o.order_status IN ('DELIVERED', 'CONFIRMED') "
+                    + "AND o.final_amount IS NOT NULL AND o.payment_method IS NOT NULL"
+                    + ") q GROUP BY restaurant_id, branch_id, revenue_date, payment_method";
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Boolean postgres;
+
+    public RevenueRollupService(RevenueRollupRepository revenueRollupRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public RestaurantRevenueDTO getRestaurantRevenue(Long restaurantId) {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.minusDays(today.getDayOfWeek().getValue() - 1); // Monday
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate thirtyDaysAgo = today.minusDays(30);
+
+        // The 30-day window always covers the current week and month
+        Map<LocalDate, Double> dailyRevenue = new TreeMap<>();
+        double todayRevenue = 0;
+        double thisWeekRevenue = 0;
+        double thisMonthRevenue = 0;
+        for (Object[] row : revenueRollupRepository.sumByDay(restaurantId, thirtyDaysAgo, today)) {
+            LocalDate date = (LocalDate) row[0];
+            double amount = ((Number) row[1]).doubleValue();
+            if (amount == 0) {
+                continue;
+            }
+            dailyRevenue.put(date, roundToTwoDecimals(amount));
+            if (date.isEqual(today)) {
+                todayRevenue += amount;
+            }
+            if (!date.isBefore(weekStart)) {
+                thisWeekRevenue += amount;
+            }
+            if (!date.isBefore(monthStart)) {
+                thisMonthRevenue += amount;
+            }
+        }
+
+        Map<String, Double> revenueByPaymentMethod = new LinkedHashMap<>();
+        for (Object[] row : revenueRollupRepository.sumByPaymentMethod(restaurantId)) {
+            double amount = ((Number) row[1]).doubleValue();
+            if (amount != 0) {
+                revenueByPaymentMethod.put((String) row[0], roundToTwoDecimals(amount));
+            }
+        }
+
+        return RestaurantRevenueDTO.builder()
+                .totalRevenue(roundToTwoDecimals(revenueRollupRepository.sumTotalByRestaurant(restaurantId)))
+                .todayRevenue(roundToTwoDecimals(todayRevenue))
+                .thisWeekRevenue(roundToTwoDecimals(thisWeekRevenue))
+                .thisMonthRevenue(roundToTwoDecimals(thisMonthRevenue))
+                .dailyRevenue(dailyRevenue)
+                .revenueByPaymentMethod(revenueByPaymentMethod)
+                .build();
+    }
+
+    /**
+     * Adds a (possibly negative) delta to one rollup row, creating it if
+     * needed. Runs on the caller's connection so it commits or rolls back
+     * with the order change that caused it.
+     */
+    void apply(Long restaurantId, long branchId, LocalDate revenueDate, String paymentMethod,
+            long orderCount, double amount) {
+        Date date = Date.valueOf(revenueDate);
+        if (isPostgres()) {
+            jdbcTemplate.update(UPSERT_POSTGRES_SQL, restaurantId, branchId, date, paymentMethod, orderCount, amount);
+            return;
+        }
+        int updated = jdbcTemplate.update(UPDATE_SQL, orderCount, amount, restaurantId, branchId, date, paymentMethod);
+        if (updated == 0) {
+            jdbcTemplate.update(INSERT_SQL, restaurantId, branchId, date, paymentMethod, orderCount, amount);
+        }
+    }
+
+    /**
+     * Recomputes the whole table from the orders table in one transaction.
+     *
+     * @return the number of rollup rows written
+     */
+    @Scheduled(cron = "${app.analytics.revenue-rollup.rebuild-cron:0 30 3 * * *}")
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM revenue_rollups");
+            return jdbcTemplate.update(REBUILD_SQL);
+        });
+        log.info("Rebuilt revenue rollups: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (revenueRollupRepository.count() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill revenue rollups: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                    .equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    private double roundToTwoDecimals(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
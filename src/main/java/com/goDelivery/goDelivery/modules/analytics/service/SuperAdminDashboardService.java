@@ -6,7 +6,9 @@ import com.goDelivery.goDelivery.modules.analytics.dto.SuperAdminDashboard;
 import com.goDelivery.goDelivery.modules.analytics.dto.SuperAdminDashboard.*;
 import com.goDelivery.goDelivery.modules.customer.repository.CustomerRepository;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
+import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusHistogram;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
+import com.goDelivery.goDelivery.modules.ordering.service.OrderStatisticsService;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -32,6 +34,7 @@ public class SuperAdminDashboardService {
     private final CustomerRepository customerRepository;
     private final BikersRepository bikersRepository;
     private final OrderRepository orderRepository;
+    private final OrderStatisticsService orderStatisticsService;
 
     public SuperAdminDashboard getSuperAdminDashboard(Integer year, Integer month, Integer week) {
         log.info("Generating super admin dashboard year={} month={} week={}", year, month, week);
@@ -116,10 +119,11 @@ public class SuperAdminDashboardService {
         LocalDateTime start = startDate.atStartOfDay();
         LocalDateTime end = endDate.atTime(LocalTime.MAX);
 
-        Long total = orZero(orderRepository.countOrdersByDateRange(start, end));
-        Long completed = orZero(orderRepository.countOrdersByStatusAndDateRange(OrderStatus.DELIVERED, start, end));
-        Long cancelled = orZero(orderRepository.countOrdersByStatusAndDateRange(OrderStatus.CANCELLED, start, end));
-        Long pending = orZero(orderRepository.countOrdersByStatusAndDateRange(OrderStatus.PLACED, start, end));
+        OrderStatusHistogram histogram = orderStatisticsService.forPlatform(start, end);
+        Long total = histogram.getTotalOrders();
+        Long completed = histogram.count(OrderStatus.DELIVERED);
+        Long cancelled = histogram.count(OrderStatus.CANCELLED);
+        Long pending = histogram.count(OrderStatus.PLACED);
 
         BigDecimal completionRate = total > 0
                 ? BigDecimal.valueOf(completed * 100.0 / total).setScale(2, RoundingMode.HALF_UP)
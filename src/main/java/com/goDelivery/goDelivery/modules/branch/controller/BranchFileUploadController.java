@@ -2,10 +2,14 @@ package com.goDelivery.goDelivery.modules.branch.controller;
 
 import com.goDelivery.goDelivery.modules.branch.dto.FileUploadResponse;
 import com.goDelivery.goDelivery.modules.branch.service.BranchMenuUploadService;
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuUploadJob;
+import com.goDelivery.goDelivery.modules.restaurant.service.MenuUploadJobService;
+import com.goDelivery.goDelivery.shared.enums.MenuUploadJobStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,10 +24,11 @@ import org.springframework.web.multipart.MultipartFile;
 public class BranchFileUploadController {
 
     private final BranchMenuUploadService branchMenuUploadService;
+    private final MenuUploadJobService menuUploadJobService;
 
     @PostMapping("/{branchId}/menu-upload")
     @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'BRANCH_MANAGER')")
-    @Operation(summary = "Upload branch menu", description = "Upload menu file (PDF, Excel, or Image) for branch. The file will be processed using OCR to extract menu items.")
+    @Operation(summary = "Upload branch menu", description = "Upload menu file (PDF, Excel, or Image) for branch. The file is processed in the background using OCR to extract menu items; poll the returned job for the result.")
     public ResponseEntity<FileUploadResponse> uploadBranchMenu(
             @PathVariable Long branchId,
             @RequestParam("file") MultipartFile file) {
@@ -52,12 +57,48 @@ public class BranchFileUploadController {
         FileUploadResponse response = branchMenuUploadService.processBranchMenuUpload(file, branchId);
 
         if (response.isSuccess()) {
-            log.info("Menu upload processed successfully for branch {}: {} items extracted",
-                    branchId, response.getMenuItems().size());
-        } else {
-            log.error("Menu upload failed for branch {}: {}", branchId, response.getMessage());
+            log.info("Menu upload queued for branch {} as job {}", branchId, response.getJobId());
+            return ResponseEntity.accepted().body(response);
         }
 
+        log.error("Menu upload failed for branch {}: {}", branchId, response.getMessage());
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/{branchId}/menu-upload/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'BRANCH_MANAGER')")
+    @Operation(summary = "Get branch menu upload status", description = "Poll a menu upload job until it is COMPLETED or FAILED. Completed jobs carry the extracted menu items.")
+    public ResponseEntity<MenuUploadJob> getBranchMenuUploadJob(
+            @PathVariable Long branchId,
+            @PathVariable String jobId) {
+
+        return menuUploadJobService.find(jobId)
+                .filter(job -> "BRANCH".equals(job.getOwnerType()) && branchId.equals(job.getOwnerId()))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{branchId}/menu-upload/jobs/{jobId}/retry")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'BRANCH_MANAGER')")
+    @Operation(summary = "Retry branch menu upload", description = "Queue a FAILED menu upload job again. Items saved by the failed attempt are not duplicated.")
+    public ResponseEntity<MenuUploadJob> retryBranchMenuUploadJob(
+            @PathVariable Long branchId,
+            @PathVariable String jobId) {
+
+        boolean owned = menuUploadJobService.find(jobId)
+                .filter(job -> "BRANCH".equals(job.getOwnerType()) && branchId.equals(job.getOwnerId()))
+                .isPresent();
+        if (!owned) {
+            return ResponseEntity.notFound().build();
+        }
+
+        MenuUploadJob job = menuUploadJobService.retry(jobId).orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != MenuUploadJobStatus.QUEUED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+        }
+        return ResponseEntity.accepted().body(job);
+    }
 }
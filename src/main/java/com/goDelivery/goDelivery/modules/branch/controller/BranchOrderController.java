@@ -2,11 +2,13 @@ package com.goDelivery.goDelivery.modules.branch.controller;
 
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderRequest;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderResponse;
+import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusHistogram;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusUpdate;
 import com.goDelivery.goDelivery.modules.payment.dto.PaymentResponse;
 import com.goDelivery.goDelivery.modules.branch.service.BranchDelegationService;
 import com.goDelivery.goDelivery.modules.ordering.service.OrderService;
 import com.goDelivery.goDelivery.modules.payment.service.PaymentService;
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -275,14 +277,12 @@ public class BranchOrderController {
 
         log.info("Fetching stats for branch {} by user {}", branchId, userDetails.getUsername());
 
-        Long totalOrders = orderService.getTotalOrdersByBranch(branchId);
-        List<OrderResponse> orders = orderService.getOrdersByBranch(branchId);
-
-        long completedOrders = orders.stream().filter(o -> "DELIVERED".equals(o.getOrderStatus().name())).count();
-        long cancelledOrders = orders.stream().filter(o -> "CANCELLED".equals(o.getOrderStatus().name())).count();
-        long pendingOrders = orders.stream().filter(o -> "PLACED".equals(o.getOrderStatus().name())).count();
+        OrderStatusHistogram histogram = orderService.getBranchOrderStatusHistogram(branchId);
 
-        BranchStats stats = new BranchStats(totalOrders, completedOrders, cancelledOrders, pendingOrders);
+        BranchStats stats = new BranchStats(histogram.getTotalOrders(),
+                histogram.count(OrderStatus.DELIVERED),
+                histogram.count(OrderStatus.CANCELLED),
+                histogram.count(OrderStatus.PLACED));
 
         return ResponseEntity.ok(stats);
     }
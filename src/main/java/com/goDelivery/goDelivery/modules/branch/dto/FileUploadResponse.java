@@ -1,6 +1,7 @@
 package com.goDelivery.goDelivery.modules.branch.dto;
 
 import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
+import com.goDelivery.goDelivery.shared.enums.MenuUploadJobStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,4 +18,9 @@ public class FileUploadResponse {
     private String message;
     private String fileUrl;
     private List<MenuItemRequest> menuItems;
+    private String jobId; // Set when the file is processed in the background
+    private MenuUploadJobStatus status;
+    private Integer importedItems;
+    private Integer duplicateItems; // Already on the menu, e.g. saved by an earlier attempt
+    private Integer rejectedItems;
 }
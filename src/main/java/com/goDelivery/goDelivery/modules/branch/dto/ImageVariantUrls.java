@@ -0,0 +1,16 @@
+package com.goDelivery.goDelivery.modules.branch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantUrls {
+    private String thumbnail;
+    private String card;
+    private String full;
+}
@@ -2,6 +2,7 @@ package com.goDelivery.goDelivery.modules.branch.repository;
 
 import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,10 @@ public interface BranchMenuItemRepository extends JpaRepository<BranchMenuItem,
     List<BranchMenuItem> findByBranch_BranchIdAndIsAvailableTrue(Long branchId);
     List<BranchMenuItem> findByCategory_CategoryId(Long categoryId);
     List<BranchMenuItem> findByBranch_BranchIdAndCategory_CategoryId(Long branchId, Long categoryId);
+
+    // Search index rows: (menuItemId, name, description, ingredients, categoryName, restaurantId, branchId, isAvailable, price)
+    @Query("SELECT i.menuItemId, i.menuItemName, i.description, i.ingredients, c.categoryName, "
+            + "r.restaurantId, b.branchId, i.isAvailable, i.price "
+            + "FROM BranchMenuItem i LEFT JOIN i.category c LEFT JOIN i.branch b LEFT JOIN b.restaurant r")
+    List<Object[]> findSearchRows();
 }
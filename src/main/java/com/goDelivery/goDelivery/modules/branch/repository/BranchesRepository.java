@@ -7,14 +7,24 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.goDelivery.goDelivery.modules.branch.model.Branches;
 import com.goDelivery.goDelivery.shared.enums.ApprovalStatus;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface BranchesRepository extends JpaRepository<Branches, Long> {
     Optional<Branches> findByBranchId(Long branchId);
+
+    // Serializes menu provisioning of one branch across threads and instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Branches b WHERE b.branchId = :branchId")
+    Optional<Branches> findForUpdate(@Param("branchId") Long branchId);
     Optional<Branches> findByBranchName(String branchName);
     List<Branches> findByRestaurant_RestaurantId(Long restaurantId);
     List<Branches> findByRestaurant_RestaurantIdAndApprovalStatus(Long restaurantId, ApprovalStatus approvalStatus);
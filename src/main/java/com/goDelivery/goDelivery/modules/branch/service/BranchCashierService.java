@@ -8,6 +8,7 @@ import com.goDelivery.goDelivery.shared.exception.UnauthorizedException;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderMapper;
 import com.goDelivery.goDelivery.modules.ordering.service.OrderStatusUpdateService;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
+import com.goDelivery.goDelivery.modules.delivery.service.ActiveDeliveryRegistry;
 import com.goDelivery.goDelivery.modules.branch.model.BranchUsers;
 import com.goDelivery.goDelivery.modules.branch.model.Branches;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
@@ -34,6 +35,7 @@ public class BranchCashierService {
     private final BranchUsersRepository branchUsersRepository;
     private final OrderMapper orderMapper;
     private final OrderStatusUpdateService statusUpdateService;
+    private final ActiveDeliveryRegistry activeDeliveryRegistry;
 
     private Branches getAuthenticatedCashierBranch() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -118,7 +120,9 @@ public class BranchCashierService {
             default -> { }
         }
 
-        return orderMapper.toOrderResponse(orderRepository.save(order));
+        Order updatedOrder = orderRepository.save(order);
+        activeDeliveryRegistry.track(updatedOrder);
+        return orderMapper.toOrderResponse(updatedOrder);
     }
 
     @Transactional(readOnly = true)
@@ -145,7 +149,9 @@ public class BranchCashierService {
         order.setOrderStatus(OrderStatus.CONFIRMED);
         order.setOrderConfirmedAt(LocalDate.now());
 
-        return orderMapper.toOrderResponse(orderRepository.save(order));
+        Order updatedOrder = orderRepository.save(order);
+        activeDeliveryRegistry.track(updatedOrder);
+        return orderMapper.toOrderResponse(updatedOrder);
     }
 
     private Order getOrderForAuthenticatedBranch(Long orderId) {
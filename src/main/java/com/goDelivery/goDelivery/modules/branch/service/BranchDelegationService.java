@@ -50,7 +50,7 @@ public class BranchDelegationService {
     private final BranchMenuService branchMenuService;
     private final OrderMapper orderMapper;
     private final RestaurantMapper restaurantMapper;
-    private final FileStorageService fileStorageService;
+    private final ImageStorageService imageStorageService;
 
     // Menu Operations
     @Transactional(readOnly = true)
@@ -92,7 +92,7 @@ public class BranchDelegationService {
 
         String imageUrl = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            String filePath = fileStorageService.storeFile(imageFile, "menu-items/branches/" + branchId + "/images");
+            String filePath = imageStorageService.storeImage(imageFile, "menu-items/branches/" + branchId + "/images");
             imageUrl = "/api/files/" + filePath.replace("\\", "/");
         }
 
@@ -139,7 +139,7 @@ public class BranchDelegationService {
         if (menuItemRequest.getPreparationTime() != null)
             existingItem.setPreparationTime(menuItemRequest.getPreparationTime());
         if (imageFile != null && !imageFile.isEmpty()) {
-            String filePath = fileStorageService.storeFile(imageFile, "menu-items/branches/" + branchId + "/images");
+            String filePath = imageStorageService.storeImage(imageFile, "menu-items/branches/" + branchId + "/images");
             existingItem.setImage("/api/files/" + filePath.replace("\\", "/"));
         }
         existingItem.setUpdatedAt(LocalDate.now());
@@ -0,0 +1,118 @@
+package com.goDelivery.goDelivery.modules.branch.service;
+
+import com.goDelivery.goDelivery.modules.branch.model.BranchMenuCategory;
+import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItem;
+import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItemVariant;
+import com.goDelivery.goDelivery.modules.branch.model.Branches;
+import com.goDelivery.goDelivery.modules.branch.repository.BranchMenuCategoryRepository;
+import com.goDelivery.goDelivery.modules.branch.repository.BranchesRepository;
+import com.goDelivery.goDelivery.modules.restaurant.model.MenuCategory;
+import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
+import com.goDelivery.goDelivery.modules.restaurant.model.MenuItemVariant;
+import com.goDelivery.goDelivery.modules.restaurant.repository.MenuCategoryRepository;
+import com.goDelivery.goDelivery.modules.restaurant.repository.MenuItemRepository;
+import com.goDelivery.goDelivery.modules.restaurant.service.CatalogSearchIndex;
+import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copies a restaurant's menu to one of its branches in bulk.
+ *
+ * The source menu is read in two queries, categories with their items and
+ * items with their variants, as read-only entities. The copy is persisted
+ * with a single cascading saveAll: ids come from the pooled entity
+ * sequences, which hand out a block of ids per round trip, and the inserts
+ * go out in JDBC batches of {@code hibernate.jdbc.batch_size}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BranchMenuCloner {
+
+    private final BranchesRepository branchesRepository;
+    private final BranchMenuCategoryRepository branchMenuCategoryRepository;
+    private final MenuCategoryRepository menuCategoryRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CatalogSearchIndex catalogSearchIndex;
+
+    /**
+     * Copies the restaurant menu to the branch unless the branch already has
+     * a menu. The branch row is locked for the copy, so concurrent calls for
+     * the same branch copy it once.
+     *
+     * @return the copied categories, or empty if the branch already had a menu
+     */
+    @Transactional
+    public Optional<List<BranchMenuCategory>> cloneIfEmpty(Long branchId) {
+        Branches branch = branchesRepository.findForUpdate(branchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Branch not found"));
+
+        if (branchMenuCategoryRepository.countByBranch_BranchId(branchId) > 0) {
+            return Optional.empty();
+        }
+
+        long start = System.currentTimeMillis();
+        Long restaurantId = branch.getRestaurant().getRestaurantId();
+        List<MenuCategory> restaurantCategories = menuCategoryRepository.findWithItemsByRestaurantId(restaurantId);
+        // Initializes the variants of the items loaded above
+        menuItemRepository.findWithVariantsByRestaurantId(restaurantId);
+
+        LocalDate today = LocalDate.now();
+        List<BranchMenuCategory> branchCategories = new ArrayList<>(restaurantCategories.size());
+        int itemCount = 0;
+        for (MenuCategory restaurantCategory : restaurantCategories) {
+            BranchMenuCategory branchCategory = BranchMenuCategory.builder()
+                    .categoryName(restaurantCategory.getCategoryName())
+                    .isActive(restaurantCategory.getIsActive())
+                    .branch(branch)
+                    .createdAt(today)
+                    .build();
+
+            for (MenuItem restaurantItem : restaurantCategory.getMenuItems()) {
+                BranchMenuItem branchItem = BranchMenuItem.builder()
+                        .menuItemName(restaurantItem.getMenuItemName())
+                        .description(restaurantItem.getDescription())
+                        .price(restaurantItem.getPrice())
+                        .image(restaurantItem.getImage())
+                        .ingredients(restaurantItem.getIngredients())
+                        .isAvailable(restaurantItem.isAvailable())
+                        .preparationTime(restaurantItem.getPreparationTime())
+                        .preparationScore(restaurantItem.getPreparationScore())
+                        .sourceRestaurantItemId(restaurantItem.getMenuItemId())
+                        .branch(branch)
+                        .category(branchCategory)
+                        .createdAt(today)
+                        .updatedAt(today)
+                        .build();
+
+                for (MenuItemVariant restaurantVariant : restaurantItem.getVariants()) {
+                    branchItem.getVariants().add(BranchMenuItemVariant.builder()
+                            .variantName(restaurantVariant.getVariantName())
+                            .priceModifier(restaurantVariant.getPriceModifier())
+                            .menuItem(branchItem)
+                            .build());
+                }
+                branchCategory.getMenuItems().add(branchItem);
+                itemCount++;
+            }
+            branchCategories.add(branchCategory);
+        }
+
+        // Items and variants are cascaded from their categories
+        branchMenuCategoryRepository.saveAll(branchCategories);
+        branchMenuCategoryRepository.flush();
+        branchCategories.forEach(category -> category.getMenuItems().forEach(catalogSearchIndex::indexBranchMenuItem));
+
+        log.info("Copied {} categories and {} items to branch {} in {} ms", branchCategories.size(), itemCount,
+                branchId, System.currentTimeMillis() - start);
+        return Optional.of(branchCategories);
+    }
+}
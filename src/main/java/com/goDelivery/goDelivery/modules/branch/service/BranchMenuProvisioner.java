@@ -0,0 +1,105 @@
+package com.goDelivery.goDelivery.modules.branch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Copies the restaurant menu to new branches in the background.
+ *
+ * A branch is provisioned as soon as it is created, and again from a read
+ * of a branch that still has no menu, so customer reads do not wait for
+ * the copy. Menu changes that need the copied menu first wait for a copy
+ * already in progress and otherwise make it themselves.
+ */
+@Slf4j
+@Component
+public class BranchMenuProvisioner {
+
+    private final BranchMenuCloner branchMenuCloner;
+    private final Executor branchProvisioningExecutor;
+    private final Map<Long, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public BranchMenuProvisioner(BranchMenuCloner branchMenuCloner,
+            @Qualifier("branchProvisioningExecutor") Executor branchProvisioningExecutor) {
+        this.branchMenuCloner = branchMenuCloner;
+        this.branchProvisioningExecutor = branchProvisioningExecutor;
+    }
+
+    /**
+     * Provisions the branch once the current transaction commits, so the job
+     * sees the new branch row.
+     */
+    public void provisionAfterCommit(Long branchId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    provisionAsync(branchId);
+                }
+            });
+        } else {
+            provisionAsync(branchId);
+        }
+    }
+
+    /**
+     * Starts copying the restaurant menu to the branch unless a copy is
+     * already running.
+     */
+    public void provisionAsync(Long branchId) {
+        CompletableFuture<Void> job = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(branchId, job) != null) {
+            return;
+        }
+        try {
+            branchProvisioningExecutor.execute(() -> {
+                try {
+                    provision(branchId);
+                } finally {
+                    finish(branchId, job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Provisioning is busy; the next read of the branch tries again
+            log.warn("Menu provisioning queue is full, branch {} not queued", branchId);
+            finish(branchId, job);
+        }
+    }
+
+    /**
+     * Makes sure the branch has its copied menu before it is changed. Waits
+     * for a copy in progress, then copies in the caller's transaction if the
+     * branch still has no menu.
+     */
+    public void ensureProvisioned(Long branchId) {
+        CompletableFuture<Void> job = inFlight.get(branchId);
+        if (job != null) {
+            job.join();
+        }
+        branchMenuCloner.cloneIfEmpty(branchId);
+    }
+
+    private void provision(Long branchId) {
+        try {
+            if (branchMenuCloner.cloneIfEmpty(branchId).isEmpty()) {
+                log.debug("Branch {} already has a menu", branchId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to provision menu for branch {}: {}", branchId, e.getMessage(), e);
+        }
+    }
+
+    private void finish(Long branchId, CompletableFuture<Void> job) {
+        inFlight.remove(branchId, job);
+        job.complete(null);
+    }
+}
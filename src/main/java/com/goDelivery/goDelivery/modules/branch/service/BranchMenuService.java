@@ -14,15 +14,10 @@ import com.goDelivery.goDelivery.shared.exception.ValidationException;
 import com.goDelivery.goDelivery.modules.branch.model.Branches;
 import com.goDelivery.goDelivery.modules.branch.model.BranchMenuCategory;
 import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItem;
-import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItemVariant;
-import com.goDelivery.goDelivery.modules.restaurant.model.MenuCategory;
-import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
-import com.goDelivery.goDelivery.modules.restaurant.model.MenuItemVariant;
-import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchesRepository;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchMenuCategoryRepository;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchMenuItemRepository;
-import com.goDelivery.goDelivery.modules.restaurant.repository.MenuCategoryRepository;
+import com.goDelivery.goDelivery.modules.restaurant.service.CatalogSearchIndex;
 import com.goDelivery.goDelivery.modules.restaurant.service.MenuAuditService;
 import com.goDelivery.goDelivery.modules.restaurant.service.MenuRealtimeService;
 
@@ -33,14 +28,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -50,95 +39,32 @@ public class BranchMenuService {
 
     private final BranchMenuCategoryRepository branchMenuCategoryRepository;
     private final BranchMenuItemRepository branchMenuItemRepository;
-    private final MenuCategoryRepository menuCategoryRepository;
     private final BranchesRepository branchesRepository;
     private final BranchSecurityService branchSecurityService;
     private final MenuAuditService menuAuditService;
     private final MenuRealtimeService menuRealtimeService;
-
-    private static final String UPLOAD_DIR = "uploads/branch-menu/";
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final ImageStorageService imageStorageService;
+    private final BranchMenuCloner branchMenuCloner;
+    private final BranchMenuProvisioner branchMenuProvisioner;
 
     // ── Inheritance ───────────────────────────────────────────────────────────
 
     @Transactional
     public List<BranchMenuCategory> inheritRestaurantMenu(Long branchId) {
         log.info("Starting menu inheritance for branch: {}", branchId);
-
-        Branches branch = branchesRepository.findById(branchId)
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found"));
-
-        Restaurant restaurant = branch.getRestaurant();
-
-        long existingMenuCount = branchMenuCategoryRepository.countByBranch_BranchId(branchId);
-        if (existingMenuCount > 0) {
-            throw new ValidationException("Branch already has menu items. Cannot inherit from restaurant.");
-        }
-
-        List<MenuCategory> restaurantCategories = menuCategoryRepository
-                .findByRestaurantId(restaurant.getRestaurantId());
-
-        List<BranchMenuCategory> inheritedCategories = new ArrayList<>();
-
-        for (MenuCategory restaurantCategory : restaurantCategories) {
-            BranchMenuCategory branchCategory = BranchMenuCategory.builder()
-                    .categoryName(restaurantCategory.getCategoryName())
-                    .isActive(restaurantCategory.getIsActive())
-                    .branch(branch)
-                    .createdAt(LocalDate.now())
-                    .build();
-
-            branchCategory = branchMenuCategoryRepository.save(branchCategory);
-
-            List<BranchMenuItem> branchItems = new ArrayList<>();
-            for (MenuItem restaurantItem : restaurantCategory.getMenuItems()) {
-                BranchMenuItem branchItem = BranchMenuItem.builder()
-                        .menuItemName(restaurantItem.getMenuItemName())
-                        .description(restaurantItem.getDescription())
-                        .price(restaurantItem.getPrice())
-                        .image(restaurantItem.getImage())
-                        .ingredients(restaurantItem.getIngredients())
-                        .isAvailable(restaurantItem.isAvailable())
-                        .preparationTime(restaurantItem.getPreparationTime())
-                        .preparationScore(restaurantItem.getPreparationScore())
-                        .sourceRestaurantItemId(restaurantItem.getMenuItemId())
-                        .branch(branch)
-                        .category(branchCategory)
-                        .createdAt(LocalDate.now())
-                        .updatedAt(LocalDate.now())
-                        .build();
-
-                for (MenuItemVariant restaurantVariant : restaurantItem.getVariants()) {
-                    BranchMenuItemVariant branchVariant = BranchMenuItemVariant.builder()
-                            .variantName(restaurantVariant.getVariantName())
-                            .priceModifier(restaurantVariant.getPriceModifier())
-                            .menuItem(branchItem)
-                            .build();
-                    branchItem.getVariants().add(branchVariant);
-                }
-
-                branchItems.add(branchItem);
-            }
-
-            branchMenuItemRepository.saveAll(branchItems);
-            branchCategory.setMenuItems(branchItems);
-            inheritedCategories.add(branchCategory);
-        }
-
-        log.info("Successfully inherited {} categories and {} items for branch: {}",
-                inheritedCategories.size(),
-                inheritedCategories.stream().mapToInt(c -> c.getMenuItems().size()).sum(),
-                branchId);
-
-        return inheritedCategories;
+        return branchMenuCloner.cloneIfEmpty(branchId)
+                .orElseThrow(() -> new ValidationException(
+                        "Branch already has menu items. Cannot inherit from restaurant."));
     }
 
     // ── Full menu views ───────────────────────────────────────────────────────
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<BranchMenuCategory> getBranchMenu(Long branchId) {
         if (branchMenuCategoryRepository.countByBranch_BranchId(branchId) == 0) {
-            log.info("Branch {} has no menu, inheriting from restaurant", branchId);
-            inheritRestaurantMenu(branchId);
+            log.info("Branch {} has no menu, provisioning it from the restaurant", branchId);
+            branchMenuProvisioner.provisionAsync(branchId);
         }
         return branchMenuCategoryRepository.findByBranch_BranchId(branchId);
     }
@@ -147,8 +73,8 @@ public class BranchMenuService {
     public MenuProgressiveResponseDTO getMenuProgressive(Long branchId, int page, int size, String categoryName) {
         long existingMenuCount = branchMenuCategoryRepository.countByBranch_BranchId(branchId);
         if (existingMenuCount == 0) {
-            log.info("Branch {} has no menu, inheriting from restaurant first", branchId);
-            inheritRestaurantMenu(branchId);
+            log.info("Branch {} has no menu, provisioning it from the restaurant", branchId);
+            branchMenuProvisioner.provisionAsync(branchId);
         }
 
         List<BranchMenuCategory> categories;
@@ -180,14 +106,14 @@ public class BranchMenuService {
 
     // ── Categories ────────────────────────────────────────────────────────────
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<MenuCategoryDTO> getBranchMenuCategories(Long branchId) {
         branchesRepository.findById(branchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Branch not found"));
 
         if (branchMenuCategoryRepository.countByBranch_BranchId(branchId) == 0) {
-            log.info("Branch {} has no categories, inheriting from restaurant", branchId);
-            inheritRestaurantMenu(branchId);
+            log.info("Branch {} has no categories, provisioning them from the restaurant", branchId);
+            branchMenuProvisioner.provisionAsync(branchId);
         }
 
         return branchMenuCategoryRepository.findByBranch_BranchId(branchId).stream()
@@ -216,7 +142,7 @@ public class BranchMenuService {
         long existingMenuCount = branchMenuCategoryRepository.countByBranch_BranchId(branchId);
         if (existingMenuCount == 0) {
             log.info("Branch {} has no menu, inheriting from restaurant first", branchId);
-            inheritRestaurantMenu(branchId);
+            branchMenuProvisioner.ensureProvisioned(branchId);
         }
 
         BranchMenuCategory category = BranchMenuCategory.builder()
@@ -279,11 +205,11 @@ public class BranchMenuService {
 
     // ── Menu items ────────────────────────────────────────────────────────────
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<MenuItemResponse> getBranchMenuItems(Long branchId, Long categoryId) {
         if (branchMenuCategoryRepository.countByBranch_BranchId(branchId) == 0) {
-            log.info("Branch {} has no menu, inheriting from restaurant", branchId);
-            inheritRestaurantMenu(branchId);
+            log.info("Branch {} has no menu, provisioning it from the restaurant", branchId);
+            branchMenuProvisioner.provisionAsync(branchId);
         }
 
         BranchMenuCategory category = branchMenuCategoryRepository.findById(categoryId)
@@ -331,6 +257,7 @@ public class BranchMenuService {
                 .build();
 
         BranchMenuItem saved = branchMenuItemRepository.save(menuItem);
+        catalogSearchIndex.indexBranchMenuItem(saved);
         log.info("Created branch menu item '{}' for category {} in branch {}",
                 menuItemRequest.getMenuItemName(), categoryId, branchId);
 
@@ -386,6 +313,7 @@ public class BranchMenuService {
 
         menuItem.setUpdatedAt(LocalDate.now());
         BranchMenuItem saved = branchMenuItemRepository.save(menuItem);
+        catalogSearchIndex.indexBranchMenuItem(saved);
 
         menuRealtimeService.broadcastBranchMenuItemUpdate(branchId, saved, getCurrentUserEmail());
 
@@ -435,6 +363,7 @@ public class BranchMenuService {
 
         menuItem.setUpdatedAt(LocalDate.now());
         BranchMenuItem saved = branchMenuItemRepository.save(menuItem);
+        catalogSearchIndex.indexBranchMenuItem(saved);
 
         if (fieldName != null && oldValue != null && newValue != null) {
             menuAuditService.logMenuItemUpdate(menuItemId, branchId, fieldName,
@@ -457,6 +386,7 @@ public class BranchMenuService {
 
         menuAuditService.logMenuItemDelete(menuItemId, branchId, menuItem.getMenuItemName(), request);
         branchMenuItemRepository.delete(menuItem);
+        catalogSearchIndex.removeBranchMenuItem(menuItemId);
         menuRealtimeService.broadcastMenuItemRemoved(branchId, menuItemId, getCurrentUserEmail());
     }
 
@@ -469,15 +399,8 @@ public class BranchMenuService {
     }
 
     private String uploadImage(MultipartFile file) {
-        try {
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path uploadPath = Paths.get(UPLOAD_DIR + fileName);
-            Files.createDirectories(uploadPath.getParent());
-            Files.copy(file.getInputStream(), uploadPath);
-            return "/" + uploadPath.toString().replace("\\", "/");
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload image", e);
-        }
+        String filePath = imageStorageService.storeImage(file, "branch-menu");
+        return "/api/files/" + filePath.replace("\\", "/");
     }
 
     public MenuItemResponse toMenuItemResponse(BranchMenuItem item) {
@@ -487,6 +410,7 @@ public class BranchMenuService {
                 .description(item.getDescription())
                 .price(item.getPrice())
                 .image(item.getImage())
+                .imageVariants(ImageStorageService.variantsOf(item.getImage()))
                 .ingredients(item.getIngredients())
                 .isAvailable(item.isAvailable())
                 .preparationTime(item.getPreparationTime())
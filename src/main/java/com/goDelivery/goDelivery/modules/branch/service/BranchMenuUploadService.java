@@ -1,39 +1,26 @@
 package com.goDelivery.goDelivery.modules.branch.service;
 
-import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuUploadJob;
 import com.goDelivery.goDelivery.modules.branch.dto.FileUploadResponse;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
 import com.goDelivery.goDelivery.modules.branch.model.Branches;
 import com.goDelivery.goDelivery.modules.restaurant.model.MenuCategory;
-import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
 import com.goDelivery.goDelivery.modules.branch.model.BranchUsers;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchesRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.MenuCategoryRepository;
-import com.goDelivery.goDelivery.modules.restaurant.repository.MenuItemRepository;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchUsersRepository;
+import com.goDelivery.goDelivery.modules.restaurant.service.MenuFileParser;
+import com.goDelivery.goDelivery.modules.restaurant.service.MenuImportPipeline;
+import com.goDelivery.goDelivery.modules.restaurant.service.MenuUploadJobService;
+import com.goDelivery.goDelivery.shared.ocr.OcrEnginePool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -42,13 +29,19 @@ public class BranchMenuUploadService {
     private final FileStorageService fileStorageService;
     private final BranchesRepository branchesRepository;
     private final MenuCategoryRepository menuCategoryRepository;
-    private final MenuItemRepository menuItemRepository;
     private final BranchUsersRepository branchUsersRepository;
-    private final Tesseract tesseract;
-
-    @Value("${tess4j.data-path:./tessdata}")
-    private String tessDataPath;
-
+    private final OcrEnginePool ocrEnginePool;
+    private final MenuUploadJobService menuUploadJobService;
+    private final MenuFileParser menuFileParser;
+    private final MenuImportPipeline menuImportPipeline;
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png");
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("pdf", "xlsx", "xls", "jpg", "jpeg", "png");
+
+    /**
+     * Stores the file and queues it for extraction; poll the returned job id
+     * for the extracted items.
+     */
     public FileUploadResponse processBranchMenuUpload(MultipartFile file, Long branchId) {
         try {
             // Validate branch exists
@@ -60,105 +53,83 @@ public class BranchMenuUploadService {
                 throw new IllegalStateException("Branch must be associated with a restaurant to upload menu");
             }
 
-            // Get or create default category for the branch
-            MenuCategory defaultCategory = menuCategoryRepository.findByBranch_BranchId(branchId)
-                    .stream()
-                    .findFirst()
-                    .orElseGet(() -> createDefaultCategory(branch));
+            String fileExtension = getFileExtension(file.getOriginalFilename()).toLowerCase();
+            if (!SUPPORTED_EXTENSIONS.contains(fileExtension)) {
+                throw new UnsupportedOperationException("Unsupported file format: " + fileExtension);
+            }
+            if (IMAGE_EXTENSIONS.contains(fileExtension) && !ocrEnginePool.isAvailable()) {
+                throw new IllegalStateException("OCR service is not available. Please upload PDF or Excel files instead.");
+            }
 
-            String fileExtension = getFileExtension(file.getOriginalFilename());
-            List<MenuItemRequest> menuItems = new ArrayList<>();
+            // Save the file; the background job reads it from storage
+            String fileUrl = fileStorageService.storeFile(file, "branches/" + branchId + "/menu-uploads");
 
-            switch (fileExtension.toLowerCase()) {
-                case "pdf":
-                    menuItems = processPdfFile(file.getInputStream(), defaultCategory.getCategoryId());
-                    break;
-                case "xlsx":
-                case "xls":
-                    menuItems = processExcelFile(file.getInputStream(), defaultCategory.getCategoryId());
-                    break;
-                case "jpg":
-                case "jpeg":
-                case "png":
-                    menuItems = processImageFile(file, defaultCategory.getCategoryId());
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Unsupported file format: " + fileExtension);
-            }
+            MenuUploadJob job = menuUploadJobService.submit("BRANCH", branchId, file.getOriginalFilename(),
+                    jobId -> importMenu(jobId, branchId, fileUrl, fileExtension));
 
-            // Save menu items using the BranchMenuService
-            List<MenuItem> savedItems = new ArrayList<>();
+            return FileUploadResponse.builder()
+                    .success(true)
+                    .message("File received. Menu items are being extracted.")
+                    .fileUrl(fileUrl)
+                    .jobId(job.getJobId())
+                    .status(job.getStatus())
+                    .build();
 
-            for (MenuItemRequest itemRequest : menuItems) {
-                // Set the category ID and branch context
-                itemRequest.setCategoryId(defaultCategory.getCategoryId());
+        } catch (Exception e) {
+            log.error("Error processing menu upload for branch {}: {}", branchId, e.getMessage(), e);
+            return FileUploadResponse.builder()
+                    .success(false)
+                    .message("Error processing file: " + e.getMessage())
+                    .build();
+        }
+    }
 
-                // Create menu item using the service (handles image upload if needed)
-                try {
-                    // Create a temporary MenuItemRequest without image for batch processing
-                    MenuItemRequest tempRequest = MenuItemRequest.builder()
-                            .menuItemName(itemRequest.getMenuItemName())
-                            .description(itemRequest.getDescription() != null ? itemRequest.getDescription() : "")
-                            .price(itemRequest.getPrice() != null ? itemRequest.getPrice() : 0.0f)
-                            .ingredients(itemRequest.getIngredients() != null ? itemRequest.getIngredients() : "")
-                            .preparationTime(
-                                    itemRequest.getPreparationTime() != null ? itemRequest.getPreparationTime() : 15)
-                            .isAvailable(itemRequest.isAvailable())
-                            .categoryId(defaultCategory.getCategoryId())
-                            .build();
+    private FileUploadResponse importMenu(String jobId, Long branchId, String storedFile, String fileExtension) {
+        try {
+            Branches branch = branchesRepository.findByBranchId(branchId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + branchId));
 
-                    // Use the service to create the menu item
-                    MenuItem savedItem = createMenuItemFromRequest(tempRequest, defaultCategory, branch);
-                    savedItems.add(savedItem);
-                } catch (Exception e) {
-                    log.error("Error saving menu item {}: {}", itemRequest.getMenuItemName(), e.getMessage());
-                }
-            }
+            // Get or create default category for the branch
+            MenuCategory defaultCategory = menuCategoryRepository.findByBranch_BranchId(branchId)
+                    .stream()
+                    .findFirst()
+                    .orElseGet(() -> createDefaultCategory(branch));
 
-            // Save the file
-            String fileUrl = fileStorageService.storeFile(file, "branches/" + branchId + "/menu-uploads");
+            // Rows are validated and saved in batches while the file is still being parsed
+            menuUploadJobService.reportProgress(jobId, "Reading file", 0, null);
+            MenuImportPipeline.Session session = menuImportPipeline.start(jobId, defaultCategory,
+                    branch.getRestaurant(), branch);
+            menuFileParser.parse(fileStorageService.resolve(storedFile), fileExtension,
+                    defaultCategory.getCategoryId(), null, session);
+            MenuImportPipeline.Result imported = session.finish();
 
             // Mark branch setup as complete after successful menu upload
             markBranchSetupComplete(branchId);
 
-            log.info("Successfully processed menu upload for branch {}: {} items saved", branchId, savedItems.size());
+            log.info("Successfully processed menu upload for branch {}: {} items saved", branchId,
+                    imported.getImported());
 
             return FileUploadResponse.builder()
                     .success(true)
-                    .message("File processed successfully. " + savedItems.size()
+                    .message("File processed successfully. " + imported.getImported()
                             + " items saved to branch menu. Branch setup is now complete!")
-                    .menuItems(menuItems)
-                    .fileUrl(fileUrl)
+                    .menuItems(imported.getAccepted())
+                    .fileUrl(storedFile)
+                    .importedItems(imported.getImported())
+                    .duplicateItems(imported.getDuplicates())
+                    .rejectedItems(imported.getRejected())
                     .build();
 
         } catch (Exception e) {
-            log.error("Error processing menu upload for branch {}: {}", branchId, e.getMessage(), e);
+            log.error("Error importing menu for branch {}: {}", branchId, e.getMessage(), e);
             return FileUploadResponse.builder()
                     .success(false)
                     .message("Error processing file: " + e.getMessage())
+                    .fileUrl(storedFile)
                     .build();
         }
     }
 
-    private MenuItem createMenuItemFromRequest(MenuItemRequest request, MenuCategory category, Branches branch) {
-        MenuItem menuItem = MenuItem.builder()
-                .menuItemName(request.getMenuItemName())
-                .description(request.getDescription())
-                .price(request.getPrice())
-                .ingredients(request.getIngredients())
-                .preparationTime(request.getPreparationTime())
-                .preparationScore(5) // Default score
-                .createdAt(LocalDate.now())
-                .updatedAt(LocalDate.now())
-                .category(category)
-                .branch(branch)
-                .restaurant(branch.getRestaurant())
-                .isAvailable(request.isAvailable())
-                .build();
-
-        return menuItemRepository.save(menuItem);
-    }
-
     private MenuCategory createDefaultCategory(Branches branch) {
         MenuCategory category = MenuCategory.builder()
                 .categoryName("Branch Menu")
@@ -169,205 +140,6 @@ public class BranchMenuUploadService {
         return menuCategoryRepository.save(category);
     }
 
-    private List<MenuItemRequest> processPdfFile(InputStream inputStream, Long categoryId) throws IOException {
-        List<MenuItemRequest> items = new ArrayList<>();
-
-        byte[] pdfBytes = inputStream.readAllBytes();
-
-        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-            if (!document.isEncrypted()) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                String text = stripper.getText(document);
-
-                String[] lines = text.split("\\r?\\n");
-
-                Pattern pricePattern = Pattern.compile(
-                        "([$€£]?\\s*\\d+[.,]?\\d*\\.?\\d*\\s*[$€£]?|\\d+\\.?\\d*\\s*(?:USD|EGP|EUR|MZN|MT|£|€))");
-
-                for (String line : lines) {
-                    line = line.trim();
-                    if (line.isEmpty())
-                        continue;
-
-                    Matcher matcher = pricePattern.matcher(line);
-                    if (matcher.find()) {
-                        String priceMatch = matcher.group(1);
-                        String priceStr = priceMatch.replaceAll("[^\\d.,]", "")
-                                .replace(',', '.');
-
-                        String name = line.substring(0, matcher.start()).trim();
-
-                        try {
-                            float price = Float.parseFloat(priceStr);
-                            if (name.length() > 0 && price > 0) {
-                                items.add(MenuItemRequest.builder()
-                                        .menuItemName(name)
-                                        .price(price)
-                                        .isAvailable(true)
-                                        .preparationTime(15)
-                                        .categoryId(categoryId)
-                                        .build());
-                                log.info("Added menu item: {} - {}", name, price);
-                            }
-                        } catch (NumberFormatException e) {
-                            log.warn("Could not parse price from '{}' in line: {}", priceMatch, line);
-                        }
-                    }
-                }
-
-                if (items.isEmpty()) {
-                    log.warn("No menu items were extracted from the PDF");
-                }
-            }
-        }
-
-        return items;
-    }
-
-    private List<MenuItemRequest> processExcelFile(InputStream inputStream, Long categoryId) throws IOException {
-        List<MenuItemRequest> items = new ArrayList<>();
-        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
-
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row != null) {
-                    try {
-                        MenuItemRequest item = MenuItemRequest.builder()
-                                .menuItemName(getCellValue(row.getCell(0)))
-                                .description(getCellValue(row.getCell(1)))
-                                .price(parseFloatSafely(getCellValue(row.getCell(2)), "0"))
-                                .ingredients(getCellValue(row.getCell(3)))
-                                .preparationTime(parseIntSafely(getCellValue(row.getCell(4)), "15"))
-                                .isAvailable(true)
-                                .categoryId(categoryId)
-                                .build();
-                        items.add(item);
-                    } catch (Exception e) {
-                        log.error("Error processing row {}: {}", i, e.getMessage());
-                    }
-                }
-            }
-        }
-        return items;
-    }
-
-    private List<MenuItemRequest> processImageFile(MultipartFile file, Long categoryId)
-            throws IOException, TesseractException {
-        List<MenuItemRequest> items = new ArrayList<>();
-
-        Path tempFile = Files.createTempFile("img-", "." + getFileExtension(file.getOriginalFilename()));
-        try {
-            Files.copy(file.getInputStream(), tempFile, StandardCopyOption.REPLACE_EXISTING);
-
-            tesseract.setDatapath(tessDataPath);
-            tesseract.setPageSegMode(4);
-            tesseract.setVariable("preserve_interword_spaces", "1");
-
-            log.info("Starting OCR processing for branch menu...");
-            String result = tesseract.doOCR(tempFile.toFile());
-            log.debug("OCR Result:\n" + result);
-
-            String[] lines = result.split("\\r?\\n");
-
-            Pattern pricePattern = Pattern.compile(
-                    "([$€£]?\\s*\\d+[.,]?\\d*\\.?\\d*\\s*[$€£]?|\\d+[.,]?\\d*\\s*(?:USD|EGP|EUR|MZN|MT|£|€))");
-
-            for (String line : lines) {
-                line = line.trim();
-                if (line.isEmpty() || line.length() < 3)
-                    continue;
-
-                Matcher matcher = pricePattern.matcher(line);
-                if (matcher.find()) {
-                    String priceMatch = matcher.group(1);
-                    String priceStr = priceMatch.replaceAll("[^\\d.,]", "")
-                            .replace(',', '.');
-
-                    String name = line.substring(0, matcher.start()).trim();
-                    name = name.replaceAll("[^\\p{L}\\p{N}\\s]$", "").trim();
-
-                    if (name.length() < 2)
-                        continue;
-
-                    try {
-                        float price = Float.parseFloat(priceStr);
-                        if (price > 0) {
-                            items.add(MenuItemRequest.builder()
-                                    .menuItemName(name)
-                                    .price(price)
-                                    .isAvailable(true)
-                                    .preparationTime(15)
-                                    .categoryId(categoryId)
-                                    .build());
-                            log.info("Added menu item: {} - {}", name, price);
-                        }
-                    } catch (NumberFormatException e) {
-                        log.warn("Could not parse price from '{}' in line: {}", priceMatch, line);
-                    }
-                }
-            }
-
-        } finally {
-            Files.deleteIfExists(tempFile);
-        }
-
-        return items;
-    }
-
-    private String getCellValue(Cell cell) {
-        return getCellValue(cell, "");
-    }
-
-    private String getCellValue(Cell cell, String defaultValue) {
-        if (cell == null)
-            return defaultValue;
-
-        try {
-            switch (cell.getCellType()) {
-                case STRING:
-                    return cell.getStringCellValue().trim();
-                case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(cell)) {
-                        return cell.getDateCellValue().toString();
-                    } else {
-                        double num = cell.getNumericCellValue();
-                        if (num == (int) num) {
-                            return String.valueOf((int) num);
-                        }
-                        return String.valueOf(num);
-                    }
-                case BOOLEAN:
-                    return String.valueOf(cell.getBooleanCellValue());
-                case FORMULA:
-                    return cell.getCellFormula();
-                default:
-                    return defaultValue;
-            }
-        } catch (Exception e) {
-            log.warn("Error getting cell value: {}", e.getMessage());
-            return defaultValue;
-        }
-    }
-
-    private float parseFloatSafely(String value, String defaultValue) {
-        try {
-            return Float.parseFloat(value);
-        } catch (NumberFormatException e) {
-            log.warn("Could not parse float from: {}, using default: {}", value, defaultValue);
-            return Float.parseFloat(defaultValue);
-        }
-    }
-
-    private int parseIntSafely(String value, String defaultValue) {
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            log.warn("Could not parse int from: {}, using default: {}", value, defaultValue);
-            return Integer.parseInt(defaultValue);
-        }
-    }
-
     private String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "";
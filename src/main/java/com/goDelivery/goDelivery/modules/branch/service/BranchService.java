@@ -53,6 +53,7 @@ public class BranchService {
     private final BranchUsersRepository branchUsersRepository;
     private final RestaurantUsersRepository restaurantUsersRepository;
     private final PasswordEncoder passwordEncoder;
+    private final BranchMenuProvisioner branchMenuProvisioner;
 
     private final String UPLOAD_DIR = "uploads/branches/";
 
@@ -85,6 +86,7 @@ public class BranchService {
         branch.setIsActive(true); // New branches are active by default
 
         Branches savedBranch = branchesRepository.save(branch);
+        branchMenuProvisioner.provisionAfterCommit(savedBranch.getBranchId());
         log.info("Created new branch '{}' for restaurant '{}' by user '{}'",
                 branch.getBranchName(), restaurant.getRestaurantName(), currentUser.getEmail());
 
@@ -201,6 +203,7 @@ public class BranchService {
 
         // Save branch
         Branches savedBranch = branchesRepository.save(branch);
+        branchMenuProvisioner.provisionAfterCommit(savedBranch.getBranchId());
 
         // Create branch manager
         createBranchManager(savedBranch, creationDTO, autoApprove);
@@ -7,6 +7,7 @@ import com.goDelivery.goDelivery.modules.ordering.model.Order;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderMapper;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
+import com.goDelivery.goDelivery.modules.delivery.service.ActiveDeliveryRegistry;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.modules.ordering.service.OrderStatusUpdateService;
@@ -29,6 +30,7 @@ public class CashierService {
     private final BikersRepository bikersRepository;
     private final OrderMapper orderMapper;
     private final OrderStatusUpdateService statusUpdateService;
+    private final ActiveDeliveryRegistry activeDeliveryRegistry;
 
     @Transactional
     public OrderResponse acceptOrder(Long orderId, Integer estimatedPrepTimeMinutes) {
@@ -143,6 +145,7 @@ public class CashierService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        activeDeliveryRegistry.track(updatedOrder);
         return orderMapper.toOrderResponse(updatedOrder);
     }
 
@@ -172,6 +175,7 @@ public class CashierService {
         order.setOrderConfirmedAt(LocalDate.now());
 
         Order updatedOrder = orderRepository.save(order);
+        activeDeliveryRegistry.track(updatedOrder);
         return orderMapper.toOrderResponse(updatedOrder);
     }
 }
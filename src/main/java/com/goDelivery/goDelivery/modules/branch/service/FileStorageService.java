@@ -105,4 +105,16 @@ public class FileStorageService {
             throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", ex);
         }
     }
+
+    /**
+     * Absolute location of a file returned by {@link #storeFile}.
+     */
+    public Path resolve(String storedFile) {
+        Path basePath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path location = basePath.resolve(storedFile).normalize();
+        if (!location.startsWith(basePath)) {
+            throw new RuntimeException("Invalid file storage location");
+        }
+        return location;
+    }
 }
@@ -0,0 +1,335 @@
+package com.goDelivery.goDelivery.modules.branch.service;
+
+import com.goDelivery.goDelivery.modules.branch.dto.ImageVariantUrls;
+import com.goDelivery.goDelivery.shared.enums.ImageVariant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploaded images as resized variants (see {@link ImageVariant})
+ * instead of the raw upload.
+ *
+ * Images are stored by the SHA-256 of the uploaded bytes under
+ * {@code images/<2 hex>/<hash>/<variant>.<jpg|png>}, so uploading the same
+ * file again reuses the stored variants. The path of the full variant is
+ * what callers persist; the other variants are found next to it, see
+ * {@link #variantsOf(String)}. Images with transparency are kept as PNG,
+ * everything else is re-encoded as JPEG.
+ *
+ * GIFs are stored unchanged through {@link FileStorageService} so animations
+ * survive.
+ */
+@Slf4j
+@Service
+public class ImageStorageService {
+
+    private static final String IMAGE_ROOT = "images";
+
+    private static final Pattern VARIANT_PATH = Pattern.compile(
+            "^(.*" + IMAGE_ROOT + "/[0-9a-f]{2}/[0-9a-f]{64}/)" + ImageVariant.FULL.getFileName() + "\\.(jpg|png)$");
+
+    private final FileStorageService fileStorageService;
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    public ImageStorageService(FileStorageService fileStorageService,
+            @Value("${app.images.max-pixels:40000000}") long maxPixels,
+            @Value("${app.images.jpeg-quality:0.82}") float jpegQuality) {
+        this.fileStorageService = fileStorageService;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Stores the image and returns the path of its full variant, relative to
+     * the upload directory like {@link FileStorageService#storeFile}.
+     * {@code subDirectory} is only used for GIFs, which are stored as-is.
+     */
+    public String storeImage(MultipartFile file, String subDirectory) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Failed to store empty file");
+        }
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".gif")) {
+            return fileStorageService.storeFile(file, subDirectory);
+        }
+
+        try {
+            byte[] bytes = file.getBytes();
+            String hash = sha256(bytes);
+            String directory = IMAGE_ROOT + "/" + hash.substring(0, 2) + "/" + hash;
+            Path target = fileStorageService.resolve(directory);
+
+            // Same bytes were stored before
+            String existing = findFullVariant(target);
+            if (existing != null) {
+                log.debug("Reusing stored image {}", hash);
+                return directory + "/" + existing;
+            }
+
+            BufferedImage image = orient(decode(bytes), readExifOrientation(bytes));
+            String format = image.getColorModel().hasAlpha() ? "png" : "jpg";
+
+            // Write every variant to a scratch directory and move it into place in one step
+            Path scratch = target.resolveSibling(".tmp-" + UUID.randomUUID());
+            Files.createDirectories(scratch);
+            try {
+                for (ImageVariant variant : ImageVariant.values()) {
+                    BufferedImage resized = resize(image, variant.getMaxEdge(), format.equals("png"));
+                    write(resized, format, scratch.resolve(variant.getFileName() + "." + format));
+                }
+                Files.move(scratch, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Another upload of the same image won the race; its variants are identical. Linux
+                // reports the non-empty target as a plain FileSystemException, so check the result
+                if (!hasAllVariants(target, format)) {
+                    throw e;
+                }
+                log.debug("Image {} was stored by a concurrent upload", hash);
+            } finally {
+                FileSystemUtils.deleteRecursively(scratch);
+            }
+
+            return directory + "/" + ImageVariant.FULL.getFileName() + "." + format;
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store image " + file.getOriginalFilename() + ". Please try again!",
+                    ex);
+        }
+    }
+
+    /**
+     * Variant URLs of an image stored by {@link #storeImage}, given the URL
+     * of its full variant. Returns null for images stored before variants
+     * existed, and for GIFs.
+     */
+    public static ImageVariantUrls variantsOf(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Matcher matcher = VARIANT_PATH.matcher(imageUrl);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String base = matcher.group(1);
+        String extension = "." + matcher.group(2);
+        return ImageVariantUrls.builder()
+                .thumbnail(base + ImageVariant.THUMBNAIL.getFileName() + extension)
+                .card(base + ImageVariant.CARD.getFileName() + extension)
+                .full(imageUrl)
+                .build();
+    }
+
+    private String findFullVariant(Path directory) {
+        for (String extension : new String[] { "jpg", "png" }) {
+            String fileName = ImageVariant.FULL.getFileName() + "." + extension;
+            if (Files.isRegularFile(directory.resolve(fileName))) {
+                return fileName;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasAllVariants(Path directory, String format) {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.isRegularFile(directory.resolve(variant.getFileName() + "." + format))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Checks the dimensions before decoding so oversized images are refused without allocating them
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new RuntimeException("Unsupported or corrupt image file");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new RuntimeException("Image is too large (" + reader.getWidth(0) + "x"
+                            + reader.getHeight(0) + ")");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxEdge, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Halve in steps first; a single bilinear pass over a large ratio aliases badly
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, keepAlpha);
+        }
+        return draw(current, targetWidth, targetHeight, keepAlpha);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean keepAlpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (!keepAlpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.setComposite(AlphaComposite.SrcOver);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        if (format.equals("png")) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Applies the EXIF orientation (1-8). Browsers honour the tag on the raw
+     * upload, but it is lost when the image is re-encoded.
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> transform.concatenate(new AffineTransform(-1, 0, 0, 1, width, 0)); // Mirror
+            case 3 -> transform.concatenate(new AffineTransform(-1, 0, 0, -1, width, height)); // 180
+            case 4 -> transform.concatenate(new AffineTransform(1, 0, 0, -1, 0, height)); // Flip
+            case 5 -> transform.concatenate(new AffineTransform(0, 1, 1, 0, 0, 0)); // Transpose
+            case 6 -> transform.concatenate(new AffineTransform(0, 1, -1, 0, height, 0)); // 90 clockwise
+            case 7 -> transform.concatenate(new AffineTransform(0, -1, -1, 0, height, width)); // Transverse
+            default -> transform.concatenate(new AffineTransform(0, -1, 1, 0, 0, width)); // 90 counter-clockwise
+        }
+        BufferedImage oriented = new BufferedImage(swap ? height : width, swap ? width : height,
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    // Reads the orientation tag from a JPEG's Exif segment; 1 (as stored) when absent
+    static int readExifOrientation(byte[] bytes) {
+        if (bytes.length < 4 || (bytes[0] & 0xFF) != 0xFF || (bytes[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int offset = 2;
+        while (offset + 4 <= bytes.length && (bytes[offset] & 0xFF) == 0xFF) {
+            int marker = bytes[offset + 1] & 0xFF;
+            int length = ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+            if (marker == 0xDA || length < 2) {
+                break; // Image data starts; no Exif before it
+            }
+            int segment = offset + 4;
+            if (marker == 0xE1 && segment + 14 <= bytes.length
+                    && new String(bytes, segment, 4, StandardCharsets.US_ASCII).equals("Exif")) {
+                return readTiffOrientation(bytes, segment + 6, Math.min(bytes.length, offset + 2 + length));
+            }
+            offset += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int readTiffOrientation(byte[] bytes, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return 1;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, end);
+        buffer.order(bytes[tiff] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff + buffer.getInt(tiff + 4);
+        if (ifd < tiff || ifd + 2 > end) {
+            return 1;
+        }
+        int entries = buffer.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if ((buffer.getShort(entry) & 0xFFFF) == 0x0112) {
+                return buffer.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 1;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
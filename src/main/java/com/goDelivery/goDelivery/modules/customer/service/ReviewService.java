@@ -7,6 +7,7 @@ import com.goDelivery.goDelivery.modules.customer.repository.CustomerRepository;
 import com.goDelivery.goDelivery.modules.customer.repository.ReviewRepository;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
+import com.goDelivery.goDelivery.modules.delivery.service.RestaurantLocationIndex;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
@@ -33,6 +34,7 @@ public class ReviewService {
     private final CustomerRepository customerRepository;
     private final RestaurantRepository restaurantRepository;
     private final BikersRepository bikerRepository;
+    private final RestaurantLocationIndex restaurantLocationIndex;
     private final ReviewMapper reviewMapper;
 
     @Transactional
@@ -159,7 +161,7 @@ public class ReviewService {
 
         restaurant.setRating(averageRating);
         restaurant.setTotalReviews(reviewCount);
-        restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(restaurantRepository.save(restaurant));
     }
 
     private void updateBikerRating(Long bikerId) {
@@ -8,6 +8,8 @@ package com.goDelivery.goDelivery.modules.delivery;
  *   - DeliveryTrackingService      → real-time tracking updates
  *   - DeliveryFeeCalculationService → fee calculation by distance/zone
  *   - GeocodingService             → address to coordinates
+ *   - BikerLocationIndex           → in-memory nearest available biker lookup
+ *   - RestaurantLocationIndex      → in-memory nearby restaurant discovery
  *
  * Exposed DTOs:
  *   - DeliveryAcceptanceRequest / DeliveryAcceptanceResponse
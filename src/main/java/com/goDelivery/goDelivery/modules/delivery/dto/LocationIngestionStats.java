@@ -0,0 +1,23 @@
+package com.goDelivery.goDelivery.modules.delivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationIngestionStats {
+
+    private long received;
+    private long coalesced; // replaced a ping still waiting to be flushed
+    private long dropped; // rejected because the buffer was full
+    private long flushedRows;
+    private long flushFailures;
+    private int pendingBikerPositions;
+    private int pendingTrackingPositions;
+    private int maxPending;
+    private long lastFlushMillis;
+}
@@ -0,0 +1,29 @@
+package com.goDelivery.goDelivery.modules.delivery.dto;
+
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position/ETA message pushed to {@code /topic/orders/{orderId}/tracking}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTrackingUpdate {
+
+    private Long orderId;
+    private Long bikerId;
+    private OrderStatus orderStatus;
+    private Double latitude;
+    private Double longitude;
+    private Double heading; // degrees (0-360)
+    private Double distanceToDestinationKm; // null while the destination is unknown
+    private Integer estimatedMinutes;
+    private LocalDateTime timestamp;
+}
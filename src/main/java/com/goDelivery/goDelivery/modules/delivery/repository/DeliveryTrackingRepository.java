@@ -2,6 +2,8 @@ package com.goDelivery.goDelivery.modules.delivery.repository;
 
 import com.goDelivery.goDelivery.modules.delivery.model.DeliveryTracking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +12,8 @@ import java.util.Optional;
 public interface DeliveryTrackingRepository extends JpaRepository<DeliveryTracking, Long> {
 
     Optional<DeliveryTracking> findByOrder_OrderId(Long orderId);
+
+    // Loads the biker and order with the tracking row so a response can be built outside a session
+    @Query("SELECT t FROM DeliveryTracking t JOIN FETCH t.bikers JOIN FETCH t.order WHERE t.order.orderId = :orderId")
+    Optional<DeliveryTracking> findWithBikerByOrderId(@Param("orderId") Long orderId);
 }
@@ -0,0 +1,167 @@
+package com.goDelivery.goDelivery.modules.delivery.service;
+
+import com.goDelivery.goDelivery.modules.ordering.model.Order;
+import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of the deliveries each biker is currently carrying
+ * (orders assigned to a biker that are neither delivered nor cancelled).
+ *
+ * Location updates consult this registry instead of querying the orders
+ * table. It is warmed on startup, kept current by the services that assign,
+ * pick up, deliver or cancel orders and periodically re-synchronised. A
+ * resync leaves orders tracked after its database snapshot was taken as
+ * they are.
+ */
+@Slf4j
+@Component
+public class ActiveDeliveryRegistry {
+
+    public static final Set<OrderStatus> CLOSED_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+
+    // orderId -> assignment
+    private final Map<Long, ActiveDelivery> byOrder = new ConcurrentHashMap<>();
+
+    // bikerId -> orderIds
+    private final Map<Long, Set<Long>> byBiker = new ConcurrentHashMap<>();
+
+    // System.nanoTime() of the last track or untrack of each order
+    private final Map<Long, Long> lastUpdated = new ConcurrentHashMap<>();
+
+    public ActiveDeliveryRegistry(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.dispatch.active-deliveries.resync-interval-ms:300000}",
+            initialDelayString = "${app.dispatch.active-deliveries.resync-interval-ms:300000}")
+    public void rebuild() {
+        long snapshotTime = System.nanoTime();
+        Map<Long, ActiveDelivery> active = new HashMap<>();
+        for (Object[] row : orderRepository.findActiveDeliveryAssignments(CLOSED_STATUSES)) {
+            Long orderId = (Long) row[0];
+            active.put(orderId, new ActiveDelivery(orderId, (Long) row[1], (OrderStatus) row[2]));
+        }
+
+        synchronized (this) {
+            // Orders tracked or untracked after the snapshot keep their current state
+            lastUpdated.forEach((orderId, updatedAt) -> {
+                if (updatedAt - snapshotTime >= 0) {
+                    active.remove(orderId);
+                }
+            });
+            byOrder.keySet().removeIf(orderId -> !active.containsKey(orderId)
+                    && !isUpdatedSince(orderId, snapshotTime));
+            byOrder.putAll(active);
+            lastUpdated.keySet().removeIf(orderId -> !isUpdatedSince(orderId, snapshotTime));
+
+            byBiker.clear();
+            for (ActiveDelivery delivery : byOrder.values()) {
+                byBiker.computeIfAbsent(delivery.getBikerId(), id -> ConcurrentHashMap.newKeySet())
+                        .add(delivery.getOrderId());
+            }
+        }
+
+        log.info("Active delivery registry synchronised: {} deliveries across {} bikers",
+                byOrder.size(), byBiker.size());
+    }
+
+    /**
+     * Records the current assignment and status of an order after it was
+     * saved; closed or unassigned orders are dropped.
+     */
+    public synchronized void track(Order order) {
+        if (order == null || order.getOrderId() == null) {
+            return;
+        }
+        Long orderId = order.getOrderId();
+        Long bikerId = order.getBikers() != null ? order.getBikers().getBikerId() : null;
+        lastUpdated.put(orderId, System.nanoTime());
+
+        if (bikerId == null || order.getOrderStatus() == null || CLOSED_STATUSES.contains(order.getOrderStatus())) {
+            untrack(orderId);
+            return;
+        }
+
+        ActiveDelivery previous = byOrder.put(orderId, new ActiveDelivery(orderId, bikerId, order.getOrderStatus()));
+        if (previous != null && !previous.getBikerId().equals(bikerId)) {
+            removeFromBiker(previous.getBikerId(), orderId);
+        }
+        byBiker.computeIfAbsent(bikerId, id -> ConcurrentHashMap.newKeySet()).add(orderId);
+    }
+
+    public synchronized void untrack(Long orderId) {
+        lastUpdated.put(orderId, System.nanoTime());
+        ActiveDelivery previous = byOrder.remove(orderId);
+        if (previous != null) {
+            removeFromBiker(previous.getBikerId(), orderId);
+        }
+    }
+
+    /**
+     * The deliveries currently carried by a biker; empty if none.
+     */
+    public List<ActiveDelivery> getActiveDeliveries(Long bikerId) {
+        Set<Long> orderIds = byBiker.get(bikerId);
+        if (orderIds == null || orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<ActiveDelivery> deliveries = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            ActiveDelivery delivery = byOrder.get(orderId);
+            if (delivery != null) {
+                deliveries.add(delivery);
+            }
+        }
+        return deliveries;
+    }
+
+    public int size() {
+        return byOrder.size();
+    }
+
+    private boolean isUpdatedSince(Long orderId, long time) {
+        Long updatedAt = lastUpdated.get(orderId);
+        return updatedAt != null && updatedAt - time >= 0;
+    }
+
+    private void removeFromBiker(Long bikerId, Long orderId) {
+        Set<Long> orderIds = byBiker.get(bikerId);
+        if (orderIds != null) {
+            orderIds.remove(orderId);
+            if (orderIds.isEmpty()) {
+                byBiker.remove(bikerId);
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ActiveDelivery {
+        private final Long orderId;
+        private final Long bikerId;
+        private final OrderStatus status;
+    }
+}
@@ -0,0 +1,140 @@
+package com.goDelivery.goDelivery.modules.delivery.service;
+
+import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
+import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
+import com.goDelivery.goDelivery.shared.util.GeoGridIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live in-memory spatial index of bikers that can take a delivery (online,
+ * available and active, with a known position).
+ *
+ * The index is warmed from the database on startup, kept current by
+ * {@link BikerService} on every location/availability change and periodically
+ * re-synchronised to pick up changes made outside the application. A resync
+ * leaves bikers updated after its database snapshot was taken as they are.
+ */
+@Slf4j
+@Component
+public class BikerLocationIndex {
+
+    private final BikersRepository bikersRepository;
+    private final GeoGridIndex<Long> index;
+    // System.nanoTime() of the last change to each biker made through this class
+    private final Map<Long, Long> lastUpdated = new ConcurrentHashMap<>();
+
+    public BikerLocationIndex(BikersRepository bikersRepository,
+            @Value("${app.dispatch.biker-index.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        this.bikersRepository = bikersRepository;
+        this.index = new GeoGridIndex<>(cellSizeDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.dispatch.biker-index.resync-interval-ms:300000}",
+            initialDelayString = "${app.dispatch.biker-index.resync-interval-ms:300000}")
+    public void rebuild() {
+        long snapshotTime = System.nanoTime();
+        List<Bikers> availableBikers = bikersRepository.findAvailableBikers();
+
+        Set<Long> retained = new HashSet<>();
+        for (Bikers biker : availableBikers) {
+            if (isUpdatedSince(biker.getBikerId(), snapshotTime)) {
+                continue; // The snapshot row is older than what the index holds
+            }
+            if (update(biker)) {
+                retained.add(biker.getBikerId());
+            }
+        }
+        lastUpdated.forEach((bikerId, updatedAt) -> {
+            if (updatedAt - snapshotTime >= 0) {
+                retained.add(bikerId);
+            }
+        });
+
+        // Drop bikers that went offline or unavailable without passing through the app
+        index.retainAll(retained);
+        lastUpdated.keySet().removeIf(bikerId -> !retained.contains(bikerId));
+
+        log.info("Biker location index synchronised: {} dispatchable bikers", index.size());
+    }
+
+    /**
+     * Adds, moves or removes a biker depending on whether they can currently be
+     * dispatched.
+     *
+     * @return true if the biker is in the index after the update
+     */
+    public boolean update(Bikers biker) {
+        if (biker == null || biker.getBikerId() == null) {
+            return false;
+        }
+        lastUpdated.put(biker.getBikerId(), System.nanoTime());
+        if (isDispatchable(biker)) {
+            index.put(biker.getBikerId(), biker.getCurrentLatitude(), biker.getCurrentLongitude());
+            return true;
+        }
+        index.remove(biker.getBikerId());
+        return false;
+    }
+
+    public void remove(Long bikerId) {
+        lastUpdated.put(bikerId, System.nanoTime());
+        index.remove(bikerId);
+    }
+
+    /**
+     * Moves a biker that is already indexed; bikers that are not dispatchable
+     * stay out of the index.
+     */
+    public void move(Long bikerId, double latitude, double longitude) {
+        if (index.contains(bikerId)) {
+            lastUpdated.put(bikerId, System.nanoTime());
+            index.put(bikerId, latitude, longitude);
+        }
+    }
+
+    /**
+     * Dispatchable bikers within {@code radiusKm}, nearest first.
+     */
+    public List<GeoGridIndex.Neighbour<Long>> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        return index.withinRadius(latitude, longitude, radiusKm);
+    }
+
+    /**
+     * Up to {@code limit} dispatchable bikers nearest to the point and within
+     * {@code maxDistanceKm}, nearest first.
+     */
+    public List<GeoGridIndex.Neighbour<Long>> findNearest(double latitude, double longitude, int limit,
+            double maxDistanceKm) {
+        return index.nearest(latitude, longitude, limit, maxDistanceKm);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private boolean isUpdatedSince(Long bikerId, long time) {
+        Long updatedAt = lastUpdated.get(bikerId);
+        return updatedAt != null && updatedAt - time >= 0;
+    }
+
+    static boolean isDispatchable(Bikers biker) {
+        return biker.isOnline() && biker.isAvailable() && biker.isActive()
+                && biker.getCurrentLatitude() != null && biker.getCurrentLongitude() != null;
+    }
+}
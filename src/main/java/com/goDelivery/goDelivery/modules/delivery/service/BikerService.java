@@ -7,11 +7,13 @@ import com.goDelivery.goDelivery.modules.branch.service.FileStorageService;
 import com.goDelivery.goDelivery.modules.delivery.dto.*;
 import com.goDelivery.goDelivery.modules.delivery.dto.BikerMapper;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
+import com.goDelivery.goDelivery.shared.exception.TooManyRequestsException;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
 import com.goDelivery.goDelivery.modules.notification.service.NotificationService;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
+import com.goDelivery.goDelivery.shared.util.GeoGridIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,8 +25,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +41,12 @@ public class BikerService {
     private final NotificationService notificationService;
     private final BikerMapper bikerMapper;
     private final FileStorageService fileStorageService;
+    private final BikerLocationIndex bikerLocationIndex;
+    private final ActiveDeliveryRegistry activeDeliveryRegistry;
+    private final LocationIngestionPipeline locationIngestionPipeline;
+    private final OrderTrackingPublisher orderTrackingPublisher;
+
+    private static final int NEAREST_BIKER_CANDIDATES = 5;
 
     @Transactional
     public BikerRegistrationResponse registerBiker(BikerRegistrationRequest request) {
@@ -75,43 +85,37 @@ public class BikerService {
 
     @Transactional(readOnly = true)
     public Optional<Bikers> findNearestAvailableBiker(Float restaurantLat, Float restaurantLon, Double maxDistanceKm) {
-        List<Bikers> availableBikers = findAvailableBikers();
-
-        if (availableBikers.isEmpty()) {
-            log.warn("No available bikers found");
-            return Optional.empty();
-        }
-
-        // Find the nearest biker using Haversine formula
-        return availableBikers.stream()
-                .filter(biker -> {
-                    double distance = calculateDistance(
-                            restaurantLat, restaurantLon,
-                            biker.getCurrentLatitude(), biker.getCurrentLongitude());
-                    return distance <= maxDistanceKm;
-                })
-                .min((b1, b2) -> {
-                    double d1 = calculateDistance(restaurantLat, restaurantLon,
-                            b1.getCurrentLatitude(), b1.getCurrentLongitude());
-                    double d2 = calculateDistance(restaurantLat, restaurantLon,
-                            b2.getCurrentLatitude(), b2.getCurrentLongitude());
-                    return Double.compare(d1, d2);
-                });
-    }
-
-    private double calculateDistance(Float lat1, Float lon1, Float lat2, Float lon2) {
-        final int EARTH_RADIUS_KM = 6371;
-
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        // Walk the in-memory index nearest-first; the DB row is the source of truth,
+        // so candidates that went stale are evicted and the next one is tried. The
+        // search widens until a candidate is confirmed or the index runs out.
+        Set<Long> tried = new HashSet<>();
+        int limit = NEAREST_BIKER_CANDIDATES;
+        while (true) {
+            List<GeoGridIndex.Neighbour<Long>> candidates = bikerLocationIndex.findNearest(
+                    restaurantLat, restaurantLon, limit, maxDistanceKm);
+
+            for (GeoGridIndex.Neighbour<Long> candidate : candidates) {
+                if (!tried.add(candidate.getKey())) {
+                    continue;
+                }
+                Optional<Bikers> biker = bikersRepository.findById(candidate.getKey());
+                if (biker.isPresent() && bikerLocationIndex.update(biker.get())) {
+                    biker.get().setDistanceFromPickup(candidate.getDistanceKm());
+                    return biker;
+                }
+                if (biker.isEmpty()) {
+                    bikerLocationIndex.remove(candidate.getKey());
+                }
+            }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+            if (candidates.size() < limit) {
+                break;
+            }
+            limit *= 2;
+        }
 
-        return EARTH_RADIUS_KM * c;
+        log.warn("No available bikers found within {} km", maxDistanceKm);
+        return Optional.empty();
     }
 
     public void broadcastOrderToAvailableBikers(Order order) {
@@ -161,6 +165,7 @@ public class BikerService {
         // Update biker availability
         biker.setAvailable(false);
         bikersRepository.save(biker);
+        bikerLocationIndex.update(biker);
 
         // Notify the biker
         notificationService.notifyBikerNewOrder(
@@ -218,6 +223,9 @@ public class BikerService {
         // Save changes
         orderRepository.save(order);
         bikersRepository.save(biker);
+        bikerLocationIndex.update(biker);
+        activeDeliveryRegistry.track(order);
+        orderTrackingPublisher.startTracking(order);
 
         // Notify customer and restaurant
         notificationService.notifyDeliveryAccepted(order, biker, request.getEstimatedDeliveryMinutes());
@@ -260,6 +268,7 @@ public class BikerService {
         if (order.getBikers() != null && order.getBikers().getBikerId().equals(biker.getBikerId())) {
             order.setBikers(null);
             orderRepository.save(order);
+            activeDeliveryRegistry.untrack(order.getOrderId());
         }
 
         // Update biker's last active time
@@ -321,12 +330,10 @@ public class BikerService {
             throw new ResourceNotFoundException("Biker not found with id: " + bikerId);
         }
 
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getBikers() != null &&
-                        order.getBikers().getBikerId().equals(bikerId))
-                .filter(order -> order.getOrderStatus() != OrderStatus.DELIVERED &&
-                        order.getOrderStatus() != OrderStatus.CANCELLED)
-                .toList();
+        List<Order> activeOrders = orderRepository.findByBikersBikerIdAndOrderStatusNotIn(
+                bikerId, ActiveDeliveryRegistry.CLOSED_STATUSES);
+        activeOrders.forEach(activeDeliveryRegistry::track);
+        return activeOrders;
     }
 
     @Transactional
@@ -366,6 +373,8 @@ public class BikerService {
         // Save changes
         orderRepository.save(order);
         bikersRepository.save(biker);
+        activeDeliveryRegistry.track(order);
+        orderTrackingPublisher.startTracking(order);
 
         // Notify customer that order is on the way
         notificationService.notifyPickupConfirmed(order, biker);
@@ -411,35 +420,27 @@ public class BikerService {
         return "https://www.google.com/maps/dir/?api=1&destination=" + encodedAddress;
     }
 
-    @Transactional
     public void updateLocation(LocationUpdateRequest request) {
-        log.info("Updating location for biker {}: lat={}, lon={}",
-                request.getBikerId(), request.getLatitude(), request.getLongitude());
-
-        Bikers biker = bikersRepository.findByBikerId(request.getBikerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Biker not found with id: " + request.getBikerId()));
-
-        // Update biker's location
-        biker.setCurrentLatitude(request.getLatitude().floatValue());
-        biker.setCurrentLongitude(request.getLongitude().floatValue());
-        biker.setLastActive(LocalDate.now());
-
-        bikersRepository.save(biker);
-
-        // Find active order for this biker
-        List<Order> activeOrders = getBikerActiveOrders(request.getBikerId());
+        Long bikerId = request.getBikerId();
+        log.debug("Updating location for biker {}: lat={}, lon={}",
+                bikerId, request.getLatitude(), request.getLongitude());
 
-        if (!activeOrders.isEmpty()) {
-            Order order = activeOrders.get(0);
-
-            // Calculate distance to customer
-            if (order.getOrderStatus() == OrderStatus.PICKED_UP) {
-                // Biker is en route to customer
-                notificationService.notifyCustomerLocationUpdate(order, biker, request);
-            }
+        // Pings are buffered and written in batches by the ingestion pipeline; the
+        // database is only consulted the first time a biker reports after startup
+        if (!locationIngestionPipeline.isKnownBiker(bikerId) && !bikersRepository.existsById(bikerId)) {
+            throw new ResourceNotFoundException("Biker not found with id: " + bikerId);
         }
+        if (!locationIngestionPipeline.submitBikerPosition(bikerId, request.getLatitude(), request.getLongitude())) {
+            throw new TooManyRequestsException("Location updates are being throttled, please retry shortly");
+        }
+        bikerLocationIndex.move(bikerId, request.getLatitude(), request.getLongitude());
 
-        log.info("Location updated for biker {}", request.getBikerId());
+        // Push the position to customers following the biker's deliveries; the
+        // registry answers this without touching the orders table
+        for (ActiveDeliveryRegistry.ActiveDelivery delivery : activeDeliveryRegistry.getActiveDeliveries(bikerId)) {
+            orderTrackingPublisher.publishPosition(delivery.getOrderId(), bikerId, delivery.getStatus(),
+                    request.getLatitude(), request.getLongitude(), request.getSpeed(), request.getHeading());
+        }
     }
 
     @Transactional(readOnly = true)
@@ -556,6 +557,12 @@ public class BikerService {
                     biker.getCurrentLatitude() != null ? biker.getCurrentLatitude().doubleValue() : null);
             response.setCurrentLongitude(
                     biker.getCurrentLongitude() != null ? biker.getCurrentLongitude().doubleValue() : null);
+
+            // Prefer a ping that has not been flushed yet
+            locationIngestionPipeline.getLatestPosition(biker.getBikerId()).ifPresent(position -> {
+                response.setCurrentLatitude(position.getLatitude());
+                response.setCurrentLongitude(position.getLongitude());
+            });
         }
 
         // Add status history
@@ -653,6 +660,9 @@ public class BikerService {
         // Save changes
         orderRepository.save(order);
         bikersRepository.save(biker);
+        bikerLocationIndex.update(biker);
+        activeDeliveryRegistry.untrack(order.getOrderId());
+        orderTrackingPublisher.stopTracking(order);
 
         // Notify customer and restaurant
         notificationService.notifyDeliveryCompleted(order, biker, request);
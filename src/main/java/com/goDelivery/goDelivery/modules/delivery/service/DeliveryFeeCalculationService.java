@@ -8,7 +8,6 @@ import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -18,11 +17,14 @@ public class DeliveryFeeCalculationService {
 
     private final RestaurantRepository restaurantRepository;
     private final DistanceCalculationService distanceService;
+    private final RestaurantLocationIndex restaurantLocationIndex;
 
     /**
      * Calculate delivery fee based on customer location
+     *
+     * Pricing inputs for approved restaurants come from the in-memory
+     * restaurant index, so only the distance and fee are computed per call.
      */
-    @Cacheable(value = "deliveryFees", key = "#restaurantId + '-' + #customerLat + '-' + #customerLon")
     public DeliveryFeeCalculationResponse calculateDeliveryFee(
             Long restaurantId,
             double customerLat,
@@ -31,7 +33,8 @@ public class DeliveryFeeCalculationService {
         log.debug("Calculating delivery fee for restaurant {} to location ({}, {})",
                 restaurantId, customerLat, customerLon);
 
-        Restaurant restaurant = restaurantRepository.findByRestaurantId(restaurantId)
+        Restaurant restaurant = restaurantLocationIndex.findSnapshot(restaurantId)
+                .or(() -> restaurantRepository.findByRestaurantId(restaurantId))
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Restaurant not found with id: " + restaurantId));
 
@@ -1,52 +1,68 @@
 package com.goDelivery.goDelivery.modules.delivery.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.goDelivery.goDelivery.modules.delivery.dto.BikerInfo;
 import com.goDelivery.goDelivery.modules.delivery.dto.BikerLocationUpdateRequest;
 import com.goDelivery.goDelivery.modules.delivery.dto.DeliveryTrackingResponse;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
+import com.goDelivery.goDelivery.shared.exception.TooManyRequestsException;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.delivery.model.DeliveryTracking;
 import com.goDelivery.goDelivery.modules.delivery.repository.DeliveryTrackingRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DeliveryTrackingService {
 
         private final DeliveryTrackingRepository trackingRepository;
         private final SimpMessagingTemplate messagingTemplate;
+        private final LocationIngestionPipeline locationIngestionPipeline;
+        private final OrderTrackingPublisher orderTrackingPublisher;
+
+        // Latest tracking state per order id, including pings not yet flushed;
+        // loaded from the database on first use
+        private final Cache<Long, DeliveryTrackingResponse> liveTracking;
+
+        public DeliveryTrackingService(DeliveryTrackingRepository trackingRepository,
+                        SimpMessagingTemplate messagingTemplate,
+                        LocationIngestionPipeline locationIngestionPipeline,
+                        OrderTrackingPublisher orderTrackingPublisher,
+                        @Value("${app.location.tracking.maximum-size:10000}") long maximumSize,
+                        @Value("${app.location.tracking.expire-after-access:30m}") Duration expireAfterAccess) {
+                this.trackingRepository = trackingRepository;
+                this.messagingTemplate = messagingTemplate;
+                this.locationIngestionPipeline = locationIngestionPipeline;
+                this.orderTrackingPublisher = orderTrackingPublisher;
+                this.liveTracking = Caffeine.newBuilder()
+                                .maximumSize(maximumSize)
+                                .expireAfterAccess(expireAfterAccess)
+                                .build();
+        }
 
         /**
-         * Update biker location and send real-time update via WebSocket
+         * Update biker location and send real-time update via WebSocket. The
+         * position is persisted asynchronously by {@link LocationIngestionPipeline}.
          */
-        @Transactional
         public void updateBikerLocation(BikerLocationUpdateRequest request) {
-                DeliveryTracking tracking = trackingRepository
-                                .findByOrder_OrderId(request.getOrderId())
-                                .orElseThrow(
-                                                () -> new ResourceNotFoundException("Tracking not found for order: "
-                                                                + request.getOrderId()));
-
-                // Update location
-                tracking.setLatitude(request.getLatitude());
-                tracking.setLongitude(request.getLongitude());
-                tracking.setUpdatedAt(LocalDateTime.now());
-
-                // Update status if provided
-                if (request.getStatus() != null) {
-                        tracking.setDeliveryStatus(request.getStatus());
+                DeliveryTrackingResponse current = liveTracking.get(request.getOrderId(), this::loadTracking);
+                if (current == null) {
+                        throw new ResourceNotFoundException("Tracking not found for order: " + request.getOrderId());
                 }
 
-                // Update status message if provided
-                if (request.getStatusMessage() != null && !request.getStatusMessage().trim().isEmpty()) {
-                        tracking.setCurrentStatusMessage(request.getStatusMessage());
+                String statusMessage = request.getStatusMessage() != null
+                                && !request.getStatusMessage().trim().isEmpty() ? request.getStatusMessage() : null;
+
+                if (!locationIngestionPipeline.submitTrackingPosition(current.getTrackingId(),
+                                request.getLatitude(), request.getLongitude(), request.getStatus(), statusMessage)) {
+                        throw new TooManyRequestsException("Location updates are being throttled, please retry shortly");
                 }
 
                 // Note: Distance and ETA calculation would require Order to have delivery
@@ -55,17 +71,33 @@ public class DeliveryTrackingService {
                 // TODO: Add deliveryLatitude and deliveryLongitude to Order model for full
                 // tracking
 
-                trackingRepository.save(tracking);
+                DeliveryTrackingResponse response = liveTracking.asMap().compute(request.getOrderId(),
+                                (orderId, previous) -> {
+                                        DeliveryTrackingResponse base = previous != null ? previous : current;
+                                        return DeliveryTrackingResponse.builder()
+                                                        .trackingId(base.getTrackingId())
+                                                        .orderId(base.getOrderId())
+                                                        .status(request.getStatus() != null ? request.getStatus()
+                                                                        : base.getStatus())
+                                                        .currentLatitude(request.getLatitude())
+                                                        .currentLongitude(request.getLongitude())
+                                                        .statusMessage(statusMessage != null ? statusMessage
+                                                                        : base.getStatusMessage())
+                                                        .estimatedArrivalTime(base.getEstimatedArrivalTime())
+                                                        .distanceToDestinationKm(base.getDistanceToDestinationKm())
+                                                        .bikerInfo(base.getBikerInfo())
+                                                        .lastUpdated(LocalDateTime.now())
+                                                        .build();
+                                });
 
                 // Send WebSocket update to customer
-                DeliveryTrackingResponse response = buildTrackingResponse(tracking);
-                messagingTemplate.convertAndSend(
-                                "/topic/delivery/" + tracking.getOrder().getOrderId(),
-                                response);
-
-                log.info("Updated tracking for order {}: {} at ({}, {})",
-                                tracking.getOrder().getOrderId(),
-                                request.getStatusMessage() != null ? request.getStatusMessage() : "Location update",
+                messagingTemplate.convertAndSend("/topic/delivery/" + request.getOrderId(), response);
+                orderTrackingPublisher.publishPosition(request.getOrderId(), request.getBikerId(), null,
+                                request.getLatitude(), request.getLongitude(), null, null);
+
+                log.debug("Updated tracking for order {}: {} at ({}, {})",
+                                request.getOrderId(),
+                                statusMessage != null ? statusMessage : "Location update",
                                 request.getLatitude(), request.getLongitude());
         }
 
@@ -73,12 +105,17 @@ public class DeliveryTrackingService {
          * Get current tracking information for an order
          */
         public DeliveryTrackingResponse getOrderTracking(Long orderId) {
-                DeliveryTracking tracking = trackingRepository
-                                .findByOrder_OrderId(orderId)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Tracking not found for order: " + orderId));
+                DeliveryTrackingResponse tracking = liveTracking.get(orderId, this::loadTracking);
+                if (tracking == null) {
+                        throw new ResourceNotFoundException("Tracking not found for order: " + orderId);
+                }
+                return tracking;
+        }
 
-                return buildTrackingResponse(tracking);
+        private DeliveryTrackingResponse loadTracking(Long orderId) {
+                return trackingRepository.findWithBikerByOrderId(orderId)
+                                .map(this::buildTrackingResponse)
+                                .orElse(null);
         }
 
         /**
@@ -6,15 +6,17 @@ import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.delivery.model.Coordinates;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
-import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
+import com.goDelivery.goDelivery.shared.cache.GeoBucketCache;
+import com.goDelivery.goDelivery.shared.util.GeoGridIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,7 +30,9 @@ public class GeoLocationService {
     private final GeocodingService geocodingService;
     private final DistanceCalculationService distanceService;
     private final BikersRepository bikersRepository;
-    private final RestaurantRepository restaurantRepository;
+    private final BikerLocationIndex bikerLocationIndex;
+    private final RestaurantLocationIndex restaurantLocationIndex;
+    private final GeoBucketCache<List<Long>> nearbyRestaurantsCache;
 
     // Find nearest bikers
     public List<Bikers> findNearestBikers(String pickupAddress, double maxDistanceKm) {
@@ -36,24 +40,30 @@ public class GeoLocationService {
             // Get coordinates for the pickup address
             Coordinates pickupCoords = geocodingService.geocodeAddress(pickupAddress);
 
-            // Get all available bikers
-            List<Bikers> availableBikers = bikersRepository.findAvailableBikers();
-
-            // Calculate distances and filter by max distance
-            return availableBikers.parallelStream()
-                    .filter(biker -> biker.getCurrentLatitude() != null && biker.getCurrentLongitude() != null)
-                    .map(biker -> {
-                        double distance = distanceService.calculateDistance(
-                                pickupCoords.getLatitude(),
-                                pickupCoords.getLongitude(),
-                                biker.getCurrentLatitude(),
-                                biker.getCurrentLongitude());
-                        biker.setDistanceFromPickup(distance);
-                        return biker;
-                    })
-                    .filter(biker -> biker.getDistanceFromPickup() <= maxDistanceKm)
-                    .sorted(Comparator.comparingDouble(Bikers::getDistanceFromPickup))
-                    .collect(Collectors.toList());
+            // Look up nearby dispatchable bikers in the in-memory index
+            List<GeoGridIndex.Neighbour<Long>> nearby = bikerLocationIndex.findWithinRadius(
+                    pickupCoords.getLatitude(), pickupCoords.getLongitude(), maxDistanceKm);
+
+            if (nearby.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            Map<Long, Bikers> bikersById = bikersRepository
+                    .findAllById(nearby.stream().map(GeoGridIndex.Neighbour::getKey).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Bikers::getBikerId, Function.identity()));
+
+            // Keep the index order (nearest first) and skip entries that went stale
+            List<Bikers> result = new ArrayList<>(nearby.size());
+            for (GeoGridIndex.Neighbour<Long> neighbour : nearby) {
+                Bikers biker = bikersById.get(neighbour.getKey());
+                if (biker == null || !bikerLocationIndex.update(biker)) {
+                    continue;
+                }
+                biker.setDistanceFromPickup(neighbour.getDistanceKm());
+                result.add(biker);
+            }
+            return result;
 
         } catch (Exception e) {
             log.error("Error finding nearest bikers for address: " + pickupAddress, e);
@@ -72,31 +82,26 @@ public class GeoLocationService {
     /**
      * Finds restaurants within a specified radius of the given coordinates
      * Enhanced with delivery radius validation and caching
+     *
+     * Candidate ids are cached per geohash cell (covering every point in the
+     * cell), then distances are recomputed from the customer's exact position.
      */
-    @Cacheable(value = "nearbyRestaurants", key = "#latitude + '-' + #longitude + '-' + #radiusKm")
     public List<Restaurant> findNearbyRestaurants(double latitude, double longitude, double radiusKm) {
         // Validate coordinates
         validateCoordinates(latitude, longitude, radiusKm);
 
         log.debug("Finding restaurants near ({}, {}) within {} km", latitude, longitude, radiusKm);
 
-        // First, get all approved restaurants with coordinates
-        List<Restaurant> allRestaurants = restaurantRepository
-                .findByIsApprovedTrueAndLatitudeIsNotNullAndLongitudeIsNotNull();
-
-        // Calculate distance for each restaurant and filter by radius
-        List<Restaurant> nearbyRestaurants = allRestaurants.parallelStream()
-                .map(restaurant -> {
-                    double distance = distanceService.calculateDistance(
-                            latitude,
-                            longitude,
-                            restaurant.getLatitude(),
-                            restaurant.getLongitude());
-                    restaurant.setDistanceFromUser(distance);
-                    return restaurant;
-                })
+        String qualifier = radiusKm + "@" + restaurantLocationIndex.getVersion();
+        List<Long> candidateIds = nearbyRestaurantsCache.get(latitude, longitude, qualifier,
+                cell -> restaurantLocationIndex.findIdsWithinRadius(
+                        cell.getCentreLatitude(), cell.getCentreLongitude(),
+                        radiusKm + cell.getHalfDiagonalKm()));
+
+        List<Restaurant> nearbyRestaurants = restaurantLocationIndex
+                .resolve(candidateIds, latitude, longitude)
+                .stream()
                 .filter(restaurant -> isRestaurantAvailable(restaurant, radiusKm))
-                .sorted(Comparator.comparingDouble(Restaurant::getDistanceFromUser))
                 .collect(Collectors.toList());
 
         log.debug("Found {} restaurants within radius", nearbyRestaurants.size());
@@ -162,24 +167,14 @@ public class GeoLocationService {
         // Validate coordinates
         validateCoordinates(latitude, longitude, radiusKm);
 
-        // First, get all approved restaurants with coordinates and matching name
-        List<Restaurant> matchingRestaurants = restaurantRepository
-                .findByRestaurantNameContainingIgnoreCaseAndIsApprovedTrueAndLatitudeIsNotNullAndLongitudeIsNotNull(
-                        restaurantName);
-
-        // Calculate distance for each restaurant and filter by radius
-        return matchingRestaurants.parallelStream()
-                .map(restaurant -> {
-                    double distance = distanceService.calculateDistance(
-                            latitude,
-                            longitude,
-                            restaurant.getLatitude(),
-                            restaurant.getLongitude());
-                    restaurant.setDistanceFromUser(distance);
-                    return restaurant;
-                })
+        String needle = restaurantName.toLowerCase();
+
+        // Radius lookup from the spatial index, then match the name in memory
+        return restaurantLocationIndex.findWithinRadius(latitude, longitude, radiusKm)
+                .stream()
+                .filter(restaurant -> restaurant.getRestaurantName() != null
+                        && restaurant.getRestaurantName().toLowerCase().contains(needle))
                 .filter(restaurant -> isRestaurantAvailable(restaurant, radiusKm))
-                .sorted(Comparator.comparingDouble(Restaurant::getDistanceFromUser))
                 .collect(Collectors.toList());
     }
 
@@ -194,21 +189,13 @@ public class GeoLocationService {
         log.debug("Finding all approved restaurants near ({}, {}), prioritizing within {} km", latitude, longitude,
                 radiusKm);
 
-        // Get all approved and active restaurants with coordinates
-        List<Restaurant> withCoords = restaurantRepository
-                .findByIsApprovedTrueAndLatitudeIsNotNullAndLongitudeIsNotNull();
-
-        // Calculate distance for every restaurant
-        withCoords.forEach(restaurant -> {
-            double distance = distanceService.calculateDistance(
-                    latitude, longitude,
-                    restaurant.getLatitude(), restaurant.getLongitude());
-            restaurant.setDistanceFromUser(distance);
-        });
+        // Every approved restaurant with coordinates, nearest first, from the index
+        List<Restaurant> withCoords = restaurantLocationIndex.findAllByDistance(latitude, longitude);
 
-        // Partition into nearby (within radius & available) and the rest
-        List<Restaurant> nearby = new java.util.ArrayList<>();
-        List<Restaurant> farther = new java.util.ArrayList<>();
+        // Partition into nearby (within radius & available) and the rest; both
+        // groups keep the distance ordering
+        List<Restaurant> nearby = new ArrayList<>();
+        List<Restaurant> farther = new ArrayList<>();
 
         for (Restaurant r : withCoords) {
             if (isRestaurantAvailable(r, radiusKm)) {
@@ -218,19 +205,12 @@ public class GeoLocationService {
             }
         }
 
-        // Sort each group by distance
-        nearby.sort(Comparator.comparingDouble(Restaurant::getDistanceFromUser));
-        farther.sort(Comparator.comparingDouble(Restaurant::getDistanceFromUser));
-
         // Also include approved restaurants that have no coordinates (append at the
         // end)
-        List<Restaurant> noCoords = restaurantRepository.findByIsApprovedTrueAndIsActiveTrue()
-                .stream()
-                .filter(r -> r.getLatitude() == null || r.getLongitude() == null)
-                .collect(Collectors.toList());
+        List<Restaurant> noCoords = restaurantLocationIndex.findWithoutCoordinates();
 
         // Merge: nearby first, then farther, then those without coordinates
-        List<Restaurant> result = new java.util.ArrayList<>(nearby.size() + farther.size() + noCoords.size());
+        List<Restaurant> result = new ArrayList<>(nearby.size() + farther.size() + noCoords.size());
         result.addAll(nearby);
         result.addAll(farther);
         result.addAll(noCoords);
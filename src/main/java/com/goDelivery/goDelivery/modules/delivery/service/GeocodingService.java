@@ -4,12 +4,14 @@ import com.goDelivery.goDelivery.modules.delivery.model.Coordinates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -71,4 +73,17 @@ public class GeocodingService {
             throw new RuntimeException("Error processing address. Please check the address and try again.");
         }
     }
+
+    /**
+     * Geocodes an address off the calling thread; the future completes
+     * exceptionally if the address cannot be resolved.
+     */
+    @Async
+    public CompletableFuture<Coordinates> geocodeAddressAsync(String address) {
+        try {
+            return CompletableFuture.completedFuture(geocodeAddress(address));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
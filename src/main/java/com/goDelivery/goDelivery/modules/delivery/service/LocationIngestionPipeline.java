@@ -0,0 +1,238 @@
+package com.goDelivery.goDelivery.modules.delivery.service;
+
+import com.goDelivery.goDelivery.modules.delivery.dto.LocationIngestionStats;
+import com.goDelivery.goDelivery.shared.enums.DeliveryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Write-behind pipeline for biker location pings.
+ *
+ * Pings are accepted into a bounded in-memory buffer keyed by biker (and by
+ * order for delivery tracking), so repeated pings between two flushes
+ * coalesce into the latest one. The buffer is flushed on a fixed schedule
+ * with JDBC batch updates in a single transaction, which keeps location
+ * traffic off the request threads and bounds its use of the connection pool.
+ * When the buffer is full, pings for new keys are rejected so callers can
+ * back off.
+ *
+ * The latest accepted position of every biker is kept in memory for reads.
+ */
+@Slf4j
+@Component
+public class LocationIngestionPipeline {
+
+    private static final String UPDATE_BIKER_SQL =
+            "UPDATE bikers SET current_latitude = ?, current_longitude = ?, last_active = ? WHERE biker_id = ?";
+
+    private static final String UPDATE_TRACKING_SQL =
+            "UPDATE delivery_tracking SET latitude = ?, longitude = ?, updated_at = ?, "
+                    + "delivery_status = COALESCE(?, delivery_status), "
+                    + "current_status_message = COALESCE(?, current_status_message) "
+                    + "WHERE tracking_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPending;
+    private final int batchSize;
+
+    private final Map<Long, BikerPosition> pendingBikers = new ConcurrentHashMap<>();
+    private final Map<Long, TrackingPosition> pendingTracking = new ConcurrentHashMap<>();
+    private final Map<Long, BikerPosition> latestPositions = new ConcurrentHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+
+    public LocationIngestionPipeline(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.location.ingestion.max-pending:50000}") int maxPending,
+            @Value("${app.location.ingestion.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Buffers the position of a biker.
+     *
+     * @return false if the buffer is full and the ping was dropped
+     */
+    public boolean submitBikerPosition(Long bikerId, double latitude, double longitude) {
+        BikerPosition position = new BikerPosition(bikerId, latitude, longitude, LocalDateTime.now());
+        if (!offer(pendingBikers, bikerId, position, LocationIngestionPipeline::newest)) {
+            return false;
+        }
+        latestPositions.put(bikerId, position);
+        return true;
+    }
+
+    /**
+     * Buffers the position of a delivery tracking record. A status or message
+     * sent with an earlier, coalesced ping is kept unless overridden.
+     *
+     * @return false if the buffer is full and the ping was dropped
+     */
+    public boolean submitTrackingPosition(Long trackingId, double latitude, double longitude,
+            DeliveryStatus status, String statusMessage) {
+        TrackingPosition position = new TrackingPosition(trackingId, latitude, longitude, status,
+                statusMessage, LocalDateTime.now());
+        return offer(pendingTracking, trackingId, position, LocationIngestionPipeline::newest);
+    }
+
+    /**
+     * The most recent position accepted for a biker, including pings not yet
+     * written to the database.
+     */
+    public Optional<BikerPosition> getLatestPosition(Long bikerId) {
+        return Optional.ofNullable(latestPositions.get(bikerId));
+    }
+
+    public boolean isKnownBiker(Long bikerId) {
+        return latestPositions.containsKey(bikerId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.ingestion.flush-interval-ms:2000}")
+    public void flush() {
+        List<BikerPosition> bikers = drain(pendingBikers);
+        List<TrackingPosition> tracking = drain(pendingTracking);
+        if (bikers.isEmpty() && tracking.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_BIKER_SQL, bikers, batchSize, (ps, position) -> {
+                    ps.setFloat(1, (float) position.getLatitude());
+                    ps.setFloat(2, (float) position.getLongitude());
+                    ps.setDate(3, Date.valueOf(position.getReceivedAt().toLocalDate()));
+                    ps.setLong(4, position.getBikerId());
+                });
+                jdbcTemplate.batchUpdate(UPDATE_TRACKING_SQL, tracking, batchSize, (ps, position) -> {
+                    ps.setDouble(1, position.getLatitude());
+                    ps.setDouble(2, position.getLongitude());
+                    ps.setTimestamp(3, Timestamp.valueOf(position.getReceivedAt()));
+                    ps.setString(4, position.getStatus() != null ? position.getStatus().name() : null);
+                    ps.setString(5, position.getStatusMessage());
+                    ps.setLong(6, position.getTrackingId());
+                });
+            });
+            flushedRows.add(bikers.size() + tracking.size());
+            lastFlushMillis.set(System.currentTimeMillis() - start);
+            log.debug("Flushed {} biker and {} tracking positions in {} ms",
+                    bikers.size(), tracking.size(), lastFlushMillis.get());
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.error("Failed to flush {} biker and {} tracking positions: {}",
+                    bikers.size(), tracking.size(), e.getMessage());
+            // Put the batch back, merged with any ping that arrived in the meantime
+            bikers.forEach(position -> pendingBikers.merge(position.getBikerId(), position,
+                    LocationIngestionPipeline::newest));
+            tracking.forEach(position -> pendingTracking.merge(position.getTrackingId(), position,
+                    LocationIngestionPipeline::newest));
+        }
+    }
+
+    public LocationIngestionStats getStats() {
+        return LocationIngestionStats.builder()
+                .received(received.sum())
+                .coalesced(coalesced.sum())
+                .dropped(dropped.sum())
+                .flushedRows(flushedRows.sum())
+                .flushFailures(flushFailures.sum())
+                .pendingBikerPositions(pendingBikers.size())
+                .pendingTrackingPositions(pendingTracking.size())
+                .maxPending(maxPending)
+                .lastFlushMillis(lastFlushMillis.get())
+                .build();
+    }
+
+    private <T> boolean offer(Map<Long, T> buffer, Long key, T value, BiFunction<T, T, T> merge) {
+        received.increment();
+        if (!buffer.containsKey(key) && pendingBikers.size() + pendingTracking.size() >= maxPending) {
+            dropped.increment();
+            return false;
+        }
+        boolean[] replaced = new boolean[1];
+        buffer.compute(key, (k, previous) -> {
+            if (previous == null) {
+                return value;
+            }
+            replaced[0] = true;
+            return merge.apply(previous, value);
+        });
+        if (replaced[0]) {
+            coalesced.increment();
+        }
+        return true;
+    }
+
+    private static <T> List<T> drain(Map<Long, T> buffer) {
+        List<T> drained = new ArrayList<>(buffer.size());
+        for (Long key : buffer.keySet()) {
+            T value = buffer.remove(key);
+            if (value != null) {
+                drained.add(value);
+            }
+        }
+        return drained;
+    }
+
+    private static BikerPosition newest(BikerPosition a, BikerPosition b) {
+        return b.getReceivedAt().isBefore(a.getReceivedAt()) ? a : b;
+    }
+
+    // The newer position wins; a status or message only the older ping carried is kept
+    private static TrackingPosition newest(TrackingPosition a, TrackingPosition b) {
+        TrackingPosition older = b.getReceivedAt().isBefore(a.getReceivedAt()) ? b : a;
+        TrackingPosition newer = older == a ? b : a;
+        return new TrackingPosition(newer.getTrackingId(), newer.getLatitude(), newer.getLongitude(),
+                newer.getStatus() != null ? newer.getStatus() : older.getStatus(),
+                newer.getStatusMessage() != null ? newer.getStatusMessage() : older.getStatusMessage(),
+                newer.getReceivedAt());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BikerPosition {
+        private final Long bikerId;
+        private final double latitude;
+        private final double longitude;
+        private final LocalDateTime receivedAt;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TrackingPosition {
+        private final Long trackingId;
+        private final double latitude;
+        private final double longitude;
+        private final DeliveryStatus status;
+        private final String statusMessage;
+        private final LocalDateTime receivedAt;
+    }
+}
@@ -0,0 +1,216 @@
+package com.goDelivery.goDelivery.modules.delivery.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.goDelivery.goDelivery.modules.delivery.dto.OrderTrackingUpdate;
+import com.goDelivery.goDelivery.modules.ordering.model.Order;
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import com.goDelivery.goDelivery.shared.util.GeoGridIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Pushes live biker position and ETA for an order to
+ * {@code /topic/orders/{orderId}/tracking}.
+ *
+ * Messages are throttled per order and delta-suppressed: a position is only
+ * sent when the biker moved more than {@code min-distance-metres}, the ETA
+ * changed or the order status changed, and never more often than
+ * {@code min-interval-ms}. A keep-alive is sent after {@code max-silence-ms}
+ * so clients can tell a stationary biker from a lost connection.
+ */
+@Slf4j
+@Service
+public class OrderTrackingPublisher {
+
+    private static final String TOPIC = "/topic/orders/%d/tracking";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GeocodingService geocodingService;
+    private final RestaurantLocationIndex restaurantLocationIndex;
+    private final long minIntervalMillis;
+    private final double minDistanceKm;
+    private final long maxSilenceMillis;
+    private final double averageSpeedKmh;
+
+    private final Cache<Long, TrackingState> states;
+
+    public OrderTrackingPublisher(SimpMessagingTemplate messagingTemplate,
+            GeocodingService geocodingService,
+            RestaurantLocationIndex restaurantLocationIndex,
+            @Value("${app.tracking.publish.min-interval-ms:2000}") long minIntervalMillis,
+            @Value("${app.tracking.publish.min-distance-metres:25}") double minDistanceMetres,
+            @Value("${app.tracking.publish.max-silence-ms:30000}") long maxSilenceMillis,
+            @Value("${app.tracking.average-speed-kmh:20}") double averageSpeedKmh) {
+        this.messagingTemplate = messagingTemplate;
+        this.geocodingService = geocodingService;
+        this.restaurantLocationIndex = restaurantLocationIndex;
+        this.minIntervalMillis = minIntervalMillis;
+        this.minDistanceKm = minDistanceMetres / 1000.0;
+        this.maxSilenceMillis = maxSilenceMillis;
+        this.averageSpeedKmh = averageSpeedKmh;
+        // Orders that stop receiving positions (cancelled, app restarted) age out
+        this.states = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofHours(2))
+                .build();
+    }
+
+    /**
+     * Starts or re-targets tracking for an order after it was accepted (biker
+     * heads to the restaurant) or picked up (biker heads to the customer).
+     */
+    public void startTracking(Order order) {
+        Long orderId = order.getOrderId();
+        TrackingState state = states.get(orderId, id -> new TrackingState());
+        synchronized (state) {
+            if (order.getOrderStatus() != state.status) {
+                state.statusChanged = true;
+                state.status = order.getOrderStatus();
+            }
+            state.destinationLatitude = null;
+            state.destinationLongitude = null;
+        }
+
+        if (order.getOrderStatus() == OrderStatus.PICKED_UP) {
+            if (order.getDeliveryAddress() != null) {
+                geocodingService.geocodeAddressAsync(order.getDeliveryAddress())
+                        .thenAccept(coordinates -> setDestination(orderId, OrderStatus.PICKED_UP,
+                                coordinates.getLatitude(), coordinates.getLongitude()))
+                        .exceptionally(e -> {
+                            log.warn("No delivery coordinates for order {}; publishing position only", orderId);
+                            return null;
+                        });
+            }
+        } else if (order.getRestaurant() != null) {
+            restaurantLocationIndex.findSnapshot(order.getRestaurant().getRestaurantId())
+                    .filter(r -> r.getLatitude() != null && r.getLongitude() != null)
+                    .ifPresent(r -> setDestination(orderId, order.getOrderStatus(), r.getLatitude(), r.getLongitude()));
+        }
+    }
+
+    /**
+     * Follows a status change made outside the biker flow (cashier dispatch,
+     * admin updates): picking up re-targets the ETA to the customer, and
+     * delivering or cancelling sends the final message.
+     */
+    public void onStatusChange(Order order, OrderStatus previousStatus) {
+        OrderStatus status = order.getOrderStatus();
+        if (status == null || status == previousStatus) {
+            return;
+        }
+        if (status == OrderStatus.PICKED_UP) {
+            startTracking(order);
+        } else if (ActiveDeliveryRegistry.CLOSED_STATUSES.contains(status)) {
+            stopTracking(order);
+        }
+    }
+
+    /**
+     * Publishes a biker position for one of the orders they are carrying,
+     * unless it is suppressed.
+     *
+     * @param status   current order status, or null if unknown to the caller
+     * @param speedKmh reported speed, or null to use the configured average
+     */
+    public void publishPosition(Long orderId, Long bikerId, OrderStatus status, double latitude, double longitude,
+            Double speedKmh, Double heading) {
+        TrackingState state = states.get(orderId, id -> new TrackingState());
+        OrderTrackingUpdate update;
+        synchronized (state) {
+            if (status != null && status != state.status) {
+                state.statusChanged = true;
+                state.status = status;
+            }
+
+            Double distanceKm = state.destinationLatitude != null
+                    ? GeoGridIndex.haversineKm(latitude, longitude, state.destinationLatitude, state.destinationLongitude)
+                    : null;
+            Integer etaMinutes = distanceKm != null ? estimateMinutes(distanceKm, speedKmh) : null;
+
+            long now = System.currentTimeMillis();
+            long sinceLast = now - state.lastSentAt;
+            boolean moved = state.lastLatitude == null || GeoGridIndex.haversineKm(
+                    latitude, longitude, state.lastLatitude, state.lastLongitude) >= minDistanceKm;
+            boolean etaChanged = etaMinutes != null && !etaMinutes.equals(state.lastEtaMinutes);
+            boolean changed = moved || etaChanged || state.statusChanged;
+
+            if (sinceLast < minIntervalMillis || (!changed && sinceLast < maxSilenceMillis)) {
+                return;
+            }
+
+            state.lastLatitude = latitude;
+            state.lastLongitude = longitude;
+            state.lastEtaMinutes = etaMinutes;
+            state.lastSentAt = now;
+            state.statusChanged = false;
+
+            update = OrderTrackingUpdate.builder()
+                    .orderId(orderId)
+                    .bikerId(bikerId)
+                    .orderStatus(state.status)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .heading(heading)
+                    .distanceToDestinationKm(distanceKm)
+                    .estimatedMinutes(etaMinutes)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        }
+
+        messagingTemplate.convertAndSend(String.format(TOPIC, orderId), update);
+    }
+
+    /**
+     * Sends a final status message and stops tracking the order.
+     */
+    public void stopTracking(Order order) {
+        TrackingState state = states.asMap().remove(order.getOrderId());
+        OrderTrackingUpdate.OrderTrackingUpdateBuilder update = OrderTrackingUpdate.builder()
+                .orderId(order.getOrderId())
+                .bikerId(order.getBikers() != null ? order.getBikers().getBikerId() : null)
+                .orderStatus(order.getOrderStatus())
+                .timestamp(LocalDateTime.now());
+        if (state != null) {
+            synchronized (state) {
+                update.latitude(state.lastLatitude).longitude(state.lastLongitude);
+            }
+        }
+        messagingTemplate.convertAndSend(String.format(TOPIC, order.getOrderId()), update.build());
+    }
+
+    private void setDestination(Long orderId, OrderStatus forStatus, double latitude, double longitude) {
+        TrackingState state = states.getIfPresent(orderId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            // Ignore a late geocoding result for a leg that is already over
+            if (state.status == forStatus) {
+                state.destinationLatitude = latitude;
+                state.destinationLongitude = longitude;
+            }
+        }
+    }
+
+    private int estimateMinutes(double distanceKm, Double speedKmh) {
+        // Below walking pace the reported speed says nothing about the trip (traffic light, GPS drift)
+        double speed = speedKmh != null && speedKmh > 5 ? speedKmh : averageSpeedKmh;
+        return (int) Math.ceil(distanceKm / speed * 60);
+    }
+
+    private static class TrackingState {
+        private OrderStatus status;
+        private boolean statusChanged;
+        private Double destinationLatitude;
+        private Double destinationLongitude;
+        private Double lastLatitude;
+        private Double lastLongitude;
+        private Integer lastEtaMinutes;
+        private long lastSentAt;
+    }
+}
@@ -0,0 +1,263 @@
+package com.goDelivery.goDelivery.modules.delivery.service;
+
+import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
+import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
+import com.goDelivery.goDelivery.shared.util.GeoGridIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory spatial index of approved restaurants used by the customer
+ * discovery queries in {@link GeoLocationService}.
+ *
+ * Each indexed restaurant is held as a detached snapshot with its
+ * relationships stripped; callers always receive a fresh copy carrying the
+ * distance for their own query, so concurrent requests never share state.
+ * The index is warmed on startup, updated by the restaurant services on
+ * every save of a restaurant and periodically re-synchronised. A resync
+ * leaves restaurants updated after its database snapshot was taken as they
+ * are.
+ */
+@Slf4j
+@Component
+public class RestaurantLocationIndex {
+
+    private final RestaurantRepository restaurantRepository;
+    private final GeoGridIndex<Long> index;
+
+    // Approved restaurants with coordinates, keyed by restaurant id
+    private final Map<Long, Restaurant> located = new ConcurrentHashMap<>();
+
+    // Approved and active restaurants that could not be geocoded
+    private final Map<Long, Restaurant> unlocated = new ConcurrentHashMap<>();
+
+    // Bumped whenever the set of located restaurants or a position changes, so
+    // caches of candidate ids can key on it
+    private final AtomicLong version = new AtomicLong();
+
+    // System.nanoTime() of the last update or removal of each restaurant
+    private final Map<Long, Long> lastUpdated = new ConcurrentHashMap<>();
+
+    public RestaurantLocationIndex(RestaurantRepository restaurantRepository,
+            @Value("${app.discovery.restaurant-index.cell-size-degrees:0.02}") double cellSizeDegrees) {
+        this.restaurantRepository = restaurantRepository;
+        this.index = new GeoGridIndex<>(cellSizeDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.discovery.restaurant-index.resync-interval-ms:600000}",
+            initialDelayString = "${app.discovery.restaurant-index.resync-interval-ms:600000}")
+    public void rebuild() {
+        long snapshotTime = System.nanoTime();
+        Set<Long> retained = new HashSet<>();
+        for (Restaurant restaurant : restaurantRepository.findByIsApprovedTrue()) {
+            if (!isUpdatedSince(restaurant.getRestaurantId(), snapshotTime)) {
+                update(restaurant);
+            }
+            retained.add(restaurant.getRestaurantId());
+        }
+        lastUpdated.forEach((restaurantId, updatedAt) -> {
+            if (updatedAt - snapshotTime >= 0) {
+                retained.add(restaurantId);
+            }
+        });
+
+        if (located.keySet().removeIf(id -> !retained.contains(id))) {
+            version.incrementAndGet();
+        }
+        unlocated.keySet().removeIf(id -> !retained.contains(id));
+        index.retainAll(located.keySet());
+        lastUpdated.keySet().removeIf(id -> !retained.contains(id));
+
+        log.info("Restaurant location index synchronised: {} located, {} without coordinates",
+                located.size(), unlocated.size());
+    }
+
+    /**
+     * Adds, moves or removes a restaurant after it was created, approved,
+     * rejected, (de)activated or re-geocoded.
+     */
+    public void update(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getRestaurantId() == null) {
+            return;
+        }
+        Long restaurantId = restaurant.getRestaurantId();
+        lastUpdated.put(restaurantId, System.nanoTime());
+
+        if (!Boolean.TRUE.equals(restaurant.getIsApproved())) {
+            remove(restaurantId);
+            return;
+        }
+
+        Restaurant snapshot = snapshotOf(restaurant);
+        if (restaurant.getLatitude() != null && restaurant.getLongitude() != null) {
+            unlocated.remove(restaurantId);
+            Restaurant previous = located.put(restaurantId, snapshot);
+            index.put(restaurantId, restaurant.getLatitude(), restaurant.getLongitude());
+            if (previous == null || !restaurant.getLatitude().equals(previous.getLatitude())
+                    || !restaurant.getLongitude().equals(previous.getLongitude())) {
+                version.incrementAndGet();
+            }
+        } else {
+            if (located.remove(restaurantId) != null) {
+                version.incrementAndGet();
+            }
+            index.remove(restaurantId);
+            if (Boolean.TRUE.equals(restaurant.getIsActive())) {
+                unlocated.put(restaurantId, snapshot);
+            } else {
+                unlocated.remove(restaurantId);
+            }
+        }
+    }
+
+    public void remove(Long restaurantId) {
+        lastUpdated.put(restaurantId, System.nanoTime());
+        index.remove(restaurantId);
+        if (located.remove(restaurantId) != null) {
+            version.incrementAndGet();
+        }
+        unlocated.remove(restaurantId);
+    }
+
+    /**
+     * Ids of located restaurants within {@code radiusKm}, nearest first.
+     */
+    public List<Long> findIdsWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<GeoGridIndex.Neighbour<Long>> neighbours = index.withinRadius(latitude, longitude, radiusKm);
+        List<Long> ids = new ArrayList<>(neighbours.size());
+        for (GeoGridIndex.Neighbour<Long> neighbour : neighbours) {
+            ids.add(neighbour.getKey());
+        }
+        return ids;
+    }
+
+    /**
+     * Copies of the given located restaurants with {@code distanceFromUser}
+     * computed from the exact point, nearest first. Ids that are no longer
+     * indexed are skipped.
+     */
+    public List<Restaurant> resolve(Collection<Long> restaurantIds, double latitude, double longitude) {
+        List<Restaurant> result = new ArrayList<>(restaurantIds.size());
+        for (Long restaurantId : restaurantIds) {
+            Restaurant snapshot = located.get(restaurantId);
+            if (snapshot != null) {
+                result.add(withDistance(snapshot, GeoGridIndex.haversineKm(
+                        latitude, longitude, snapshot.getLatitude(), snapshot.getLongitude())));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Restaurant::getDistanceFromUser));
+        return result;
+    }
+
+    /**
+     * A copy of an indexed (approved) restaurant, if present.
+     */
+    public Optional<Restaurant> findSnapshot(Long restaurantId) {
+        Restaurant snapshot = located.get(restaurantId);
+        if (snapshot == null) {
+            snapshot = unlocated.get(restaurantId);
+        }
+        return Optional.ofNullable(snapshot).map(r -> r.toBuilder().build());
+    }
+
+    /**
+     * Whether the restaurant is indexed: approved, and active if it has no
+     * coordinates.
+     */
+    public boolean contains(Long restaurantId) {
+        return located.containsKey(restaurantId) || unlocated.containsKey(restaurantId);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Approved restaurants with coordinates within {@code radiusKm}, nearest
+     * first, each with {@code distanceFromUser} set.
+     */
+    public List<Restaurant> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<GeoGridIndex.Neighbour<Long>> neighbours = index.withinRadius(latitude, longitude, radiusKm);
+        List<Restaurant> result = new ArrayList<>(neighbours.size());
+        for (GeoGridIndex.Neighbour<Long> neighbour : neighbours) {
+            Restaurant snapshot = located.get(neighbour.getKey());
+            if (snapshot != null) {
+                result.add(withDistance(snapshot, neighbour.getDistanceKm()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Every approved restaurant with coordinates, nearest first.
+     */
+    public List<Restaurant> findAllByDistance(double latitude, double longitude) {
+        List<Restaurant> result = new ArrayList<>(located.size());
+        for (Restaurant snapshot : located.values()) {
+            result.add(withDistance(snapshot, GeoGridIndex.haversineKm(
+                    latitude, longitude, snapshot.getLatitude(), snapshot.getLongitude())));
+        }
+        result.sort(Comparator.comparingDouble(Restaurant::getDistanceFromUser));
+        return result;
+    }
+
+    /**
+     * Approved and active restaurants that have no coordinates.
+     */
+    public List<Restaurant> findWithoutCoordinates() {
+        List<Restaurant> result = new ArrayList<>(unlocated.size());
+        for (Restaurant snapshot : unlocated.values()) {
+            result.add(snapshot.toBuilder().build());
+        }
+        return result;
+    }
+
+    public int size() {
+        return located.size();
+    }
+
+    private static Restaurant withDistance(Restaurant snapshot, double distanceKm) {
+        return snapshot.toBuilder().distanceFromUser(distanceKm).build();
+    }
+
+    // Detached copy without lazy relationships so the index never pins a
+    // persistence context or triggers lazy loading outside a session
+    private boolean isUpdatedSince(Long restaurantId, long time) {
+        Long updatedAt = lastUpdated.get(restaurantId);
+        return updatedAt != null && updatedAt - time >= 0;
+    }
+
+    private static Restaurant snapshotOf(Restaurant restaurant) {
+        return restaurant.toBuilder()
+                .menuItems(null)
+                .menuCategories(null)
+                .promotions(null)
+                .orders(null)
+                .reviews(null)
+                .restaurantUsers(null)
+                .orderAnalytics(null)
+                .operatingHours(null)
+                .distanceFromUser(null)
+                .build();
+    }
+}
@@ -498,23 +498,6 @@ public class NotificationService {
         log.info("Sent pickup confirmation notifications for order {}", order.getOrderNumber());
     }
 
-    public void notifyCustomerLocationUpdate(com.goDelivery.goDelivery.modules.ordering.model.Order order,
-            com.goDelivery.goDelivery.modules.delivery.model.Bikers biker,
-            com.goDelivery.goDelivery.modules.delivery.dto.LocationUpdateRequest locationUpdate) {
-        // In production, this would send real-time location updates to customer via
-        // WebSocket
-        // For now, log the location update
-
-        log.info("Biker {} location update for order {}: lat={}, lon={}",
-                biker.getBikerId(), order.getOrderNumber(),
-                locationUpdate.getLatitude(), locationUpdate.getLongitude());
-
-        // Calculate ETA based on distance and speed
-        // Send push notification to customer with updated ETA if significant change
-
-        log.info("Customer tracking update sent for order {}", order.getOrderNumber());
-    }
-
     public void notifyDeliveryCompleted(com.goDelivery.goDelivery.modules.ordering.model.Order order,
             com.goDelivery.goDelivery.modules.delivery.model.Bikers biker,
             com.goDelivery.goDelivery.modules.delivery.dto.DeliveryConfirmationRequest confirmation) {
@@ -0,0 +1,33 @@
+package com.goDelivery.goDelivery.modules.ordering.dto;
+
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Number of orders per status for a restaurant, branch or the whole
+ * platform, as returned by
+ * {@link com.goDelivery.goDelivery.modules.ordering.service.OrderStatisticsService}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusHistogram {
+
+    private long totalOrders;
+    private long paidOrders;
+    private Map<OrderStatus, Long> statusCounts;
+
+    public long count(OrderStatus... statuses) {
+        long count = 0;
+        for (OrderStatus status : statuses) {
+            count += statusCounts.getOrDefault(status, 0L);
+        }
+        return count;
+    }
+}
@@ -31,7 +31,11 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_biker_status", columnList = "biker_id, order_status"),
+        @Index(name = "idx_orders_restaurant_status", columnList = "restaurant_id, order_status"),
+        @Index(name = "idx_orders_branch_status", columnList = "branch_id, order_status")
+})
 public class Order {
 
     @Id
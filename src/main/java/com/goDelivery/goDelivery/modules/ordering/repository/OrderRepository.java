@@ -1,7 +1,7 @@
 package com.goDelivery.goDelivery.modules.ordering.repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import jakarta.persistence.LockModeType;
@@ -33,6 +33,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
         List<Order> findAllByBikersBikerId(Long bikerId);
 
+        // Orders a biker is still carrying (served by idx_orders_biker_status)
+        List<Order> findByBikersBikerIdAndOrderStatusNotIn(Long bikerId, Collection<OrderStatus> statuses);
+
+        // (orderId, bikerId, orderStatus) of every assigned order not in the given statuses
+        @Query("SELECT o.orderId, o.bikers.bikerId, o.orderStatus FROM Order o " +
+                        "WHERE o.bikers IS NOT NULL AND o.orderStatus NOT IN :statuses")
+        List<Object[]> findActiveDeliveryAssignments(@Param("statuses") Collection<OrderStatus> statuses);
+
         List<Order> findAllByOrderStatus(OrderStatus orderStatus);
 
         List<Order> findAllByBranch_BranchId(Long branchId);
@@ -70,35 +78,34 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                         @Param("restaurantId") Long restaurantId,
                         @Param("paymentStatus") PaymentStatus paymentStatus);
 
-        @Query("SELECT " +
-                        "COUNT(o) as total, " +
-                        "SUM(CASE WHEN o.orderStatus = 'PLACED' THEN 1 ELSE 0 END) as placed, " +
-                        "SUM(CASE WHEN o.orderStatus = 'CONFIRMED' THEN 1 ELSE 0 END) as confirmed, " +
-                        "SUM(CASE WHEN o.paymentStatus = 'PAID' THEN 1 ELSE 0 END) as paid, " +
-                        "SUM(CASE WHEN o.orderStatus = 'DELIVERED' THEN 1 ELSE 0 END) as delivered, " +
-                        "SUM(CASE WHEN o.orderStatus = 'CANCELLED' THEN 1 ELSE 0 END) as cancelled " +
-                        "FROM Order o WHERE o.restaurant.restaurantId = :restaurantId")
-        Map<String, Long> getOrderStatusCounts(@Param("restaurantId") Long restaurantId);
+        // ============ Status Histograms (see OrderStatisticsService) ============
+        // Rows are (orderStatus, paymentStatus, count)
 
-        // ============ Dashboard Aggregation Queries ============
+        @Query("SELECT o.orderStatus, o.paymentStatus, COUNT(o) FROM Order o " +
+                        "WHERE o.restaurant.restaurantId = :restaurantId GROUP BY o.orderStatus, o.paymentStatus")
+        List<Object[]> countByStatusForRestaurant(@Param("restaurantId") Long restaurantId);
 
-        // Count orders by date range
-        @Query("SELECT COUNT(o) FROM Order o WHERE o.orderPlacedAt BETWEEN :startDate AND :endDate")
-        Long countOrdersByDateRange(@Param("startDate") java.time.LocalDateTime startDate,
-                        @Param("endDate") java.time.LocalDateTime endDate);
+        @Query("SELECT o.orderStatus, o.paymentStatus, COUNT(o) FROM Order o " +
+                        "WHERE o.branch.branchId = :branchId GROUP BY o.orderStatus, o.paymentStatus")
+        List<Object[]> countByStatusForBranch(@Param("branchId") Long branchId);
 
-        // Count orders by restaurant and date range
-        @Query("SELECT COUNT(o) FROM Order o WHERE o.restaurant.restaurantId = :restaurantId " +
-                        "AND o.orderPlacedAt BETWEEN :startDate AND :endDate")
-        Long countOrdersByRestaurantAndDateRange(@Param("restaurantId") Long restaurantId,
+        @Query("SELECT o.orderStatus, o.paymentStatus, COUNT(o) FROM Order o " +
+                        "WHERE o.restaurant.restaurantId = :restaurantId " +
+                        "AND o.orderPlacedAt BETWEEN :startDate AND :endDate GROUP BY o.orderStatus, o.paymentStatus")
+        List<Object[]> countByStatusForRestaurantAndDateRange(@Param("restaurantId") Long restaurantId,
                         @Param("startDate") java.time.LocalDateTime startDate,
                         @Param("endDate") java.time.LocalDateTime endDate);
 
-        // Count orders by status and date range
-        @Query("SELECT COUNT(o) FROM Order o WHERE o.orderStatus = :status " +
-                        "AND o.orderPlacedAt BETWEEN :startDate AND :endDate")
-        Long countOrdersByStatusAndDateRange(@Param("status") OrderStatus status,
-                        @Param("startDate") java.time.LocalDateTime startDate,
+        @Query("SELECT o.orderStatus, o.paymentStatus, COUNT(o) FROM Order o " +
+                        "WHERE o.orderPlacedAt BETWEEN :startDate AND :endDate GROUP BY o.orderStatus, o.paymentStatus")
+        List<Object[]> countByStatusForDateRange(@Param("startDate") java.time.LocalDateTime startDate,
+                        @Param("endDate") java.time.LocalDateTime endDate);
+
+        // ============ Dashboard Aggregation Queries ============
+
+        // Count orders by date range
+        @Query("SELECT COUNT(o) FROM Order o WHERE o.orderPlacedAt BETWEEN :startDate AND :endDate")
+        Long countOrdersByDateRange(@Param("startDate") java.time.LocalDateTime startDate,
                         @Param("endDate") java.time.LocalDateTime endDate);
 
         // Sum total revenue by date range
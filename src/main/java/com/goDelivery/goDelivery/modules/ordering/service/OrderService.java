@@ -5,6 +5,7 @@ import com.goDelivery.goDelivery.shared.enums.PaymentStatus;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderRequest;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderResponse;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusCountsDTO;
+import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusHistogram;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusUpdate;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderMapper;
@@ -12,10 +13,13 @@ import com.goDelivery.goDelivery.modules.ordering.dto.OrderTrackingResponse;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
 import com.goDelivery.goDelivery.modules.ordering.model.OrderItem;
 import com.goDelivery.goDelivery.modules.restaurant.dto.RestaurantRevenueDTO;
+import com.goDelivery.goDelivery.modules.analytics.service.RevenueRollupService;
 import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
+import com.goDelivery.goDelivery.modules.delivery.service.ActiveDeliveryRegistry;
+import com.goDelivery.goDelivery.modules.delivery.service.OrderTrackingPublisher;
 import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItem;
 import com.goDelivery.goDelivery.modules.branch.model.BranchUsers;
 import com.goDelivery.goDelivery.modules.branch.model.Branches;
@@ -27,6 +31,7 @@ import com.goDelivery.goDelivery.modules.customer.repository.CustomerRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.MenuItemRepository;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
+import com.goDelivery.goDelivery.modules.restaurant.service.RestaurantPopularityTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -41,7 +46,6 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -58,6 +62,11 @@ public class OrderService {
     private final BikersRepository bikersRepository;
     private final BranchUsersRepository branchUsersRepository;
     private final BranchesRepository branchesRepository;
+    private final ActiveDeliveryRegistry activeDeliveryRegistry;
+    private final OrderTrackingPublisher orderTrackingPublisher;
+    private final RevenueRollupService revenueRollupService;
+    private final OrderStatisticsService orderStatisticsService;
+    private final RestaurantPopularityTracker restaurantPopularityTracker;
 
     @Transactional
     public List<OrderResponse> createOrder(OrderRequest orderRequest) {
@@ -254,6 +263,7 @@ public class OrderService {
 
         // Save the order - cascade will save the order items
         Order savedOrder = orderRepository.save(order);
+        restaurantPopularityTracker.recordOrderPlaced(restaurant.getRestaurantId());
 
         return orderMapper.toOrderResponse(savedOrder);
     }
@@ -304,12 +314,15 @@ public class OrderService {
         Order order = orderRepository.findByOrderId(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
 
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(statusUpdate.getStatus());
         if (statusUpdate.getStatus() == OrderStatus.DELIVERED) {
             order.setDeliveredAt(LocalDate.now());
         }
 
         Order updatedOrder = orderRepository.save(order);
+        activeDeliveryRegistry.track(updatedOrder);
+        orderTrackingPublisher.onStatusChange(updatedOrder, previousStatus);
         return orderMapper.toOrderResponse(updatedOrder);
     }
 
@@ -361,6 +374,8 @@ public class OrderService {
         order.setCancelledAt(LocalDate.now());
 
         Order cancelledOrder = orderRepository.save(order);
+        activeDeliveryRegistry.untrack(orderId);
+        orderTrackingPublisher.stopTracking(cancelledOrder);
         return orderMapper.toOrderResponse(cancelledOrder);
     }
 
@@ -491,29 +506,25 @@ public class OrderService {
         return orderRepository.countByBranch_BranchId(branchId);
     }
 
+    @Transactional(readOnly = true)
+    public OrderStatusHistogram getBranchOrderStatusHistogram(Long branchId) {
+        // Verify the authenticated user has access to this branch
+        verifyBranchAccess(branchId);
+
+        return orderStatisticsService.forBranch(branchId);
+    }
+
     @Transactional(readOnly = true)
     public RestaurantOrderStats getRestaurantOrderStats(Long restaurantId) {
         // Verify the authenticated user owns this restaurant
         verifyRestaurantAccess(restaurantId);
 
-        long totalOrders = orderRepository.countByRestaurant_RestaurantId(restaurantId);
-        List<Order> orders = orderRepository.findAllByRestaurantRestaurantId(restaurantId);
-
-        long completedOrders = orders.stream()
-                .filter(o -> o.getOrderStatus() == OrderStatus.DELIVERED)
-                .count();
+        OrderStatusHistogram histogram = orderStatisticsService.forRestaurant(restaurantId);
 
-        long cancelledOrders = orders.stream()
-                .filter(o -> o.getOrderStatus() == OrderStatus.CANCELLED)
-                .count();
-
-        long pendingOrders = orders.stream()
-                .filter(o -> o.getOrderStatus() == OrderStatus.PLACED ||
-                        o.getOrderStatus() == OrderStatus.CONFIRMED ||
-                        o.getOrderStatus() == OrderStatus.PREPARING)
-                .count();
-
-        return new RestaurantOrderStats(totalOrders, completedOrders, cancelledOrders, pendingOrders);
+        return new RestaurantOrderStats(histogram.getTotalOrders(),
+                histogram.count(OrderStatus.DELIVERED),
+                histogram.count(OrderStatus.CANCELLED),
+                histogram.count(OrderStatus.PLACED, OrderStatus.CONFIRMED, OrderStatus.PREPARING));
     }
 
     @Transactional(readOnly = true)
@@ -521,105 +532,22 @@ public class OrderService {
         // Verify access
         verifyRestaurantAccess(restaurantId);
 
-        // Get all delivered or completed orders for the restaurant
-        List<Order> orders = orderRepository.findByRestaurant_RestaurantIdAndPaymentStatus(
-                restaurantId,
-                PaymentStatus.PAID);
-
-        // Filter only orders that are either DELIVERED or CONFIRMED
-        List<Order> validOrders = orders.stream()
-                .filter(order -> order.getOrderStatus() == OrderStatus.DELIVERED ||
-                        order.getOrderStatus() == OrderStatus.CONFIRMED)
-                .collect(Collectors.toList());
-
-        // Calculate different revenue metrics
-        LocalDate today = LocalDate.now();
-        LocalDate weekStart = today.minusDays(today.getDayOfWeek().getValue() - 1); // Start of current week (Monday)
-        LocalDate monthStart = today.withDayOfMonth(1); // Start of current month
-        LocalDate thirtyDaysAgo = today.minusDays(30); // For 30-day history
-
-        double totalRevenue = validOrders.stream()
-                .mapToDouble(Order::getFinalAmount)
-                .sum();
-
-        double todayRevenue = validOrders.stream()
-                .filter(order -> order.getDeliveredAt() != null &&
-                        order.getDeliveredAt().isEqual(today) ||
-                        (order.getOrderStatus() == OrderStatus.CONFIRMED &&
-                                order.getOrderConfirmedAt() != null &&
-                                order.getOrderConfirmedAt().isEqual(today)))
-                .mapToDouble(Order::getFinalAmount)
-                .sum();
-
-        double thisWeekRevenue = validOrders.stream()
-                .filter(order -> {
-                    LocalDate orderDate = order.getDeliveredAt() != null ? order.getDeliveredAt()
-                            : order.getOrderConfirmedAt();
-                    return orderDate != null &&
-                            !orderDate.isBefore(weekStart) &&
-                            !orderDate.isAfter(today);
-                })
-                .mapToDouble(Order::getFinalAmount)
-                .sum();
-
-        double thisMonthRevenue = validOrders.stream()
-                .filter(order -> {
-                    LocalDate orderDate = order.getDeliveredAt() != null ? order.getDeliveredAt()
-                            : order.getOrderConfirmedAt();
-                    return orderDate != null &&
-                            !orderDate.isBefore(monthStart) &&
-                            !orderDate.isAfter(today);
-                })
-                .mapToDouble(Order::getFinalAmount)
-                .sum();
-
-        // Calculate daily revenue for last 30 days
-        Map<LocalDate, Double> dailyRevenue = validOrders.stream()
-                .filter(order -> {
-                    LocalDate orderDate = order.getDeliveredAt() != null ? order.getDeliveredAt()
-                            : order.getOrderConfirmedAt();
-                    return orderDate != null &&
-                            !orderDate.isBefore(thirtyDaysAgo) &&
-                            !orderDate.isAfter(today);
-                })
-                .collect(Collectors.groupingBy(
-                        order -> order.getDeliveredAt() != null ? order.getDeliveredAt() : order.getOrderConfirmedAt(),
-                        TreeMap::new,
-                        Collectors.summingDouble(Order::getFinalAmount)));
-
-        // Calculate revenue by payment method
-        Map<String, Double> revenueByPaymentMethod = validOrders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getPaymentMethod().name(),
-                        Collectors.summingDouble(Order::getFinalAmount)));
-
-        return RestaurantRevenueDTO.builder()
-                .totalRevenue(roundToTwoDecimals(totalRevenue))
-                .todayRevenue(roundToTwoDecimals(todayRevenue))
-                .thisWeekRevenue(roundToTwoDecimals(thisWeekRevenue))
-                .thisMonthRevenue(roundToTwoDecimals(thisMonthRevenue))
-                .dailyRevenue(dailyRevenue)
-                .revenueByPaymentMethod(revenueByPaymentMethod)
-                .build();
-    }
-
-    private double roundToTwoDecimals(double value) {
-        return Math.round(value * 100.0) / 100.0;
+        return revenueRollupService.getRestaurantRevenue(restaurantId);
     }
 
     @Transactional(readOnly = true)
     public OrderStatusCountsDTO getOrderStatusCountsByRestaurant(Long restaurantId) {
         verifyRestaurantAccess(restaurantId);
-        Map<String, Long> counts = orderRepository.getOrderStatusCounts(restaurantId);
+        OrderStatusHistogram histogram = orderStatisticsService.forRestaurant(restaurantId);
 
         return OrderStatusCountsDTO.builder()
-                .totalOrders(counts.getOrDefault("total", 0L))
-                .placedOrders(counts.getOrDefault("placed", 0L))
-                .confirmedOrders(counts.getOrDefault("confirmed", 0L))
-                .paidOrders(counts.getOrDefault("paid", 0L))
-                .deliveredOrders(counts.getOrDefault("delivered", 0L))
-                .cancelledOrders(counts.getOrDefault("cancelled", 0L))
-                .pendingOrders(counts.getOrDefault("placed", 0L) + counts.getOrDefault("confirmed", 0L))
+                .totalOrders(histogram.getTotalOrders())
+                .placedOrders(histogram.count(OrderStatus.PLACED))
+                .confirmedOrders(histogram.count(OrderStatus.CONFIRMED))
+                .paidOrders(histogram.getPaidOrders())
+                .deliveredOrders(histogram.count(OrderStatus.DELIVERED))
+                .cancelledOrders(histogram.count(OrderStatus.CANCELLED))
+                .pendingOrders(histogram.count(OrderStatus.PLACED, OrderStatus.CONFIRMED))
                 .build();
     }
 
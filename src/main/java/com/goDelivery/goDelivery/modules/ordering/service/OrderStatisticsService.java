@@ -0,0 +1,68 @@
+package com.goDelivery.goDelivery.modules.ordering.service;
+
+import com.goDelivery.goDelivery.modules.ordering.dto.OrderStatusHistogram;
+import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import com.goDelivery.goDelivery.shared.enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order status histograms shared by the order endpoints and the restaurant
+ * and super admin dashboards. Each histogram is one grouped count query
+ * over the (restaurant_id, order_status) / (branch_id, order_status)
+ * indexes instead of one query per status or loading the orders.
+ *
+ * Callers do not check access; that is up to the endpoint using them.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OrderStatisticsService {
+
+    private final OrderRepository orderRepository;
+
+    public OrderStatusHistogram forRestaurant(Long restaurantId) {
+        return toHistogram(orderRepository.countByStatusForRestaurant(restaurantId));
+    }
+
+    public OrderStatusHistogram forRestaurant(Long restaurantId, LocalDateTime start, LocalDateTime end) {
+        return toHistogram(orderRepository.countByStatusForRestaurantAndDateRange(restaurantId, start, end));
+    }
+
+    public OrderStatusHistogram forBranch(Long branchId) {
+        return toHistogram(orderRepository.countByStatusForBranch(branchId));
+    }
+
+    public OrderStatusHistogram forPlatform(LocalDateTime start, LocalDateTime end) {
+        return toHistogram(orderRepository.countByStatusForDateRange(start, end));
+    }
+
+    // Rows are (orderStatus, paymentStatus, count)
+    private OrderStatusHistogram toHistogram(List<Object[]> rows) {
+        Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+        long total = 0;
+        long paid = 0;
+        for (Object[] row : rows) {
+            long count = ((Number) row[2]).longValue();
+            total += count;
+            if (row[1] == PaymentStatus.PAID) {
+                paid += count;
+            }
+            if (row[0] != null) {
+                statusCounts.merge((OrderStatus) row[0], count, Long::sum);
+            }
+        }
+        return OrderStatusHistogram.builder()
+                .totalOrders(total)
+                .paidOrders(paid)
+                .statusCounts(statusCounts)
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import com.goDelivery.goDelivery.modules.ordering.dto.OrderResponse;
 import com.goDelivery.goDelivery.modules.ordering.dto.OrderMapper;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.delivery.service.BikerService;
+import com.goDelivery.goDelivery.modules.delivery.service.ActiveDeliveryRegistry;
+import com.goDelivery.goDelivery.modules.delivery.service.OrderTrackingPublisher;
 import com.goDelivery.goDelivery.modules.notification.service.NotificationService;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
@@ -27,6 +29,8 @@ public class OrderStatusUpdateService {
     private final OrderMapper orderMapper;
     private final NotificationService notificationService;
     private final BikerService bikerService;
+    private final ActiveDeliveryRegistry activeDeliveryRegistry;
+    private final OrderTrackingPublisher orderTrackingPublisher;
 
     @Transactional
     public OrderResponse updateOrderStatusWithNotification(Order order, OrderStatus newStatus) {
@@ -60,6 +64,8 @@ public class OrderStatusUpdateService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        activeDeliveryRegistry.track(updatedOrder);
+        orderTrackingPublisher.onStatusChange(updatedOrder, currentStatus);
 
         // Send notification
         sendStatusUpdateNotification(updatedOrder, currentStatus, newStatus);
@@ -1,7 +1,9 @@
 package com.goDelivery.goDelivery.modules.payment.controller;
 
-import java.util.List;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -79,25 +81,28 @@ public class DisbursementController {
 
     @GetMapping("/restaurant/transactions")
     @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'CASHIER')")
-    public ResponseEntity<List<DisbursementSummaryDTO>> getRestaurantDisbursements() {
+    public ResponseEntity<Page<DisbursementSummaryDTO>> getRestaurantDisbursements(
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         RestaurantUsers currentUser = userService.getCurrentUser();
         Restaurant restaurant = currentUser.getRestaurant();
         if (restaurant == null) {
             throw new ResourceNotFoundException("Restaurant not found for current user");
         }
 
-        return ResponseEntity.ok(disbursementService.getDisbursementsForRestaurant(restaurant.getRestaurantId()));
+        return ResponseEntity.ok(disbursementService.getDisbursementsForRestaurant(restaurant.getRestaurantId(), pageable));
     }
 
     @GetMapping("/admin/summary")
     @PreAuthorize("hasRole('ROLE_SUPER_ADMIN')")
-    public ResponseEntity<List<RestaurantDisbursementSummaryDTO>> getAllRestaurantSummaries() {
-        return ResponseEntity.ok(disbursementService.getRestaurantDisbursementSummaries());
+    public ResponseEntity<Page<RestaurantDisbursementSummaryDTO>> getAllRestaurantSummaries(
+            @PageableDefault(size = 20, sort = "totalAmount", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(disbursementService.getRestaurantDisbursementSummaries(pageable));
     }
 
     @GetMapping("/admin/transactions")
     @PreAuthorize("hasRole('ROLE_SUPER_ADMIN')")
-    public ResponseEntity<List<DisbursementSummaryDTO>> getAllDisbursements() {
-        return ResponseEntity.ok(disbursementService.getAllDisbursements());
+    public ResponseEntity<Page<DisbursementSummaryDTO>> getAllDisbursements(
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(disbursementService.getAllDisbursements(pageable));
     }
 }
@@ -11,6 +11,7 @@ import com.goDelivery.goDelivery.modules.payment.repository.DisbursementTransact
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.modules.payment.service.DisbursementService;
 import com.goDelivery.goDelivery.modules.payment.service.MomoService;
+import com.goDelivery.goDelivery.modules.payment.service.WebhookInboxService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -41,6 +42,7 @@ import java.util.stream.Collectors;
 public class MomoPaymentController {
 
     private final MomoService momoService;
+    private final WebhookInboxService webhookInboxService;
     private final DisbursementService disbursementService;
     private final OrderRepository orderRepository;
     private final DisbursementTransactionRepository disbursementTransactionRepository;
@@ -129,7 +131,8 @@ public class MomoPaymentController {
             log.info("Received MoMo webhook for reference ID: {}", webhookRequest.getReferenceId());
             log.debug("Webhook payload: {}", webhookRequest);
 
-            momoService.handleWebhook(webhookRequest);
+            // Acknowledged once stored; the transaction is updated from the webhook inbox
+            webhookInboxService.appendMomo(webhookRequest);
 
             return ResponseEntity.ok().build();
         } catch (Exception e) {
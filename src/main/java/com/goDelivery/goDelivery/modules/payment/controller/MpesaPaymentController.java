@@ -5,6 +5,7 @@ import com.goDelivery.goDelivery.modules.payment.dto.MpesaPaymentResponse;
 import com.goDelivery.goDelivery.modules.payment.dto.MpesaWebhookRequest;
 import com.goDelivery.goDelivery.modules.payment.service.MpesaPaymentService;
 import com.goDelivery.goDelivery.modules.payment.service.PaymentService;
+import com.goDelivery.goDelivery.modules.payment.service.WebhookInboxService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,6 +26,7 @@ public class MpesaPaymentController {
 
     private final MpesaPaymentService mpesaPaymentService;
     private final PaymentService paymentService;
+    private final WebhookInboxService webhookInboxService;
 
     @PostMapping("/initiate")
     @Operation(
@@ -51,8 +53,9 @@ public class MpesaPaymentController {
     )
     public ResponseEntity<Void> handleWebhook(
             @Valid @RequestBody MpesaWebhookRequest webhookRequest) {
-        // Delegate webhook handling to PaymentService
-        paymentService.handleMpesaWebhook(webhookRequest);
+        // Acknowledged once stored; the payment is updated from the webhook inbox
+        paymentService.verifyMpesaWebhook(webhookRequest);
+        webhookInboxService.appendMpesaPayment(webhookRequest);
         return ResponseEntity.ok().build();
     }
 
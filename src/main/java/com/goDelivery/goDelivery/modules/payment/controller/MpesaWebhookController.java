@@ -3,6 +3,7 @@ package com.goDelivery.goDelivery.modules.payment.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.goDelivery.goDelivery.modules.payment.service.MpesaPaymentService;
+import com.goDelivery.goDelivery.modules.payment.service.WebhookInboxService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ import java.util.Map;
 @Tag(name = "MPESA Webhook", description = "MPESA Webhook management")
 public class MpesaWebhookController {
     
+    private final WebhookInboxService webhookInboxService;
     private final MpesaPaymentService mpesaPaymentService;
     private final ObjectMapper objectMapper;
     
@@ -48,8 +50,15 @@ public class MpesaWebhookController {
                         .body(createErrorResponse("Invalid or expired timestamp"));
             }
             
-            // Process the webhook asynchronously
-            mpesaPaymentService.processWebhook(payload, signature);
+            // Checked before the callback claims its inbox key, so a forged one cannot shadow the genuine one
+            if (!mpesaPaymentService.validateWebhookSignature(payload, signature)) {
+                log.warn("Rejected webhook with invalid or missing signature for transaction: {}", transactionId);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(createErrorResponse("Invalid or missing webhook signature"));
+            }
+            
+            // Stored for the webhook inbox, which processes it off the request thread
+            webhookInboxService.appendMpesaTransaction(payload, signature);
             
             // Always return 200 OK to acknowledge receipt
             return ResponseEntity.ok(createSuccessResponse(transactionId));
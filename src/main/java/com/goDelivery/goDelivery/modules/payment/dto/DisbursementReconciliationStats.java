@@ -0,0 +1,27 @@
+package com.goDelivery.goDelivery.modules.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisbursementReconciliationStats {
+
+    private LocalDateTime lastRunAt;
+    private long lastRunMillis;
+    private int lastRunPending; // pending transactions checked by the last run
+    private int lastRunSettled;
+    private long oldestPendingSeconds; // age of the oldest transaction still pending after the last run
+    private long runs;
+    private long checks;
+    private long checkFailures;
+    private long settled;
+    private long averageSecondsToSettle; // from creation to being settled by reconciliation
+    private long maxSecondsToSettle;
+}
@@ -3,6 +3,8 @@ package com.goDelivery.goDelivery.modules.payment.dto;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.goDelivery.goDelivery.shared.enums.DisbursementStatus;
+
 import lombok.*;
 
 
@@ -22,4 +24,12 @@ public class DisbursementSummaryDTO {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Constructor for the projection queries in DisbursementTransactionRepository
+    public DisbursementSummaryDTO(Long transactionId, String referenceId, Long orderId, String orderNumber,
+                                  Long restaurantId, String restaurantName, Double amount, Double commission,
+                                  DisbursementStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(transactionId, referenceId, orderId, orderNumber, restaurantId, restaurantName,
+                BigDecimal.valueOf(amount), BigDecimal.valueOf(commission), status.name(), createdAt, updatedAt);
+    }
 }
@@ -0,0 +1,23 @@
+package com.goDelivery.goDelivery.modules.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatusPollerStats {
+
+    private int pending; // payments still waiting for a final status
+    private int inFlight;
+    private long checks;
+    private long checkFailures;
+    private long deferred; // checks pushed to the next tick because every worker was busy
+    private long completed;
+    private long timedOut;
+    private long averageMillisToFinal;
+    private long maxMillisToFinal;
+}
@@ -1,6 +1,7 @@
 package com.goDelivery.goDelivery.modules.payment.dto;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 
 import lombok.*;
@@ -15,6 +16,8 @@ public class RestaurantDisbursementSummaryDTO {
     private BigDecimal totalDisbursed;
     private BigDecimal totalCommission;
     private Long totalTransactions;
+    private Long settledTransactions;
+    private BigDecimal settledAmount;
     private List<DisbursementSummaryDTO> transactions;
     
     // Constructor for queries without transactions (5 parameters)
@@ -28,4 +31,19 @@ public class RestaurantDisbursementSummaryDTO {
         this.totalTransactions = totalTransactions;
         this.transactions = null;
     }
+
+    // Constructor for the ledger queries in DisbursementLedgerRepository (7 parameters)
+    public RestaurantDisbursementSummaryDTO(Long restaurantId, String restaurantName,
+                                           Double totalDisbursed, Double totalCommission,
+                                           Long totalTransactions, Long settledTransactions,
+                                           Double settledAmount) {
+        this(restaurantId, restaurantName, toMoney(totalDisbursed), toMoney(totalCommission), totalTransactions);
+        this.settledTransactions = settledTransactions;
+        this.settledAmount = toMoney(settledAmount);
+    }
+
+    // The ledger sums doubles, so totals are rounded back to cents
+    private static BigDecimal toMoney(Double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
 }
@@ -0,0 +1,46 @@
+package com.goDelivery.goDelivery.modules.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Disbursement totals of one restaurant. Maintained incrementally by
+ * {@link com.goDelivery.goDelivery.modules.payment.service.DisbursementLedgerService}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "disbursement_ledger", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_disbursement_ledger_restaurant", columnNames = "restaurant_id")
+})
+public class DisbursementLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long ledgerId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    // All disbursement transactions, whatever their status
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount;
+
+    @Column(name = "total_commission", nullable = false)
+    private Double totalCommission;
+
+    // Transactions the provider reported as successful
+    @Column(name = "settled_count", nullable = false)
+    private Long settledCount;
+
+    @Column(name = "settled_amount", nullable = false)
+    private Double settledAmount;
+}
@@ -12,7 +12,10 @@ import lombok.*;
 
 
 @Entity
-@Table(name = "disbursement_transactions")
+@Table(name = "disbursement_transactions", indexes = {
+        @Index(name = "idx_disbursement_restaurant_created", columnList = "restaurant_id, created_at"),
+        @Index(name = "idx_disbursement_status", columnList = "status, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,54 @@
+package com.goDelivery.goDelivery.modules.payment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending M-Pesa payment whose status is checked with the provider at
+ * {@code dueAt}. Claimed by one instance at a time through a lease and
+ * removed once the payment reaches a final status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "mpesa_status_checks", uniqueConstraints = {
+        // One pending check per order
+        @UniqueConstraint(name = "uk_mpesa_status_check_order", columnNames = "order_id")
+}, indexes = {
+        @Index(name = "idx_mpesa_status_check_due", columnList = "due_at")
+})
+public class MpesaStatusCheck {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 100)
+    private String transactionId;
+
+    // Checks already made
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    // Poll that holds the check, and until when
+    @Column(length = 36)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,72 @@
+package com.goDelivery.goDelivery.modules.payment.model;
+
+import com.goDelivery.goDelivery.shared.enums.WebhookInboxStatus;
+import com.goDelivery.goDelivery.shared.enums.WebhookSource;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A payment provider callback, stored as received and processed later by
+ * {@link com.goDelivery.goDelivery.modules.payment.service.WebhookInboxProcessor}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "webhook_inbox", uniqueConstraints = {
+        // A provider resending the same callback is stored once
+        @UniqueConstraint(name = "uk_webhook_inbox_event", columnNames = { "source", "event_key" })
+}, indexes = {
+        @Index(name = "idx_webhook_inbox_status_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_webhook_inbox_ordering", columnList = "ordering_key, id")
+})
+public class WebhookInboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private WebhookSource source;
+
+    // Provider transaction id and reported status
+    @Column(name = "event_key", nullable = false, length = 200)
+    private String eventKey;
+
+    // Callbacks with the same key are processed one at a time, in the order received
+    @Column(name = "ordering_key", nullable = false, length = 200)
+    private String orderingKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(length = 512)
+    private String signature;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookInboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime claimedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,30 @@
+package com.goDelivery.goDelivery.modules.payment.repository;
+
+import com.goDelivery.goDelivery.modules.payment.dto.RestaurantDisbursementSummaryDTO;
+import com.goDelivery.goDelivery.modules.payment.model.DisbursementLedger;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DisbursementLedgerRepository extends JpaRepository<DisbursementLedger, Long> {
+
+        @Query(value = "SELECT NEW com.goDelivery.goDelivery.modules.payment.dto.RestaurantDisbursementSummaryDTO("
+                        + "l.restaurantId, r.restaurantName, l.totalAmount, l.totalCommission, l.transactionCount, "
+                        + "l.settledCount, l.settledAmount) "
+                        + "FROM DisbursementLedger l, Restaurant r WHERE r.restaurantId = l.restaurantId",
+                        countQuery = "SELECT COUNT(l) FROM DisbursementLedger l")
+        Page<RestaurantDisbursementSummaryDTO> findSummaries(Pageable pageable);
+
+        @Query("SELECT NEW com.goDelivery.goDelivery.modules.payment.dto.RestaurantDisbursementSummaryDTO("
+                        + "l.restaurantId, r.restaurantName, l.totalAmount, l.totalCommission, l.transactionCount, "
+                        + "l.settledCount, l.settledAmount) "
+                        + "FROM DisbursementLedger l, Restaurant r "
+                        + "WHERE r.restaurantId = l.restaurantId AND l.restaurantId = :restaurantId")
+        Optional<RestaurantDisbursementSummaryDTO> findSummary(@Param("restaurantId") Long restaurantId);
+}
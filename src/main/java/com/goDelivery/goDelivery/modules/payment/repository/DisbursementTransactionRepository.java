@@ -1,15 +1,22 @@
 package com.goDelivery.goDelivery.modules.payment.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 import com.goDelivery.goDelivery.shared.enums.DisbursementStatus;
+import com.goDelivery.goDelivery.modules.payment.dto.DisbursementSummaryDTO;
 import com.goDelivery.goDelivery.modules.payment.model.DisbursementTransaction;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
 
@@ -21,8 +28,22 @@ public interface DisbursementTransactionRepository extends JpaRepository<Disburs
 
        List<DisbursementTransaction> findByStatus(DisbursementStatus status);
 
+       // Keyset page of transactions in a status, for walking large sets without offsets
+       List<DisbursementTransaction> findByStatusAndIdGreaterThanOrderByIdAsc(DisbursementStatus status, Long id,
+                     Pageable pageable);
+
        Optional<DisbursementTransaction> findByReferenceId(String referenceId);
 
+       // Status changes read the current status under a row lock, so the ledger delta is applied once
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT t FROM DisbursementTransaction t WHERE t.referenceId = :referenceId")
+       Optional<DisbursementTransaction> findByReferenceIdForUpdate(@Param("referenceId") String referenceId);
+
+       // Locks in id order, so a batch and a single callback cannot deadlock
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT t FROM DisbursementTransaction t WHERE t.id IN :ids ORDER BY t.id")
+       List<DisbursementTransaction> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
        @Modifying
        @Query("UPDATE DisbursementTransaction t SET t.referenceId = :referenceId WHERE t.order.id = :orderId")
        void updateReferenceIdByOrder(@Param("referenceId") String referenceId, @Param("orderId") Long orderId);
@@ -32,43 +53,21 @@ public interface DisbursementTransactionRepository extends JpaRepository<Disburs
        void updateReferenceIdByOrderIn(@Param("referenceId") String referenceId,
                      @Param("orderIds") List<Long> orderIds);
 
-       // Temporarily commented out due to constructor resolution issues
-       /*
-        * @Query("SELECT new com.goDelivery.goDelivery.modules.payment.dto.DisbursementSummaryDTO("
-        * +
-        * "dt.id, dt.referenceId, dt.order.orderId, dt.order.orderNumber, dt.restaurant.id, dt.restaurant.restaurantName, "
-        * +
-        * "CAST(dt.amount AS java.math.BigDecimal), CAST(dt.commission AS java.math.BigDecimal), "
-        * +
-        * "dt.status, dt.createdAt, dt.updatedAt) " +
-        * "FROM DisbursementTransaction dt " +
-        * "WHERE dt.restaurant.id = :restaurantId " +
-        * "ORDER BY dt.createdAt DESC")
-        * List<DisbursementSummaryDTO>
-        * findDisbursementSummaryByRestaurantId(@Param("restaurantId") Long
-        * restaurantId);
-        * 
-        * @Query("SELECT new com.goDelivery.goDelivery.modules.payment.dto.DisbursementSummaryDTO("
-        * +
-        * "dt.id, dt.referenceId, dt.order.orderId, dt.order.orderNumber, dt.restaurant.id, dt.restaurant.restaurantName, "
-        * +
-        * "CAST(dt.amount AS java.math.BigDecimal), CAST(dt.commission AS java.math.BigDecimal), "
-        * +
-        * "dt.status, dt.createdAt, dt.updatedAt) " +
-        * "FROM DisbursementTransaction dt " +
-        * "ORDER BY dt.createdAt DESC")
-        * List<DisbursementSummaryDTO> findAllDisbursementSummaries();
-        * 
-        * @Query("SELECT NEW com.goDelivery.goDelivery.modules.payment.dto.RestaurantDisbursementSummaryDTO("
-        * +
-        * "r.id, r.restaurantName, " +
-        * "COALESCE(CAST(SUM(dt.amount) AS java.math.BigDecimal), 0), " +
-        * "COALESCE(CAST(SUM(dt.commission) AS java.math.BigDecimal), 0), " +
-        * "CAST(COUNT(dt) AS java.lang.Long)) " +
-        * "FROM DisbursementTransaction dt " +
-        * "JOIN dt.restaurant r " +
-        * "GROUP BY r.id, r.restaurantName")
-        * List<RestaurantDisbursementSummaryDTO> getRestaurantDisbursementSummaries();
-        */
+       @Query(value = "SELECT NEW com.goDelivery.goDelivery.modules.payment.dto.DisbursementSummaryDTO("
+                     + "dt.id, dt.referenceId, o.orderId, o.orderNumber, r.restaurantId, r.restaurantName, "
+                     + "dt.amount, dt.commission, dt.status, dt.createdAt, dt.updatedAt) "
+                     + "FROM DisbursementTransaction dt JOIN dt.order o JOIN dt.restaurant r "
+                     + "WHERE r.restaurantId = :restaurantId",
+                     countQuery = "SELECT COUNT(dt) FROM DisbursementTransaction dt "
+                                   + "WHERE dt.restaurant.restaurantId = :restaurantId")
+       Page<DisbursementSummaryDTO> findSummariesByRestaurantId(@Param("restaurantId") Long restaurantId,
+                     Pageable pageable);
+
+       @Query(value = "SELECT NEW com.goDelivery.goDelivery.modules.payment.dto.DisbursementSummaryDTO("
+                     + "dt.id, dt.referenceId, o.orderId, o.orderNumber, r.restaurantId, r.restaurantName, "
+                     + "dt.amount, dt.commission, dt.status, dt.createdAt, dt.updatedAt) "
+                     + "FROM DisbursementTransaction dt JOIN dt.order o JOIN dt.restaurant r",
+                     countQuery = "SELECT COUNT(dt) FROM DisbursementTransaction dt")
+       Page<DisbursementSummaryDTO> findSummaries(Pageable pageable);
 
 }
\ No newline at end of file
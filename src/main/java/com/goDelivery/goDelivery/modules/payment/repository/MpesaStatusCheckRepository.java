@@ -0,0 +1,52 @@
+package com.goDelivery.goDelivery.modules.payment.repository;
+
+import com.goDelivery.goDelivery.modules.payment.model.MpesaStatusCheck;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MpesaStatusCheckRepository extends JpaRepository<MpesaStatusCheck, Long> {
+
+    // Due checks that no live lease holds
+    @Query("SELECT c.id FROM MpesaStatusCheck c WHERE c.dueAt <= :now " +
+            "AND (c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :now) ORDER BY c.dueAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only the checks whose lease is still free are taken, so concurrent polls never share one
+    @Transactional
+    @Modifying
+    @Query("UPDATE MpesaStatusCheck c SET c.leaseOwner = :owner, c.leaseExpiresAt = :until " +
+            "WHERE c.id IN :ids AND (c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+            @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    List<MpesaStatusCheck> findByLeaseOwner(String leaseOwner);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MpesaStatusCheck c SET c.attempts = :attempts, c.dueAt = :dueAt, " +
+            "c.leaseOwner = NULL, c.leaseExpiresAt = NULL WHERE c.id = :id AND c.leaseOwner = :owner")
+    int reschedule(@Param("id") Long id, @Param("owner") String owner, @Param("attempts") int attempts,
+            @Param("dueAt") LocalDateTime dueAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MpesaStatusCheck c WHERE c.id = :id AND c.leaseOwner = :owner")
+    int complete(@Param("id") Long id, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MpesaStatusCheck c WHERE c.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+
+    boolean existsByOrderId(Long orderId);
+}
@@ -0,0 +1,45 @@
+package com.goDelivery.goDelivery.modules.payment.repository;
+
+import com.goDelivery.goDelivery.modules.payment.model.WebhookInboxEntry;
+import com.goDelivery.goDelivery.shared.enums.WebhookInboxStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEntry, Long> {
+
+    // Due entries that are the oldest unfinished entry for their ordering key
+    @Query("SELECT e FROM WebhookInboxEntry e WHERE e.status = :pending AND e.nextAttemptAt <= :now " +
+            "AND NOT EXISTS (SELECT o.id FROM WebhookInboxEntry o WHERE o.orderingKey = e.orderingKey " +
+            "AND o.id < e.id AND o.status IN :unfinished) ORDER BY e.id")
+    List<WebhookInboxEntry> findDue(@Param("pending") WebhookInboxStatus pending,
+            @Param("unfinished") Collection<WebhookInboxStatus> unfinished,
+            @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = :to, e.claimedAt = :now WHERE e.id = :id AND e.status = :from")
+    int transition(@Param("id") Long id, @Param("from") WebhookInboxStatus from,
+            @Param("to") WebhookInboxStatus to, @Param("now") LocalDateTime now);
+
+    // Claims left behind by an instance that stopped mid-processing
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = :pending WHERE e.status = :processing AND e.claimedAt < :before")
+    int releaseStaleClaims(@Param("processing") WebhookInboxStatus processing,
+            @Param("pending") WebhookInboxStatus pending, @Param("before") LocalDateTime before);
+
+    Page<WebhookInboxEntry> findByStatusOrderByIdDesc(WebhookInboxStatus status, Pageable pageable);
+
+    long countByStatus(WebhookInboxStatus status);
+}
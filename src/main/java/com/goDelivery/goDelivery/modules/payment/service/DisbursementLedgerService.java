@@ -0,0 +1,137 @@
+package com.goDelivery.goDelivery.modules.payment.service;
+
+import com.goDelivery.goDelivery.modules.payment.repository.DisbursementLedgerRepository;
+import com.goDelivery.goDelivery.shared.enums.DisbursementStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the per-restaurant {@code disbursement_ledger} table current so
+ * disbursement summaries read one row per restaurant instead of every
+ * disbursement transaction.
+ *
+ * {@link DisbursementService} records each new transaction and each status
+ * change in the same transaction as the change itself. {@link #rebuild()}
+ * recomputes the table from the transactions: on startup when it is empty,
+ * nightly to correct any drift, and on demand.
+ */
+@Slf4j
+@Service
+public class DisbursementLedgerService {
+
+    private static final String UPSERT_POSTGRES_SQL =
+            "INSERT INTO disbursement_ledger (restaurant_id, transaction_count, total_amount, total_commission, "
+                    + "settled_count, settled_amount) VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (restaurant_id) DO UPDATE SET "
+                    + "transaction_count = disbursement_ledger.transaction_count + EXCLUDED.transaction_count, "
+                    + "total_amount = disbursement_ledger.total_amount + EXCLUDED.total_amount, "
+                    + "total_commission = disbursement_ledger.total_commission + EXCLUDED.total_commission, "
+                    + "settled_count = disbursement_ledger.settled_count + EXCLUDED.settled_count, "
+                    + "settled_amount = disbursement_ledger.settled_amount + EXCLUDED.settled_amount";
+
+    private static final String UPDATE_SQL =
+            "UPDATE disbursement_ledger SET transaction_count = transaction_count + ?, total_amount = total_amount + ?, "
+                    + "total_commission = total_commission + ?, settled_count = settled_count + ?, "
+                    + "settled_amount = settled_amount + ? WHERE restaurant_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO disbursement_ledger (restaurant_id, transaction_count, total_amount, total_commission, "
+                    + "settled_count, settled_amount) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO disbursement_ledger (restaurant_id, transaction_count, total_amount, total_commission, "
+                    + "settled_count, settled_amount) "
+                    + "SELECT restaurant_id, COUNT(*), SUM(amount), SUM(commission), "
+                    + "SUM(CASE WHEN status = 'SUCCESSFUL' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN status = 'SUCCESSFUL' THEN amount ELSE 0 END) "
+                    + "FROM disbursement_transactions GROUP BY restaurant_id";
+
+    private final DisbursementLedgerRepository disbursementLedgerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Boolean postgres;
+
+    public DisbursementLedgerService(DisbursementLedgerRepository disbursementLedgerRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.disbursementLedgerRepository = disbursementLedgerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    void recordCreated(Long restaurantId, double amount, double commission) {
+        apply(restaurantId, 1, amount, commission, 0, 0);
+    }
+
+    void recordStatusChange(Long restaurantId, double amount, DisbursementStatus from, DisbursementStatus to) {
+        boolean wasSettled = from == DisbursementStatus.SUCCESSFUL;
+        boolean isSettled = to == DisbursementStatus.SUCCESSFUL;
+        if (wasSettled != isSettled) {
+            int sign = isSettled ? 1 : -1;
+            apply(restaurantId, 0, 0, 0, sign, sign * amount);
+        }
+    }
+
+    /**
+     * Recomputes the whole table from the disbursement transactions in one
+     * transaction.
+     *
+     * @return the number of ledger rows written
+     */
+    @Scheduled(cron = "${app.disbursements.ledger.rebuild-cron:0 45 3 * * *}")
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM disbursement_ledger");
+            return jdbcTemplate.update(REBUILD_SQL);
+        });
+        log.info("Rebuilt disbursement ledger: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (disbursementLedgerRepository.count() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill disbursement ledger: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds (possibly negative) deltas to a restaurant's ledger row, creating
+     * it if needed. Runs on the caller's connection so it commits or rolls
+     * back with the disbursement change that caused it.
+     */
+    private void apply(Long restaurantId, long count, double amount, double commission, long settledCount,
+            double settledAmount) {
+        if (isPostgres()) {
+            jdbcTemplate.update(UPSERT_POSTGRES_SQL, restaurantId, count, amount, commission, settledCount,
+                    settledAmount);
+            return;
+        }
+        int updated = jdbcTemplate.update(UPDATE_SQL, count, amount, commission, settledCount, settledAmount,
+                restaurantId);
+        if (updated == 0) {
+            jdbcTemplate.update(INSERT_SQL, restaurantId, count, amount, commission, settledCount, settledAmount);
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                    .equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
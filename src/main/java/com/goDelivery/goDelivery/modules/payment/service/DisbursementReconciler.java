@@ -0,0 +1,226 @@
+package com.goDelivery.goDelivery.modules.payment.service;
+
+import com.goDelivery.goDelivery.modules.payment.dto.DisbursementReconciliationStats;
+import com.goDelivery.goDelivery.modules.payment.dto.DisbursementStatusResponse;
+import com.goDelivery.goDelivery.modules.payment.model.DisbursementTransaction;
+import com.goDelivery.goDelivery.modules.payment.repository.DisbursementTransactionRepository;
+import com.goDelivery.goDelivery.shared.enums.DisbursementStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reconciles pending disbursements with the payment provider.
+ *
+ * Pending transactions are read one keyset page at a time, their statuses
+ * are checked concurrently on the bounded reconciliation pool, and the
+ * results are written in small batches of
+ * {@code app.disbursements.reconcile.commit-batch-size}, each in its own
+ * short transaction. No database transaction is held open while waiting on
+ * the provider.
+ */
+@Slf4j
+@Component
+public class DisbursementReconciler {
+
+    private final DisbursementTransactionRepository transactionRepository;
+    private final MomoService momoService;
+    private final DisbursementService disbursementService;
+    private final Executor disbursementReconcileExecutor;
+    private final int pageSize;
+    private final int commitBatchSize;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder checkFailures = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder secondsToSettleTotal = new LongAdder();
+    private final AtomicLong maxSecondsToSettle = new AtomicLong();
+    private volatile LastRun lastRun;
+
+    public DisbursementReconciler(DisbursementTransactionRepository transactionRepository,
+            MomoService momoService,
+            DisbursementService disbursementService,
+            @Qualifier("disbursementReconcileExecutor") Executor disbursementReconcileExecutor,
+            @Value("${app.disbursements.reconcile.page-size:100}") int pageSize,
+            @Value("${app.disbursements.reconcile.commit-batch-size:25}") int commitBatchSize) {
+        this.transactionRepository = transactionRepository;
+        this.momoService = momoService;
+        this.disbursementService = disbursementService;
+        this.disbursementReconcileExecutor = disbursementReconcileExecutor;
+        this.pageSize = pageSize;
+        this.commitBatchSize = commitBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.disbursements.reconcile.interval-ms:300000}")
+    public void reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        int pending = 0;
+        int settledThisRun = 0;
+        LocalDateTime oldestPending = null;
+
+        long lastId = 0;
+        List<DisbursementTransaction> page;
+        do {
+            page = transactionRepository.findByStatusAndIdGreaterThanOrderByIdAsc(DisbursementStatus.PENDING,
+                    lastId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+            pending += page.size();
+
+            Map<Long, DisbursementStatusResponse> statuses = checkStatuses(page);
+            settledThisRun += apply(page, statuses);
+
+            for (DisbursementTransaction transaction : page) {
+                DisbursementStatusResponse status = statuses.get(transaction.getId());
+                boolean stillPending = status == null || "PENDING".equalsIgnoreCase(status.getStatus());
+                if (stillPending && (oldestPending == null || transaction.getCreatedAt().isBefore(oldestPending))) {
+                    oldestPending = transaction.getCreatedAt();
+                }
+            }
+        } while (page.size() == pageSize);
+
+        runs.increment();
+        lastRun = new LastRun(startedAt, System.currentTimeMillis() - started, pending, settledThisRun,
+                oldestPending == null ? 0 : Duration.between(oldestPending, LocalDateTime.now()).toSeconds());
+        if (pending > 0) {
+            log.info("Reconciled {} pending disbursements, {} settled, in {} ms", pending, settledThisRun,
+                    lastRun.millis);
+        }
+    }
+
+    public DisbursementReconciliationStats getStats() {
+        LastRun run = lastRun;
+        long total = settled.sum();
+        DisbursementReconciliationStats.DisbursementReconciliationStatsBuilder stats = DisbursementReconciliationStats
+                .builder()
+                .runs(runs.sum())
+                .checks(checks.sum())
+                .checkFailures(checkFailures.sum())
+                .settled(total)
+                .averageSecondsToSettle(total > 0 ? secondsToSettleTotal.sum() / total : 0)
+                .maxSecondsToSettle(maxSecondsToSettle.get());
+        if (run != null) {
+            stats.lastRunAt(run.startedAt)
+                    .lastRunMillis(run.millis)
+                    .lastRunPending(run.pending)
+                    .lastRunSettled(run.settled)
+                    .oldestPendingSeconds(run.oldestPendingSeconds);
+        }
+        return stats.build();
+    }
+
+    // Checks every transaction of the page concurrently; failed checks are left out
+    private Map<Long, DisbursementStatusResponse> checkStatuses(List<DisbursementTransaction> page) {
+        List<CompletableFuture<DisbursementStatusResponse>> futures = new ArrayList<>(page.size());
+        for (DisbursementTransaction transaction : page) {
+            // DisbursementTransaction.referenceId holds the collection-disbursement UUID,
+            // so use the collection status endpoint (not disbursement status).
+            try {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> momoService.checkCollectionDisbursementStatus(transaction.getReferenceId()),
+                        disbursementReconcileExecutor));
+            } catch (RejectedExecutionException e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        Map<Long, DisbursementStatusResponse> statuses = new LinkedHashMap<>();
+        for (int i = 0; i < page.size(); i++) {
+            DisbursementTransaction transaction = page.get(i);
+            checks.increment();
+            try {
+                DisbursementStatusResponse status = futures.get(i).join();
+                log.debug("Transaction {} status from provider: {}", transaction.getReferenceId(),
+                        status.getStatus());
+                if (status.getStatus() != null) {
+                    statuses.put(transaction.getId(), status);
+                }
+            } catch (Exception e) {
+                checkFailures.increment();
+                log.error("Error checking status for transaction {}: {}", transaction.getReferenceId(),
+                        e.getMessage());
+            }
+        }
+        return statuses;
+    }
+
+    private int apply(List<DisbursementTransaction> page, Map<Long, DisbursementStatusResponse> statuses) {
+        int updated = 0;
+        List<DisbursementTransaction> batch = new ArrayList<>(commitBatchSize);
+        for (DisbursementTransaction transaction : page) {
+            DisbursementStatusResponse status = statuses.get(transaction.getId());
+            if (status == null || "PENDING".equalsIgnoreCase(status.getStatus())) {
+                continue;
+            }
+            batch.add(transaction);
+            if (batch.size() == commitBatchSize) {
+                updated += commit(batch, statuses);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated += commit(batch, statuses);
+        }
+        return updated;
+    }
+
+    private int commit(List<DisbursementTransaction> batch, Map<Long, DisbursementStatusResponse> statuses) {
+        Map<Long, DisbursementStatusResponse> batchStatuses = new LinkedHashMap<>();
+        batch.forEach(transaction -> batchStatuses.put(transaction.getId(), statuses.get(transaction.getId())));
+        try {
+            // Transactions a callback settled first, or with an unknown status, are not counted
+            Set<Long> updated = disbursementService.applyReconciledStatuses(batchStatuses);
+            LocalDateTime now = LocalDateTime.now();
+            for (DisbursementTransaction transaction : batch) {
+                if (!updated.contains(transaction.getId())) {
+                    continue;
+                }
+                long seconds = Duration.between(transaction.getCreatedAt(), now).toSeconds();
+                secondsToSettleTotal.add(seconds);
+                maxSecondsToSettle.accumulateAndGet(seconds, Math::max);
+            }
+            settled.add(updated.size());
+            return updated.size();
+        } catch (Exception e) {
+            // The batch stays pending and is checked again on the next run
+            log.error("Error saving {} reconciled disbursements: {}", batch.size(), e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private static class LastRun {
+        private final LocalDateTime startedAt;
+        private final long millis;
+        private final int pending;
+        private final int settled;
+        private final long oldestPendingSeconds;
+
+        LastRun(LocalDateTime startedAt, long millis, int pending, int settled, long oldestPendingSeconds) {
+            this.startedAt = startedAt;
+            this.millis = millis;
+            this.pending = pending;
+            this.settled = settled;
+            this.oldestPendingSeconds = oldestPendingSeconds;
+        }
+    }
+}
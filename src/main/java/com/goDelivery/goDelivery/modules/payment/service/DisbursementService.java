@@ -5,8 +5,11 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -14,7 +17,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +43,7 @@ import com.goDelivery.goDelivery.modules.notification.service.NotificationServic
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
 import com.goDelivery.goDelivery.modules.ordering.model.OrderItem;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
+import com.goDelivery.goDelivery.modules.payment.repository.DisbursementLedgerRepository;
 import com.goDelivery.goDelivery.modules.payment.repository.DisbursementTransactionRepository;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 
@@ -64,6 +71,15 @@ public class DisbursementService {
         @Autowired
         private NotificationService notificationService;
 
+        @Autowired
+        private DisbursementLedgerService disbursementLedgerService;
+
+        @Autowired
+        private DisbursementLedgerRepository disbursementLedgerRepository;
+
+        // Transactions included with a restaurant's own summary
+        private static final int RECENT_TRANSACTIONS = 20;
+
         @Value("${app.payment.method.momo:MoMo}")
         private String momoPaymentMethod;
 
@@ -176,6 +192,8 @@ public class DisbursementService {
                                         .build();
 
                         transactionRepository.save(transaction);
+                        disbursementLedgerService.recordCreated(restaurant.getRestaurantId(), amountToDisburse,
+                                        commission);
 
                         log.info("Created disbursement for restaurant {} - Amount: {}, Commission: {}",
                                         restaurant.getRestaurantName(), amountToDisburse, commission);
@@ -403,7 +421,7 @@ public class DisbursementService {
 
                         // Handle disbursement status update
                         DisbursementTransaction transaction = transactionRepository
-                                        .findByReferenceId(callback.getReferenceId())
+                                        .findByReferenceIdForUpdate(callback.getReferenceId())
                                         .orElseThrow(() -> new ResourceNotFoundException(
                                                         "Transaction not found for reference: "
                                                                         + callback.getReferenceId()));
@@ -411,6 +429,8 @@ public class DisbursementService {
                         log.info("Processing disbursement callback for transaction: {}", transaction.getReferenceId());
 
                         // Update transaction status
+                        disbursementLedgerService.recordStatusChange(transaction.getRestaurant().getRestaurantId(),
+                                        transaction.getAmount(), transaction.getStatus(), callback.getStatus());
                         transaction.setStatus(callback.getStatus());
 
                         if (callback.getFinancialTransactionId() != null) {
@@ -560,206 +580,115 @@ public class DisbursementService {
                                                 .collect(Collectors.joining("; ")));
         }
 
-        @Scheduled(fixedRate = 300000) // Every 5 minutes
+        /**
+         * Writes one batch of provider statuses found by the
+         * {@link DisbursementReconciler} in a single transaction. The rows are
+         * locked while read, so transactions a callback has settled since the
+         * status check are left as they are.
+         *
+         * @return the ids of the transactions updated
+         */
         @Transactional
-        public void updatePendingDisbursements() {
-                log.info("Starting scheduled task to update pending disbursements");
-
-                // Find all pending disbursement transactions
-                List<DisbursementTransaction> pendingTransactions = transactionRepository
-                                .findByStatus(DisbursementStatus.PENDING);
-
-                if (pendingTransactions.isEmpty()) {
-                        log.info("No pending disbursement transactions found");
-                        return;
-                }
-
-                log.info("Found {} pending disbursement transactions to update", pendingTransactions.size());
-
-                for (DisbursementTransaction transaction : pendingTransactions) {
+        public Set<Long> applyReconciledStatuses(Map<Long, DisbursementStatusResponse> statuses) {
+                List<DisbursementTransaction> transactions = transactionRepository.findAllByIdForUpdate(statuses.keySet());
+                Map<Long, Order> orders = new LinkedHashMap<>();
+                Set<Long> updated = new LinkedHashSet<>();
+
+                for (DisbursementTransaction transaction : transactions) {
+                        if (transaction.getStatus() != DisbursementStatus.PENDING) {
+                                continue;
+                        }
+                        DisbursementStatusResponse statusResponse = statuses.get(transaction.getId());
+                        DisbursementStatus newStatus;
                         try {
-                                log.debug("Checking status for transaction ID: {}, Reference: {}",
-                                                transaction.getFinancialTransactionId(), transaction.getReferenceId());
-
-                                // Get the latest status from MoMo API
-                                // DisbursementTransaction.referenceId holds the collection-disbursement UUID,
-                                // so use the collection status endpoint (not disbursement status).
-                                DisbursementStatusResponse statusResponse = momoService
-                                                .checkCollectionDisbursementStatus(transaction.getReferenceId());
-                                String status = statusResponse.getStatus();
-
-                                log.info("Transaction {} status from provider: {}",
-                                                transaction.getReferenceId(), status);
-
-                                // Update transaction status based on provider response
-                                DisbursementStatus newStatus = DisbursementStatus.valueOf(status.toUpperCase());
-                                transaction.setStatus(newStatus);
-
-                                // Update additional fields if available
-                                if (statusResponse.getFinancialTransactionId() != null) {
-                                        transaction.setFinancialTransactionId(
-                                                        statusResponse.getFinancialTransactionId());
-                                }
+                                newStatus = DisbursementStatus.valueOf(statusResponse.getStatus().toUpperCase());
+                        } catch (RuntimeException e) {
+                                log.error("Unknown status {} for transaction {}",
+                                                statusResponse.getStatus(), transaction.getReferenceId());
+                                continue;
+                        }
+                        if (newStatus == DisbursementStatus.PENDING) {
+                                continue;
+                        }
 
-                                if (statusResponse.getErrorReason() != null) {
-                                        transaction.setErrorMessage(statusResponse.getErrorReason());
-                                }
+                        disbursementLedgerService.recordStatusChange(transaction.getRestaurant().getRestaurantId(),
+                                        transaction.getAmount(), transaction.getStatus(), newStatus);
+                        transaction.setStatus(newStatus);
 
-                                transaction.setUpdatedAt(LocalDateTime.now());
+                        // Update additional fields if available
+                        if (statusResponse.getFinancialTransactionId() != null) {
+                                transaction.setFinancialTransactionId(statusResponse.getFinancialTransactionId());
+                        }
 
-                                // Save the updated transaction
-                                transaction = transactionRepository.save(transaction);
-                                log.info("Updated transaction {} to status: {}",
-                                                transaction.getReferenceId(), newStatus);
+                        if (statusResponse.getErrorReason() != null) {
+                                transaction.setErrorMessage(statusResponse.getErrorReason());
+                        }
 
-                                // If this was a collection, update the order status
-                                if (transaction.getOrder() != null) {
-                                        checkAndUpdateOrderDisbursementStatus(transaction.getOrder());
-                                }
+                        transaction.setUpdatedAt(LocalDateTime.now());
+                        updated.add(transaction.getId());
+                        log.info("Updated transaction {} to status: {}", transaction.getReferenceId(), newStatus);
 
-                        } catch (Exception e) {
-                                log.error("Error updating status for transaction {}: {}",
-                                                transaction.getReferenceId(), e.getMessage(), e);
+                        if (transaction.getOrder() != null) {
+                                orders.putIfAbsent(transaction.getOrder().getOrderId(), transaction.getOrder());
                         }
                 }
+
+                transactionRepository.saveAll(transactions);
+                // Once per order, after all of its transactions in the batch are updated
+                orders.values().forEach(this::checkAndUpdateOrderDisbursementStatus);
+                return updated;
         }
 
         @Transactional(readOnly = true)
-        public List<DisbursementSummaryDTO> getDisbursementSummaryByRestaurantId(Long restaurantId) {
-                // Alternative implementation since JPQL constructor query is temporarily
-                // disabled
-                List<DisbursementTransaction> transactions = transactionRepository.findAll();
-                return transactions.stream()
-                                .filter(dt -> dt.getRestaurant().getRestaurantId().equals(restaurantId))
-                                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                                .map(this::convertToDisbursementSummaryDTO)
-                                .collect(Collectors.toList());
+        public Page<DisbursementSummaryDTO> getDisbursementSummaryByRestaurantId(Long restaurantId,
+                        Pageable pageable) {
+                return transactionRepository.findSummariesByRestaurantId(restaurantId, pageable);
         }
 
         // Method name expected by controller
-        public List<DisbursementSummaryDTO> getDisbursementsForRestaurant(Long restaurantId) {
-                return getDisbursementSummaryByRestaurantId(restaurantId);
+        public Page<DisbursementSummaryDTO> getDisbursementsForRestaurant(Long restaurantId, Pageable pageable) {
+                return getDisbursementSummaryByRestaurantId(restaurantId, pageable);
         }
 
-        public List<DisbursementSummaryDTO> getAllDisbursementSummaries() {
-                // Alternative implementation since JPQL constructor query is temporarily
-                // disabled
-                return transactionRepository.findAll().stream()
-                                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                                .map(this::convertToDisbursementSummaryDTO)
-                                .collect(Collectors.toList());
+        @Transactional(readOnly = true)
+        public Page<DisbursementSummaryDTO> getAllDisbursementSummaries(Pageable pageable) {
+                return transactionRepository.findSummaries(pageable);
         }
 
         // Method name expected by controller
-        public List<DisbursementSummaryDTO> getAllDisbursements() {
-                return getAllDisbursementSummaries();
-        }
-
-        public List<RestaurantDisbursementSummaryDTO> getRestaurantDisbursementSummaries() {
-                // Alternative implementation since JPQL constructor query is temporarily
-                // disabled
-                List<DisbursementTransaction> transactions = transactionRepository.findAll();
-                return transactions.stream()
-                                .collect(Collectors.groupingBy(
-                                                DisbursementTransaction::getRestaurant,
-                                                Collectors.toList()))
-                                .entrySet().stream()
-                                .map(entry -> convertToRestaurantSummaryDTO(entry.getKey(), entry.getValue()))
-                                .collect(Collectors.toList());
-        }
-
-        private DisbursementSummaryDTO convertToDisbursementSummaryDTO(DisbursementTransaction transaction) {
-                return DisbursementSummaryDTO.builder()
-                                .transactionId(transaction.getId())
-                                .referenceId(transaction.getReferenceId())
-                                .orderId(transaction.getOrder().getOrderId())
-                                .orderNumber(transaction.getOrder().getOrderNumber())
-                                .restaurantId(transaction.getRestaurant().getRestaurantId())
-                                .restaurantName(transaction.getRestaurant().getRestaurantName())
-                                .amount(BigDecimal.valueOf(transaction.getAmount()))
-                                .commission(BigDecimal.valueOf(transaction.getCommission()))
-                                .status(transaction.getStatus().name())
-                                .createdAt(transaction.getCreatedAt())
-                                .updatedAt(transaction.getUpdatedAt())
-                                .build();
+        public Page<DisbursementSummaryDTO> getAllDisbursements(Pageable pageable) {
+                return getAllDisbursementSummaries(pageable);
         }
 
-        private RestaurantDisbursementSummaryDTO convertToRestaurantSummaryDTO(Restaurant restaurant,
-                        List<DisbursementTransaction> transactions) {
-                List<DisbursementSummaryDTO> dtos = transactions.stream()
-                                .map(this::convertToDisbursementSummaryDTO)
-                                .collect(Collectors.toList());
-
-                BigDecimal totalDisbursed = dtos.stream()
-                                .map(DisbursementSummaryDTO::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalCommission = dtos.stream()
-                                .map(DisbursementSummaryDTO::getCommission)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                return new RestaurantDisbursementSummaryDTO(
-                                restaurant.getRestaurantId(),
-                                restaurant.getRestaurantName(),
-                                totalDisbursed,
-                                totalCommission,
-                                (long) transactions.size(),
-                                dtos);
+        @Transactional(readOnly = true)
+        public Page<RestaurantDisbursementSummaryDTO> getRestaurantDisbursementSummaries(Pageable pageable) {
+                return disbursementLedgerRepository.findSummaries(pageable);
         }
 
         @Transactional(readOnly = true)
         @PreAuthorize("hasRole('ROLE_SUPER_ADMIN')")
-        public List<RestaurantDisbursementSummaryDTO> getAdminRestaurantDisbursementSummaries() {
-                // Alternative implementation since JPQL constructor query is temporarily
-                // disabled
-                List<DisbursementTransaction> transactions = transactionRepository.findAll();
-                return transactions.stream()
-                                .collect(Collectors.groupingBy(
-                                                DisbursementTransaction::getRestaurant,
-                                                Collectors.toList()))
-                                .entrySet().stream()
-                                .map(entry -> convertToRestaurantSummaryDTO(entry.getKey(), entry.getValue()))
-                                .collect(Collectors.toList());
+        public Page<RestaurantDisbursementSummaryDTO> getAdminRestaurantDisbursementSummaries(Pageable pageable) {
+                return disbursementLedgerRepository.findSummaries(pageable);
         }
 
+        /**
+         * Totals of one restaurant from the ledger, with its most recent
+         * transactions. The full history is paged through
+         * {@link #getDisbursementsForRestaurant}.
+         */
         @Transactional(readOnly = true)
         public RestaurantDisbursementSummaryDTO getRestaurantDisbursementSummary(Long restaurantId) {
-                // Alternative implementation since JPQL constructor query is temporarily
-                // disabled
-                List<DisbursementTransaction> transactions = transactionRepository.findAll();
-                List<DisbursementTransaction> filteredTransactions = transactions.stream()
-                                .filter(dt -> dt.getRestaurant().getRestaurantId().equals(restaurantId))
-                                .collect(Collectors.toList());
-
-                if (filteredTransactions.isEmpty()) {
-                        return new RestaurantDisbursementSummaryDTO(
-                                        restaurantId,
-                                        "", // Restaurant name will be empty if no transactions
-                                        BigDecimal.ZERO,
-                                        BigDecimal.ZERO,
-                                        0L,
-                                        new ArrayList<>());
-                }
-
-                List<DisbursementSummaryDTO> dtos = filteredTransactions.stream()
-                                .map(this::convertToDisbursementSummaryDTO)
-                                .collect(Collectors.toList());
-
-                BigDecimal totalDisbursed = dtos.stream()
-                                .map(DisbursementSummaryDTO::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalCommission = dtos.stream()
-                                .map(DisbursementSummaryDTO::getCommission)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                return new RestaurantDisbursementSummaryDTO(
-                                restaurantId,
-                                dtos.get(0).getRestaurantName(),
-                                totalDisbursed,
-                                totalCommission,
-                                (long) dtos.size(),
-                                dtos);
+                RestaurantDisbursementSummaryDTO summary = disbursementLedgerRepository.findSummary(restaurantId)
+                                .orElseGet(() -> new RestaurantDisbursementSummaryDTO(
+                                                restaurantId,
+                                                "", // Restaurant name will be empty if no transactions
+                                                BigDecimal.ZERO,
+                                                BigDecimal.ZERO,
+                                                0L));
+                summary.setTransactions(transactionRepository.findSummariesByRestaurantId(restaurantId,
+                                PageRequest.of(0, RECENT_TRANSACTIONS, Sort.by(Sort.Direction.DESC, "createdAt")))
+                                .getContent());
+                return summary;
         }
 
 }
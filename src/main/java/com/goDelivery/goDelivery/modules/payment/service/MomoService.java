@@ -22,23 +22,28 @@ import com.goDelivery.goDelivery.modules.payment.repository.MomoTransactionRepos
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.modules.payment.repository.PaymentRepository;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -68,6 +73,23 @@ public class MomoService {
     @Autowired
     private OrderConfig orderConfig;
 
+    @Autowired
+    private PaymentStatusPoller paymentStatusPoller;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.momo.token-ttl:10m}")
+    private Duration authTokenTtl;
+
+    // Renew the token this long before it expires so in-flight calls do not use a stale one
+    private static final long AUTH_TOKEN_REFRESH_MARGIN_MS = 30_000;
+    private static final ObjectMapper TOKEN_READER = new ObjectMapper();
+
+    private final Object authTokenLock = new Object();
+    private volatile String cachedAuthToken;
+    private volatile long cachedAuthTokenRefreshAt;
+
     // Request payment from a customer's mobile money account
     public MomoPaymentResponse requestPayment(MomoPaymentRequest request) {
         log.info("Received MoMo payment request for external ID: {}", request.getExternalId());
@@ -100,7 +122,7 @@ public class MomoService {
 
         try {
             // Generate JWT auth token
-            String authToken = generateAuthToken();
+            String authToken = getAuthToken();
 
             if (authToken == null) {
                 throw new RuntimeException("Failed to authenticate with MoMo API: No token received");
@@ -203,87 +225,47 @@ public class MomoService {
     }
 
     // Poll for collection-disbursement status updates
-    @Async
-    public CompletableFuture<Void> pollCollectionDisbursementStatus(String referenceId) {
-        return CompletableFuture.runAsync(() -> {
-            int maxAttempts = 120; // Poll for up to 60 minutes (120 * 30 seconds)
-            int attempt = 0;
-            long delayMs = 30000; // 30 seconds between polls (as per documentation)
-
-            log.info("Starting collection-disbursement status polling for reference: {}", referenceId);
-
-            while (attempt < maxAttempts) {
-                try {
-                    String authToken = generateAuthToken();
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.set("Authorization", "Bearer " + authToken);
-
-                    String statusUrl = momoConfig.getCollectionDisbursementStatusUrl(referenceId);
-                    ResponseEntity<DisbursementStatusResponse> response = restTemplate.exchange(
-                            statusUrl, HttpMethod.GET,
-                            new HttpEntity<>(headers), DisbursementStatusResponse.class);
-
-                    if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                        String status = response.getBody().getStatus();
-                        log.debug("Collection-disbursement status check for {}: {} (attempt {}/{})",
-                                referenceId, status, attempt + 1, maxAttempts);
-
-                        if (isFinalStatus(status)) {
-                            log.info("Collection-disbursement {} completed with status: {}", referenceId, status);
-                            return;
-                        }
-                    }
+    public void pollCollectionDisbursementStatus(String referenceId) {
+        paymentStatusPoller.track("collection-disbursement:" + referenceId,
+                () -> isCollectionDisbursementFinal(referenceId),
+                () -> log.warn("Max polling attempts reached for collection-disbursement: {}", referenceId));
+    }
 
-                    attempt++;
-                    if (attempt < maxAttempts) {
-                        Thread.sleep(delayMs);
-                    }
+    // One status check of a collection-disbursement; true once it needs no more polling
+    private boolean isCollectionDisbursementFinal(String referenceId) {
+        try {
+            ResponseEntity<DisbursementStatusResponse> response = getWithAuth(
+                    momoConfig.getCollectionDisbursementStatusUrl(referenceId),
+                    new ParameterizedTypeReference<DisbursementStatusResponse>() {
+                    });
 
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    log.error("Collection-disbursement polling interrupted for reference: {}", referenceId);
-                    throw new RuntimeException("Polling interrupted", ie);
-                } catch (org.springframework.web.client.HttpClientErrorException e) {
-                    String body = e.getResponseBodyAsString();
-                    // Stop polling on non-retryable errors (resource not found, bad request)
-                    if (e.getStatusCode() == HttpStatus.NOT_FOUND ||
-                            (e.getStatusCode() == HttpStatus.BAD_REQUEST && body.contains("RESOURCE_NOT_FOUND"))) {
-                        log.warn("Collection-disbursement {} not found on status check — stopping poll. Response: {}",
-                                referenceId, body);
-                        return;
-                    }
-                    log.error("Error checking collection-disbursement status for reference: {} (attempt {})",
-                            referenceId, attempt, e);
-                    attempt++;
-                    try {
-                        Thread.sleep(delayMs);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Polling interrupted", ie);
-                    }
-                } catch (Exception e) {
-                    log.error("Error checking collection-disbursement status for reference: {} (attempt {})",
-                            referenceId, attempt, e);
-                    attempt++;
-                    if (attempt < maxAttempts) {
-                        try {
-                            Thread.sleep(delayMs);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("Polling interrupted during error handling", ie);
-                        }
-                    }
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                String status = response.getBody().getStatus();
+                log.debug("Collection-disbursement status check for {}: {}", referenceId, status);
+
+                if (isFinalStatus(status)) {
+                    log.info("Collection-disbursement {} completed with status: {}", referenceId, status);
+                    return true;
                 }
             }
-
-            log.warn("Max polling attempts reached for collection-disbursement: {}", referenceId);
-        });
+            return false;
+        } catch (HttpClientErrorException e) {
+            String body = e.getResponseBodyAsString();
+            // Stop polling on non-retryable errors (resource not found, bad request)
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND ||
+                    (e.getStatusCode() == HttpStatus.BAD_REQUEST && body.contains("RESOURCE_NOT_FOUND"))) {
+                log.warn("Collection-disbursement {} not found on status check — stopping poll. Response: {}",
+                        referenceId, body);
+                return true;
+            }
+            throw e;
+        }
     }
 
     // Initiate a disbursement transaction
     public CollectionDisbursementResponse initiateCollectionDisbursement(CollectionDisbursementRequest request) {
         try {
-            String authToken = generateAuthToken();
+            String authToken = getAuthToken();
 
             if (authToken == null) {
                 throw new RuntimeException(
@@ -356,7 +338,7 @@ public class MomoService {
 
     public DisbursementStatusResponse checkDisbursementStatus(String referenceId) {
         try {
-            String authToken = generateAuthToken();
+            String authToken = getAuthToken();
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", "Bearer " + authToken);
@@ -384,7 +366,7 @@ public class MomoService {
 
     public DisbursementStatusResponse checkCollectionDisbursementStatus(String referenceId) {
         try {
-            String authToken = generateAuthToken();
+            String authToken = getAuthToken();
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", "Bearer " + authToken);
@@ -448,102 +430,129 @@ public class MomoService {
     }
 
     // Poll for transaction status updates
-    @Async
-    public CompletableFuture<Void> pollTransactionStatus(String referenceId) {
-        return momoTransactionRepository.findByReferenceId(referenceId)
-                .map(transaction -> CompletableFuture.runAsync(() -> {
-                    int maxAttempts = 120; // Poll for up to 60 minutes (120 * 30 seconds)
-                    int attempt = 0;
-                    long delayMs = 30000; // 30 seconds between polls (as per documentation)
-
-                    log.info("Starting status polling for transaction: {}", referenceId);
-
-                    while (attempt < maxAttempts) {
-                        try {
-                            // Generate new auth token for each attempt
-                            String authToken = generateAuthToken();
-
-                            if (authToken == null) {
-                                log.error("Failed to get auth token for polling attempt {}", attempt);
-                                break;
-                            }
-
-                            // Prepare headers
-                            HttpHeaders headers = new HttpHeaders();
-                            headers.set("Authorization", "Bearer " + authToken);
-
-                            // Build request URL
-                            String statusUrl = momoConfig.getCollectionStatusUrl(transaction.getReferenceId());
-
-                            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-                            log.debug("Checking payment status for reference: {} (attempt {}/{})",
-                                    referenceId, attempt + 1, maxAttempts);
-
-                            // Make API call to check status
-                            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                                    statusUrl,
-                                    HttpMethod.GET,
-                                    entity,
-                                    new ParameterizedTypeReference<Map<String, Object>>() {
-                                    });
-
-                            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                                Map<String, Object> statusResponse = response.getBody();
-                                String status = (String) statusResponse.get("status");
-
-                                log.debug("Status check response for {}: {}", referenceId, status);
-
-                                // Update transaction status based on response
-                                updateTransactionStatus(transaction, status, statusResponse);
-
-                                // If transaction is completed (successful or failed), stop polling
-                                if (isFinalStatus(status)) {
-                                    log.info("Transaction {} completed with status: {}",
-                                            referenceId, status);
-                                    return;
-                                }
-                            }
-
-                            // Wait before next poll
-                            attempt++;
-                            if (attempt < maxAttempts) {
-                                log.debug("Will check status again in {}ms (attempt {}/{})",
-                                        delayMs, attempt + 1, maxAttempts);
-                                Thread.sleep(delayMs);
-                            }
-
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            log.error("Polling interrupted for transaction: {}", referenceId);
-                            throw new RuntimeException("Polling interrupted", ie);
-                        } catch (Exception e) {
-                            log.error("Error checking payment status for reference: {} (attempt {})",
-                                    referenceId, attempt, e);
-                            attempt++;
-                            if (attempt < maxAttempts) {
-                                try {
-                                    Thread.sleep(delayMs);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new RuntimeException("Polling interrupted during error handling", ie);
-                                }
-                            }
-                        }
-                    }
+    public void pollTransactionStatus(String referenceId) {
+        paymentStatusPoller.track("collection:" + referenceId,
+                () -> refreshTransactionStatus(referenceId),
+                () -> expireTransaction(referenceId));
+    }
 
-                    // If we've exhausted all attempts
-                    if (transaction.getStatus() != TransactionStatus.SUCCESSFUL) {
-                        transaction.setStatus(TransactionStatus.FAILED);
-                        transaction.setErrorReason("Max polling attempts reached without final status");
-                        momoTransactionRepository.save(transaction);
-                        log.warn("Max polling attempts reached for transaction: {}", referenceId);
+    // One status check of a collection; true once it has a final status
+    private boolean refreshTransactionStatus(String referenceId) {
+        MomoTransaction current = momoTransactionRepository.findByReferenceId(referenceId).orElse(null);
+        if (current == null) {
+            log.warn("Transaction {} no longer exists, stopping status polling", referenceId);
+            return true;
+        }
+        // The webhook may have delivered the final status already
+        if (current.getStatus() != TransactionStatus.PENDING) {
+            return true;
+        }
 
-                        // Trigger update handler for failed transaction
-                        handleTransactionUpdate(transaction);
-                    }
-                }))
-                .orElse(CompletableFuture.completedFuture(null));
+        ResponseEntity<Map<String, Object>> response = getWithAuth(
+                momoConfig.getCollectionStatusUrl(referenceId),
+                new ParameterizedTypeReference<Map<String, Object>>() {
+                });
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            return false;
+        }
+
+        Map<String, Object> statusResponse = response.getBody();
+        String status = (String) statusResponse.get("status");
+        log.debug("Status check response for {}: {}", referenceId, status);
+
+        // Only a change is written, so a pending payment is not re-notified on every check
+        if (status != null && mapToTransactionStatus(status) != current.getStatus()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(tx -> momoTransactionRepository
+                    .findByReferenceId(referenceId)
+                    .ifPresent(transaction -> updateTransactionStatus(transaction, status, statusResponse)));
+        }
+
+        // If transaction is completed (successful or failed), stop polling
+        if (isFinalStatus(status)) {
+            log.info("Transaction {} completed with status: {}", referenceId, status);
+            return true;
+        }
+        return false;
+    }
+
+    // Fails a collection that never reached a final status
+    private void expireTransaction(String referenceId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> momoTransactionRepository
+                .findByReferenceId(referenceId)
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+                .ifPresent(transaction -> {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setErrorReason("Max polling attempts reached without final status");
+                    momoTransactionRepository.save(transaction);
+                    log.warn("Max polling attempts reached for transaction: {}", referenceId);
+
+                    // Trigger update handler for failed transaction
+                    handleTransactionUpdate(transaction);
+                }));
+    }
+
+    // GET with the cached token; a rejected token is dropped so the next call logs in again
+    private <T> ResponseEntity<T> getWithAuth(String url, ParameterizedTypeReference<T> type) {
+        String authToken = getAuthToken();
+        if (authToken == null) {
+            throw new RuntimeException("Failed to authenticate with MoMo API: No token received");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        try {
+            return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            invalidateAuthToken(authToken);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current MoMo token, logging in again only when it is about
+     * to expire. The expiry is read from the token's {@code exp} claim when it
+     * is a JWT, capped at {@code app.momo.token-ttl}.
+     */
+    private String getAuthToken() {
+        String token = cachedAuthToken;
+        if (token != null && System.currentTimeMillis() < cachedAuthTokenRefreshAt) {
+            return token;
+        }
+        synchronized (authTokenLock) {
+            if (cachedAuthToken != null && System.currentTimeMillis() < cachedAuthTokenRefreshAt) {
+                return cachedAuthToken;
+            }
+            token = generateAuthToken();
+            if (token != null) {
+                cachedAuthTokenRefreshAt = tokenExpiry(token) - AUTH_TOKEN_REFRESH_MARGIN_MS;
+                cachedAuthToken = token;
+            }
+            return token;
+        }
+    }
+
+    private void invalidateAuthToken(String token) {
+        synchronized (authTokenLock) {
+            if (token.equals(cachedAuthToken)) {
+                cachedAuthToken = null;
+            }
+        }
+    }
+
+    private long tokenExpiry(String token) {
+        long now = System.currentTimeMillis();
+        long latest = now + authTokenTtl.toMillis();
+        String[] parts = token.split("\\.");
+        if (parts.length == 3) {
+            try {
+                JsonNode exp = TOKEN_READER.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+                if (exp != null && exp.canConvertToLong()) {
+                    return Math.min(latest, exp.asLong() * 1000);
+                }
+            } catch (Exception e) {
+                log.debug("MoMo token is not a readable JWT, using the configured lifetime");
+            }
+        }
+        return latest;
     }
 
     // Generate an authentication token from MoMo API using username and password
@@ -5,6 +5,7 @@ import com.goDelivery.goDelivery.shared.enums.PaymentStatus;
 import com.goDelivery.goDelivery.shared.config.MpesaConfig;
 import com.goDelivery.goDelivery.modules.payment.dto.*;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
+import com.goDelivery.goDelivery.modules.payment.model.MpesaStatusCheck;
 import com.goDelivery.goDelivery.modules.payment.model.MpesaTransaction;
 import com.goDelivery.goDelivery.modules.notification.service.NotificationService;
 import com.goDelivery.goDelivery.modules.ordering.model.Order;
@@ -20,12 +21,16 @@ import org.springframework.http.MediaType;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -34,10 +39,8 @@ import java.security.MessageDigest;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.time.Instant;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.StringUtils;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -53,7 +56,8 @@ public class MpesaPaymentService {
     private final OrderRepository orderRepository;
     private final MpesaTransactionRepository mpesaTransactionRepository;
     private final NotificationService notificationService;
-    private final TaskScheduler taskScheduler;
+    private final MpesaStatusCheckScheduler mpesaStatusCheckScheduler;
+    private final PlatformTransactionManager transactionManager;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${app.base-url}")
@@ -68,8 +72,6 @@ public class MpesaPaymentService {
     @Value("${mpesa.payment.status-check.backoff-multiplier:2}")
     private int backoffMultiplier;
 
-    private final Map<Long, Integer> retryCountMap = new ConcurrentHashMap<>();
-
     /**
      * Creates a new MpesaTransaction from the payment request
      */
@@ -214,6 +216,7 @@ public class MpesaPaymentService {
 
                             // Update transaction with response data
                             updateTransactionFromResponse(transaction, paymentResponse);
+                            schedulePendingStatusCheck(transaction);
                             return Mono.just(paymentResponse);
                         }
                         // If data array is empty but we have a success message, create a response
@@ -229,6 +232,7 @@ public class MpesaPaymentService {
                             String ref = "REF_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
                             transaction.setThirdPartyRef(ref);
                             mpesaTransactionRepository.save(transaction);
+                            schedulePendingStatusCheck(transaction);
 
                             MpesaPaymentResponse emptyResponse = new MpesaPaymentResponse();
                             emptyResponse.setTransactionId(transaction.getTransactionId());
@@ -275,7 +279,10 @@ public class MpesaPaymentService {
                 .doOnError(error -> log.error("Error initiating MPESA payment: {}", error.getMessage(), error));
     }
 
-    @Async
+    /**
+     * Applies a callback from the webhook inbox. Failures are thrown so the
+     * inbox can retry the callback later.
+     */
     public void processWebhook(String payload, String signature) {
         try {
             // Parse the payload
@@ -315,16 +322,19 @@ public class MpesaPaymentService {
             mpesaTransactionRepository.save(transaction);
             log.info("Successfully processed webhook for transaction: {}", transactionId);
 
-            // If the transaction is completed and has an associated order, we can clean up
-            // retry tracking
+            // If the transaction is completed and has an associated order, its pending
+            // status check is no longer needed; a pending one gets a check in case no
+            // final callback arrives
             if ((transaction.getStatus() == PaymentStatus.PAID ||
                     transaction.getStatus() == PaymentStatus.FAILED) &&
                     transaction.getOrder() != null) {
-                retryCountMap.remove(transaction.getOrder().getOrderId());
+                mpesaStatusCheckScheduler.cancel(transaction.getOrder().getOrderId());
+            } else {
+                schedulePendingStatusCheck(transaction);
             }
 
-        } catch (Exception e) {
-            log.error("Error processing webhook: " + e.getMessage(), e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid webhook payload: " + e.getMessage(), e);
         }
     }
 
@@ -472,7 +482,11 @@ public class MpesaPaymentService {
         transaction.setUpdatedAt(LocalDateTime.now());
     }
 
-    private boolean validateWebhookSignature(String payload, String signature) {
+    /**
+     * Checks the HMAC signature of a raw callback payload. Always true when
+     * {@code mpesa.webhook-signature-required} is off.
+     */
+    public boolean validateWebhookSignature(String payload, String signature) {
         // Skip validation if not required
         if (!mpesaConfig.isWebhookSignatureRequired()) {
             return true;
@@ -612,6 +626,7 @@ public class MpesaPaymentService {
 
             log.info("Updated order {} status to CONFIRMED and payment to PAID for transaction: {}",
                     order.getOrderId(), transactionId);
+            mpesaStatusCheckScheduler.cancel(orderId);
 
             // 2. Send confirmation to customer
             try {
@@ -672,6 +687,7 @@ public class MpesaPaymentService {
 
             log.warn("Updated order {} status to CANCELLED and payment to FAILED for transaction: {}",
                     order.getOrderId(), transactionId);
+            mpesaStatusCheckScheduler.cancel(orderId);
 
             // 2. Notify customer about payment failure
             try {
@@ -726,8 +742,8 @@ public class MpesaPaymentService {
             log.info("Updated payment status to PENDING for order: {} and transaction: {}",
                     order.getOrderId(), transactionId);
 
-            // 2. Schedule a status check if needed (e.g., after 5 minutes)
-            schedulePaymentStatusCheck(orderId, transactionId, 5);
+            // 2. Schedule a status check in case no final callback arrives
+            schedulePendingStatusCheck(orderId, transactionId);
 
             // Notify customer about pending payment
             try {
@@ -754,33 +770,29 @@ public class MpesaPaymentService {
         }
     }
 
-    @Async
-    protected void schedulePaymentStatusCheck(Long orderId, String transactionId, int delayInMinutes) {
-        try {
-            log.info("Scheduling payment status check for order: {}, transaction: {} in {} minutes",
-                    orderId, transactionId, delayInMinutes);
-
-            // Calculate the next delay with exponential backoff
-            int currentRetry = retryCountMap.getOrDefault(orderId, 0);
-            long delay = (long) (delayInMinutes * Math.pow(backoffMultiplier, currentRetry)) * 60 * 1000; // Convert to
-                                                                                                          // milliseconds
-
-            // Schedule the task
-            taskScheduler.schedule(
-                    () -> checkPaymentStatus(orderId, transactionId, currentRetry + 1),
-                    Instant.now().plusMillis(delay));
-
-            log.debug("Scheduled payment status check for order: {} in {} ms (attempt #{})",
-                    orderId, delay, currentRetry + 1);
+    /**
+     * Schedules a status check for an order whose payment is still pending, in
+     * case no final callback arrives. An order keeps its first check.
+     */
+    public void schedulePendingStatusCheck(Long orderId, String transactionId) {
+        mpesaStatusCheckScheduler.schedule(orderId, transactionId, nextCheckDelay(0));
+    }
 
-        } catch (Exception e) {
-            log.error("Error scheduling payment status check for order: {}, transaction: {}",
-                    orderId, transactionId, e);
+    private void schedulePendingStatusCheck(MpesaTransaction transaction) {
+        if (transaction.getStatus() == PaymentStatus.PENDING && transaction.getOrder() != null) {
+            schedulePendingStatusCheck(transaction.getOrder().getOrderId(), transaction.getTransactionId());
         }
     }
 
-    @Async
-    protected void checkPaymentStatus(Long orderId, String transactionId, int attemptNumber) {
+    @Scheduled(fixedDelayString = "${mpesa.payment.status-check.poll-interval-ms:10000}")
+    public void runDueStatusChecks() {
+        mpesaStatusCheckScheduler.runDue(this::checkPaymentStatus);
+    }
+
+    private void checkPaymentStatus(MpesaStatusCheck check) {
+        Long orderId = check.getOrderId();
+        String transactionId = check.getTransactionId();
+        int attemptNumber = check.getAttempts() + 1;
         try {
             log.info("Checking payment status for order: {}, transaction: {} (attempt {}/{})",
                     orderId, transactionId, attemptNumber, maxRetryCount);
@@ -793,18 +805,19 @@ public class MpesaPaymentService {
                 log.info("Payment for order: {} is now SUCCESSFUL", orderId);
 
                 // Process the successful payment
-                Order order = orderRepository.findByOrderId(orderId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+                new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+                    Order order = orderRepository.findByOrderId(orderId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
-                order.setOrderStatus(OrderStatus.CONFIRMED);
-                order.setPaymentStatus(PaymentStatus.PAID);
-                orderRepository.save(order);
+                    order.setOrderStatus(OrderStatus.CONFIRMED);
+                    order.setPaymentStatus(PaymentStatus.PAID);
+                    orderRepository.save(order);
 
-                // Send confirmation to customer
-                sendPaymentConfirmation(order, transactionId);
+                    // Send confirmation to customer
+                    sendPaymentConfirmation(order, transactionId);
+                });
 
-                // Clean up retry counter
-                retryCountMap.remove(orderId);
+                mpesaStatusCheckScheduler.complete(check);
                 return;
             }
 
@@ -813,24 +826,23 @@ public class MpesaPaymentService {
                 log.warn("Max retry attempts ({}) reached for order: {}. Marking payment as failed.",
                         maxRetryCount, orderId);
 
-                Order order = orderRepository.findByOrderId(orderId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+                new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+                    Order order = orderRepository.findByOrderId(orderId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
-                order.setOrderStatus(OrderStatus.CANCELLED);
-                order.setPaymentStatus(PaymentStatus.FAILED);
-                orderRepository.save(order);
+                    order.setOrderStatus(OrderStatus.CANCELLED);
+                    order.setPaymentStatus(PaymentStatus.FAILED);
+                    orderRepository.save(order);
 
-                // Send failure notification
-                sendPaymentFailureNotification(order, transactionId, "Payment verification timeout");
+                    // Send failure notification
+                    sendPaymentFailureNotification(order, transactionId, "Payment verification timeout");
+                });
 
-                // Clean up retry counter
-                retryCountMap.remove(orderId);
+                mpesaStatusCheckScheduler.complete(check);
                 return;
             }
 
-            // Update retry count and reschedule
-            retryCountMap.put(orderId, attemptNumber);
-            schedulePaymentStatusCheck(orderId, transactionId, initialDelayMinutes);
+            mpesaStatusCheckScheduler.reschedule(check, attemptNumber, nextCheckDelay(attemptNumber));
 
         } catch (Exception e) {
             log.error("Error checking payment status for order: {}, transaction: {}",
@@ -838,15 +850,19 @@ public class MpesaPaymentService {
 
             // If we haven't reached max retries, reschedule
             if (attemptNumber < maxRetryCount) {
-                retryCountMap.put(orderId, attemptNumber);
-                schedulePaymentStatusCheck(orderId, transactionId, initialDelayMinutes);
+                mpesaStatusCheckScheduler.reschedule(check, attemptNumber, nextCheckDelay(attemptNumber));
             } else {
                 log.error("Max retries reached for order: {}. Giving up.", orderId);
-                retryCountMap.remove(orderId);
+                mpesaStatusCheckScheduler.complete(check);
             }
         }
     }
 
+    // Exponential backoff from the initial delay
+    private Duration nextCheckDelay(int attempts) {
+        return Duration.ofMinutes((long) (initialDelayMinutes * Math.pow(backoffMultiplier, attempts)));
+    }
+
     private MpesaTransactionStatus queryTransactionStatusInternal(String transactionId) {
         try {
             // Call MPESA API to get transaction status
@@ -0,0 +1,134 @@
+package com.goDelivery.goDelivery.modules.payment.service;
+
+import com.goDelivery.goDelivery.modules.payment.model.MpesaStatusCheck;
+import com.goDelivery.goDelivery.modules.payment.repository.MpesaStatusCheckRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Keeps pending M-Pesa status checks in the mpesa_status_checks table
+ * instead of one in-memory timer per order, so they survive restarts and
+ * redeploys.
+ *
+ * Each poll selects a batch of due checks by the due-time index and takes
+ * a lease on them with one conditional update, so when several instances
+ * poll the same table every check is run by exactly one of them. A lease
+ * left behind by an instance that stopped mid-check expires after
+ * {@code mpesa.payment.status-check.lease} and the check is picked up
+ * again.
+ */
+@Slf4j
+@Component
+public class MpesaStatusCheckScheduler {
+
+    private final MpesaStatusCheckRepository mpesaStatusCheckRepository;
+    private final Executor paymentStatusExecutor;
+    private final int batchSize;
+    private final Duration lease;
+    private final TransactionTemplate scheduleTransaction;
+
+    public MpesaStatusCheckScheduler(MpesaStatusCheckRepository mpesaStatusCheckRepository,
+            @Qualifier("paymentStatusExecutor") Executor paymentStatusExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${mpesa.payment.status-check.batch-size:100}") int batchSize,
+            @Value("${mpesa.payment.status-check.lease:5m}") Duration lease) {
+        this.mpesaStatusCheckRepository = mpesaStatusCheckRepository;
+        this.paymentStatusExecutor = paymentStatusExecutor;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.scheduleTransaction = new TransactionTemplate(transactionManager);
+        this.scheduleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Schedules the first status check of an order's payment. An order that
+     * already has a pending check keeps it.
+     *
+     * The row is inserted in its own transaction: callers run inside the
+     * webhook inbox transaction, which a duplicate key failure here would
+     * otherwise mark rollback-only.
+     */
+    public void schedule(Long orderId, String transactionId, Duration delay) {
+        if (mpesaStatusCheckRepository.existsByOrderId(orderId)) {
+            log.debug("Payment status check already scheduled for order: {}", orderId);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            scheduleTransaction.executeWithoutResult(tx -> mpesaStatusCheckRepository.save(
+                    MpesaStatusCheck.builder()
+                            .orderId(orderId)
+                            .transactionId(transactionId)
+                            .attempts(0)
+                            .dueAt(now.plus(delay))
+                            .createdAt(now)
+                            .build()));
+            log.info("Scheduled payment status check for order: {}, transaction: {} in {} minutes",
+                    orderId, transactionId, delay.toMinutes());
+        } catch (DataIntegrityViolationException e) {
+            // Scheduled concurrently by another callback
+            log.debug("Payment status check already scheduled for order: {}", orderId);
+        }
+    }
+
+    public void cancel(Long orderId) {
+        if (mpesaStatusCheckRepository.deleteByOrderId(orderId) > 0) {
+            log.debug("Cancelled payment status check for order: {}", orderId);
+        }
+    }
+
+    /**
+     * Claims the checks that are due and runs each on the payment status
+     * workers. The check must end with {@link #reschedule} or
+     * {@link #complete}; otherwise it runs again once its lease expires.
+     */
+    public void runDue(Consumer<MpesaStatusCheck> check) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = mpesaStatusCheckRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        String owner = UUID.randomUUID().toString();
+        if (mpesaStatusCheckRepository.claim(due, owner, now, now.plus(lease)) == 0) {
+            return;
+        }
+        List<MpesaStatusCheck> claimed = mpesaStatusCheckRepository.findByLeaseOwner(owner);
+        log.debug("Running {} due payment status checks", claimed.size());
+        for (MpesaStatusCheck claimedCheck : claimed) {
+            try {
+                paymentStatusExecutor.execute(() -> check.accept(claimedCheck));
+            } catch (RejectedExecutionException e) {
+                // Workers are saturated; hand the check back for the next poll
+                mpesaStatusCheckRepository.reschedule(claimedCheck.getId(), owner, claimedCheck.getAttempts(),
+                        claimedCheck.getDueAt());
+            }
+        }
+    }
+
+    public void reschedule(MpesaStatusCheck check, int attempts, Duration delay) {
+        mpesaStatusCheckRepository.reschedule(check.getId(), check.getLeaseOwner(), attempts,
+                LocalDateTime.now().plus(delay));
+        log.debug("Next payment status check for order: {} in {} minutes (attempt #{})",
+                check.getOrderId(), delay.toMinutes(), attempts + 1);
+    }
+
+    public void complete(MpesaStatusCheck check) {
+        mpesaStatusCheckRepository.complete(check.getId(), check.getLeaseOwner());
+    }
+}
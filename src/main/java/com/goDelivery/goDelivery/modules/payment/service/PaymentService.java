@@ -2,7 +2,6 @@ package com.goDelivery.goDelivery.modules.payment.service;
 
 import com.goDelivery.goDelivery.shared.enums.OrderStatus;
 import com.goDelivery.goDelivery.shared.enums.PaymentStatus;
-import com.goDelivery.goDelivery.shared.exception.ConcurrentModificationException;
 import com.goDelivery.goDelivery.modules.payment.dto.MomoPaymentRequest;
 import com.goDelivery.goDelivery.modules.payment.dto.MomoPaymentResponse;
 import com.goDelivery.goDelivery.modules.notification.service.NotificationService;
@@ -164,8 +163,12 @@ public class PaymentService {
         }
     }
 
-    public void handleMpesaWebhook(MpesaWebhookRequest webhookRequest) {
-        log.info("Processing MPESA webhook: {}", webhookRequest);
+    /**
+     * Checks the signature of an MPESA callback on the request thread, before
+     * it is accepted into the webhook inbox.
+     */
+    public void verifyMpesaWebhook(MpesaWebhookRequest webhookRequest) {
+        log.info("Received MPESA webhook: {}", webhookRequest);
 
         // Get the signature from headers
         String signature = null;
@@ -206,110 +209,84 @@ public class PaymentService {
                     "Invalid or missing webhook signature. Possible tampering detected or not called in an HTTP request context.");
             throw new SecurityException("Invalid or missing webhook signature");
         }
+    }
 
-        // Add retry logic
-        int maxRetries = 3;
-        int attempt = 0;
-        boolean success = false;
-        Exception lastError = null;
-
-        while (attempt < maxRetries && !success) {
-            try {
-                attempt++;
-                log.info("Processing webhook attempt {}/{}", attempt, maxRetries);
-
-                // Find payment by transaction ID or third party reference
-                Payment payment = paymentRepository.findByTransactionId(webhookRequest.getTransactionId())
-                        .or(() -> {
-                            // Try to find by order ID from third party reference
-                            String ref = webhookRequest.getThirdPartyRef();
-                            if (ref != null && ref.startsWith("ORDER_")) {
-                                try {
-                                    Long orderId = Long.parseLong(ref.substring(6));
-                                    return paymentRepository.findByOrder_OrderId(orderId);
-                                } catch (NumberFormatException e) {
-                                    log.warn("Invalid order ID in third party reference: {}", ref);
-                                    return Optional.empty();
-                                }
-                            }
+    /**
+     * Applies a verified MPESA callback from the webhook inbox. Failures are
+     * thrown so the inbox can retry the callback later.
+     */
+    public void applyMpesaWebhook(MpesaWebhookRequest webhookRequest) {
+        log.info("Processing MPESA webhook for transaction {}", webhookRequest.getTransactionId());
+
+        // Find payment by transaction ID or third party reference
+        Payment payment = paymentRepository.findByTransactionId(webhookRequest.getTransactionId())
+                .or(() -> {
+                    // Try to find by order ID from third party reference
+                    String ref = webhookRequest.getThirdPartyRef();
+                    if (ref != null && ref.startsWith("ORDER_")) {
+                        try {
+                            Long orderId = Long.parseLong(ref.substring(6));
+                            return paymentRepository.findByOrder_OrderId(orderId);
+                        } catch (NumberFormatException e) {
+                            log.warn("Invalid order ID in third party reference: {}", ref);
                             return Optional.empty();
-                        })
-                        .orElseThrow(() -> new ResourceNotFoundException(
-                                String.format("Payment not found for transaction: %s, reference: %s",
-                                        webhookRequest.getTransactionId(),
-                                        webhookRequest.getThirdPartyRef())));
-
-                // Check if this is a duplicate webhook for a successful payment
-                if (payment.getPaymentStatus() == PaymentStatus.PAID &&
-                        webhookRequest.getTransactionStatus().equalsIgnoreCase("SUCCESSFUL")) {
-                    log.info("Duplicate webhook received for paid transaction: {}",
-                            webhookRequest.getTransactionId());
-                    return;
-                }
+                        }
+                    }
+                    return Optional.empty();
+                })
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Payment not found for transaction: %s, reference: %s",
+                                webhookRequest.getTransactionId(),
+                                webhookRequest.getThirdPartyRef())));
+
+        // Check if this is a duplicate webhook for a successful payment
+        if (payment.getPaymentStatus() == PaymentStatus.PAID &&
+                webhookRequest.getTransactionStatus().equalsIgnoreCase("SUCCESSFUL")) {
+            log.info("Duplicate webhook received for paid transaction: {}",
+                    webhookRequest.getTransactionId());
+            return;
+        }
+
+        // Update payment status based on webhook
+        switch (webhookRequest.getTransactionStatus().toUpperCase()) {
+            // case "SUCCESSFUL":
+            // payment.setPaymentStatus(PaymentStatus.PAID);
+            // payment.setGateWayResponse("Payment successful: " +
+            // webhookRequest.getDescription());
+            // break;
+
+            case "SUCCESSFUL":
+            case "SUCCESS":
+                handleSuccessfulPayment(webhookRequest, payment);
+                break;
+
+            case "FAILED":
+            case "REJECTED":
+                payment.setPaymentStatus(PaymentStatus.FAILED);
+                payment.setGateWayResponse("Payment failed: " + webhookRequest.getDescription());
+                break;
 
-                // Update payment status based on webhook
-                switch (webhookRequest.getTransactionStatus().toUpperCase()) {
-                    // case "SUCCESSFUL":
-                    // payment.setPaymentStatus(PaymentStatus.PAID);
-                    // payment.setGateWayResponse("Payment successful: " +
-                    // webhookRequest.getDescription());
-                    // break;
-
-                    case "SUCCESSFUL":
-                    case "SUCCESS":
-                        handleSuccessfulPayment(webhookRequest, payment);
-                        break;
-
-                    case "FAILED":
-                    case "REJECTED":
-                        payment.setPaymentStatus(PaymentStatus.FAILED);
-                        payment.setGateWayResponse("Payment failed: " + webhookRequest.getDescription());
-                        break;
-
-                    case "PENDING":
-                        payment.setPaymentStatus(PaymentStatus.PENDING);
-                        payment.setGateWayResponse("Payment pending: " + webhookRequest.getDescription());
-                        break;
-
-                    case "CANCELLED":
-                        handleCancelledPayment(webhookRequest, payment);
-                        break;
-
-                    default:
-                        log.warn("Unknown payment status: {}", webhookRequest.getTransactionStatus());
-                        payment.setGateWayResponse("Payment status: " + webhookRequest.getTransactionStatus() + ". "
-                                + webhookRequest.getDescription());
+            case "PENDING":
+                payment.setPaymentStatus(PaymentStatus.PENDING);
+                payment.setGateWayResponse("Payment pending: " + webhookRequest.getDescription());
+                if (payment.getOrder() != null) {
+                    mpesaPaymentService.schedulePendingStatusCheck(payment.getOrder().getOrderId(),
+                            webhookRequest.getTransactionId());
                 }
+                break;
 
-                // Save the updated payment with optimistic locking
-                payment = savePaymentWithRetry(payment, webhookRequest, attempt, maxRetries);
-                success = true; // Mark as successful if we reach here
+            case "CANCELLED":
+                handleCancelledPayment(webhookRequest, payment);
+                break;
 
-            } catch (Exception e) {
-                log.error("Error processing webhook attempt {}/{}: {}",
-                        attempt, maxRetries, e.getMessage(), e);
-                lastError = e;
-                if (attempt >= maxRetries) {
-                    throw new RuntimeException(
-                            "Failed to process webhook after " + maxRetries + " attempts",
-                            lastError);
-                }
-                // Exponential backoff
-                try {
-                    Thread.sleep(1000 * (long) Math.pow(2, attempt - 1));
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
-            }
+            default:
+                log.warn("Unknown payment status: {}", webhookRequest.getTransactionStatus());
+                payment.setGateWayResponse("Payment status: " + webhookRequest.getTransactionStatus() + ". "
+                        + webhookRequest.getDescription());
         }
 
-        if (!success && lastError != null) {
-            log.error("Failed to process webhook after {} attempts: {}",
-                    maxRetries, lastError.getMessage());
-            throw new RuntimeException(
-                    "Failed to process webhook after " + maxRetries + " attempts",
-                    lastError);
-        }
+        // Save the updated payment with optimistic locking
+        savePayment(payment, webhookRequest);
     }
 
     private void handleSuccessfulPayment(MpesaWebhookRequest webhookRequest, Payment payment) {
@@ -437,8 +414,7 @@ public class PaymentService {
 
     @Retryable(value = {
             OptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 500, multiplier = 2))
-    private Payment savePaymentWithRetry(Payment payment, MpesaWebhookRequest webhookRequest,
-            int attempt, int maxRetries) {
+    private Payment savePayment(Payment payment, MpesaWebhookRequest webhookRequest) {
         try {
             payment.setVersion(payment.getVersion() + 1);
             payment = paymentRepository.saveAndFlush(payment);
@@ -462,12 +438,9 @@ public class PaymentService {
             return payment;
 
         } catch (OptimisticLockingFailureException e) {
-            log.warn("Optimistic lock exception while updating payment (attempt {}/{}). Error: {}",
-                    attempt, maxRetries, e.getMessage());
-            if (attempt >= maxRetries) {
-                throw new ConcurrentModificationException(
-                        "Failed to update payment after " + maxRetries + " attempts due to concurrent modification", e);
-            }
+            // Left to the webhook inbox, which retries the whole callback with backoff
+            log.warn("Optimistic lock exception while updating payment for transaction {}: {}",
+                    webhookRequest.getTransactionId(), e.getMessage());
             throw e;
         }
     }
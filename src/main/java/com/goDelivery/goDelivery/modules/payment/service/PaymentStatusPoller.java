@@ -0,0 +1,207 @@
+package com.goDelivery.goDelivery.modules.payment.service;
+
+import com.goDelivery.goDelivery.modules.payment.dto.PaymentStatusPollerStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Polls the payment provider until pending payments reach a final status.
+ *
+ * Every pending payment sits in one hashed timing wheel that a single
+ * scheduled tick advances, rather than holding a sleeping thread of its own.
+ * On each tick the payments that are due are checked on a small fixed pool
+ * of workers, so the number of threads does not grow with the number of
+ * pending payments and the shared @Async pool is left alone. A payment is
+ * checked every {@code app.momo.status-poll.interval} until its check reports
+ * a final status, or is given up on after
+ * {@code app.momo.status-poll.max-duration}.
+ *
+ * Pending payments are held in memory only and are not resumed after a
+ * restart; the provider's webhook still settles them.
+ */
+@Slf4j
+@Component
+public class PaymentStatusPoller {
+
+    /**
+     * One status check of a pending payment.
+     */
+    @FunctionalInterface
+    public interface StatusCheck {
+
+        /**
+         * @return true once the payment has a final status and polling can stop
+         */
+        boolean check() throws Exception;
+    }
+
+    private final Executor paymentStatusExecutor;
+    private final long intervalTicks;
+    private final long maxDurationMillis;
+    private final Queue<Entry>[] wheel;
+    private final AtomicLong currentTick = new AtomicLong();
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder checkFailures = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder millisToFinalTotal = new LongAdder();
+    private final AtomicLong maxMillisToFinal = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public PaymentStatusPoller(@Qualifier("paymentStatusExecutor") Executor paymentStatusExecutor,
+            @Value("${app.momo.status-poll.tick-ms:1000}") long tickMillis,
+            @Value("${app.momo.status-poll.interval:30s}") Duration interval,
+            @Value("${app.momo.status-poll.max-duration:60m}") Duration maxDuration,
+            @Value("${app.momo.status-poll.wheel-size:64}") int wheelSize) {
+        this.paymentStatusExecutor = paymentStatusExecutor;
+        this.intervalTicks = Math.max(1, (interval.toMillis() + tickMillis - 1) / tickMillis);
+        this.maxDurationMillis = maxDuration.toMillis();
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Starts polling under {@code key}, first checking after one interval.
+     * A key that is already being polled is ignored.
+     *
+     * @param onTimeout run once if no final status arrives in time, may be null
+     */
+    public void track(String key, StatusCheck check, Runnable onTimeout) {
+        Entry entry = new Entry(key, check, onTimeout, System.currentTimeMillis());
+        if (pending.putIfAbsent(key, entry) != null) {
+            log.debug("Payment {} is already being polled", key);
+            return;
+        }
+        log.info("Polling payment status for {}", key);
+        schedule(entry, intervalTicks);
+    }
+
+    public boolean isTracking(String key) {
+        return pending.containsKey(key);
+    }
+
+    @Scheduled(fixedRateString = "${app.momo.status-poll.tick-ms:1000}")
+    public void tick() {
+        long tick = currentTick.incrementAndGet();
+        Queue<Entry> slot = wheel[(int) (tick % wheel.length)];
+
+        // Entries more than one turn of the wheel away stay in the slot
+        List<Entry> due = new ArrayList<>();
+        for (int i = slot.size(); i > 0; i--) {
+            Entry entry = slot.poll();
+            if (entry == null) {
+                break;
+            }
+            if (entry.deadlineTick <= tick) {
+                due.add(entry);
+            } else {
+                slot.add(entry);
+            }
+        }
+        due.forEach(this::dispatch);
+    }
+
+    public PaymentStatusPollerStats getStats() {
+        long finished = completed.sum();
+        return PaymentStatusPollerStats.builder()
+                .pending(pending.size())
+                .inFlight(inFlight.get())
+                .checks(checks.sum())
+                .checkFailures(checkFailures.sum())
+                .deferred(deferred.sum())
+                .completed(finished)
+                .timedOut(timedOut.sum())
+                .averageMillisToFinal(finished > 0 ? millisToFinalTotal.sum() / finished : 0)
+                .maxMillisToFinal(maxMillisToFinal.get())
+                .build();
+    }
+
+    private void schedule(Entry entry, long delayTicks) {
+        entry.deadlineTick = currentTick.get() + delayTicks;
+        wheel[(int) (entry.deadlineTick % wheel.length)].add(entry);
+    }
+
+    private void dispatch(Entry entry) {
+        inFlight.incrementAndGet();
+        try {
+            paymentStatusExecutor.execute(() -> run(entry));
+        } catch (RejectedExecutionException e) {
+            // Workers are saturated; try again on the next tick
+            inFlight.decrementAndGet();
+            deferred.increment();
+            schedule(entry, 1);
+        }
+    }
+
+    private void run(Entry entry) {
+        try {
+            checks.increment();
+            boolean done;
+            try {
+                done = entry.check.check();
+            } catch (Exception e) {
+                checkFailures.increment();
+                log.error("Error checking payment status for {}: {}", entry.key, e.getMessage());
+                done = false;
+            }
+
+            long elapsed = System.currentTimeMillis() - entry.trackedAt;
+            if (done) {
+                pending.remove(entry.key, entry);
+                completed.increment();
+                millisToFinalTotal.add(elapsed);
+                maxMillisToFinal.accumulateAndGet(elapsed, Math::max);
+            } else if (elapsed >= maxDurationMillis) {
+                pending.remove(entry.key, entry);
+                timedOut.increment();
+                log.warn("No final status for {} after {} ms, giving up", entry.key, elapsed);
+                if (entry.onTimeout != null) {
+                    entry.onTimeout.run();
+                }
+            } else {
+                schedule(entry, intervalTicks);
+            }
+        } catch (Exception e) {
+            log.error("Error finishing payment status polling for {}", entry.key, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final StatusCheck check;
+        private final Runnable onTimeout;
+        private final long trackedAt;
+        private volatile long deadlineTick;
+
+        Entry(String key, StatusCheck check, Runnable onTimeout, long trackedAt) {
+            this.key = key;
+            this.check = check;
+            this.onTimeout = onTimeout;
+            this.trackedAt = trackedAt;
+        }
+    }
+}
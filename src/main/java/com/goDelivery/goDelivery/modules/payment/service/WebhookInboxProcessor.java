@@ -0,0 +1,174 @@
+package com.goDelivery.goDelivery.modules.payment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goDelivery.goDelivery.modules.payment.dto.MomoWebhookRequest;
+import com.goDelivery.goDelivery.modules.payment.dto.MpesaWebhookRequest;
+import com.goDelivery.goDelivery.modules.payment.model.WebhookInboxEntry;
+import com.goDelivery.goDelivery.modules.payment.repository.WebhookInboxRepository;
+import com.goDelivery.goDelivery.shared.enums.WebhookInboxStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Applies stored payment callbacks from the webhook inbox.
+ *
+ * Each poll claims the due entries that are the oldest unfinished entry for
+ * their order or payment reference, so callbacks about the same payment are
+ * applied one at a time in the order they arrived, while different payments
+ * are applied in parallel on the webhook worker pool. Each callback is
+ * applied in its own transaction. A failed callback is retried with
+ * exponential backoff and moved to the dead letters after
+ * {@code app.webhooks.inbox.max-attempts}; it holds back later callbacks
+ * for the same reference until then.
+ */
+@Slf4j
+@Component
+public class WebhookInboxProcessor {
+
+    private static final List<WebhookInboxStatus> UNFINISHED = List.of(WebhookInboxStatus.PENDING,
+            WebhookInboxStatus.PROCESSING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final PaymentService paymentService;
+    private final MpesaPaymentService mpesaPaymentService;
+    private final MomoService momoService;
+    private final ObjectMapper objectMapper;
+    private final Executor webhookExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration claimTimeout;
+
+    public WebhookInboxProcessor(WebhookInboxRepository webhookInboxRepository,
+            PaymentService paymentService,
+            MpesaPaymentService mpesaPaymentService,
+            MomoService momoService,
+            ObjectMapper objectMapper,
+            @Qualifier("webhookExecutor") Executor webhookExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.webhooks.inbox.batch-size:50}") int batchSize,
+            @Value("${app.webhooks.inbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.webhooks.inbox.retry-backoff:5s}") Duration retryBackoff,
+            @Value("${app.webhooks.inbox.max-retry-backoff:30m}") Duration maxRetryBackoff,
+            @Value("${app.webhooks.inbox.claim-timeout:10m}") Duration claimTimeout) {
+        this.webhookInboxRepository = webhookInboxRepository;
+        this.paymentService = paymentService;
+        this.mpesaPaymentService = mpesaPaymentService;
+        this.momoService = momoService;
+        this.objectMapper = objectMapper;
+        this.webhookExecutor = webhookExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.inbox.poll-interval-ms:1000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = webhookInboxRepository.releaseStaleClaims(WebhookInboxStatus.PROCESSING,
+                WebhookInboxStatus.PENDING, now.minus(claimTimeout));
+        if (released > 0) {
+            log.warn("Released {} webhook inbox entries left in processing", released);
+        }
+
+        List<WebhookInboxEntry> due = webhookInboxRepository.findDue(WebhookInboxStatus.PENDING, UNFINISHED, now,
+                PageRequest.of(0, batchSize));
+        for (WebhookInboxEntry entry : due) {
+            // Another instance may have claimed it since the query
+            if (webhookInboxRepository.transition(entry.getId(), WebhookInboxStatus.PENDING,
+                    WebhookInboxStatus.PROCESSING, now) == 0) {
+                continue;
+            }
+            try {
+                webhookExecutor.execute(() -> process(entry));
+            } catch (RejectedExecutionException e) {
+                // Workers are saturated; the rest waits for the next poll
+                webhookInboxRepository.transition(entry.getId(), WebhookInboxStatus.PROCESSING,
+                        WebhookInboxStatus.PENDING, now);
+                break;
+            }
+        }
+    }
+
+    private void process(WebhookInboxEntry entry) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        try {
+            Runnable callback = parse(entry);
+            transactionTemplate.executeWithoutResult(status -> callback.run());
+            entry.setStatus(WebhookInboxStatus.PROCESSED);
+            entry.setProcessedAt(LocalDateTime.now());
+            entry.setLastError(null);
+            log.info("Processed {} webhook {} (attempt {})", entry.getSource(), entry.getEventKey(),
+                    entry.getAttempts());
+        } catch (JsonProcessingException e) {
+            // Retrying cannot fix a payload that does not parse
+            deadLetter(entry, e);
+        } catch (Exception e) {
+            if (entry.getAttempts() >= maxAttempts) {
+                deadLetter(entry, e);
+            } else {
+                Duration delay = backoff(entry.getAttempts());
+                entry.setStatus(WebhookInboxStatus.PENDING);
+                entry.setNextAttemptAt(LocalDateTime.now().plus(delay));
+                entry.setLastError(describe(e));
+                log.warn("Processing {} webhook {} failed (attempt {}), retrying in {}s: {}", entry.getSource(),
+                        entry.getEventKey(), entry.getAttempts(), delay.toSeconds(), e.getMessage());
+            }
+        }
+        webhookInboxRepository.save(entry);
+    }
+
+    private Runnable parse(WebhookInboxEntry entry) throws JsonProcessingException {
+        switch (entry.getSource()) {
+            case MPESA_PAYMENT: {
+                MpesaWebhookRequest request = objectMapper.readValue(entry.getPayload(), MpesaWebhookRequest.class);
+                return () -> paymentService.applyMpesaWebhook(request);
+            }
+            case MPESA_TRANSACTION:
+                objectMapper.readTree(entry.getPayload());
+                return () -> mpesaPaymentService.processWebhook(entry.getPayload(), entry.getSignature());
+            case MOMO: {
+                MomoWebhookRequest request = objectMapper.readValue(entry.getPayload(), MomoWebhookRequest.class);
+                return () -> momoService.handleWebhook(request);
+            }
+            default:
+                throw new IllegalStateException("Unknown webhook source: " + entry.getSource());
+        }
+    }
+
+    private void deadLetter(WebhookInboxEntry entry, Exception e) {
+        entry.setStatus(WebhookInboxStatus.DEAD);
+        entry.setLastError(describe(e));
+        log.error("Giving up on {} webhook {} after {} attempts: {}", entry.getSource(), entry.getEventKey(),
+                entry.getAttempts(), e.getMessage(), e);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private static String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
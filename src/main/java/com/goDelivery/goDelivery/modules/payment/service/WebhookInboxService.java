@@ -0,0 +1,169 @@
+package com.goDelivery.goDelivery.modules.payment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goDelivery.goDelivery.modules.payment.dto.MomoWebhookRequest;
+import com.goDelivery.goDelivery.modules.payment.dto.MpesaWebhookRequest;
+import com.goDelivery.goDelivery.modules.payment.model.WebhookInboxEntry;
+import com.goDelivery.goDelivery.modules.payment.repository.WebhookInboxRepository;
+import com.goDelivery.goDelivery.shared.enums.WebhookInboxStatus;
+import com.goDelivery.goDelivery.shared.enums.WebhookSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Accepts payment provider callbacks into the durable webhook inbox.
+ *
+ * A callback is acknowledged as soon as it is stored, with a single insert;
+ * {@link WebhookInboxProcessor} applies it later, off the request thread.
+ * Each callback is keyed by the provider's transaction id and the status it
+ * reports, so a provider resending the same callback after an outage is
+ * stored once, while a later status for the same transaction is not lost.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookInboxService {
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return false if the callback had already been received
+     */
+    public boolean appendMpesaPayment(MpesaWebhookRequest request) {
+        String payload = toJson(request);
+        String reference = StringUtils.hasText(request.getThirdPartyRef()) ? request.getThirdPartyRef()
+                : request.getTransactionId();
+        return append(WebhookSource.MPESA_PAYMENT, eventKey(request.getTransactionId(),
+                request.getTransactionStatus(), payload), reference, payload, null);
+    }
+
+    /**
+     * @return false if the callback had already been received
+     */
+    public boolean appendMpesaTransaction(String payload, String signature) {
+        String transactionId = null;
+        String status = null;
+        try {
+            JsonNode rootNode = objectMapper.readTree(payload);
+            transactionId = rootNode.path("transactionId").asText(null);
+            status = rootNode.path("transactionStatus").asText(null);
+        } catch (JsonProcessingException e) {
+            // Stored anyway; the processor records why it cannot be applied
+            log.warn("Unreadable MPESA webhook payload: {}", e.getMessage());
+        }
+        return append(WebhookSource.MPESA_TRANSACTION, eventKey(transactionId, status, payload),
+                transactionId, payload, signature);
+    }
+
+    /**
+     * @return false if the callback had already been received
+     */
+    public boolean appendMomo(MomoWebhookRequest request) {
+        String payload = toJson(request);
+        return append(WebhookSource.MOMO, eventKey(request.getReferenceId(), request.getStatus(), payload),
+                request.getReferenceId(), payload, null);
+    }
+
+    public Page<WebhookInboxEntry> getDeadLetters(Pageable pageable) {
+        return webhookInboxRepository.findByStatusOrderByIdDesc(WebhookInboxStatus.DEAD, pageable);
+    }
+
+    public Map<WebhookInboxStatus, Long> countByStatus() {
+        Map<WebhookInboxStatus, Long> counts = new EnumMap<>(WebhookInboxStatus.class);
+        for (WebhookInboxStatus status : WebhookInboxStatus.values()) {
+            counts.put(status, webhookInboxRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    /**
+     * Queues a dead-lettered callback again with a fresh set of attempts.
+     *
+     * @return false if the entry does not exist or is not dead-lettered
+     */
+    @Transactional
+    public boolean replay(Long id) {
+        return webhookInboxRepository.findById(id)
+                .filter(entry -> entry.getStatus() == WebhookInboxStatus.DEAD)
+                .map(entry -> {
+                    entry.setStatus(WebhookInboxStatus.PENDING);
+                    entry.setAttempts(0);
+                    entry.setNextAttemptAt(LocalDateTime.now());
+                    log.info("Replaying {} webhook {}", entry.getSource(), entry.getEventKey());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    private boolean append(WebhookSource source, String eventKey, String orderingKey, String payload,
+            String signature) {
+        LocalDateTime now = LocalDateTime.now();
+        WebhookInboxEntry entry = WebhookInboxEntry.builder()
+                .source(source)
+                .eventKey(eventKey)
+                // Callbacks without a reference cannot be related to others
+                .orderingKey(truncate(StringUtils.hasText(orderingKey) ? orderingKey : eventKey))
+                .payload(payload)
+                .signature(signature)
+                .status(WebhookInboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .receivedAt(now)
+                .build();
+        try {
+            webhookInboxRepository.save(entry);
+            log.info("Queued {} webhook {}", source, eventKey);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.info("Ignoring duplicate {} webhook {}", source, eventKey);
+            return false;
+        }
+    }
+
+    private String toJson(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize webhook payload", e);
+        }
+    }
+
+    private static String eventKey(String transactionId, String status, String payload) {
+        if (!StringUtils.hasText(transactionId)) {
+            return "sha256:" + sha256(payload);
+        }
+        return truncate(transactionId + ":" + (status != null ? status.toUpperCase() : ""));
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_KEY_LENGTH ? value.substring(0, MAX_KEY_LENGTH) : value;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
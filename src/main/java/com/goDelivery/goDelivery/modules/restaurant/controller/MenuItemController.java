@@ -9,7 +9,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemResponse;
-import com.goDelivery.goDelivery.modules.branch.service.FileStorageService;
+import com.goDelivery.goDelivery.modules.branch.service.ImageStorageService;
 import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
 import com.goDelivery.goDelivery.modules.restaurant.dto.UpdateMenuItemRequest;
 import com.goDelivery.goDelivery.modules.restaurant.service.MenuItemService;
@@ -27,7 +27,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class MenuItemController {
 
     private final MenuItemService menuItemService;
-    private final FileStorageService fileStorageService;
+    private final ImageStorageService imageStorageService;
 
     @PostMapping(value = "/createMenuItem/{restaurantId}", consumes = { "multipart/form-data" })
     @ResponseStatus(HttpStatus.CREATED)
@@ -47,7 +47,7 @@ public class MenuItemController {
             // Handle image upload if provided
             String imageUrl = null;
             if (imageFile != null && !imageFile.isEmpty()) {
-                String filePath = fileStorageService.storeFile(imageFile, "menu-items/temp/images");
+                String filePath = imageStorageService.storeImage(imageFile, "menu-items/temp/images");
                 imageUrl = "/api/files/" + filePath.replace("\\", "/");
             }
 
@@ -97,7 +97,7 @@ public class MenuItemController {
             // Handle image upload if provided
             String imageUrl = null;
             if (imageFile != null && !imageFile.isEmpty()) {
-                String filePath = fileStorageService.storeFile(imageFile, "menu-items/images");
+                String filePath = imageStorageService.storeImage(imageFile, "menu-items/images");
                 imageUrl = "/api/files/" + filePath.replace("\\", "/");
             }
 
@@ -130,7 +130,7 @@ public class MenuItemController {
             @RequestParam("file") MultipartFile file) {
         try {
             // Store the file
-            String filePath = fileStorageService.storeFile(file, "menu-items/" + restaurantId + "/images");
+            String filePath = imageStorageService.storeImage(file, "menu-items/" + restaurantId + "/images");
             String fullUrl = "/api/files/" + filePath.replace("\\", "/");
 
             // Update menu item image
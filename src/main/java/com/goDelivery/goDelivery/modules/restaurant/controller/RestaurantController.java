@@ -3,8 +3,10 @@ package com.goDelivery.goDelivery.modules.restaurant.controller;
 import com.goDelivery.goDelivery.modules.analytics.dto.OrderReportDTO;
 import com.goDelivery.goDelivery.modules.analytics.dto.SalesReportDTO;
 import com.goDelivery.goDelivery.modules.restaurant.dto.*;
+import com.goDelivery.goDelivery.modules.restaurant.service.CatalogSearchIndex;
 import com.goDelivery.goDelivery.modules.restaurant.service.RestaurantService;
 import com.goDelivery.goDelivery.modules.branch.service.FileStorageService;
+import com.goDelivery.goDelivery.modules.branch.service.ImageStorageService;
 import com.goDelivery.goDelivery.modules.analytics.service.ReportService;
 
 import java.time.LocalDate;
@@ -37,7 +39,9 @@ public class RestaurantController {
     private final RestaurantService restaurantService;
     private final RestaurantRegistrationService registrationService;
     private final FileStorageService fileStorageService;
+    private final ImageStorageService imageStorageService;
     private final ReportService reportService;
+    private final CatalogSearchIndex catalogSearchIndex;
     private final com.goDelivery.goDelivery.modules.restaurant.dto.RestaurantMapper restaurantMapper;
 
     @PostMapping("/registerAdmin")
@@ -59,7 +63,7 @@ public class RestaurantController {
         try {
             // Store the logo file
             if (logoFile != null && !logoFile.isEmpty()) {
-                String filePath = fileStorageService.storeFile(logoFile, "restaurants/temp/logo");
+                String filePath = imageStorageService.storeImage(logoFile, "restaurants/temp/logo");
                 String fullUrl = "/api/files/" + filePath.replace("\\", "/");
                 restaurantDTO.setLogoUrl(fullUrl);
             }
@@ -113,7 +117,7 @@ public class RestaurantController {
         try {
             // Store the logo file if provided
             if (logoFile != null && !logoFile.isEmpty()) {
-                String filePath = fileStorageService.storeFile(logoFile, "restaurants/temp/logo");
+                String filePath = imageStorageService.storeImage(logoFile, "restaurants/temp/logo");
                 String fullUrl = "/api/files/" + filePath.replace("\\", "/");
                 restaurantDTO.setLogoUrl(fullUrl);
             }
@@ -171,20 +175,24 @@ public class RestaurantController {
     @GetMapping(value = "/searchByLocation")
     public ResponseEntity<List<RestaurantDTO>> getRestaurantsByLocation(
             @AuthenticationPrincipal UserDetails userDetails,
-            @RequestParam(required = true) String location) {
+            @RequestParam(required = true) String location,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         RestaurantSearchRequest searchRequest = new RestaurantSearchRequest();
         searchRequest.setLocation(location);
-        List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(searchRequest);
+        List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(searchRequest, page, size).getContent();
         return ResponseEntity.ok(restaurants);
     }
 
     @GetMapping(value = "/searchByCuisine")
     public ResponseEntity<List<RestaurantDTO>> getRestaurantsByCuisineType(
             @AuthenticationPrincipal UserDetails userDetails,
-            @RequestParam(required = true) String cuisineType) {
+            @RequestParam(required = true) String cuisineType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         RestaurantSearchRequest searchRequest = new RestaurantSearchRequest();
         searchRequest.setCuisineType(cuisineType);
-        List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(searchRequest);
+        List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(searchRequest, page, size).getContent();
         return ResponseEntity.ok(restaurants);
     }
 
@@ -195,7 +203,9 @@ public class RestaurantController {
             @RequestParam(required = false) String restaurantName,
             @RequestParam(required = false) String cuisineType,
             @RequestParam(required = false) Double minRating,
-            @RequestParam(required = false) String sortBy) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
         RestaurantSearchRequest searchRequest = new RestaurantSearchRequest();
         searchRequest.setLocation(location);
@@ -204,10 +214,21 @@ public class RestaurantController {
         searchRequest.setMinRating(minRating);
         searchRequest.setSortBy(sortBy);
 
-        List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(searchRequest);
+        List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(searchRequest, page, size).getContent();
         return ResponseEntity.ok(restaurants);
     }
 
+    @GetMapping(value = "/searchCatalog")
+    @Operation(summary = "Search restaurants and dishes", description = "Typo-tolerant search over restaurant names, cuisines and menu items, optionally limited to a radius around the given location")
+    public ResponseEntity<List<CatalogSearchResult>> searchCatalog(
+            @RequestParam String q,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(defaultValue = "5.0") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(catalogSearchIndex.search(q, latitude, longitude, radiusKm, limit));
+    }
+
     @GetMapping(value = "/getAllActiveRestaurants")
     public ResponseEntity<List<RestaurantDTO>> getAllActiveRestaurants(
             @AuthenticationPrincipal UserDetails userDetails) {
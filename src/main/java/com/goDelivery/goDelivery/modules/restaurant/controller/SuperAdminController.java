@@ -2,16 +2,29 @@ package com.goDelivery.goDelivery.modules.restaurant.controller;
 
 import com.goDelivery.goDelivery.shared.enums.ApprovalStatus;
 import com.goDelivery.goDelivery.shared.enums.StatsPeriod;
+import com.goDelivery.goDelivery.shared.enums.WebhookInboxStatus;
 import com.goDelivery.goDelivery.modules.restaurant.dto.CreateSuperAdminRequest;
 import com.goDelivery.goDelivery.modules.restaurant.dto.SystemStatsDTO;
 import com.goDelivery.goDelivery.modules.delivery.dto.BikerDetailsResponse;
 import com.goDelivery.goDelivery.modules.delivery.dto.BikerUpdateRequest;
+import com.goDelivery.goDelivery.modules.delivery.dto.LocationIngestionStats;
+import com.goDelivery.goDelivery.modules.delivery.service.LocationIngestionPipeline;
+import com.goDelivery.goDelivery.modules.analytics.service.RevenueRollupService;
+import com.goDelivery.goDelivery.modules.payment.dto.DisbursementReconciliationStats;
+import com.goDelivery.goDelivery.modules.payment.dto.PaymentStatusPollerStats;
+import com.goDelivery.goDelivery.modules.payment.model.WebhookInboxEntry;
+import com.goDelivery.goDelivery.modules.payment.service.DisbursementLedgerService;
+import com.goDelivery.goDelivery.modules.payment.service.DisbursementReconciler;
+import com.goDelivery.goDelivery.modules.payment.service.PaymentStatusPoller;
+import com.goDelivery.goDelivery.modules.payment.service.WebhookInboxService;
 import com.goDelivery.goDelivery.modules.restaurant.dto.BranchesDTO;
 import com.goDelivery.goDelivery.modules.restaurant.dto.RestaurantDTO;
 import com.goDelivery.goDelivery.modules.restaurant.model.SuperAdmin;
 import com.goDelivery.goDelivery.modules.branch.service.BranchService;
 import com.goDelivery.goDelivery.modules.restaurant.service.RestaurantService;
 import com.goDelivery.goDelivery.modules.restaurant.service.SuperAdminService;
+import com.goDelivery.goDelivery.shared.cache.CacheStatistics;
+import com.goDelivery.goDelivery.shared.cache.CacheStatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +48,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/super-admin")
@@ -46,6 +60,13 @@ public class SuperAdminController {
     private final SuperAdminService superAdminService;
     private final BranchService branchService;
     private final RestaurantService restaurantService;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final LocationIngestionPipeline locationIngestionPipeline;
+    private final RevenueRollupService revenueRollupService;
+    private final PaymentStatusPoller paymentStatusPoller;
+    private final WebhookInboxService webhookInboxService;
+    private final DisbursementReconciler disbursementReconciler;
+    private final DisbursementLedgerService disbursementLedgerService;
 
     @PostMapping(value = "/registerSuperAdmin")
     public ResponseEntity<SuperAdmin> registerSuperAdmin(
@@ -137,6 +158,83 @@ public class SuperAdminController {
         return ResponseEntity.ok(superAdminService.getSystemStats(period));
     }
 
+    // ── Caches ────────────────────────────────────────────────────────────────
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get cache statistics", description = "Returns size, hit rate, evictions and load times for every application cache")
+    public ResponseEntity<List<CacheStatistics>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getStatistics());
+    }
+
+    @DeleteMapping("/caches/{cacheName}")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Clear a cache", description = "Removes every entry of the named cache, including its shared tier")
+    public ResponseEntity<Void> clearCache(@PathVariable String cacheName) {
+        cacheStatisticsService.clear(cacheName);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/location-ingestion")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get location ingestion statistics", description = "Returns received, coalesced, dropped and flushed biker location pings")
+    public ResponseEntity<LocationIngestionStats> getLocationIngestionStats() {
+        return ResponseEntity.ok(locationIngestionPipeline.getStats());
+    }
+
+    @GetMapping("/payment-status-polling")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get payment status polling statistics", description = "Returns pending payments, status checks and time to final status of the payment status poller")
+    public ResponseEntity<PaymentStatusPollerStats> getPaymentStatusPollerStats() {
+        return ResponseEntity.ok(paymentStatusPoller.getStats());
+    }
+
+    @GetMapping("/disbursement-reconciliation")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get disbursement reconciliation statistics", description = "Returns the last reconciliation run, status check failures and how long pending disbursements take to settle")
+    public ResponseEntity<DisbursementReconciliationStats> getDisbursementReconciliationStats() {
+        return ResponseEntity.ok(disbursementReconciler.getStats());
+    }
+
+    @GetMapping("/webhook-inbox")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get webhook inbox counts", description = "Returns the number of stored payment callbacks in each inbox status")
+    public ResponseEntity<Map<WebhookInboxStatus, Long>> getWebhookInboxCounts() {
+        return ResponseEntity.ok(webhookInboxService.countByStatus());
+    }
+
+    @GetMapping("/webhook-inbox/dead-letters")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get dead-lettered webhooks", description = "Paginated list of payment callbacks that failed every processing attempt, newest first")
+    public ResponseEntity<Page<WebhookInboxEntry>> getWebhookDeadLetters(
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(webhookInboxService.getDeadLetters(pageable));
+    }
+
+    @PostMapping("/webhook-inbox/{id}/replay")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Replay a dead-lettered webhook", description = "Queues a dead-lettered payment callback for processing again")
+    public ResponseEntity<Void> replayWebhook(@PathVariable Long id) {
+        if (!webhookInboxService.replay(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revenue-rollups/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Rebuild revenue rollups", description = "Recomputes the per-day restaurant revenue rollups from the orders table and returns the number of rows written")
+    public ResponseEntity<Map<String, Integer>> rebuildRevenueRollups() {
+        return ResponseEntity.ok(Map.of("rows", revenueRollupService.rebuild()));
+    }
+
+    @PostMapping("/disbursement-ledger/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Rebuild disbursement ledger", description = "Recomputes the per-restaurant disbursement totals from the disbursement transactions and returns the number of rows written")
+    public ResponseEntity<Map<String, Integer>> rebuildDisbursementLedger() {
+        return ResponseEntity.ok(Map.of("rows", disbursementLedgerService.rebuild()));
+    }
+
     // ── Branch Management ─────────────────────────────────────────────────────
 
     @GetMapping("/branches")
@@ -0,0 +1,23 @@
+package com.goDelivery.goDelivery.modules.restaurant.dto;
+
+import com.goDelivery.goDelivery.shared.enums.CatalogItemType;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSearchResult {
+
+    private CatalogItemType type;
+    private Long id; // restaurant id for RESTAURANT results, menu item id otherwise
+    private Long restaurantId;
+    private String restaurantName;
+    private Long branchId;
+    private String name;
+    private String description;
+    private String categoryName;
+    private Float price;
+    private Double score;
+    private Double distanceKm; // Only set for location-bound searches
+}
@@ -5,6 +5,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
+import com.goDelivery.goDelivery.modules.branch.service.ImageStorageService;
 import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
 
 @Component
@@ -31,6 +32,7 @@ public class MenuItemMapper {
                 .description(menuItem.getDescription())
                 .price(menuItem.getPrice())
                 .image(menuItem.getImage())
+                .imageVariants(ImageStorageService.variantsOf(menuItem.getImage()))
                 .ingredients(menuItem.getIngredients())
                 .isAvailable(menuItem.isAvailable())
                 .preparationTime(menuItem.getPreparationTime())
@@ -2,6 +2,8 @@ package com.goDelivery.goDelivery.modules.restaurant.dto;
 
 import java.time.LocalDate;
 
+import com.goDelivery.goDelivery.modules.branch.dto.ImageVariantUrls;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +19,7 @@ public class MenuItemResponse {
     private String description;
     private Float price;
     private String image;
+    private ImageVariantUrls imageVariants;
     private String ingredients;
     private boolean isAvailable;
     private Integer preparationTime;
@@ -0,0 +1,28 @@
+package com.goDelivery.goDelivery.modules.restaurant.dto;
+
+import com.goDelivery.goDelivery.modules.branch.dto.FileUploadResponse;
+import com.goDelivery.goDelivery.shared.enums.MenuUploadJobStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuUploadJob {
+
+    private String jobId;
+    private String ownerType; // RESTAURANT or BRANCH
+    private Long ownerId;
+    private String fileName;
+    private MenuUploadJobStatus status;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Integer totalItems; // Known once the file has been parsed
+    private Integer processedItems;
+    private int attempts;
+    private FileUploadResponse result; // Set once the job has finished
+}
@@ -13,6 +13,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.PositiveOrZero;
 
+import com.goDelivery.goDelivery.modules.branch.dto.ImageVariantUrls;
 import com.goDelivery.goDelivery.shared.enums.ApprovalStatus;
 import com.goDelivery.goDelivery.shared.enums.DeliveryType;
 import com.goDelivery.goDelivery.shared.enums.DistanceUnit;
@@ -49,6 +50,8 @@ public class RestaurantDTO {
 
     private String logoUrl;
 
+    private ImageVariantUrls logoVariants;
+
     @NotBlank(message = "Description is required")
     private String description;
 
@@ -2,6 +2,7 @@ package com.goDelivery.goDelivery.modules.restaurant.dto;
 
 import com.goDelivery.goDelivery.modules.branch.model.Branches;
 import com.goDelivery.goDelivery.modules.branch.model.BranchUsers;
+import com.goDelivery.goDelivery.modules.branch.service.ImageStorageService;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import org.springframework.stereotype.Component;
 
@@ -28,6 +29,7 @@ public class RestaurantMapper {
                         .email(restaurant.getEmail())
                         .phoneNumber(restaurant.getPhoneNumber())
                         .logoUrl(restaurant.getLogoUrl())
+                        .logoVariants(ImageStorageService.variantsOf(restaurant.getLogoUrl()))
                         .description(restaurant.getDescription())
                         .rating(restaurant.getRating())
                         .totalReviews(restaurant.getTotalReviews())
@@ -67,6 +69,7 @@ public class RestaurantMapper {
                 .email(restaurant.getEmail())
                 .phoneNumber(restaurant.getPhoneNumber())
                 .logoUrl(restaurant.getLogoUrl())
+                .logoVariants(ImageStorageService.variantsOf(restaurant.getLogoUrl()))
                 .description(restaurant.getDescription())
                 .rating(restaurant.getRating())
                 .totalReviews(restaurant.getTotalReviews())
@@ -23,7 +23,10 @@ import com.goDelivery.goDelivery.shared.enums.RestaurantSetupStatus;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "restaurant")
+@Table(name = "restaurant", indexes = {
+        @Index(name = "idx_restaurant_active_popularity", columnList = "is_active, total_orders"),
+        @Index(name = "idx_restaurant_active_rating", columnList = "is_active, rating")
+})
 public class Restaurant {
 
     @Id
@@ -67,6 +70,12 @@ public class Restaurant {
     @Builder.Default
     private Integer totalReviews = 0;
 
+    // Number of orders ever placed, used to rank search results by popularity. Only written by the
+    // increment and recount queries, so saving a loaded restaurant cannot overwrite newer counts
+    @Column(name = "total_orders", updatable = false)
+    @Builder.Default
+    private Long totalOrders = 0L;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "delivery_type", nullable = false)
     @Builder.Default
@@ -3,9 +3,15 @@ package com.goDelivery.goDelivery.modules.restaurant.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.goDelivery.goDelivery.modules.restaurant.model.MenuCategory;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 
@@ -23,6 +29,12 @@ public interface MenuCategoryRepository extends JpaRepository<MenuCategory, Long
     long countByBranch_BranchId(Long branchId);
     List<MenuCategory> findByBranch_BranchIdAndCategoryNameContainingIgnoreCase(Long branchId, String categoryName);
     
+    // Restaurant menu with its items in one query, read-only for copying to branches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT c FROM MenuCategory c LEFT JOIN FETCH c.menuItems "
+            + "WHERE c.restaurant.restaurantId = :restaurantId")
+    List<MenuCategory> findWithItemsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
     default List<MenuCategory> findByRestaurantId(Long restaurantId) {
         Restaurant restaurant = new Restaurant();
         restaurant.setRestaurantId(restaurantId);
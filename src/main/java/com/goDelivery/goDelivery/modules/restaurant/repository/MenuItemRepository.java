@@ -3,9 +3,15 @@ package com.goDelivery.goDelivery.modules.restaurant.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
 
 @Repository
@@ -25,4 +31,24 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByCategory_CategoryId(Long categoryId);
     List<MenuItem> findByBranch_BranchIdAndCategory_CategoryId(Long branchId, Long categoryId);
     List<MenuItem> findByBranch_BranchIdAndCategory_CategoryIdAndIsAvailableTrue(Long branchId, Long categoryId);
+
+    // Variants of a restaurant's menu items in one query, read-only for copying to branches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT m FROM MenuItem m LEFT JOIN FETCH m.variants "
+            + "WHERE m.category.restaurant.restaurantId = :restaurantId")
+    List<MenuItem> findWithVariantsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    // Search index rows: (menuItemId, name, description, ingredients, categoryName, restaurantId, branchId, isAvailable, price)
+    @Query("SELECT m.menuItemId, m.menuItemName, m.description, m.ingredients, c.categoryName, "
+            + "r.restaurantId, b.branchId, m.isAvailable, m.price "
+            + "FROM MenuItem m LEFT JOIN m.category c LEFT JOIN m.restaurant r LEFT JOIN m.branch b")
+    List<Object[]> findSearchRows();
+
+    // Lower-cased names already on a menu, used to skip rows a previous import run saved
+    @Query("SELECT LOWER(m.menuItemName) FROM MenuItem m "
+            + "WHERE m.restaurant.restaurantId = :restaurantId AND m.branch IS NULL")
+    List<String> findRestaurantMenuItemNames(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT LOWER(m.menuItemName) FROM MenuItem m WHERE m.branch.branchId = :branchId")
+    List<String> findBranchMenuItemNames(@Param("branchId") Long branchId);
 }
@@ -2,6 +2,7 @@ package com.goDelivery.goDelivery.modules.restaurant.repository;
 
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -44,6 +45,29 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
                      "LOWER(r.location) LIKE LOWER(CONCAT('%', :query, '%'))")
        List<Restaurant> searchRestaurants(@Param("query") String query);
 
+       @Query("SELECT r FROM Restaurant r WHERE r.isActive = true AND " +
+                     "(:location IS NULL OR LOWER(r.location) = LOWER(:location)) AND " +
+                     "(:restaurantName IS NULL OR LOWER(r.restaurantName) = LOWER(:restaurantName)) AND " +
+                     "(:cuisineType IS NULL OR LOWER(r.cuisineType) = LOWER(:cuisineType)) AND " +
+                     "(:minRating IS NULL OR r.rating >= :minRating)")
+       Page<Restaurant> searchActiveRestaurants(
+                     @Param("location") String location,
+                     @Param("restaurantName") String restaurantName,
+                     @Param("cuisineType") String cuisineType,
+                     @Param("minRating") Double minRating,
+                     Pageable pageable);
+
+       // Native like the recount, since total_orders is not updatable through the entity
+       @Modifying
+       @Query(value = "UPDATE restaurant SET total_orders = COALESCE(total_orders, 0) + :count " +
+                     "WHERE restaurant_id = :restaurantId", nativeQuery = true)
+       int incrementTotalOrders(@Param("restaurantId") Long restaurantId, @Param("count") long count);
+
+       @Modifying
+       @Query(value = "UPDATE restaurant r SET total_orders = " +
+                     "(SELECT COUNT(*) FROM orders o WHERE o.restaurant_id = r.restaurant_id)", nativeQuery = true)
+       int recountTotalOrders();
+
        @Query("SELECT DISTINCT r FROM Restaurant r " +
                      "LEFT JOIN r.promotions p " +
                      "WHERE p IS NOT NULL AND p.isActive = true")
@@ -0,0 +1,305 @@
+package com.goDelivery.goDelivery.modules.restaurant.service;
+
+import com.goDelivery.goDelivery.modules.branch.model.BranchMenuItem;
+import com.goDelivery.goDelivery.modules.branch.repository.BranchMenuItemRepository;
+import com.goDelivery.goDelivery.modules.delivery.service.RestaurantLocationIndex;
+import com.goDelivery.goDelivery.modules.restaurant.dto.CatalogSearchResult;
+import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
+import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
+import com.goDelivery.goDelivery.modules.restaurant.repository.MenuItemRepository;
+import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
+import com.goDelivery.goDelivery.shared.enums.CatalogItemType;
+import com.goDelivery.goDelivery.shared.util.TextSearchIndex;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory full-text index over restaurant names and cuisines, restaurant
+ * menu items and branch menu items, used by the customer catalog search.
+ *
+ * Matching is typo tolerant (see {@link TextSearchIndex}); names weigh more
+ * than categories, which weigh more than descriptions and ingredients.
+ * Only available items of approved, active restaurants are returned, and a
+ * search can be bounded to a radius through {@link RestaurantLocationIndex}.
+ *
+ * The index is warmed on startup, updated by the menu services as items
+ * change and periodically re-synchronised to pick up bulk imports and
+ * category renames. Updates made inside a transaction are applied once it
+ * commits, so a rollback leaves the index as it was. A resync leaves
+ * documents updated after its database snapshot was taken as they are.
+ */
+@Slf4j
+@Component
+public class CatalogSearchIndex {
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CATEGORY_WEIGHT = 2.0;
+    private static final double TEXT_WEIGHT = 1.0;
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final BranchMenuItemRepository branchMenuItemRepository;
+    private final RestaurantLocationIndex restaurantLocationIndex;
+    private final TextSearchIndex<String> index;
+    private final int maxResults;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // System.nanoTime() of the last put or remove of each document
+    private final Map<String, Long> lastUpdated = new ConcurrentHashMap<>();
+
+    public CatalogSearchIndex(RestaurantRepository restaurantRepository,
+            MenuItemRepository menuItemRepository,
+            BranchMenuItemRepository branchMenuItemRepository,
+            RestaurantLocationIndex restaurantLocationIndex,
+            @Value("${app.search.catalog.min-similarity:0.5}") double minSimilarity,
+            @Value("${app.search.catalog.max-results:100}") int maxResults) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.branchMenuItemRepository = branchMenuItemRepository;
+        this.restaurantLocationIndex = restaurantLocationIndex;
+        this.index = new TextSearchIndex<>(minSimilarity);
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.catalog.resync-interval-ms:600000}",
+            initialDelayString = "${app.search.catalog.resync-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long snapshotTime = System.nanoTime();
+        Set<String> keys = new HashSet<>();
+
+        for (Restaurant restaurant : restaurantRepository.findByIsApprovedTrue()) {
+            resync(entryOf(restaurant), snapshotTime, keys);
+        }
+        for (Object[] row : menuItemRepository.findSearchRows()) {
+            resync(entryOf(CatalogItemType.MENU_ITEM, row), snapshotTime, keys);
+        }
+        for (Object[] row : branchMenuItemRepository.findSearchRows()) {
+            resync(entryOf(CatalogItemType.BRANCH_MENU_ITEM, row), snapshotTime, keys);
+        }
+        lastUpdated.forEach((key, updatedAt) -> {
+            if (updatedAt - snapshotTime >= 0) {
+                keys.add(key);
+            }
+        });
+
+        entries.keySet().removeIf(key -> !keys.contains(key));
+        index.retainAll(keys);
+        lastUpdated.keySet().removeIf(key -> !keys.contains(key));
+
+        log.info("Catalog search index synchronised: {} documents in {} ms",
+                index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Indexes a restaurant's name, cuisine and description. Whether it is
+     * returned still depends on its approval in the location index.
+     */
+    public void indexRestaurant(Restaurant restaurant) {
+        Entry entry = entryOf(restaurant);
+        if (entry != null) {
+            afterCommit(() -> put(entry));
+        }
+    }
+
+    public void indexMenuItem(MenuItem item) {
+        if (item == null || item.getMenuItemId() == null) {
+            return;
+        }
+        Entry entry = new Entry(CatalogItemType.MENU_ITEM, item.getMenuItemId(),
+                item.getRestaurant() != null ? item.getRestaurant().getRestaurantId() : null,
+                item.getBranch() != null ? item.getBranch().getBranchId() : null,
+                item.getMenuItemName(), item.getDescription(), item.getIngredients(),
+                item.getCategory() != null ? item.getCategory().getCategoryName() : null,
+                item.getPrice(), item.isAvailable());
+        afterCommit(() -> put(entry));
+    }
+
+    public void removeMenuItem(Long menuItemId) {
+        String key = keyOf(CatalogItemType.MENU_ITEM, menuItemId);
+        afterCommit(() -> remove(key));
+    }
+
+    public void indexBranchMenuItem(BranchMenuItem item) {
+        if (item == null || item.getMenuItemId() == null) {
+            return;
+        }
+        Long restaurantId = item.getBranch() != null && item.getBranch().getRestaurant() != null
+                ? item.getBranch().getRestaurant().getRestaurantId()
+                : null;
+        Entry entry = new Entry(CatalogItemType.BRANCH_MENU_ITEM, item.getMenuItemId(), restaurantId,
+                item.getBranch() != null ? item.getBranch().getBranchId() : null,
+                item.getMenuItemName(), item.getDescription(), item.getIngredients(),
+                item.getCategory() != null ? item.getCategory().getCategoryName() : null,
+                item.getPrice(), item.isAvailable());
+        afterCommit(() -> put(entry));
+    }
+
+    public void removeBranchMenuItem(Long menuItemId) {
+        String key = keyOf(CatalogItemType.BRANCH_MENU_ITEM, menuItemId);
+        afterCommit(() -> remove(key));
+    }
+
+    /**
+     * Restaurants and menu items matching {@code query}, most relevant first.
+     * When a location is given only restaurants within {@code radiusKm} of it
+     * and their items are considered, and each result carries its distance.
+     */
+    public List<CatalogSearchResult> search(String query, Double latitude, Double longitude,
+            double radiusKm, int limit) {
+        Map<Long, Double> distances = null;
+        if (latitude != null && longitude != null) {
+            distances = new HashMap<>();
+            for (Restaurant restaurant : restaurantLocationIndex.findWithinRadius(latitude, longitude, radiusKm)) {
+                distances.put(restaurant.getRestaurantId(), restaurant.getDistanceFromUser());
+            }
+            if (distances.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        Map<Long, Double> nearby = distances;
+        Predicate<String> filter = key -> {
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.available || entry.restaurantId == null) {
+                return false;
+            }
+            if (nearby != null && !nearby.containsKey(entry.restaurantId)) {
+                return false;
+            }
+            Entry restaurant = entries.get(keyOf(CatalogItemType.RESTAURANT, entry.restaurantId));
+            return restaurant != null && restaurant.available
+                    && restaurantLocationIndex.contains(entry.restaurantId);
+        };
+
+        List<CatalogSearchResult> results = new ArrayList<>();
+        for (TextSearchIndex.Hit<String> hit : index.search(query, filter, Math.min(limit, maxResults))) {
+            Entry entry = entries.get(hit.getKey());
+            if (entry == null) {
+                continue;
+            }
+            Entry restaurant = entries.get(keyOf(CatalogItemType.RESTAURANT, entry.restaurantId));
+            results.add(CatalogSearchResult.builder()
+                    .type(entry.type)
+                    .id(entry.id)
+                    .restaurantId(entry.restaurantId)
+                    .restaurantName(restaurant != null ? restaurant.name : null)
+                    .branchId(entry.branchId)
+                    .name(entry.name)
+                    .description(entry.description)
+                    .categoryName(entry.categoryName)
+                    .price(entry.price)
+                    .score(hit.getScore())
+                    .distanceKm(nearby != null ? nearby.get(entry.restaurantId) : null)
+                    .build());
+        }
+        return results;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // Entries are built from the entities right away, while their lazy associations can still load
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    // Snapshot rows of documents updated after the snapshot was taken are older than the index
+    private void resync(Entry entry, long snapshotTime, Set<String> keys) {
+        if (entry == null) {
+            return;
+        }
+        String key = keyOf(entry.type, entry.id);
+        Long updatedAt = lastUpdated.get(key);
+        if (updatedAt == null || updatedAt - snapshotTime < 0) {
+            put(entry);
+        }
+        keys.add(key);
+    }
+
+    private String put(Entry entry) {
+        String key = keyOf(entry.type, entry.id);
+        lastUpdated.put(key, System.nanoTime());
+        entries.put(key, entry);
+        List<TextSearchIndex.Field> fields = new ArrayList<>(4);
+        fields.add(TextSearchIndex.Field.of(entry.name, NAME_WEIGHT));
+        fields.add(TextSearchIndex.Field.of(entry.categoryName, CATEGORY_WEIGHT));
+        fields.add(TextSearchIndex.Field.of(entry.description, TEXT_WEIGHT));
+        fields.add(TextSearchIndex.Field.of(entry.ingredients, TEXT_WEIGHT));
+        index.put(key, fields);
+        return key;
+    }
+
+    private void remove(String key) {
+        lastUpdated.put(key, System.nanoTime());
+        index.remove(key);
+        entries.remove(key);
+    }
+
+    private static Entry entryOf(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getRestaurantId() == null) {
+            return null;
+        }
+        return new Entry(CatalogItemType.RESTAURANT, restaurant.getRestaurantId(),
+                restaurant.getRestaurantId(), null, restaurant.getRestaurantName(),
+                restaurant.getDescription(), null, restaurant.getCuisineType(), null,
+                !Boolean.FALSE.equals(restaurant.getIsActive()));
+    }
+
+    // Row layout of the repositories' findSearchRows queries
+    private static Entry entryOf(CatalogItemType type, Object[] row) {
+        return new Entry(type, (Long) row[0], (Long) row[5], (Long) row[6], (String) row[1],
+                (String) row[2], (String) row[3], (String) row[4], (Float) row[8],
+                Boolean.TRUE.equals(row[7]));
+    }
+
+    private static String keyOf(CatalogItemType type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final CatalogItemType type;
+        private final Long id;
+        private final Long restaurantId;
+        private final Long branchId;
+        private final String name;
+        private final String description;
+        private final String ingredients;
+        private final String categoryName;
+        private final Float price;
+        // Item availability, or whether the restaurant is active
+        private final boolean available;
+    }
+}
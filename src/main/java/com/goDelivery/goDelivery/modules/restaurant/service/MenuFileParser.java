@@ -0,0 +1,331 @@
+package com.goDelivery.goDelivery.modules.restaurant.service;
+
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
+import com.goDelivery.goDelivery.shared.ocr.OcrEnginePool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts menu item rows from uploaded PDF, Excel and image files. This is
+ * only the parse stage of an import: rows are handed to a sink one at a time,
+ * unvalidated, and are checked and saved by {@link MenuImportPipeline}.
+ *
+ * Excel rows are read as name, description, price, ingredients and
+ * preparation time, with the first row as a header. .xlsx sheets are
+ * streamed with the XSSF event reader and PDFs are extracted a page at a
+ * time with their stream cache on disk, so neither file is ever held in
+ * memory as a whole and no list of rows is built up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuFileParser {
+
+    // Pattern to match various price formats:
+    // - $10.99
+    // - 10.99$
+    // - 10.99 EGP
+    // - 10,99 (European format)
+    // - 10 MT or 10 MZN (Mozambican Metical)
+    // - 10 (just a number)
+    private static final Pattern PRICE_PATTERN = Pattern.compile(
+            "([$€£]?\\s*\\d+[.,]?\\d*\\.?\\d*\\s*[$€£]?|\\d+[.,]?\\d*\\s*(?:USD|EGP|EUR|MZN|MT|£|€))");
+
+    // Resolution scanned PDF pages are rendered at for OCR
+    private static final float OCR_DPI = 300f;
+
+    // Reports numbers as their plain value (no currency or grouping) so prices parse like typed text
+    private static final DataFormatter PLAIN_NUMBERS = new DataFormatter() {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString)) {
+                return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+            }
+            return plainNumber(value);
+        }
+    };
+
+    private final OcrEnginePool ocrEnginePool;
+
+    /**
+     * Reads every row of the file into {@code sink}, in file order.
+     *
+     * @return the number of rows emitted
+     */
+    public int parse(Path file, String fileExtension, Long categoryId, Long restaurantId,
+            Consumer<MenuItemRequest> sink) throws IOException, TesseractException {
+        switch (fileExtension) {
+            case "pdf":
+                return parsePdf(file, categoryId, restaurantId, sink);
+            case "xlsx":
+                return parseXlsx(file, categoryId, restaurantId, sink);
+            case "xls":
+                return parseXls(file, categoryId, restaurantId, sink);
+            case "jpg":
+            case "jpeg":
+            case "png":
+                log.info("Starting OCR processing...");
+                String result = ocrEnginePool.recognize(file.toFile());
+                log.debug("OCR Result:\n" + result);
+                return parseLines(result, true, categoryId, restaurantId, sink);
+            default:
+                throw new UnsupportedOperationException("Unsupported file format: " + fileExtension);
+        }
+    }
+
+    private int parsePdf(Path file, Long categoryId, Long restaurantId, Consumer<MenuItemRequest> sink)
+            throws IOException, TesseractException {
+        // Buffer parsed objects in a temp file rather than on the heap
+        try (PDDocument document = Loader.loadPDF(file.toFile(), null, null, null,
+                IOUtils.createTempFileOnlyStreamCache())) {
+            if (document.isEncrypted()) {
+                return 0;
+            }
+
+            // One page of text at a time
+            PDFTextStripper stripper = new PDFTextStripper();
+            boolean hasText = false;
+            int rows = 0;
+            for (int page = 1; page <= document.getNumberOfPages(); page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                String text = stripper.getText(document);
+                hasText |= !text.isBlank();
+                rows += parseLines(text, false, categoryId, restaurantId, sink);
+            }
+
+            // Scanned menus have no text layer; recognise their pages instead
+            if (!hasText && ocrEnginePool.isAvailable()) {
+                log.info("PDF has no text layer, running OCR on {} pages", document.getNumberOfPages());
+                for (String text : ocrEnginePool.recognizePages(document, OCR_DPI)) {
+                    rows += parseLines(text, true, categoryId, restaurantId, sink);
+                }
+            }
+
+            if (rows == 0) {
+                log.warn("No menu items were extracted from the PDF ({} pages)", document.getNumberOfPages());
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Finds a price on each line and takes the text before it as the item
+     * name. OCR output is noisier, so its lines get stricter filtering.
+     */
+    int parseLines(String text, boolean ocr, Long categoryId, Long restaurantId, Consumer<MenuItemRequest> sink) {
+        int rows = 0;
+
+        for (String line : text.split("\\r?\\n")) {
+            line = line.trim();
+            if (line.isEmpty() || (ocr && line.length() < 3))
+                continue; // Skip very short lines
+
+            Matcher matcher = PRICE_PATTERN.matcher(line);
+            if (!matcher.find()) {
+                log.debug("No price found in line: {}", line);
+                continue;
+            }
+
+            String priceMatch = matcher.group(1);
+            // Extract the price value by removing all non-digit characters except decimal point
+            String priceStr = priceMatch.replaceAll("[^\\d.,]", "")
+                    .replace(',', '.'); // Handle European decimal format
+
+            // Extract the item name (everything before the price)
+            String name = line.substring(0, matcher.start()).trim();
+            if (ocr) {
+                // Clean up the name - remove any trailing non-alphanumeric characters
+                name = name.replaceAll("[^\\p{L}\\p{N}\\s]$", "").trim();
+            }
+            if (name.length() < (ocr ? 2 : 1))
+                continue;
+
+            try {
+                float price = Float.parseFloat(priceStr);
+                if (price > 0) {
+                    rows++;
+                    sink.accept(MenuItemRequest.builder()
+                            .menuItemName(name)
+                            .price(price)
+                            .isAvailable(true)
+                            .preparationTime(15) // Default value
+                            .categoryId(categoryId)
+                            .restaurantId(restaurantId)
+                            .build());
+                    log.debug("Added menu item: {} - {}", name, price);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Could not parse price from '{}' in line: {}", priceMatch, line);
+            }
+        }
+        return rows;
+    }
+
+    private int parseXlsx(Path file, Long categoryId, Long restaurantId, Consumer<MenuItemRequest> sink)
+            throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            RowCollector rows = new RowCollector(sink, categoryId, restaurantId);
+            XMLReader parser = SAXHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                    new ReadOnlySharedStringsTable(pkg), rows, PLAIN_NUMBERS, false));
+
+            // Only the first sheet holds the menu
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+            return rows.count;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    // Legacy .xls files are capped at 65k rows, so the in-memory model is acceptable here
+    private int parseXls(Path file, Long categoryId, Long restaurantId, Consumer<MenuItemRequest> sink)
+            throws IOException {
+        int rows = 0;
+        try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+            Sheet sheet = workbook.getSheetAt(0);
+
+            // Skip header row (assuming first row is header)
+            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null)
+                    continue;
+                String[] values = new String[RowCollector.COLUMNS];
+                for (int col = 0; col < values.length; col++) {
+                    Cell cell = row.getCell(col);
+                    values[col] = cell == null ? "" : PLAIN_NUMBERS.formatCellValue(cell).trim();
+                }
+                rows++;
+                sink.accept(toRequest(values, categoryId, restaurantId));
+            }
+        }
+        return rows;
+    }
+
+    private static MenuItemRequest toRequest(String[] values, Long categoryId, Long restaurantId) {
+        return MenuItemRequest.builder()
+                .menuItemName(values[0])
+                .description(values[1])
+                .price(parseFloatSafely(values[2], 0f))
+                .ingredients(values[3])
+                .preparationTime(parseIntSafely(values[4], 15))
+                .isAvailable(true)
+                .categoryId(categoryId)
+                .restaurantId(restaurantId)
+                .build();
+    }
+
+    private static String plainNumber(double value) {
+        // Remove .0 from whole numbers
+        if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static float parseFloatSafely(String value, float defaultValue) {
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            log.warn("Could not parse float from: {}, using default: {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static int parseIntSafely(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            log.warn("Could not parse int from: {}, using default: {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Receives cells from the streaming sheet reader and hands each data row
+     * to the sink as soon as the row ends.
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        static final int COLUMNS = 5;
+
+        private final Consumer<MenuItemRequest> sink;
+        private final Long categoryId;
+        private final Long restaurantId;
+        private String[] values;
+        private boolean hasValues;
+        private int nextColumn;
+        private int count;
+
+        RowCollector(Consumer<MenuItemRequest> sink, Long categoryId, Long restaurantId) {
+            this.sink = sink;
+            this.categoryId = categoryId;
+            this.restaurantId = restaurantId;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values = new String[COLUMNS];
+            Arrays.fill(values, "");
+            hasValues = false;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = col + 1;
+            if (col < COLUMNS && formattedValue != null) {
+                values[col] = formattedValue.trim();
+                hasValues = true;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Skip header row (assuming first row is header) and rows with no cells
+            if (rowNum > 0 && hasValues) {
+                count++;
+                sink.accept(toRequest(values, categoryId, restaurantId));
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.goDelivery.goDelivery.modules.restaurant.service;
+
+import com.goDelivery.goDelivery.modules.branch.model.Branches;
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
+import com.goDelivery.goDelivery.modules.restaurant.model.MenuCategory;
+import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
+import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
+import com.goDelivery.goDelivery.modules.restaurant.repository.MenuItemRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Validates parsed menu rows and saves them in batches for the background
+ * menu upload jobs.
+ *
+ * Rows are fed in one at a time through a {@link Session} as the file is
+ * parsed, and each full batch is written straight away, so no list of rows
+ * is built up. Memory use still grows with the names seen in the import,
+ * which are kept to detect duplicates. An import is refused once it exceeds
+ * {@code app.menu-upload.max-rows}, which caps the row count and with it
+ * that name set, but is not a heap limit. Only the first
+ * {@code app.menu-upload.max-echoed-rows} accepted rows are kept for the job
+ * result.
+ *
+ * Each batch is saved with {@code saveAll} in its own short transaction, so
+ * Hibernate sends it as JDBC batch inserts and a connection is only held
+ * while a batch is written. Batches that fail with a transient database
+ * error are retried. Rows whose name is already on the menu are skipped,
+ * which makes re-running an import after a partial failure safe: batches
+ * committed by the earlier run are not saved twice.
+ */
+@Slf4j
+@Component
+public class MenuImportPipeline {
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuUploadJobService menuUploadJobService;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int batchRetries;
+    private final int maxRows;
+    private final int maxEchoedRows;
+
+    public MenuImportPipeline(MenuItemRepository menuItemRepository,
+            MenuUploadJobService menuUploadJobService,
+            CatalogSearchIndex catalogSearchIndex,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.menu-upload.batch-size:50}") int batchSize,
+            @Value("${app.menu-upload.batch-retries:3}") int batchRetries,
+            @Value("${app.menu-upload.max-rows:100000}") int maxRows,
+            @Value("${app.menu-upload.max-echoed-rows:500}") int maxEchoedRows) {
+        this.menuItemRepository = menuItemRepository;
+        this.menuUploadJobService = menuUploadJobService;
+        this.catalogSearchIndex = catalogSearchIndex;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchRetries = batchRetries;
+        this.maxRows = maxRows;
+        this.maxEchoedRows = maxEchoedRows;
+    }
+
+    /**
+     * Starts importing into {@code category}. Pass {@code branch} for a
+     * branch menu, or null for the restaurant's own menu.
+     */
+    public Session start(String jobId, MenuCategory category, Restaurant restaurant, Branches branch) {
+        // Rows already on the menu were saved before, most likely by an earlier attempt at this job
+        Set<String> existing = new HashSet<>();
+        for (String name : branch != null
+                ? menuItemRepository.findBranchMenuItemNames(branch.getBranchId())
+                : menuItemRepository.findRestaurantMenuItemNames(restaurant.getRestaurantId())) {
+            existing.add(normalize(name));
+        }
+        return new Session(jobId, category, restaurant, branch, existing);
+    }
+
+    /**
+     * One running import. Not thread-safe; rows must come from a single
+     * parsing thread.
+     */
+    public class Session implements Consumer<MenuItemRequest> {
+
+        private final String jobId;
+        private final MenuCategory category;
+        private final Restaurant restaurant;
+        private final Branches branch;
+        private final Set<String> existing;
+        private final Set<String> seen = new HashSet<>();
+        private final List<MenuItemRequest> pending = new ArrayList<>(batchSize);
+        private final List<MenuItemRequest> accepted = new ArrayList<>();
+        private final LocalDate now = LocalDate.now();
+        private int rows;
+        private int saved;
+        private int duplicates;
+        private int rejected;
+
+        private Session(String jobId, MenuCategory category, Restaurant restaurant, Branches branch,
+                Set<String> existing) {
+            this.jobId = jobId;
+            this.category = category;
+            this.restaurant = restaurant;
+            this.branch = branch;
+            this.existing = existing;
+        }
+
+        @Override
+        public void accept(MenuItemRequest row) {
+            if (++rows > maxRows) {
+                throw new IllegalStateException("Menu file has more than " + maxRows + " rows");
+            }
+
+            // Validate: drop rows that cannot be saved and rows repeated within the file
+            String problem = validate(row);
+            if (problem != null) {
+                rejected++;
+                log.debug("Rejected menu row '{}': {}", row.getMenuItemName(), problem);
+                return;
+            }
+            String name = normalize(row.getMenuItemName());
+            if (!seen.add(name)) {
+                rejected++;
+                return;
+            }
+            if (accepted.size() < maxEchoedRows) {
+                accepted.add(row);
+            }
+            if (existing.contains(name)) {
+                duplicates++;
+                return;
+            }
+
+            pending.add(row);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public Result finish() {
+            flush();
+            menuUploadJobService.reportProgress(jobId, "Saved " + saved + " menu items", saved, saved);
+            log.info("Menu import {}: {} rows, {} saved, {} already on the menu, {} rejected", jobId, rows, saved,
+                    duplicates, rejected);
+            return new Result(accepted, saved, duplicates, rejected);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<MenuItem> items = new ArrayList<>(pending.size());
+            for (MenuItemRequest row : pending) {
+                items.add(toMenuItem(row, category, restaurant, branch, now));
+            }
+            pending.clear();
+
+            List<MenuItem> savedItems = saveBatch(items);
+            savedItems.forEach(catalogSearchIndex::indexMenuItem);
+            saved += savedItems.size();
+            // The total is only known once the whole file has been read
+            menuUploadJobService.reportProgress(jobId, "Saved " + saved + " menu items", saved, null);
+        }
+    }
+
+    private List<MenuItem> saveBatch(List<MenuItem> items) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> menuItemRepository.saveAll(items));
+            } catch (TransientDataAccessException e) {
+                if (attempt > batchRetries) {
+                    throw e;
+                }
+                log.warn("Saving menu batch failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                // A rolled back batch must be inserted afresh
+                items.forEach(item -> item.setMenuItemId(null));
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private String validate(MenuItemRequest row) {
+        Set<ConstraintViolation<MenuItemRequest>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (row.getMenuItemName().length() > MAX_NAME_LENGTH) {
+            return "Menu item name is too long";
+        }
+        return null;
+    }
+
+    private MenuItem toMenuItem(MenuItemRequest row, MenuCategory category, Restaurant restaurant,
+            Branches branch, LocalDate now) {
+        // Set default values for required fields
+        return MenuItem.builder()
+                .menuItemName(row.getMenuItemName().trim())
+                .description(row.getDescription() != null ? row.getDescription() : "")
+                .price(row.getPrice())
+                .image("")
+                .ingredients(row.getIngredients() != null ? row.getIngredients() : "")
+                .preparationTime(row.getPreparationTime() != null ? row.getPreparationTime() : 15)
+                .preparationScore(5) // Default score
+                .createdAt(now)
+                .updatedAt(now)
+                .category(category)
+                .restaurant(restaurant)
+                .branch(branch)
+                .isAvailable(row.isAvailable())
+                .build();
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final List<MenuItemRequest> accepted; // At most max-echoed-rows of them
+        private final int imported;
+        private final int duplicates;
+        private final int rejected;
+    }
+}
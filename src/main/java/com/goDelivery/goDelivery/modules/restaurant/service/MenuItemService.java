@@ -32,6 +32,7 @@ public class MenuItemService {
     private final MenuItemMapper menuItemMapper;
     private final RestaurantRepository restaurantRepository;
     private final MenuCategoryRepository menuCategoryRepository;
+    private final CatalogSearchIndex catalogSearchIndex;
 
     @Transactional
     public MenuItemResponse createMenuItem(MenuItemRequest request, String imageUrl) {
@@ -72,7 +73,9 @@ public class MenuItemService {
                 .updatedAt(LocalDate.now())
                 .build();
 
-        return menuItemMapper.toMenuItemResponse(menuItemRepository.save(menuItem));
+        MenuItem savedItem = menuItemRepository.save(menuItem);
+        catalogSearchIndex.indexMenuItem(savedItem);
+        return menuItemMapper.toMenuItemResponse(savedItem);
     }
 
     @Transactional
@@ -112,7 +115,9 @@ public class MenuItemService {
 
         menuItem.setUpdatedAt(LocalDate.now());
 
-        return menuItemMapper.toMenuItemResponse(menuItemRepository.save(menuItem));
+        MenuItem savedItem = menuItemRepository.save(menuItem);
+        catalogSearchIndex.indexMenuItem(savedItem);
+        return menuItemMapper.toMenuItemResponse(savedItem);
     }
 
     @Transactional
@@ -121,6 +126,7 @@ public class MenuItemService {
             throw new ResourceNotFoundException("Menu item not found with id: " + menuItemId);
         }
         menuItemRepository.deleteById(menuItemId);
+        catalogSearchIndex.removeMenuItem(menuItemId);
     }
 
     @Transactional(readOnly = true)
@@ -192,7 +198,9 @@ public class MenuItemService {
         menuItem.setAvailable(isAvailable);
         menuItem.setUpdatedAt(LocalDate.now());
 
-        return menuItemMapper.toMenuItemResponse(menuItemRepository.save(menuItem));
+        MenuItem savedItem = menuItemRepository.save(menuItem);
+        catalogSearchIndex.indexMenuItem(savedItem);
+        return menuItemMapper.toMenuItemResponse(savedItem);
     }
 
     @Transactional
@@ -0,0 +1,156 @@
+package com.goDelivery.goDelivery.modules.restaurant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.goDelivery.goDelivery.modules.branch.dto.FileUploadResponse;
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuUploadJob;
+import com.goDelivery.goDelivery.shared.enums.MenuUploadJobStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs menu file imports in the background so uploads return as soon as the
+ * file is stored. Clients poll the job by id until it is COMPLETED or FAILED;
+ * the final {@link FileUploadResponse} is attached to the job.
+ *
+ * Jobs are kept in memory for the configured retention after their last
+ * change, so polling must happen on the instance that accepted the upload.
+ * A FAILED job can be retried while it is retained; the work itself must be
+ * safe to run again.
+ */
+@Slf4j
+@Service
+public class MenuUploadJobService {
+
+    private final Executor menuUploadExecutor;
+    private final Cache<String, MenuUploadJob> jobs;
+    private final Cache<String, Function<String, FileUploadResponse>> work;
+
+    public MenuUploadJobService(@Qualifier("menuUploadExecutor") Executor menuUploadExecutor,
+            @Value("${app.menu-upload.jobs.retention:6h}") Duration retention,
+            @Value("${app.menu-upload.jobs.maximum-size:10000}") long maximumSize) {
+        this.menuUploadExecutor = menuUploadExecutor;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+        this.work = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Queues {@code task}, which is given the job id, and returns the new job.
+     * When the queue is full the job is returned already FAILED.
+     */
+    public MenuUploadJob submit(String ownerType, Long ownerId, String fileName,
+            Function<String, FileUploadResponse> task) {
+        MenuUploadJob job = MenuUploadJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .ownerType(ownerType)
+                .ownerId(ownerId)
+                .fileName(fileName)
+                .status(MenuUploadJobStatus.QUEUED)
+                .message("Waiting to be processed")
+                .submittedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+        work.put(job.getJobId(), task);
+        return enqueue(job);
+    }
+
+    public Optional<MenuUploadJob> find(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    /**
+     * Queues a FAILED job again. Jobs in any other state are returned
+     * unchanged.
+     */
+    public Optional<MenuUploadJob> retry(String jobId) {
+        MenuUploadJob retried = jobs.asMap().computeIfPresent(jobId, (id, job) ->
+                job.getStatus() == MenuUploadJobStatus.FAILED && work.getIfPresent(id) != null
+                        ? job.toBuilder()
+                                .status(MenuUploadJobStatus.QUEUED)
+                                .message("Waiting to be retried")
+                                .startedAt(null)
+                                .completedAt(null)
+                                .processedItems(null)
+                                .result(null)
+                                .build()
+                        : job);
+        if (retried == null || retried.getStatus() != MenuUploadJobStatus.QUEUED) {
+            return Optional.ofNullable(retried);
+        }
+        log.info("Retrying menu upload job {} for {} {}", jobId, retried.getOwnerType(), retried.getOwnerId());
+        return Optional.of(enqueue(retried));
+    }
+
+    /**
+     * Records how far the job has got; {@code total} may be null while it is
+     * not yet known.
+     */
+    public void reportProgress(String jobId, String message, int processed, Integer total) {
+        update(jobId, job -> job.toBuilder()
+                .message(message)
+                .processedItems(processed)
+                .totalItems(total)
+                .build());
+    }
+
+    private MenuUploadJob enqueue(MenuUploadJob job) {
+        Function<String, FileUploadResponse> task = work.getIfPresent(job.getJobId());
+        try {
+            menuUploadExecutor.execute(() -> run(job.getJobId(), task));
+        } catch (RejectedExecutionException e) {
+            log.warn("Menu upload queue is full, rejecting {} for {} {}", job.getFileName(), job.getOwnerType(),
+                    job.getOwnerId());
+            finish(job.getJobId(), MenuUploadJobStatus.FAILED,
+                    "Too many menu uploads are being processed, please try again shortly", null);
+        }
+        return find(job.getJobId()).orElse(job);
+    }
+
+    private void run(String jobId, Function<String, FileUploadResponse> task) {
+        update(jobId, job -> job.toBuilder()
+                .status(MenuUploadJobStatus.PROCESSING)
+                .message("Extracting menu items")
+                .startedAt(LocalDateTime.now())
+                .attempts(job.getAttempts() + 1)
+                .build());
+        try {
+            FileUploadResponse result = task.apply(jobId);
+            finish(jobId, result.isSuccess() ? MenuUploadJobStatus.COMPLETED : MenuUploadJobStatus.FAILED,
+                    result.getMessage(), result);
+        } catch (Exception e) {
+            log.error("Menu upload job {} failed: {}", jobId, e.getMessage(), e);
+            finish(jobId, MenuUploadJobStatus.FAILED, "Error processing file: " + e.getMessage(), null);
+        }
+    }
+
+    private void finish(String jobId, MenuUploadJobStatus status, String message, FileUploadResponse result) {
+        update(jobId, job -> job.toBuilder()
+                .status(status)
+                .message(message)
+                .completedAt(LocalDateTime.now())
+                .result(result)
+                .build());
+    }
+
+    // Jobs are replaced rather than mutated so pollers never see a half-updated job
+    private void update(String jobId, UnaryOperator<MenuUploadJob> change) {
+        jobs.asMap().computeIfPresent(jobId, (id, job) -> change.apply(job));
+    }
+}
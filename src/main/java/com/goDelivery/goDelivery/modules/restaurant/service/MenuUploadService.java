@@ -2,39 +2,25 @@ package com.goDelivery.goDelivery.modules.restaurant.service;
 
 import com.goDelivery.goDelivery.modules.branch.dto.FileUploadResponse;
 import com.goDelivery.goDelivery.modules.branch.service.FileStorageService;
-import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuUploadJob;
 import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
 import com.goDelivery.goDelivery.modules.restaurant.model.MenuCategory;
 import com.goDelivery.goDelivery.modules.restaurant.model.Restaurant;
-import com.goDelivery.goDelivery.modules.restaurant.model.MenuItem;
 import com.goDelivery.goDelivery.modules.restaurant.model.RestaurantUsers;
 import com.goDelivery.goDelivery.modules.restaurant.repository.MenuCategoryRepository;
-import com.goDelivery.goDelivery.modules.restaurant.repository.MenuItemRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
+import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantUsersRepository;
 import com.goDelivery.goDelivery.modules.notification.service.EmailService;
+import com.goDelivery.goDelivery.shared.enums.Roles;
+import com.goDelivery.goDelivery.shared.ocr.OcrEnginePool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -43,102 +29,94 @@ public class MenuUploadService {
     private final FileStorageService fileStorageService;
     private final RestaurantRepository restaurantRepository;
     private final MenuCategoryRepository menuCategoryRepository;
-    private final MenuItemRepository menuItemRepository;
-    private final Tesseract tesseract;
+    private final RestaurantUsersRepository restaurantUsersRepository;
+    private final OcrEnginePool ocrEnginePool;
+    private final MenuUploadJobService menuUploadJobService;
+    private final MenuFileParser menuFileParser;
+    private final MenuImportPipeline menuImportPipeline;
     private final EmailService emailService;
 
-    @Value("${tess4j.data-path:./tessdata}")
-    private String tessDataPath;
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png");
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("pdf", "xlsx", "xls", "jpg", "jpeg", "png");
 
     @Value("${app.base-url:https://delivery.apis.ivas.rw}")
     private String baseUrl;
 
+    /**
+     * Stores the file and queues it for extraction. The returned response
+     * carries the job id to poll; the extracted items are attached to the job
+     * once it completes.
+     */
     public FileUploadResponse processMenuUpload(MultipartFile file, Long restaurantId) {
         try {
             // Validate restaurant exists
-            Restaurant restaurant = restaurantRepository.findByRestaurantId(restaurantId)
+            restaurantRepository.findByRestaurantId(restaurantId)
                     .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
 
-            // Get or create default category
-            MenuCategory defaultCategory = menuCategoryRepository.findByRestaurantId(restaurantId)
-                    .stream()
-                    .findFirst()
-                    .orElseGet(() -> createDefaultCategory(restaurant));
-
-            String fileExtension = getFileExtension(file.getOriginalFilename());
-            List<MenuItemRequest> menuItems = new ArrayList<>();
-
-            switch (fileExtension.toLowerCase()) {
-                case "pdf":
-                    menuItems = processPdfFile(file.getInputStream(), defaultCategory.getCategoryId(), restaurantId);
-                    break;
-                case "xlsx":
-                case "xls":
-                    menuItems = processExcelFile(file.getInputStream(), defaultCategory.getCategoryId(), restaurantId);
-                    break;
-                case "jpg":
-                case "jpeg":
-                case "png":
-                    menuItems = processImageFile(file, defaultCategory.getCategoryId(), restaurantId);
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Unsupported file format: " + fileExtension);
+            String fileExtension = getFileExtension(file.getOriginalFilename()).toLowerCase();
+            if (!SUPPORTED_EXTENSIONS.contains(fileExtension)) {
+                throw new UnsupportedOperationException("Unsupported file format: " + fileExtension);
+            }
+            if (IMAGE_EXTENSIONS.contains(fileExtension) && !ocrEnginePool.isAvailable()) {
+                log.error("Tesseract OCR is not available on this server. Please install tesseract-ocr.");
+                throw new IllegalStateException("OCR service is not available. Please upload PDF or Excel files instead.");
             }
 
-            // Save menu items to database
-            List<MenuItem> savedItems = new ArrayList<>();
-            // Get the default category for this restaurant
-            MenuCategory category = menuCategoryRepository.findByRestaurantId(restaurantId)
-                    .stream()
-                    .findFirst()
-                    .orElseGet(() -> createDefaultCategory(restaurant));
+            // Save the file; the background job reads it from storage
+            String fileUrl = fileStorageService.storeFile(file, "restaurants/" + restaurantId + "/menu-uploads");
+            String fullFileUrl = baseUrl + "/api/files/" + fileUrl.replace("\\", "/");
 
-            LocalDate now = LocalDate.now();
+            MenuUploadJob job = menuUploadJobService.submit("RESTAURANT", restaurantId, file.getOriginalFilename(),
+                    jobId -> importMenu(jobId, restaurantId, fileUrl, fileExtension, fullFileUrl));
 
-            for (MenuItemRequest itemRequest : menuItems) {
-                // Set default values for required fields
-                String description = itemRequest.getDescription() != null ? itemRequest.getDescription() : "";
-                String ingredients = itemRequest.getIngredients() != null ? itemRequest.getIngredients() : "";
-                String image = "";
-                Float price = itemRequest.getPrice() != null ? itemRequest.getPrice() : 0.0f;
-                Integer prepTime = itemRequest.getPreparationTime() != null ? itemRequest.getPreparationTime() : 15;
-                boolean isAvailable = itemRequest.isAvailable();
+            return FileUploadResponse.builder()
+                    .success(true)
+                    .message("File received. Menu items are being extracted.")
+                    .fileUrl(fullFileUrl)
+                    .jobId(job.getJobId())
+                    .status(job.getStatus())
+                    .build();
 
-                // Create menu item with all required fields
-                MenuItem menuItem = MenuItem.builder()
-                        .menuItemName(itemRequest.getMenuItemName())
-                        .description(description)
-                        .price(price)
-                        .image(image)
-                        .ingredients(ingredients)
-                        .preparationTime(prepTime)
-                        .preparationScore(5) // Default score
-                        .createdAt(now)
-                        .updatedAt(now)
-                        .category(category)
-                        .restaurant(restaurant)
-                        .isAvailable(isAvailable)
-                        .build();
+        } catch (Exception e) {
+            return FileUploadResponse.builder()
+                    .success(false)
+                    .message("Error processing file: " + e.getMessage())
+                    .build();
+        }
+    }
 
-                savedItems.add(menuItemRepository.save(menuItem));
-            }
+    private FileUploadResponse importMenu(String jobId, Long restaurantId, String storedFile, String fileExtension,
+            String fullFileUrl) {
+        try {
+            Restaurant restaurant = restaurantRepository.findByRestaurantId(restaurantId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
 
-            // Save the file
-            String fileUrl = fileStorageService.storeFile(file, "restaurants/" + restaurantId + "/menu-uploads");
-            String fullFileUrl = baseUrl + "/api/files/" + fileUrl.replace("\\", "/");
+            // Get or create default category
+            MenuCategory defaultCategory = menuCategoryRepository.findByRestaurantId(restaurantId)
+                    .stream()
+                    .findFirst()
+                    .orElseGet(() -> createDefaultCategory(restaurant));
+
+            // Rows are validated and saved in batches while the file is still being parsed
+            menuUploadJobService.reportProgress(jobId, "Reading file", 0, null);
+            MenuImportPipeline.Session session = menuImportPipeline.start(jobId, defaultCategory,
+                    restaurant, null);
+            menuFileParser.parse(fileStorageService.resolve(storedFile), fileExtension,
+                    defaultCategory.getCategoryId(), restaurantId, session);
+            MenuImportPipeline.Result imported = session.finish();
 
             // Send "Under Review" email after successful menu upload (NOT OTP)
             try {
-                // Get restaurant admin user
-                RestaurantUsers admin = restaurant.getRestaurantUsers().stream()
-                        .filter(user -> user.getRole().name().equals("RESTAURANT_ADMIN"))
-                        .findFirst()
+                // Get restaurant admin user; looked up directly as this runs outside any web session
+                RestaurantUsers admin = restaurantUsersRepository
+                        .findByRestaurantIdAndRole(restaurantId, Roles.RESTAURANT_ADMIN)
                         .orElse(null);
 
                 if (admin != null) {
                     // Mark email as verified and setup as complete
                     admin.setEmailVerified(true);
                     admin.setSetupComplete(true);
+                    restaurantUsersRepository.save(admin);
 
                     // Send "under review" email instead of OTP
                     emailService.sendRestaurantUnderReviewEmail(
@@ -156,16 +134,21 @@ public class MenuUploadService {
 
             return FileUploadResponse.builder()
                     .success(true)
-                    .message("File processed successfully. " + savedItems.size()
+                    .message("File processed successfully. " + imported.getImported()
                             + " items saved. Your restaurant is now under review. You will receive an email notification once approved.")
-                    .menuItems(menuItems)
+                    .menuItems(imported.getAccepted())
                     .fileUrl(fullFileUrl)
+                    .importedItems(imported.getImported())
+                    .duplicateItems(imported.getDuplicates())
+                    .rejectedItems(imported.getRejected())
                     .build();
 
         } catch (Exception e) {
+            log.error("Error importing menu for restaurant {}: {}", restaurantId, e.getMessage(), e);
             return FileUploadResponse.builder()
                     .success(false)
                     .message("Error processing file: " + e.getMessage())
+                    .fileUrl(fullFileUrl)
                     .build();
         }
     }
@@ -179,272 +162,10 @@ public class MenuUploadService {
         return menuCategoryRepository.save(category);
     }
 
-    private List<MenuItemRequest> processPdfFile(InputStream inputStream, Long categoryId, Long restaurantId)
-            throws IOException {
-        List<MenuItemRequest> items = new ArrayList<>();
-
-        // Convert InputStream to byte array
-        byte[] pdfBytes = inputStream.readAllBytes();
-
-        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-            if (!document.isEncrypted()) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                String text = stripper.getText(document);
-
-                // Split text into lines and process each line
-                String[] lines = text.split("\\r?\\n");
-
-                // Pattern to match various price formats:
-                // - $10.99
-                // - 10.99$
-                // - USD 10.99
-                // - 10.99 EGP
-                // - 10,99 (European format)
-                Pattern pricePattern = Pattern
-                        .compile("([$€£]?\\s*\\d+[.,]?\\d*\\.?\\d*\s*[$€£]?|\\d+\\.?\\d*\s*(?:USD|EGP|EUR|£|€))");
-
-                for (String line : lines) {
-                    line = line.trim();
-                    if (line.isEmpty())
-                        continue;
-
-                    // Look for price in the line
-                    Matcher matcher = pricePattern.matcher(line);
-                    if (matcher.find()) {
-                        String priceMatch = matcher.group(1);
-                        // Extract the price value by removing all non-digit characters except decimal
-                        // point
-                        String priceStr = priceMatch.replaceAll("[^\\d.,]", "")
-                                .replace(',', '.'); // Handle European decimal format
-
-                        // Extract the item name (everything before the price)
-                        String name = line.substring(0, matcher.start()).trim();
-
-                        try {
-                            float price = Float.parseFloat(priceStr);
-                            if (name.length() > 0 && price > 0) {
-                                items.add(MenuItemRequest.builder()
-                                        .menuItemName(name)
-                                        .price(price)
-                                        .isAvailable(true)
-                                        .preparationTime(15) // Default value
-                                        .categoryId(categoryId)
-                                        .restaurantId(restaurantId)
-                                        .build());
-                                log.info("Added menu item: {} - {}", name, price);
-                            }
-                        } catch (NumberFormatException e) {
-                            log.warn("Could not parse price from '{}' in line: {}", priceMatch, line);
-                        }
-                    } else {
-                        log.debug("No price found in line: {}", line);
-                    }
-                }
-
-                if (items.isEmpty()) {
-                    log.warn("No menu items were extracted from the PDF. Here's the extracted text for debugging:"
-                            + text);
-                }
-            }
-        }
-
-        return items;
-    }
-
-    private List<MenuItemRequest> processExcelFile(InputStream inputStream, Long categoryId, Long restaurantId)
-            throws IOException {
-        List<MenuItemRequest> items = new ArrayList<>();
-        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
-
-            // Skip header row (assuming first row is header)
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row != null) {
-                    try {
-                        MenuItemRequest item = MenuItemRequest.builder()
-                                .menuItemName(getCellValue(row.getCell(0)))
-                                .description(getCellValue(row.getCell(1)))
-                                .price(parseFloatSafely(getCellValue(row.getCell(2)), "0"))
-                                .ingredients(getCellValue(row.getCell(3)))
-                                .preparationTime(parseIntSafely(getCellValue(row.getCell(4)), "15"))
-                                .isAvailable(true)
-                                .build();
-                        items.add(item);
-                    } catch (Exception e) {
-                        log.error("Error processing row {}: {}", i, e.getMessage());
-                    }
-                }
-            }
-        }
-        return items;
-    }
-
-    private List<MenuItemRequest> processImageFile(MultipartFile file, Long categoryId, Long restaurantId)
-            throws IOException, TesseractException {
-        List<MenuItemRequest> items = new ArrayList<>();
-
-        // Convert MultipartFile to File
-        Path tempFile = Files.createTempFile("img-", "." + getFileExtension(file.getOriginalFilename()));
-        try {
-            Files.copy(file.getInputStream(), tempFile, StandardCopyOption.REPLACE_EXISTING);
-
-            // Check if Tesseract is available
-            if (!isTesseractAvailable()) {
-                log.error("Tesseract OCR is not available on this server. Please install tesseract-ocr.");
-                throw new RuntimeException("OCR service is not available. Please upload PDF or Excel files instead.");
-            }
-
-            // Set the path to the tessdata directory and configure Tesseract
-            tesseract.setDatapath(tessDataPath);
-            tesseract.setPageSegMode(4); // Assume a single column of text
-            tesseract.setVariable("preserve_interword_spaces", "1");
-
-            // Perform OCR on the image
-            log.info("Starting OCR processing...");
-            String result = tesseract.doOCR(tempFile.toFile());
-            log.debug("OCR Result:\n" + result);
-
-            // Parse the OCR result
-            String[] lines = result.split("\\r?\\n");
-
-            // Pattern to match various price formats:
-            // - $10.99
-            // - 10.99$
-            // - 10.99 EGP
-            // - 10,99 (European format)
-            // - 10 MT or 10 MZN (Mozambican Metical)
-            // - 10 (just a number)
-            Pattern pricePattern = Pattern.compile(
-                    "([$€£]?\\s*\\d+[.,]?\\d*\\.?\\d*\\s*[$€£]?|\\d+[.,]?\\d*\\s*(?:USD|EGP|EUR|MZN|MT|£|€))");
-
-            for (String line : lines) {
-                line = line.trim();
-                if (line.isEmpty() || line.length() < 3)
-                    continue; // Skip very short lines
-
-                log.debug("Processing line: " + line);
-
-                // Look for price in the line
-                Matcher matcher = pricePattern.matcher(line);
-                if (matcher.find()) {
-                    String priceMatch = matcher.group(1);
-                    // Extract the price value by removing all non-digit characters except decimal
-                    // point
-                    String priceStr = priceMatch.replaceAll("[^\\d.,]", "")
-                            .replace(',', '.'); // Handle European decimal format
-
-                    // Extract the item name (everything before the price)
-                    String name = line.substring(0, matcher.start()).trim();
-
-                    // Clean up the name - remove any trailing non-alphanumeric characters
-                    name = name.replaceAll("[^\\p{L}\\p{N}\\s]$", "").trim();
-
-                    // Skip if name is too short (likely not a real menu item)
-                    if (name.length() < 2)
-                        continue;
-
-                    try {
-                        float price = Float.parseFloat(priceStr);
-                        if (price > 0) {
-                            items.add(MenuItemRequest.builder()
-                                    .menuItemName(name)
-                                    .price(price)
-                                    .isAvailable(true)
-                                    .preparationTime(15) // Default value
-                                    .categoryId(categoryId)
-                                    .restaurantId(restaurantId)
-                                    .build());
-                            log.info("Added menu item: {} - {}", name, price);
-                        }
-                    } catch (NumberFormatException e) {
-                        log.warn("Could not parse price from '{}' in line: {}", priceMatch, line);
-                    }
-                } else {
-                    log.debug("No price found in line: {}", line);
-                }
-            }
-
-        } finally {
-            // Clean up the temporary file
-            Files.deleteIfExists(tempFile);
-        }
-
-        return items;
-    }
-
-    private String getCellValue(Cell cell) {
-        return getCellValue(cell, "");
-    }
-
-    private String getCellValue(Cell cell, String defaultValue) {
-        if (cell == null)
-            return defaultValue;
-
-        try {
-            switch (cell.getCellType()) {
-                case STRING:
-                    return cell.getStringCellValue().trim();
-                case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(cell)) {
-                        return cell.getDateCellValue().toString();
-                    } else {
-                        // Remove .0 from whole numbers
-                        double num = cell.getNumericCellValue();
-                        if (num == (int) num) {
-                            return String.valueOf((int) num);
-                        }
-                        return String.valueOf(num);
-                    }
-                case BOOLEAN:
-                    return String.valueOf(cell.getBooleanCellValue());
-                case FORMULA:
-                    return cell.getCellFormula();
-                default:
-                    return defaultValue;
-            }
-        } catch (Exception e) {
-            log.warn("Error getting cell value: {}", e.getMessage());
-            return defaultValue;
-        }
-    }
-
-    private float parseFloatSafely(String value, String defaultValue) {
-        try {
-            return Float.parseFloat(value);
-        } catch (NumberFormatException e) {
-            log.warn("Could not parse float from: {}, using default: {}", value, defaultValue);
-            return Float.parseFloat(defaultValue);
-        }
-    }
-
-    private int parseIntSafely(String value, String defaultValue) {
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            log.warn("Could not parse int from: " + value + ", using default: " + defaultValue);
-            return Integer.parseInt(defaultValue);
-        }
-    }
-
     private String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "";
         }
         return filename.substring(filename.lastIndexOf(".") + 1);
     }
-
-    private boolean isTesseractAvailable() {
-        try {
-            // Try to perform a simple OCR operation on a dummy image to check if Tesseract
-            // is available
-            // Create a simple test by checking if we can set the datapath
-            tesseract.setDatapath(tessDataPath);
-            // If we get here without exception, Tesseract is available
-            return true;
-        } catch (Exception e) {
-            log.error("Tesseract not available: {}", e.getMessage());
-            return false;
-        }
-    }
 }
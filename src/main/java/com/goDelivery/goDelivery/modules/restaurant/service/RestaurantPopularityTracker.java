@@ -0,0 +1,52 @@
+package com.goDelivery.goDelivery.modules.restaurant.service;
+
+import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the denormalized {@code restaurant.total_orders} column that
+ * search ranks by. It is incremented when an order is placed and recounted
+ * from the orders table on startup and nightly, which also fills it in for
+ * restaurants created before the column existed.
+ */
+@Slf4j
+@Component
+public class RestaurantPopularityTracker {
+
+    private final RestaurantRepository restaurantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public RestaurantPopularityTracker(RestaurantRepository restaurantRepository,
+            PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Joins the caller's transaction so the count only moves if the order is
+     * committed.
+     */
+    @Transactional
+    public void recordOrderPlaced(Long restaurantId) {
+        restaurantRepository.incrementTotalOrders(restaurantId, 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.search.restaurants.popularity-recount-cron:0 0 4 * * *}")
+    public void recount() {
+        try {
+            long start = System.currentTimeMillis();
+            Integer updated = transactionTemplate.execute(status -> restaurantRepository.recountTotalOrders());
+            log.info("Recounted orders for {} restaurants in {} ms", updated, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to recount restaurant orders: {}", e.getMessage());
+        }
+    }
+}
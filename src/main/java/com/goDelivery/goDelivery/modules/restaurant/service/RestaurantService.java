@@ -13,8 +13,8 @@ import com.goDelivery.goDelivery.modules.branch.model.Branches;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchesRepository;
 import com.goDelivery.goDelivery.modules.delivery.service.GeoLocationService;
 import com.goDelivery.goDelivery.modules.delivery.service.GeocodingService;
+import com.goDelivery.goDelivery.modules.delivery.service.RestaurantLocationIndex;
 import com.goDelivery.goDelivery.modules.restaurant.repository.OperatingHoursRepository;
-import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantUsersRepository;
 import com.goDelivery.goDelivery.modules.notification.service.EmailService;
@@ -26,8 +26,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -40,10 +43,14 @@ public class RestaurantService {
     private final RestaurantMapper restaurantMapper;
     private final EmailService emailService;
     private final RestaurantUsersRepository restaurantUsersRepository;
-    private final OrderRepository orderRepository;
     private final GeocodingService geocodingService;
     private final GeoLocationService geoLocationService;
     private final BranchesRepository branchesRepository;
+    private final RestaurantLocationIndex restaurantLocationIndex;
+    private final CatalogSearchIndex catalogSearchIndex;
+
+    @Value("${app.search.restaurants.max-page-size:100}")
+    private int maxSearchPageSize;
 
     public RestaurantDTO registerRestaurant(RestaurantDTO restaurantDTO) {
         Restaurant restaurant = restaurantMapper.toRestaurantForCreate(restaurantDTO);
@@ -52,6 +59,8 @@ public class RestaurantService {
         geocodeRestaurantLocation(restaurant);
 
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        catalogSearchIndex.indexRestaurant(savedRestaurant);
         return restaurantMapper.toRestaurantDTO(savedRestaurant);
     }
 
@@ -76,6 +85,8 @@ public class RestaurantService {
         }
 
         Restaurant updatedRestaurant = restaurantRepository.save(existingRestaurant);
+        restaurantLocationIndex.update(updatedRestaurant);
+        catalogSearchIndex.indexRestaurant(updatedRestaurant);
         return restaurantMapper.toRestaurantDTO(updatedRestaurant);
     }
 
@@ -104,7 +115,9 @@ public class RestaurantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
         restaurant.setLogoUrl(logoUrl);
         restaurant.setUpdatedAt(LocalDate.now());
-        return restaurantMapper.toRestaurantDTO(restaurantRepository.save(restaurant));
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        return restaurantMapper.toRestaurantDTO(savedRestaurant);
     }
 
     public List<RestaurantDTO> getRestaurantsByLocation(String location) {
@@ -117,57 +130,35 @@ public class RestaurantService {
         return restaurantMapper.toRestaurantDTO(restaurants);
     }
 
-    // Search and filter restaurants based on various criteria
-    public List<RestaurantDTO> searchRestaurants(RestaurantSearchRequest searchRequest) {
-        // Start with all active restaurants
-        List<Restaurant> restaurants = restaurantRepository.findByIsActive(true);
-
-        // Apply filters
-        if (searchRequest.getLocation() != null && !searchRequest.getLocation().isEmpty()) {
-            restaurants = restaurants.stream()
-                    .filter(r -> r.getLocation().equalsIgnoreCase(searchRequest.getLocation()))
-                    .collect(Collectors.toList());
-        }
-
-        if (searchRequest.getRestaurantName() != null && !searchRequest.getRestaurantName().isEmpty()) {
-            restaurants = restaurants.stream()
-                    .filter(r -> r.getRestaurantName().equalsIgnoreCase(searchRequest.getRestaurantName()))
-                    .collect(Collectors.toList());
-        }
-
-        if (searchRequest.getCuisineType() != null && !searchRequest.getCuisineType().isEmpty()) {
-            restaurants = restaurants.stream()
-                    .filter(r -> r.getCuisineType().equalsIgnoreCase(searchRequest.getCuisineType()))
-                    .collect(Collectors.toList());
-        }
-
-        if (searchRequest.getMinRating() != null) {
-            restaurants = restaurants.stream()
-                    .filter(r -> r.getRating() != null && r.getRating() >= searchRequest.getMinRating())
-                    .collect(Collectors.toList());
+    // Search and filter active restaurants; filtering, ranking and paging run in the database
+    public Page<RestaurantDTO> searchRestaurants(RestaurantSearchRequest searchRequest, int page, int size) {
+        Sort sort;
+        String sortBy = searchRequest.getSortBy() != null ? searchRequest.getSortBy().toLowerCase() : "";
+        switch (sortBy) {
+            case "rating":
+                sort = Sort.by(Sort.Order.desc("rating").nullsLast());
+                break;
+            case "popularity":
+                sort = Sort.by(Sort.Order.desc("totalOrders").nullsLast());
+                break;
+            default:
+                sort = Sort.unsorted();
         }
+        // Tie-break on id so pages are stable
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxSearchPageSize),
+                sort.and(Sort.by("restaurantId")));
 
-        // Apply sorting
-        if (searchRequest.getSortBy() != null && !searchRequest.getSortBy().isEmpty()) {
-            switch (searchRequest.getSortBy().toLowerCase()) {
-                case "rating":
-                    restaurants.sort((r1, r2) -> Double.compare(
-                            r2.getRating() != null ? r2.getRating() : 0,
-                            r1.getRating() != null ? r1.getRating() : 0));
-                    break;
-                case "popularity":
-                    restaurants.sort((r1, r2) -> {
-                        long r1Orders = orderRepository.countByRestaurant_RestaurantId(r1.getRestaurantId());
-                        long r2Orders = orderRepository.countByRestaurant_RestaurantId(r2.getRestaurantId());
-                        return Long.compare(r2Orders, r1Orders); // Descending order (most popular first)
-                    });
-                    break;
-            }
-        }
+        return restaurantRepository.searchActiveRestaurants(
+                emptyToNull(searchRequest.getLocation()),
+                emptyToNull(searchRequest.getRestaurantName()),
+                emptyToNull(searchRequest.getCuisineType()),
+                searchRequest.getMinRating(),
+                pageable)
+                .map(restaurantMapper::toRestaurantDTO);
+    }
 
-        return restaurants.stream()
-                .map(restaurantMapper::toRestaurantDTO)
-                .collect(Collectors.toList());
+    private static String emptyToNull(String value) {
+        return value != null && !value.isEmpty() ? value : null;
     }
 
     public RestaurantDTO getRestaurantById(Long restaurantId) {
@@ -247,6 +238,7 @@ public class RestaurantService {
         restaurant.setOperatingHours(operatingHours);
         restaurant.setUpdatedAt(LocalDate.now());
         restaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(restaurant);
 
         return restaurantMapper.toRestaurantDTO(restaurant);
 
@@ -285,7 +277,7 @@ public class RestaurantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
         restaurant.setCommercialRegistrationCertificateUrl(certificateUrl);
         restaurant.setUpdatedAt(LocalDate.now());
-        restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(restaurantRepository.save(restaurant));
     }
 
     public void updateTaxIdentificationNumber(Long restaurantId, String taxIdentificationNumber) {
@@ -293,7 +285,7 @@ public class RestaurantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
         restaurant.setTaxIdentificationNumber(taxIdentificationNumber);
         restaurant.setUpdatedAt(LocalDate.now());
-        restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(restaurantRepository.save(restaurant));
     }
 
     public void updateTaxIdentificationDocument(Long restaurantId, String documentUrl) {
@@ -301,7 +293,7 @@ public class RestaurantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
         restaurant.setTaxIdentificationDocumentUrl(documentUrl);
         restaurant.setUpdatedAt(LocalDate.now());
-        restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(restaurantRepository.save(restaurant));
     }
 
     // Restaurant Approval Methods
@@ -341,6 +333,8 @@ public class RestaurantService {
         restaurant.setUpdatedAt(LocalDate.now());
 
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        catalogSearchIndex.indexRestaurant(savedRestaurant);
 
         // Send approval email to restaurant admin
         try {
@@ -377,6 +371,8 @@ public class RestaurantService {
         restaurant.setUpdatedAt(LocalDate.now());
 
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        catalogSearchIndex.indexRestaurant(savedRestaurant);
 
         // Send rejection email to restaurant admin
         try {
@@ -427,7 +423,10 @@ public class RestaurantService {
         restaurant.setIsActive(false);
         restaurant.setUpdatedAt(LocalDate.now());
         log.info("Restaurant {} deactivated", restaurantId);
-        return restaurantMapper.toRestaurantDTO(restaurantRepository.save(restaurant));
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        catalogSearchIndex.indexRestaurant(savedRestaurant);
+        return restaurantMapper.toRestaurantDTO(savedRestaurant);
     }
 
     public RestaurantDTO activateRestaurant(Long restaurantId) {
@@ -436,7 +435,10 @@ public class RestaurantService {
         restaurant.setIsActive(true);
         restaurant.setUpdatedAt(LocalDate.now());
         log.info("Restaurant {} activated", restaurantId);
-        return restaurantMapper.toRestaurantDTO(restaurantRepository.save(restaurant));
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        catalogSearchIndex.indexRestaurant(savedRestaurant);
+        return restaurantMapper.toRestaurantDTO(savedRestaurant);
     }
 
     public RestaurantDTO updateDeliverySettings(Long restaurantId, DeliverySettingsRequest request) {
@@ -467,6 +469,8 @@ public class RestaurantService {
 
         restaurant.setUpdatedAt(LocalDate.now());
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(savedRestaurant);
+        catalogSearchIndex.indexRestaurant(savedRestaurant);
         return restaurantMapper.toRestaurantDTO(savedRestaurant);
     }
 
@@ -522,7 +526,7 @@ public class RestaurantService {
             try {
                 geocodeRestaurantLocation(restaurant);
                 if (restaurant.getLatitude() != null && restaurant.getLongitude() != null) {
-                    restaurantRepository.save(restaurant);
+                    restaurantLocationIndex.update(restaurantRepository.save(restaurant));
                     successCount++;
                 } else {
                     failCount++;
@@ -556,6 +560,6 @@ public class RestaurantService {
             throw new RuntimeException("Failed to geocode restaurant. Check logs for details.");
         }
 
-        restaurantRepository.save(restaurant);
+        restaurantLocationIndex.update(restaurantRepository.save(restaurant));
     }
 }
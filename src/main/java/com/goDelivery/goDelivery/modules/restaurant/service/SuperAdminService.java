@@ -13,6 +13,7 @@ import com.goDelivery.goDelivery.modules.delivery.dto.BikerMapper;
 import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
 import com.goDelivery.goDelivery.modules.restaurant.model.SuperAdmin;
 import com.goDelivery.goDelivery.modules.delivery.repository.BikersRepository;
+import com.goDelivery.goDelivery.modules.delivery.service.BikerLocationIndex;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchUsersRepository;
 import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantRepository;
@@ -40,6 +41,7 @@ public class SuperAdminService {
     private final PasswordEncoder passwordEncoder;
     private final BikersRepository bikersRepository;
     private final BikerMapper bikerMapper;
+    private final BikerLocationIndex bikerLocationIndex;
     private final RestaurantRepository restaurantRepository;
     private final RestaurantUsersRepository restaurantUsersRepository;
     private final BranchUsersRepository branchUsersRepository;
@@ -115,6 +117,7 @@ public class SuperAdminService {
         biker.setUpdatedAt(LocalDate.now());
         
         Bikers updatedBiker = bikersRepository.save(biker);
+        bikerLocationIndex.update(updatedBiker);
         return bikerMapper.toBikerDetailsResponse(updatedBiker);
     }
     
@@ -128,6 +131,7 @@ public class SuperAdminService {
         biker.setActive(false);
         biker.setUpdatedAt(LocalDate.now());
         bikersRepository.save(biker);
+        bikerLocationIndex.remove(bikerId);
     }
     
      //Activate/Deactivate a biker account
@@ -139,6 +143,7 @@ public class SuperAdminService {
         biker.setActive(isActive);
         biker.setUpdatedAt(LocalDate.now());
         bikersRepository.save(biker);
+        bikerLocationIndex.update(biker);
         
         log.info("Biker {} {}", bikerId, isActive ? "activated" : "deactivated");
     }
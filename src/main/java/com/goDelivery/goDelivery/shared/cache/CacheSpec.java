@@ -0,0 +1,23 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Size and expiry policy for one cache, bound from
+ * {@code app.cache.defaults} or {@code app.cache.caches.<name>}.
+ */
+@Data
+public class CacheSpec {
+
+    private long maximumSize = 1_000;
+
+    // Time-to-live since the entry was written; also used for the shared tier
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    // Optional idle timeout
+    private Duration expireAfterAccess;
+
+    private boolean allowNullValues = true;
+}
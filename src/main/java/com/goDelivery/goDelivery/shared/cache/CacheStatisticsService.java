@@ -0,0 +1,45 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import com.goDelivery.goDelivery.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Exposes statistics for the Spring caches and the coordinate-bucketed caches,
+ * and lets operators clear a cache by name.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private final TieredCacheManager cacheManager;
+    private final List<GeoBucketCache<?>> geoBucketCaches;
+
+    public List<CacheStatistics> getStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>(cacheManager.getStatistics());
+        for (GeoBucketCache<?> cache : geoBucketCaches) {
+            statistics.add(CacheStatistics.of(cache.getName(), cache.size(), cache.stats()));
+        }
+        statistics.sort(Comparator.comparing(CacheStatistics::getName));
+        return statistics;
+    }
+
+    public void clear(String cacheName) {
+        for (GeoBucketCache<?> cache : geoBucketCaches) {
+            if (cache.getName().equals(cacheName)) {
+                cache.invalidateAll();
+                return;
+            }
+        }
+        if (!cacheManager.getCacheNames().contains(cacheName)) {
+            throw new ResourceNotFoundException("Cache not found: " + cacheName);
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        cache.clear();
+    }
+}
@@ -0,0 +1,64 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.goDelivery.goDelivery.shared.util.GeoHash;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, expiring cache whose keys are quantized to a geohash cell so
+ * that nearby coordinates share one entry.
+ *
+ * Values must be valid for every point in the cell; callers load them for the
+ * whole cell (see {@link GeoHash.Cell}) and refine per request.
+ *
+ * @param <V> the cached value type
+ */
+public class GeoBucketCache<V> {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final int precision;
+
+    private final Cache<String, V> cache;
+
+    public GeoBucketCache(String name, int precision, long maximumSize, Duration timeToLive) {
+        this.name = name;
+        this.precision = precision;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the value cached for the cell containing the coordinate, loading
+     * it for the whole cell on a miss.
+     *
+     * @param qualifier extra key parts that change the value (e.g. search
+     *                  radius)
+     */
+    public V get(double latitude, double longitude, String qualifier, Function<GeoHash.Cell, V> loader) {
+        GeoHash.Cell cell = GeoHash.cellOf(latitude, longitude, precision);
+        return cache.get(qualifier + ':' + cell.getHash(), key -> loader.apply(cell));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,77 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-process stand-in for the shared cache tier, used for single-node
+ * deployments and tests. Entries honour the per-put time-to-live.
+ */
+public class LocalSharedCacheStore implements SharedCacheStore {
+
+    private final Cache<String, Entry> store;
+
+    public LocalSharedCacheStore(long maximumSize) {
+        this.store = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime,
+                            long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Optional<Object> get(String cacheName, Object key) {
+        Entry entry = store.getIfPresent(storeKey(cacheName, key));
+        return entry != null ? Optional.of(entry.value) : Optional.empty();
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration timeToLive) {
+        store.put(storeKey(cacheName, key), new Entry(value, timeToLive.toNanos()));
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        store.invalidate(storeKey(cacheName, key));
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        String prefix = cacheName + "::";
+        store.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String storeKey(String cacheName, Object key) {
+        return cacheName + "::" + key;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long ttlNanos;
+
+        private Entry(Object value, long ttlNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
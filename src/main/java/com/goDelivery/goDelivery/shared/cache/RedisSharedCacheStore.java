@@ -0,0 +1,78 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Redis-backed shared cache tier so warm entries survive across application
+ * nodes. Only {@link Serializable} values are shared; errors are logged and
+ * treated as misses.
+ */
+@Slf4j
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    private static final String KEY_PREFIX = "goDelivery:cache:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisSharedCacheStore(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<Object> get(String cacheName, Object key) {
+        try {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(storeKey(cacheName, key)));
+        } catch (Exception e) {
+            log.warn("Shared cache read failed for {}::{}: {}", cacheName, key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration timeToLive) {
+        if (!(value instanceof Serializable)) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(storeKey(cacheName, key), value, timeToLive);
+        } catch (Exception e) {
+            log.warn("Shared cache write failed for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        try {
+            redisTemplate.delete(storeKey(cacheName, key));
+        } catch (Exception e) {
+            log.warn("Shared cache evict failed for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + cacheName + "::*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> keys = new ArrayList<>();
+            cursor.forEachRemaining(keys::add);
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        } catch (Exception e) {
+            log.warn("Shared cache clear failed for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    private static String storeKey(String cacheName, Object key) {
+        return KEY_PREFIX + cacheName + "::" + key;
+    }
+}
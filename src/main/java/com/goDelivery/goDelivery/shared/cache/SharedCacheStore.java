@@ -0,0 +1,19 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Second cache tier shared between application nodes. Implementations must
+ * never throw to the caller - a failing shared tier only costs a reload.
+ */
+public interface SharedCacheStore {
+
+    Optional<Object> get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value, Duration timeToLive);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
@@ -0,0 +1,145 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} with a bounded, expiring
+ * Caffeine first tier and an optional {@link SharedCacheStore} second tier.
+ * Reads fall through local -> shared -> loader; writes go to both tiers.
+ */
+@Slf4j
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final SharedCacheStore shared;
+    private final Duration sharedTimeToLive;
+
+    private final Map<RemovalCause, LongAdder> evictionsByCause = new ConcurrentHashMap<>();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public TieredCache(String name, CacheSpec spec, SharedCacheStore shared) {
+        super(spec.isAllowNullValues());
+        this.name = name;
+        this.shared = shared;
+        this.sharedTimeToLive = spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite()
+                : Duration.ofMinutes(10);
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .recordStats()
+                .evictionListener((key, value, cause) -> {
+                    evictionsByCause.computeIfAbsent(cause, c -> new LongAdder()).increment();
+                    log.debug("Cache '{}' evicted key {} ({})", name, key, cause);
+                });
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        this.local = builder.build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        Optional<Object> fromShared = readShared(key);
+        fromShared.ifPresent(v -> local.put(key, v));
+        return fromShared.orElse(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = local.get(key, k -> readShared(k).orElseGet(() -> {
+            try {
+                Object loaded = toStoreValue(valueLoader.call());
+                writeShared(k, loaded);
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        }));
+        return (T) fromStoreValue(stored);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = toStoreValue(value);
+        local.put(key, stored);
+        writeShared(key, stored);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (shared != null) {
+            shared.evict(name, key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (shared != null) {
+            shared.clear(name);
+        }
+    }
+
+    public CacheStatistics statistics() {
+        return CacheStatistics.of(name, local.estimatedSize(), local.stats())
+                .toBuilder()
+                .evictionsBySize(evictionCount(RemovalCause.SIZE))
+                .evictionsByExpiry(evictionCount(RemovalCause.EXPIRED))
+                .sharedTierEnabled(shared != null)
+                .sharedHitCount(sharedHits.sum())
+                .sharedMissCount(sharedMisses.sum())
+                .build();
+    }
+
+    private long evictionCount(RemovalCause cause) {
+        LongAdder adder = evictionsByCause.get(cause);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    private Optional<Object> readShared(Object key) {
+        if (shared == null) {
+            return Optional.empty();
+        }
+        Optional<Object> value = shared.get(name, key);
+        (value.isPresent() ? sharedHits : sharedMisses).increment();
+        return value;
+    }
+
+    private void writeShared(Object key, Object value) {
+        if (shared != null) {
+            shared.put(name, key, value, sharedTimeToLive);
+        }
+    }
+}
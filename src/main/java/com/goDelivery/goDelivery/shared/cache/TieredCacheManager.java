@@ -0,0 +1,48 @@
+package com.goDelivery.goDelivery.shared.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheManager} handing out {@link TieredCache}s. Caches are created on
+ * first use with their configured {@link CacheSpec}, falling back to the
+ * defaults for names without explicit configuration.
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final CacheSpec defaults;
+    private final Map<String, CacheSpec> specs;
+    private final SharedCacheStore shared;
+    private final Map<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheSpec defaults, Map<String, CacheSpec> specs, SharedCacheStore shared) {
+        this.defaults = defaults;
+        this.specs = specs;
+        this.shared = shared;
+        specs.keySet().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name,
+                cacheName -> new TieredCache(cacheName, specs.getOrDefault(cacheName, defaults), shared));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public List<CacheStatistics> getStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>(caches.size());
+        caches.values().forEach(cache -> statistics.add(cache.statistics()));
+        return statistics;
+    }
+}
@@ -1,5 +1,6 @@
 package com.goDelivery.goDelivery.shared.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +22,69 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // Background menu file imports; a full queue rejects new uploads instead of piling them up
+    @Bean(name = "menuUploadExecutor")
+    public Executor menuUploadExecutor(@Value("${app.menu-upload.workers:2}") int workers,
+            @Value("${app.menu-upload.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("MenuUpload-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Payment status checks; bounds how many run against the provider at once
+    @Bean(name = "paymentStatusExecutor")
+    public Executor paymentStatusExecutor(@Value("${app.momo.status-poll.workers:4}") int workers,
+            @Value("${app.momo.status-poll.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PaymentStatus-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Stored payment callbacks from the webhook inbox
+    @Bean(name = "webhookExecutor")
+    public Executor webhookExecutor(@Value("${app.webhooks.inbox.workers:4}") int workers,
+            @Value("${app.webhooks.inbox.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Webhook-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Provider status checks for pending disbursements; bounds the reconciliation fan-out
+    @Bean(name = "disbursementReconcileExecutor")
+    public Executor disbursementReconcileExecutor(@Value("${app.disbursements.reconcile.concurrency:4}") int workers,
+            @Value("${app.disbursements.reconcile.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("DisbursementReconcile-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Copies of the restaurant menu to new branches
+    @Bean(name = "branchProvisioningExecutor")
+    public Executor branchProvisioningExecutor(@Value("${app.branch-provisioning.workers:2}") int workers,
+            @Value("${app.branch-provisioning.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("BranchProvisioning-");
+        executor.initialize();
+        return executor;
+    }
 }
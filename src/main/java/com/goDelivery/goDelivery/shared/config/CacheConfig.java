@@ -1,23 +1,87 @@
 package com.goDelivery.goDelivery.shared.config;
 
-import org.springframework.cache.CacheManager;
+import com.goDelivery.goDelivery.shared.cache.CacheSpec;
+import com.goDelivery.goDelivery.shared.cache.LocalSharedCacheStore;
+import com.goDelivery.goDelivery.shared.cache.RedisSharedCacheStore;
+import com.goDelivery.goDelivery.shared.cache.SharedCacheStore;
+import com.goDelivery.goDelivery.shared.cache.TieredCacheManager;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Cache configuration for improving performance of frequently accessed data
+ * Cache configuration for improving performance of frequently accessed data.
+ *
+ * Every cache is bounded and expiring: {@code app.cache.defaults.*} applies to
+ * any cache name, {@code app.cache.caches.<name>.*} overrides it per cache.
+ * {@code app.cache.shared.mode} adds an optional second tier shared between
+ * nodes ({@code none}, {@code local} or {@code redis}).
  */
+@Slf4j
+@Data
 @Configuration
 @EnableCaching
+@ConfigurationProperties(prefix = "app.cache")
 public class CacheConfig {
 
+    private CacheSpec defaults = new CacheSpec();
+
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    private Shared shared = new Shared();
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-                "nearbyRestaurants", // Cache for nearby restaurant searches
-                "deliveryFees" // Cache for delivery fee calculations
-        );
+    public TieredCacheManager cacheManager(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        return new TieredCacheManager(defaults, caches, sharedCacheStore(redisConnectionFactory));
+    }
+
+    private SharedCacheStore sharedCacheStore(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        switch (shared.getMode()) {
+            case LOCAL:
+                log.info("Shared cache tier: in-process stand-in ({} entries)", shared.getMaximumSize());
+                return new LocalSharedCacheStore(shared.getMaximumSize());
+            case REDIS:
+                RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+                if (connectionFactory == null) {
+                    log.warn("Shared cache tier set to redis but no Redis connection is configured; disabled");
+                    return null;
+                }
+                log.info("Shared cache tier: Redis");
+                return new RedisSharedCacheStore(redisTemplate(connectionFactory));
+            default:
+                return null;
+        }
+    }
+
+    private static RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new JdkSerializationRedisSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Data
+    public static class Shared {
+        private SharedMode mode = SharedMode.NONE;
+
+        // Capacity of the in-process stand-in (mode=local)
+        private long maximumSize = 10_000;
+    }
+
+    public enum SharedMode {
+        NONE, LOCAL, REDIS
     }
 }
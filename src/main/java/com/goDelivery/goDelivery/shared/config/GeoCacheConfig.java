@@ -0,0 +1,44 @@
+package com.goDelivery.goDelivery.shared.config;
+
+import com.goDelivery.goDelivery.shared.cache.GeoBucketCache;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coordinate-bucketed caches. Each cache is configured under
+ * {@code app.cache.geo.caches.<name>} with a geohash precision, a maximum number of
+ * entries and a time-to-live.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.geo")
+public class GeoCacheConfig {
+
+    public static final String NEARBY_RESTAURANTS = "nearbyRestaurants";
+
+    private Map<String, Spec> caches = new HashMap<>();
+
+    @Bean
+    public GeoBucketCache<List<Long>> nearbyRestaurantsCache() {
+        Spec spec = caches.getOrDefault(NEARBY_RESTAURANTS, new Spec());
+        return new GeoBucketCache<>(NEARBY_RESTAURANTS, spec.getPrecision(), spec.getMaximumSize(),
+                spec.getTimeToLive());
+    }
+
+    @Data
+    public static class Spec {
+        // Geohash length; 6 is a cell of roughly 1.2 km x 0.6 km
+        private int precision = 6;
+
+        private long maximumSize = 10_000;
+
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+}
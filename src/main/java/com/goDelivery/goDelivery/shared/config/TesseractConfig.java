@@ -1,21 +1,63 @@
 package com.goDelivery.goDelivery.shared.config;
 
+import com.goDelivery.goDelivery.shared.ocr.OcrEnginePool;
+import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.tess4j.Tesseract;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Slf4j
 @Configuration
 public class TesseractConfig {
-    
-    @Bean
-    public Tesseract tesseract() {
+
+    @Value("${tess4j.data-path:./tessdata}")
+    private String dataPath;
+
+    @Value("${tess4j.language:eng}")
+    private String language;
+
+    // 0 means one engine per available core
+    @Value("${app.ocr.pool-size:0}")
+    private int poolSize;
+
+    @Value("${app.ocr.acquire-timeout:5m}")
+    private Duration acquireTimeout;
+
+    @Bean(destroyMethod = "shutdown")
+    public OcrEnginePool ocrEnginePool() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int size = poolSize > 0 ? Math.min(poolSize, cores) : cores;
+
+        boolean available = hasLanguageData();
+        if (!available) {
+            log.warn("Tesseract language data '{}' not found in {}; image menu uploads are disabled",
+                    language, dataPath);
+        }
+        log.info("OCR engine pool created with {} engines", size);
+        return new OcrEnginePool(this::newEngine, size, available, acquireTimeout);
+    }
+
+    private Tesseract newEngine() {
         Tesseract tesseract = new Tesseract();
-        // Set the path to the tessdata directory (where language files are stored)
-        // You need to have the tessdata directory in your resources folder
-        tesseract.setDatapath("./src/main/resources/tessdata");
-        tesseract.setLanguage("eng"); // Set the language
-        tesseract.setPageSegMode(1);
+        tesseract.setDatapath(dataPath);
+        tesseract.setLanguage(language);
+        tesseract.setPageSegMode(4); // Assume a single column of text, as menus mostly are
         tesseract.setOcrEngineMode(1);
+        tesseract.setVariable("preserve_interword_spaces", "1");
         return tesseract;
     }
+
+    private boolean hasLanguageData() {
+        for (String lang : language.split("\\+")) {
+            if (!Files.isRegularFile(Paths.get(dataPath, lang + ".traineddata"))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -2,24 +2,85 @@ package com.goDelivery.goDelivery.shared.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded files. Range requests are answered by the resource
+ * handler, and a {@code .br} or {@code .gz} file stored next to a resource
+ * is served instead of it to clients that accept that encoding.
+ *
+ * Image variants under {@code images/} are addressed by the SHA-256 of the
+ * upload (see {@code ImageStorageService}), so they are cached publicly as
+ * immutable for {@code file.cache-max-age} with that hash as a strong ETag.
+ * Everything else, including KYC and menu documents, is cached by the
+ * browser only and revalidated with a weak ETag from size and modification
+ * time.
+ */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    @Value("${file.cache-max-age:365d}")
+    private Duration cacheMaxAge;
+
     @Override
     public void addResourceHandlers(@org.springframework.lang.NonNull ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir)
-                .setCachePeriod(0);
-        
-        // Add handler for /api/files/** to match frontend URLs
-        registry.addResourceHandler("/api/files/**")
-                .addResourceLocations("file:" + uploadDir)
-                .setCachePeriod(0);
+        CacheControl imageCacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().immutable();
+        CacheControl fileCacheControl = CacheControl.maxAge(cacheMaxAge).cachePrivate();
+
+        // /api/files/** matches frontend URLs; /uploads/** is the older path to the same files
+        for (String prefix : new String[] { "/uploads/", "/api/files/" }) {
+            // Resolution is a file lookup, so the resolved resources are not cached in memory
+            registry.addResourceHandler(prefix + "images/**")
+                    .addResourceLocations("file:" + uploadDir + "images/")
+                    .setCacheControl(imageCacheControl)
+                    .setEtagGenerator(WebMvcConfig::contentEtag)
+                    .resourceChain(false)
+                    .addResolver(new EncodedResourceResolver());
+
+            registry.addResourceHandler(prefix + "**")
+                    .addResourceLocations("file:" + uploadDir)
+                    .setCacheControl(fileCacheControl)
+                    .setEtagGenerator(WebMvcConfig::fileEtag)
+                    .resourceChain(false)
+                    .addResolver(new EncodedResourceResolver());
+        }
+    }
+
+    // The directory of an image variant is the hash of the upload; the file name tells variants and encodings apart
+    private static String contentEtag(Resource resource) {
+        try {
+            File file = resource.getFile();
+            String hash = file.getParentFile().getName();
+            if (!CONTENT_HASH.matcher(hash).matches()) {
+                return fileEtag(resource);
+            }
+            return "\"" + hash + "-" + file.getName() + "\"";
+        } catch (IOException e) {
+            return fileEtag(resource);
+        }
+    }
+
+    // Size and modification time identify the file without reading it, but not byte for byte
+    private static String fileEtag(Resource resource) {
+        try {
+            return "W/\"" + Long.toHexString(resource.contentLength()) + "-"
+                    + Long.toHexString(resource.lastModified()) + "\"";
+        } catch (IOException e) {
+            return null;
+        }
     }
 }
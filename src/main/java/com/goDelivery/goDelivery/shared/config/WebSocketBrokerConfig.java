@@ -0,0 +1,99 @@
+package com.goDelivery.goDelivery.shared.config;
+
+import com.goDelivery.goDelivery.shared.messaging.BrokerBridge;
+import com.goDelivery.goDelivery.shared.messaging.LocalBrokerBridge;
+import com.goDelivery.goDelivery.shared.messaging.RedisBrokerBridge;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * STOMP broker settings, bound from {@code app.websocket.*}.
+ *
+ * {@code broker.mode} selects how subscriptions are served:
+ * <ul>
+ * <li>{@code simple} - in-memory broker, single node only</li>
+ * <li>{@code bridge} - in-memory broker on every node, with messages forwarded
+ * between nodes over {@code broker.bridge} ({@code redis}, or {@code local}
+ * as an in-process stand-in for tests)</li>
+ * <li>{@code relay} - external STOMP broker (RabbitMQ, ActiveMQ) via the
+ * broker relay</li>
+ * </ul>
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketBrokerConfig {
+
+    private Broker broker = new Broker();
+
+    private Transport transport = new Transport();
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.websocket.broker", name = "mode", havingValue = "bridge")
+    public BrokerBridge brokerBridge(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        if (broker.getBridge() == BridgeType.REDIS) {
+            log.info("STOMP broker bridge: Redis channel '{}'", broker.getBridgeChannel());
+            return new RedisBrokerBridge(redisConnectionFactory.getObject(), broker.getBridgeChannel());
+        }
+        log.info("STOMP broker bridge: in-process stand-in");
+        return new LocalBrokerBridge();
+    }
+
+    @Data
+    public static class Broker {
+        private BrokerMode mode = BrokerMode.SIMPLE;
+
+        // Heartbeats sent to / expected from clients (0 disables)
+        private Duration heartbeat = Duration.ofSeconds(10);
+
+        // Identifies this node on the bridge; defaults to a random id per start
+        private String nodeId = UUID.randomUUID().toString();
+
+        private BridgeType bridge = BridgeType.LOCAL;
+
+        private String bridgeChannel = "goDelivery:stomp";
+
+        private Relay relay = new Relay();
+    }
+
+    @Data
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        private String virtualHost;
+    }
+
+    @Data
+    public static class Transport {
+        // Outbound data buffered per session before a slow client is disconnected
+        private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+        // Longest a single send may block before the session is closed
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+        private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+    }
+
+    public enum BrokerMode {
+        SIMPLE, BRIDGE, RELAY
+    }
+
+    public enum BridgeType {
+        LOCAL, REDIS
+    }
+}
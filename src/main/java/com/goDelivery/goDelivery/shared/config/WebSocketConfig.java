@@ -1,21 +1,81 @@
 package com.goDelivery.goDelivery.shared.config;
 
+import com.goDelivery.goDelivery.shared.messaging.BrokerBridge;
+import com.goDelivery.goDelivery.shared.messaging.BrokerBridgeInterceptor;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String TOPIC_PREFIX = "/topic";
+
+    private final WebSocketBrokerConfig brokerConfig;
+    private final ObjectProvider<BrokerBridge> brokerBridge;
+
+    private BrokerBridgeInterceptor bridgeInterceptor;
+    private ThreadPoolTaskScheduler heartbeatScheduler;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple in-memory message broker
-        config.enableSimpleBroker("/topic");
+        WebSocketBrokerConfig.Broker broker = brokerConfig.getBroker();
+        long heartbeatMillis = broker.getHeartbeat().toMillis();
+
+        if (broker.getMode() == WebSocketBrokerConfig.BrokerMode.RELAY) {
+            // External STOMP broker shared by all nodes
+            WebSocketBrokerConfig.Relay relay = broker.getRelay();
+            config.enableStompBrokerRelay(TOPIC_PREFIX)
+                    .setRelayHost(relay.getHost())
+                    .setRelayPort(relay.getPort())
+                    .setClientLogin(relay.getClientLogin())
+                    .setClientPasscode(relay.getClientPasscode())
+                    .setSystemLogin(relay.getSystemLogin())
+                    .setSystemPasscode(relay.getSystemPasscode())
+                    .setVirtualHost(relay.getVirtualHost())
+                    .setSystemHeartbeatSendInterval(heartbeatMillis)
+                    .setSystemHeartbeatReceiveInterval(heartbeatMillis);
+            log.info("STOMP broker relay to {}:{}", relay.getHost(), relay.getPort());
+        } else {
+            // Enable a simple in-memory message broker
+            var simpleBroker = config.enableSimpleBroker(TOPIC_PREFIX);
+            if (heartbeatMillis > 0) {
+                simpleBroker.setHeartbeatValue(new long[] { heartbeatMillis, heartbeatMillis })
+                        .setTaskScheduler(heartbeatScheduler());
+            }
+        }
         // Set application destination prefix
         config.setApplicationDestinationPrefixes("/app");
+
+        BrokerBridge bridge = brokerBridge.getIfAvailable();
+        if (bridge != null && broker.getMode() == WebSocketBrokerConfig.BrokerMode.BRIDGE) {
+            // Forward messages published on this node to the brokers of the other nodes
+            bridgeInterceptor = new BrokerBridgeInterceptor(bridge, broker.getNodeId(), TOPIC_PREFIX);
+            config.configureBrokerChannel().interceptors(bridgeInterceptor);
+        }
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Bound what a slow client can make the server buffer
+        WebSocketBrokerConfig.Transport transport = brokerConfig.getTransport();
+        registration.setSendBufferSizeLimit((int) transport.getSendBufferSizeLimit().toBytes())
+                .setSendTimeLimit((int) transport.getSendTimeLimit().toMillis())
+                .setMessageSizeLimit((int) transport.getMessageSizeLimit().toBytes());
     }
 
     @Override
@@ -25,4 +85,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("*")
                 .withSockJS();
     }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void connectBrokerBridge(ApplicationReadyEvent event) {
+        if (bridgeInterceptor != null) {
+            bridgeInterceptor.connect(event.getApplicationContext().getBean("brokerChannel", MessageChannel.class));
+            log.info("STOMP broker bridge connected as node {}", brokerConfig.getBroker().getNodeId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdown();
+        }
+    }
+
+    // Kept out of the context so it does not replace the scheduler used by @Scheduled
+    private ThreadPoolTaskScheduler heartbeatScheduler() {
+        if (heartbeatScheduler == null) {
+            heartbeatScheduler = new ThreadPoolTaskScheduler();
+            heartbeatScheduler.setPoolSize(1);
+            heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+            heartbeatScheduler.initialize();
+        }
+        return heartbeatScheduler;
+    }
 }
@@ -0,0 +1,7 @@
+package com.goDelivery.goDelivery.shared.enums;
+
+public enum CatalogItemType {
+    RESTAURANT,
+    MENU_ITEM,
+    BRANCH_MENU_ITEM
+}
@@ -0,0 +1,19 @@
+package com.goDelivery.goDelivery.shared.enums;
+
+import lombok.Getter;
+
+// Sizes stored for every uploaded image; maxEdge is the longest side in pixels
+@Getter
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 160),
+    CARD("card", 480),
+    FULL("full", 1280);
+
+    private final String fileName;
+    private final int maxEdge;
+
+    ImageVariant(String fileName, int maxEdge) {
+        this.fileName = fileName;
+        this.maxEdge = maxEdge;
+    }
+}
@@ -0,0 +1,8 @@
+package com.goDelivery.goDelivery.shared.enums;
+
+public enum MenuUploadJobStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
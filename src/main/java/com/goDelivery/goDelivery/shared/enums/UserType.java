@@ -0,0 +1,9 @@
+package com.goDelivery.goDelivery.shared.enums;
+
+public enum UserType {
+    RESTAURANT_USER,
+    BRANCH_USER,
+    SUPER_ADMIN,
+    CUSTOMER,
+    BIKER
+}
@@ -0,0 +1,8 @@
+package com.goDelivery.goDelivery.shared.enums;
+
+public enum WebhookInboxStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    DEAD // gave up after the maximum number of attempts
+}
@@ -0,0 +1,7 @@
+package com.goDelivery.goDelivery.shared.enums;
+
+public enum WebhookSource {
+    MPESA_PAYMENT, // /api/v1/payments/mpesa/webhook, settles a Payment
+    MPESA_TRANSACTION, // /api/webhooks/mpesa-payment, settles an MpesaTransaction
+    MOMO
+}
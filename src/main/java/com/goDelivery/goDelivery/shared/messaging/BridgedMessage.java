@@ -0,0 +1,29 @@
+package com.goDelivery.goDelivery.shared.messaging;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+/**
+ * A broker message forwarded between application nodes.
+ */
+@Getter
+public class BridgedMessage {
+
+    // Node that published the message; it already delivered it locally
+    private final String originNodeId;
+    private final String destination;
+    private final String contentType;
+    private final byte[] payload;
+
+    @JsonCreator
+    public BridgedMessage(@JsonProperty("originNodeId") String originNodeId,
+            @JsonProperty("destination") String destination,
+            @JsonProperty("contentType") String contentType,
+            @JsonProperty("payload") byte[] payload) {
+        this.originNodeId = originNodeId;
+        this.destination = destination;
+        this.contentType = contentType;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,14 @@
+package com.goDelivery.goDelivery.shared.messaging;
+
+import java.util.function.Consumer;
+
+/**
+ * Pub/sub channel that forwards messages published to the local STOMP broker
+ * on one node to the brokers of all other nodes.
+ */
+public interface BrokerBridge {
+
+    void publish(BridgedMessage message);
+
+    void subscribe(Consumer<BridgedMessage> listener);
+}
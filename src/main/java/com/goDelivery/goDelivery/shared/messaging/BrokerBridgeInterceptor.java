@@ -0,0 +1,68 @@
+package com.goDelivery.goDelivery.shared.messaging;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.function.Consumer;
+
+/**
+ * Broker channel interceptor that forwards messages published on this node to
+ * the other nodes, and re-publishes messages received from them into the
+ * local broker.
+ */
+public class BrokerBridgeInterceptor implements ChannelInterceptor {
+
+    // Marks messages that arrived over the bridge so they are not forwarded again
+    static final String BRIDGED_HEADER = "goDeliveryBridged";
+
+    private final BrokerBridge bridge;
+    private final String nodeId;
+    private final String destinationPrefix;
+
+    public BrokerBridgeInterceptor(BrokerBridge bridge, String nodeId, String destinationPrefix) {
+        this.bridge = bridge;
+        this.nodeId = nodeId;
+        this.destinationPrefix = destinationPrefix;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        if (accessor.getMessageType() == SimpMessageType.MESSAGE
+                && accessor.getHeader(BRIDGED_HEADER) == null
+                && destination != null && destination.startsWith(destinationPrefix)
+                && message.getPayload() instanceof byte[] payload) {
+            Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+            bridge.publish(new BridgedMessage(nodeId, destination,
+                    contentType != null ? contentType.toString() : null, payload));
+        }
+        return message;
+    }
+
+    /**
+     * Starts delivering messages from other nodes to {@code brokerChannel}.
+     */
+    public void connect(MessageChannel brokerChannel) {
+        Consumer<BridgedMessage> listener = bridged -> {
+            if (nodeId.equals(bridged.getOriginNodeId())) {
+                return;
+            }
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(bridged.getDestination());
+            if (bridged.getContentType() != null) {
+                accessor.setContentType(MimeTypeUtils.parseMimeType(bridged.getContentType()));
+            }
+            accessor.setHeader(BRIDGED_HEADER, Boolean.TRUE);
+            accessor.setLeaveMutable(true);
+            brokerChannel.send(MessageBuilder.createMessage(bridged.getPayload(), accessor.getMessageHeaders()));
+        };
+        bridge.subscribe(listener);
+    }
+}
@@ -0,0 +1,25 @@
+package com.goDelivery.goDelivery.shared.messaging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the broker bridge. All instances in the JVM share
+ * one bus, so several application contexts started by a test behave like
+ * separate nodes.
+ */
+public class LocalBrokerBridge implements BrokerBridge {
+
+    private static final List<Consumer<BridgedMessage>> BUS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(BridgedMessage message) {
+        BUS.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<BridgedMessage> listener) {
+        BUS.add(listener);
+    }
+}
@@ -0,0 +1,63 @@
+package com.goDelivery.goDelivery.shared.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Broker bridge over Redis pub/sub. Delivery is best-effort: a node that is
+ * disconnected from Redis misses messages published meanwhile.
+ *
+ * Messages travel as JSON and are read back only as {@link BridgedMessage},
+ * so nothing published to the channel can make a node build other types.
+ */
+@Slf4j
+public class RedisBrokerBridge implements BrokerBridge {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RedisBrokerBridge(RedisConnectionFactory connectionFactory, String channel) {
+        this.connectionFactory = connectionFactory;
+        this.topic = new ChannelTopic(channel);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    @Override
+    public void publish(BridgedMessage message) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(topic.getTopic().getBytes(StandardCharsets.UTF_8), objectMapper.writeValueAsBytes(message));
+        } catch (Exception e) {
+            log.warn("Failed to bridge message for {}: {}", message.getDestination(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<BridgedMessage> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            BridgedMessage bridged;
+            try {
+                bridged = objectMapper.readValue(message.getBody(), BridgedMessage.class);
+            } catch (Exception e) {
+                log.warn("Ignoring unreadable bridged message: {}", e.getMessage());
+                return;
+            }
+            listener.accept(bridged);
+        }, topic);
+    }
+
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+}
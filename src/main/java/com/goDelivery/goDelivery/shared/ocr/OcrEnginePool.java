@@ -0,0 +1,161 @@
+package com.goDelivery.goDelivery.shared.ocr;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of pre-configured Tesseract engines shared by all OCR callers.
+ *
+ * Tess4J engines are not thread-safe, so each call borrows an engine for
+ * its exclusive use and returns it afterwards; engines are configured once
+ * when the pool is created and never reconfigured per request. At most
+ * {@link #getSize()} recognitions run at a time, the rest wait for an
+ * engine.
+ *
+ * Multi-page documents are recognised page by page on the pool's own worker
+ * threads, with no more pages rendered ahead than there are engines.
+ */
+@Slf4j
+public class OcrEnginePool {
+
+    @Getter
+    private final int size;
+
+    @Getter
+    private final boolean available;
+
+    private final BlockingQueue<Tesseract> engines;
+    private final Duration acquireTimeout;
+    private final ExecutorService workers;
+
+    public OcrEnginePool(Supplier<Tesseract> engineFactory, int size, boolean available, Duration acquireTimeout) {
+        if (size < 1) {
+            throw new IllegalArgumentException("OCR pool size must be at least 1");
+        }
+        this.size = size;
+        this.available = available;
+        this.acquireTimeout = acquireTimeout;
+        this.engines = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            engines.add(engineFactory.get());
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "ocr-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Recognises an image file on the calling thread, waiting for a free
+     * engine if needed.
+     */
+    public String recognize(File image) throws TesseractException {
+        Tesseract engine = acquire();
+        try {
+            return engine.doOCR(image);
+        } finally {
+            engines.add(engine);
+        }
+    }
+
+    public String recognize(BufferedImage image) throws TesseractException {
+        Tesseract engine = acquire();
+        try {
+            return engine.doOCR(image);
+        } finally {
+            engines.add(engine);
+        }
+    }
+
+    /**
+     * Renders and recognises every page of the document, running the pages
+     * in parallel, and returns the text of each page in page order.
+     */
+    public List<String> recognizePages(PDDocument document, float dpi) throws IOException, TesseractException {
+        PDFRenderer renderer = new PDFRenderer(document);
+        // Bounds the rendered page images held in memory at once
+        Semaphore inFlight = new Semaphore(size);
+        List<CompletableFuture<String>> pages = new ArrayList<>(document.getNumberOfPages());
+
+        try {
+            for (int page = 0; page < document.getNumberOfPages(); page++) {
+                inFlight.acquire();
+                BufferedImage image;
+                try {
+                    // PDFBox rendering is not thread-safe per document, so pages are rendered here
+                    image = renderer.renderImageWithDPI(page, dpi, ImageType.GRAY);
+                } catch (IOException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                pages.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return recognize(image);
+                    } catch (TesseractException e) {
+                        throw new CompletionException(e);
+                    } finally {
+                        inFlight.release();
+                    }
+                }, workers));
+            }
+
+            List<String> texts = new ArrayList<>(pages.size());
+            for (CompletableFuture<String> page : pages) {
+                texts.add(page.join());
+            }
+            return texts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pages.forEach(page -> page.cancel(true));
+            throw new IllegalStateException("Interrupted while recognising document pages", e);
+        } catch (CompletionException e) {
+            pages.forEach(page -> page.cancel(true));
+            if (e.getCause() instanceof TesseractException tesseractException) {
+                throw tesseractException;
+            }
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Tesseract acquire() {
+        try {
+            Tesseract engine = engines.poll(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (engine == null) {
+                throw new IllegalStateException("All OCR engines are busy, please try again later");
+            }
+            return engine;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an OCR engine", e);
+        }
+    }
+}
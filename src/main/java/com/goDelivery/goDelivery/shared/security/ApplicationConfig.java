@@ -24,6 +24,7 @@ public class ApplicationConfig {
     private final BranchUsersRepository branchUsersRepository;
     private final SuperAdminRepository superAdminRepository;
     private final CustomerRepository customerRepository;
+    private final PrincipalCache principalCache;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -33,7 +34,7 @@ public class ApplicationConfig {
     @Bean
     public UserDetailsService userDetailsService() {
         return new CustomUserDetailsService(restaurantUsersRepository, branchUsersRepository, superAdminRepository,
-                customerRepository, passwordEncoder());
+                customerRepository, passwordEncoder(), principalCache);
     }
 
     @Bean
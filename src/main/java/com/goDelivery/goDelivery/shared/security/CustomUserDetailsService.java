@@ -1,13 +1,10 @@
 package com.goDelivery.goDelivery.shared.security;
 
-import com.goDelivery.goDelivery.modules.branch.model.BranchUsers;
-import com.goDelivery.goDelivery.modules.customer.model.Customer;
-import com.goDelivery.goDelivery.modules.restaurant.model.RestaurantUsers;
-import com.goDelivery.goDelivery.modules.restaurant.model.SuperAdmin;
 import com.goDelivery.goDelivery.modules.branch.repository.BranchUsersRepository;
 import com.goDelivery.goDelivery.modules.customer.repository.CustomerRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.RestaurantUsersRepository;
 import com.goDelivery.goDelivery.modules.restaurant.repository.SuperAdminRepository;
+import com.goDelivery.goDelivery.shared.enums.UserType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
@@ -32,46 +29,69 @@ public class CustomUserDetailsService implements UserDetailsService {
     private final SuperAdminRepository superAdminRepository;
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Loading user by username: {}", username);
-        
-        // First try to find in RestaurantUsers
-        Optional<RestaurantUsers> restaurantUser = restaurantUsersRepository.findByEmail(username);
-        if (restaurantUser.isPresent()) {
-            RestaurantUsers user = restaurantUser.get();
-            log.info("Found restaurant user: {}, Role: {}, Active: {}", user.getEmail(), user.getRole(), user.isActive());
-            return user;
-        }
-        
-        // If not found, try to find in BranchUsers
-        Optional<BranchUsers> branchUser = branchUsersRepository.findByEmail(username);
-        if (branchUser.isPresent()) {
-            BranchUsers user = branchUser.get();
-            log.info("Found branch user: {}, Role: {}, Active: {}", user.getEmail(), user.getRole(), user.isActive());
-            return user;
-        }
-        
-        // If not found, try to find in SuperAdmin
-        Optional<SuperAdmin> superAdmin = superAdminRepository.findByEmail(username);
-        if (superAdmin.isPresent()) {
-            SuperAdmin admin = superAdmin.get();
-            log.info("Found super admin: {}, Role: {}", admin.getEmail(), admin.getRole());
-            return new User(admin.getEmail(), admin.getPassword(), getAuthorities(admin.getRole()));
+        return loadUserByUsername(username, null);
+    }
+
+    /**
+     * Looks the user up in the table for {@code userType} first; tokens
+     * without a type, and types this service does not authenticate, fall
+     * back to searching every user table in turn.
+     */
+    public UserDetails loadUserByUsername(String username, UserType userType) throws UsernameNotFoundException {
+        log.debug("Loading user by username: {} (type: {})", username, userType);
+
+        if (userType != null) {
+            Optional<UserDetails> user = findByType(username, userType);
+            if (user.isPresent()) {
+                return user.get();
+            }
         }
-        
-        // If not found, try to find in Customer
-        Optional<Customer> customer = customerRepository.findByEmail(username);
-        if (customer.isPresent()) {
-            Customer cust = customer.get();
-            log.info("Found customer: {}, Active: {}", cust.getEmail(), cust.getIsActive());
-            return new User(cust.getEmail(), cust.getPassword(), getAuthorities(cust.getRoles()));
+
+        // UserType declaration order is the lookup precedence
+        for (UserType type : UserType.values()) {
+            if (type != userType) {
+                Optional<UserDetails> user = findByType(username, type);
+                if (user.isPresent()) {
+                    return user.get();
+                }
+            }
         }
-        
+
         log.error("User not found with email: {}", username);
         throw new UsernameNotFoundException("User not found with email: " + username);
     }
+
+    private Optional<UserDetails> findByType(String username, UserType userType) {
+        switch (userType) {
+            case RESTAURANT_USER:
+                return restaurantUsersRepository.findByEmail(username).map(user -> {
+                    log.debug("Found restaurant user: {}, Role: {}, Active: {}", user.getEmail(), user.getRole(), user.isActive());
+                    return user;
+                });
+            case BRANCH_USER:
+                return branchUsersRepository.findByEmail(username).map(user -> {
+                    log.debug("Found branch user: {}, Role: {}, Active: {}", user.getEmail(), user.getRole(), user.isActive());
+                    return user;
+                });
+            case SUPER_ADMIN:
+                return superAdminRepository.findByEmail(username).map(admin -> {
+                    log.debug("Found super admin: {}, Role: {}", admin.getEmail(), admin.getRole());
+                    return new User(admin.getEmail(), admin.getPassword(), getAuthorities(admin.getRole()));
+                });
+            case CUSTOMER:
+                return customerRepository.findByEmail(username).map(cust -> {
+                    log.debug("Found customer: {}, Active: {}", cust.getEmail(), cust.getIsActive());
+                    return new User(cust.getEmail(), cust.getPassword(), getAuthorities(cust.getRoles()));
+                });
+            default:
+                // Bikers are not authenticated through this service
+                return Optional.empty();
+        }
+    }
     
     private Collection<? extends GrantedAuthority> getAuthorities(Enum<?> role) {
         if (role == null) {
@@ -110,5 +130,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                     customer.setPassword(encodedPassword);
                     customerRepository.save(customer);
                 });
+
+        principalCache.invalidate(user.getUsername());
     }
 }
@@ -1,5 +1,6 @@
 package com.goDelivery.goDelivery.shared.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import io.micrometer.common.lang.NonNull;
@@ -24,11 +25,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
 
+    // Stateless; one instance builds the details for every request
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
     private final CustomUserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(CustomUserDetailsService userDetailsService, JwtService jwtService) {
+    private final PrincipalCache principalCache;
+
+    public JwtAuthenticationFilter(CustomUserDetailsService userDetailsService, JwtService jwtService,
+            PrincipalCache principalCache) {
         this.userDetailsService = userDetailsService;
         this.jwtService = jwtService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -39,6 +47,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -49,7 +58,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
         } catch (ExpiredJwtException e) {
             // Token has expired
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -69,9 +79,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (userEmail != null && !userEmail.isEmpty() && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                // Principals are cached per token; the user type sends misses straight to the right table
+                UserDetails userDetails = principalCache.get(userEmail, claims.getIssuedAt(),
+                        () -> userDetailsService.loadUserByUsername(userEmail, jwtService.extractUserType(claims)));
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     Collection<? extends GrantedAuthority> grantedAuthorities = userDetails.getAuthorities();
                     
                     // Create authentication token with the extracted authorities
@@ -82,7 +94,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
 
                     authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
+                            authenticationDetailsSource.buildDetails(request)
                     );
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -1,12 +1,26 @@
 package com.goDelivery.goDelivery.shared.security;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.goDelivery.goDelivery.modules.branch.model.BranchUsers;
+import com.goDelivery.goDelivery.modules.customer.model.Customer;
+import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
+import com.goDelivery.goDelivery.modules.restaurant.model.RestaurantUsers;
+import com.goDelivery.goDelivery.modules.restaurant.model.SuperAdmin;
+import com.goDelivery.goDelivery.shared.enums.UserType;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,16 +29,43 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
+/**
+ * Issues and verifies the bearer tokens.
+ *
+ * Verified claims are cached by token hash until the token expires, so a
+ * client sending the same token on every request pays for the signature
+ * check and JSON parsing once. Only tokens that passed verification are
+ * cached; the cache never outlives a token's {@code exp}.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Tells CustomUserDetailsService which table the subject lives in
+    public static final String USER_TYPE_CLAIM = "userType";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final String jwtSecret;
+
+    private final long jwtExpiration;
+
+    private final Cache<ByteBuffer, Claims> verifiedClaims;
+
+    // Built on first use so a misconfigured secret only fails token handling, as before
+    private volatile JwtParser parser;
+    private volatile SecretKey signInKey;
+
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${app.security.jwt-cache.maximum-size:10000}") long cacheMaximumSize) {
+        this.jwtSecret = jwtSecret;
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(Expiry.creating((ByteBuffer key, Claims claims) -> timeToExpiry(claims)))
+                .build();
+    }
 
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
@@ -38,7 +79,11 @@ public class JwtService {
         claims.put("authorities", userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(java.util.stream.Collectors.toList()));
-                
+        UserType userType = userTypeOf(userDetails);
+        if (userType != null) {
+            claims.put(USER_TYPE_CLAIM, userType.name());
+        }
+
         return Jwts
                 .builder()
                 .claims(claims)
@@ -53,17 +98,34 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * The user type recorded at login, or null for tokens issued without one.
+     */
+    public UserType extractUserType(Claims claims) {
+        String userType = claims.get(USER_TYPE_CLAIM, String.class);
+        if (userType == null) {
+            return null;
+        }
+        try {
+            return UserType.valueOf(userType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Validates already verified claims without parsing the token again.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isExpired(claims);
     }
 
-    private Date extractExpiration(String token){
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver){
@@ -71,17 +133,72 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token and returns its claims, from the cache when this
+     * token was verified before. Throws the parser's exceptions for expired,
+     * tampered or malformed tokens; those are never cached.
+     */
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith((SecretKey) getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        ByteBuffer key = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims != null && !isExpired(claims)) {
+            return claims;
+        }
+        claims = getParser().parseSignedClaims(token).getPayload();
+        verifiedClaims.put(key, claims);
+        return claims;
+    }
+
+    private Duration timeToExpiry(Claims claims) {
+        long remaining = claims.getExpiration() != null
+                ? claims.getExpiration().getTime() - System.currentTimeMillis()
+                : jwtExpiration;
+        return Duration.ofMillis(Math.max(0, Math.min(remaining, jwtExpiration)));
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser().verifyWith(getSignInKey()).build();
+            parser = current;
+        }
+        return current;
+    }
+
+    private static UserType userTypeOf(UserDetails userDetails) {
+        if (userDetails instanceof RestaurantUsers) {
+            return UserType.RESTAURANT_USER;
+        }
+        if (userDetails instanceof BranchUsers) {
+            return UserType.BRANCH_USER;
+        }
+        if (userDetails instanceof SuperAdmin) {
+            return UserType.SUPER_ADMIN;
+        }
+        if (userDetails instanceof Customer) {
+            return UserType.CUSTOMER;
+        }
+        if (userDetails instanceof Bikers) {
+            return UserType.BIKER;
+        }
+        return null;
     }
 
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signInKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+            signInKey = key;
+        }
+        return key;
     }
 }
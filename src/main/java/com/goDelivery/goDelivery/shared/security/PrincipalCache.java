@@ -0,0 +1,92 @@
+package com.goDelivery.goDelivery.shared.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the principals loaded by {@link JwtAuthenticationFilter},
+ * so that authenticated requests do not look the user up on every call.
+ *
+ * Entries are keyed by token subject and issue time: a fresh login never
+ * reuses a principal loaded for an older token. Entries for a user are
+ * dropped when the user is changed or deleted (see
+ * {@link PrincipalCacheInvalidator}) and otherwise expire after the
+ * configured time-to-live, which bounds how long a change made outside the
+ * application can go unnoticed.
+ *
+ * This cache is local to each instance on purpose; principals are never
+ * written to the shared (Redis) tier.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<Key, UserDetails> cache;
+
+    public PrincipalCache(
+            @Value("${app.security.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.security.principal-cache.time-to-live:60s}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the principal cached for the token, loading it on a miss. Load
+     * failures are propagated and not cached.
+     */
+    public UserDetails get(String subject, Date issuedAt, Supplier<UserDetails> loader) {
+        return cache.get(new Key(subject, issuedAt != null ? issuedAt.getTime() : 0L), key -> loader.get());
+    }
+
+    /**
+     * Drops every cached principal of the user. When called inside a
+     * transaction the entries are dropped again after commit, so a request
+     * that reloaded the user before the commit cannot keep the old state.
+     */
+    public void invalidate(String subject) {
+        if (subject == null) {
+            return;
+        }
+        evict(subject);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(subject);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void evict(String subject) {
+        cache.asMap().keySet().removeIf(key -> key.subject.equalsIgnoreCase(subject));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String subject;
+        private final long issuedAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.goDelivery.goDelivery.shared.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached principals whenever a user entity is updated or deleted, so
+ * password, role, permission and activation changes take effect on the next
+ * request no matter which service made them. The previous email is evicted
+ * too when it changed.
+ *
+ * Bulk JPQL/SQL updates of user tables bypass this listener; their effect is
+ * only seen once cached entries expire.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PrincipalCache principalCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof CustomUserDetails user) {
+            principalCache.invalidate(user.getUsername());
+            if (event.getOldState() != null) {
+                String[] names = event.getPersister().getPropertyNames();
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals("email") && event.getOldState()[i] instanceof String oldEmail
+                            && !oldEmail.equalsIgnoreCase(user.getUsername())) {
+                        principalCache.invalidate(oldEmail);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof CustomUserDetails user) {
+            principalCache.invalidate(user.getUsername());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
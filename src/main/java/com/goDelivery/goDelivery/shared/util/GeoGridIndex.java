@@ -0,0 +1,276 @@
+package com.goDelivery.goDelivery.shared.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe in-memory spatial index that buckets points into a fixed
+ * latitude/longitude grid. Radius and k-nearest queries only touch the cells
+ * around the query point instead of scanning every entry.
+ *
+ * @param <K> the key identifying an indexed entry (e.g. a biker or restaurant
+ *            id)
+ */
+public class GeoGridIndex<K> {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+
+    // Great-circle distances are slightly shorter than arcs along a parallel,
+    // so ring lower bounds are shrunk a little to stay conservative
+    private static final double LOWER_BOUND_SAFETY = 0.99;
+
+    private final double cellSizeDegrees;
+    private final Map<K, Position> positions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<K>> cells = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Adds an entry or moves it to a new position.
+     */
+    public void put(K key, double latitude, double longitude) {
+        int latCell = latCell(latitude);
+        int lngCell = lngCell(longitude);
+        long newCell = cellKey(latCell, lngCell);
+
+        positions.compute(key, (k, previous) -> {
+            if (previous == null || previous.cell != newCell) {
+                if (previous != null) {
+                    removeFromCell(previous.cell, k);
+                }
+                cells.compute(newCell, (c, members) -> {
+                    Set<K> set = members != null ? members : ConcurrentHashMap.newKeySet();
+                    set.add(k);
+                    return set;
+                });
+            }
+            return new Position(latitude, longitude, newCell);
+        });
+    }
+
+    /**
+     * Removes an entry from the index. Unknown keys are ignored.
+     */
+    public void remove(K key) {
+        positions.computeIfPresent(key, (k, previous) -> {
+            removeFromCell(previous.cell, k);
+            return null;
+        });
+    }
+
+    /**
+     * Removes every entry whose key is not in {@code keys}.
+     */
+    public void retainAll(Collection<K> keys) {
+        for (K key : positions.keySet()) {
+            if (!keys.contains(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    public boolean contains(K key) {
+        return positions.containsKey(key);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public void clear() {
+        positions.clear();
+        cells.clear();
+    }
+
+    /**
+     * Returns all entries within {@code radiusKm} of the given point, nearest
+     * first.
+     */
+    public List<Neighbour<K>> withinRadius(double latitude, double longitude, double radiusKm) {
+        List<Neighbour<K>> result = new ArrayList<>();
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lngSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(
+                Math.min(90.0, Math.abs(latitude) + latSpan))), 1e-6));
+
+        int minLat = latCell(latitude - latSpan);
+        int maxLat = latCell(latitude + latSpan);
+        int minLng = lngCell(longitude - lngSpan);
+        int maxLng = lngCell(longitude + lngSpan);
+
+        long cellsToScan = (long) (maxLat - minLat + 1) * (maxLng - minLng + 1);
+        if (cellsToScan > positions.size()) {
+            // Sparse index relative to the search area - scanning entries is cheaper
+            positions.forEach((key, position) -> collect(result, key, position, latitude, longitude, radiusKm));
+        } else {
+            for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+                for (int lngIdx = minLng; lngIdx <= maxLng; lngIdx++) {
+                    collectCell(result, cellKey(latIdx, lngIdx), latitude, longitude, radiusKm);
+                }
+            }
+        }
+
+        result.sort(Comparator.comparingDouble(Neighbour::getDistanceKm));
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} entries nearest to the given point that lie
+     * within {@code maxDistanceKm}, nearest first. Cells are visited in
+     * expanding rings so the search stops as soon as no unvisited cell can
+     * hold a closer entry.
+     */
+    public List<Neighbour<K>> nearest(double latitude, double longitude, int limit, double maxDistanceKm) {
+        List<Neighbour<K>> found = new ArrayList<>();
+        if (limit <= 0 || positions.isEmpty()) {
+            return found;
+        }
+
+        int centreLat = latCell(latitude);
+        int centreLng = lngCell(longitude);
+        int maxRing = (int) Math.ceil(360.0 / cellSizeDegrees);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringLowerBoundKm = ringLowerBoundKm(latitude, ring);
+            if (ringLowerBoundKm > maxDistanceKm) {
+                break;
+            }
+
+            if (ring == 0) {
+                collectCell(found, cellKey(centreLat, centreLng), latitude, longitude, maxDistanceKm);
+            } else {
+                for (int offset = -ring; offset <= ring; offset++) {
+                    collectCell(found, cellKey(centreLat - ring, centreLng + offset), latitude, longitude,
+                            maxDistanceKm);
+                    collectCell(found, cellKey(centreLat + ring, centreLng + offset), latitude, longitude,
+                            maxDistanceKm);
+                    if (offset != -ring && offset != ring) {
+                        collectCell(found, cellKey(centreLat + offset, centreLng - ring), latitude, longitude,
+                                maxDistanceKm);
+                        collectCell(found, cellKey(centreLat + offset, centreLng + ring), latitude, longitude,
+                                maxDistanceKm);
+                    }
+                }
+            }
+
+            if (found.size() >= limit) {
+                found.sort(Comparator.comparingDouble(Neighbour::getDistanceKm));
+                // Anything in the next ring is at least this far away
+                if (found.get(limit - 1).getDistanceKm() <= ringLowerBoundKm(latitude, ring + 1)) {
+                    break;
+                }
+            }
+
+            if (ring > 0 && found.size() >= positions.size()) {
+                break;
+            }
+        }
+
+        found.sort(Comparator.comparingDouble(Neighbour::getDistanceKm));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * Calculates the distance between two points using the Haversine formula
+     *
+     * @return Distance in kilometers
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private double ringLowerBoundKm(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0.0;
+        }
+        // Points in ring r are at least (r - 1) whole cells away on one axis
+        double degrees = (ring - 1) * cellSizeDegrees;
+        double farthestLat = Math.min(90.0, Math.abs(latitude) + ring * cellSizeDegrees);
+        double lngKm = degrees * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLat));
+        double latKm = degrees * KM_PER_DEGREE;
+        return Math.min(latKm, lngKm) * LOWER_BOUND_SAFETY;
+    }
+
+    private void collectCell(List<Neighbour<K>> result, long cell, double latitude, double longitude,
+            double radiusKm) {
+        Set<K> members = cells.get(cell);
+        if (members == null) {
+            return;
+        }
+        for (K key : members) {
+            Position position = positions.get(key);
+            if (position != null && position.cell == cell) {
+                collect(result, key, position, latitude, longitude, radiusKm);
+            }
+        }
+    }
+
+    private void collect(List<Neighbour<K>> result, K key, Position position, double latitude, double longitude,
+            double radiusKm) {
+        double distance = haversineKm(latitude, longitude, position.latitude, position.longitude);
+        if (distance <= radiusKm) {
+            result.add(new Neighbour<>(key, distance));
+        }
+    }
+
+    private void removeFromCell(long cell, K key) {
+        cells.computeIfPresent(cell, (c, members) -> {
+            members.remove(key);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private int latCell(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    private int lngCell(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+
+    private static final class Position {
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+
+        private Position(double latitude, double longitude, long cell) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+        }
+    }
+
+    /**
+     * An indexed entry together with its distance from the query point.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Neighbour<K> {
+        private final K key;
+        private final double distanceKm;
+    }
+}
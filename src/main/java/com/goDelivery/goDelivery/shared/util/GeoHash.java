@@ -0,0 +1,118 @@
+package com.goDelivery.goDelivery.shared.util;
+
+import lombok.Getter;
+
+/**
+ * Utility class for encoding coordinates as geohashes.
+ * Precision is the number of base32 characters; each extra character shrinks
+ * the cell roughly 5-6x (precision 6 is ~1.2 km x 0.6 km, precision 8 is
+ * ~38 m x 19 m).
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int MAX_PRECISION = 12;
+
+    private GeoHash() {
+    }
+
+    /**
+     * Encodes a coordinate into a geohash of the given precision.
+     *
+     * @param latitude  the latitude in degrees
+     * @param longitude the longitude in degrees
+     * @param precision number of characters (1-12)
+     * @return the geohash string
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        return cellOf(latitude, longitude, precision).getHash();
+    }
+
+    /**
+     * Returns the geohash cell containing the coordinate, including its bounds.
+     */
+    public static Cell cellOf(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION);
+        }
+
+        double minLat = -90.0, maxLat = 90.0;
+        double minLng = -180.0, maxLng = 180.0;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+
+        return new Cell(hash.toString(), minLat, maxLat, minLng, maxLng);
+    }
+
+    /**
+     * A geohash cell and its bounding box.
+     */
+    @Getter
+    public static final class Cell {
+        private final String hash;
+        private final double minLatitude;
+        private final double maxLatitude;
+        private final double minLongitude;
+        private final double maxLongitude;
+
+        private Cell(String hash, double minLatitude, double maxLatitude, double minLongitude,
+                double maxLongitude) {
+            this.hash = hash;
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+        }
+
+        public double getCentreLatitude() {
+            return (minLatitude + maxLatitude) / 2;
+        }
+
+        public double getCentreLongitude() {
+            return (minLongitude + maxLongitude) / 2;
+        }
+
+        /**
+         * Distance from the centre to the farthest corner; any point in the cell
+         * lies within this distance of the centre.
+         */
+        public double getHalfDiagonalKm() {
+            double centreLat = getCentreLatitude();
+            double centreLng = getCentreLongitude();
+            return Math.max(
+                    GeoGridIndex.haversineKm(centreLat, centreLng, minLatitude, maxLongitude),
+                    GeoGridIndex.haversineKm(centreLat, centreLng, maxLatitude, maxLongitude));
+        }
+    }
+}
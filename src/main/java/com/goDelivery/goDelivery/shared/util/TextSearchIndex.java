@@ -0,0 +1,251 @@
+package com.goDelivery.goDelivery.shared.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe in-memory full-text index over short documents (names,
+ * descriptions, categories) with typo tolerance.
+ *
+ * Text is lower-cased, stripped of accents and split into words; each word
+ * is indexed by its character trigrams (padded with a space at both ends).
+ * A query word matches a document when enough of its trigrams occur in the
+ * document, so "piza" still finds "pizza" and "burg" finds "burger".
+ * Documents are ranked by how many query trigrams they contain, weighted by
+ * the field they occur in, with a bonus for exact word matches.
+ *
+ * @param <K> the key identifying an indexed document
+ */
+public class TextSearchIndex<K> {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}");
+
+    private final double minSimilarity;
+    private final Map<K, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<K>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * @param minSimilarity share of a query word's trigrams (0-1] a document
+     *                      must contain for the word to match
+     */
+    public TextSearchIndex(double minSimilarity) {
+        if (minSimilarity <= 0 || minSimilarity > 1) {
+            throw new IllegalArgumentException("Minimum similarity must be in (0, 1]");
+        }
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Adds a document or replaces its indexed text.
+     */
+    public void put(K key, Collection<Field> fields) {
+        Document document = new Document(fields);
+        documents.compute(key, (k, previous) -> {
+            if (previous != null) {
+                for (String gram : previous.gramWeights.keySet()) {
+                    if (!document.gramWeights.containsKey(gram)) {
+                        removePosting(gram, k);
+                    }
+                }
+            }
+            for (String gram : document.gramWeights.keySet()) {
+                // Added inside compute so a concurrent removePosting cannot drop the set in between
+                postings.compute(gram, (g, keys) -> {
+                    Set<K> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                    updated.add(k);
+                    return updated;
+                });
+            }
+            return document;
+        });
+    }
+
+    /**
+     * Removes a document from the index. Unknown keys are ignored.
+     */
+    public void remove(K key) {
+        documents.computeIfPresent(key, (k, previous) -> {
+            for (String gram : previous.gramWeights.keySet()) {
+                removePosting(gram, k);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Removes every document whose key is not in {@code keys}.
+     */
+    public void retainAll(Collection<K> keys) {
+        for (K key : documents.keySet()) {
+            if (!keys.contains(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    public boolean contains(K key) {
+        return documents.containsKey(key);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Returns up to {@code limit} documents matching every word of the query
+     * and accepted by {@code filter}, best first.
+     */
+    public List<Hit<K>> search(String query, Predicate<K> filter, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(words(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Set<String>> wordGrams = new ArrayList<>(words.size());
+        for (String word : words) {
+            wordGrams.add(trigrams(word));
+        }
+
+        Map<K, double[]> matched = new HashMap<>();
+        Map<K, double[]> weighted = new HashMap<>();
+        Map<K, Boolean> accepted = new HashMap<>();
+
+        for (int w = 0; w < words.size(); w++) {
+            for (String gram : wordGrams.get(w)) {
+                Set<K> keys = postings.get(gram);
+                if (keys == null) {
+                    continue;
+                }
+                for (K key : keys) {
+                    if (!accepted.computeIfAbsent(key, filter::test)) {
+                        continue;
+                    }
+                    Document document = documents.get(key);
+                    Double weight = document != null ? document.gramWeights.get(gram) : null;
+                    if (weight == null) {
+                        continue;
+                    }
+                    matched.computeIfAbsent(key, k -> new double[words.size()])[w]++;
+                    weighted.computeIfAbsent(key, k -> new double[words.size()])[w] += weight;
+                }
+            }
+        }
+
+        List<Hit<K>> hits = new ArrayList<>();
+        for (Map.Entry<K, double[]> entry : matched.entrySet()) {
+            Document document = documents.get(entry.getKey());
+            if (document == null) {
+                continue;
+            }
+            double score = 0;
+            boolean allWordsMatch = true;
+            for (int w = 0; w < words.size(); w++) {
+                int gramCount = wordGrams.get(w).size();
+                if (entry.getValue()[w] / gramCount < minSimilarity) {
+                    allWordsMatch = false;
+                    break;
+                }
+                score += weighted.get(entry.getKey())[w] / gramCount;
+                Double exactWeight = document.wordWeights.get(words.get(w));
+                if (exactWeight != null) {
+                    score += exactWeight;
+                }
+            }
+            if (allWordsMatch) {
+                hits.add(new Hit<>(entry.getKey(), score));
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble((Hit<K> hit) -> hit.getScore()).reversed());
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Lower-cased, accent-free words of a text.
+     */
+    public static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : NON_ALPHANUMERIC.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    static Set<String> trigrams(String word) {
+        String padded = " " + word + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private void removePosting(String gram, K key) {
+        postings.computeIfPresent(gram, (g, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static final class Document {
+        // Highest weight of a field containing the trigram / whole word
+        private final Map<String, Double> gramWeights = new HashMap<>();
+        private final Map<String, Double> wordWeights = new HashMap<>();
+
+        private Document(Collection<Field> fields) {
+            for (Field field : fields) {
+                for (String word : words(field.getText())) {
+                    wordWeights.merge(word, field.getWeight(), Math::max);
+                    for (String gram : trigrams(word)) {
+                        gramWeights.merge(gram, field.getWeight(), Math::max);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A piece of document text and how much a match in it counts.
+     */
+    @Getter
+    @AllArgsConstructor(staticName = "of")
+    public static class Field {
+        private final String text;
+        private final double weight;
+    }
+
+    /**
+     * A matching document and its relevance score.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hit<K> {
+        private final K key;
+        private final double score;
+    }
+}
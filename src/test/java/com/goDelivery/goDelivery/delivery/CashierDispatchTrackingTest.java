@@ -0,0 +1,99 @@
+package com.goDelivery.goDelivery.delivery;
+
+import com.goDelivery.goDelivery.modules.branch.service.CashierService;
+import com.goDelivery.goDelivery.modules.customer.model.Customer;
+import com.goDelivery.goDelivery.modules.delivery.dto.OrderTrackingUpdate;
+import com.goDelivery.goDelivery.modules.delivery.model.Bikers;
+import com.goDelivery.goDelivery.modules.delivery.service.ActiveDeliveryRegistry;
+import com.goDelivery.goDelivery.modules.delivery.service.OrderTrackingPublisher;
+import com.goDelivery.goDelivery.modules.ordering.dto.OrderMapper;
+import com.goDelivery.goDelivery.modules.ordering.model.Order;
+import com.goDelivery.goDelivery.modules.ordering.repository.OrderRepository;
+import com.goDelivery.goDelivery.modules.ordering.service.OrderStatusUpdateService;
+import com.goDelivery.goDelivery.shared.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for live tracking of orders moved on by the cashier
+ */
+class CashierDispatchTrackingTest {
+
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    private Order order;
+    private ActiveDeliveryRegistry registry;
+    private OrderTrackingPublisher publisher;
+    private OrderStatusUpdateService statusUpdateService;
+    private CashierService cashierService;
+
+    @BeforeEach
+    void setUp() {
+        Bikers biker = new Bikers();
+        biker.setBikerId(5L);
+        Customer customer = new Customer();
+        order = new Order();
+        order.setOrderId(42L);
+        order.setOrderNumber("ORD-42");
+        order.setOrderStatus(OrderStatus.READY);
+        order.setBikers(biker);
+        order.setCustomer(customer);
+
+        OrderRepository orderRepository = orderRepository(order);
+        registry = new ActiveDeliveryRegistry(orderRepository);
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        publisher = new OrderTrackingPublisher(messagingTemplate, null, null, 0, 0, 30_000, 20);
+        // Notifications fail without a notification service; status updates log and carry on
+        statusUpdateService = new OrderStatusUpdateService(orderRepository, new OrderMapper(), null, null,
+                registry, publisher);
+        cashierService = new CashierService(orderRepository, null, new OrderMapper(), statusUpdateService,
+                registry);
+    }
+
+    @Test
+    void testDispatchRetargetsTrackingToCustomer() {
+        cashierService.confirmOrderDispatch(42L);
+
+        assertEquals(1, registry.getActiveDeliveries(5L).size());
+        publisher.publishPosition(42L, 5L, null, -1.95, 30.06, null, null);
+
+        assertEquals(1, sent.size());
+        assertEquals(OrderStatus.PICKED_UP, update(0).getOrderStatus());
+    }
+
+    @Test
+    void testDeliveredSendsFinalMessage() {
+        cashierService.confirmOrderDispatch(42L);
+        statusUpdateService.updateOrderStatusWithNotification(order, OrderStatus.DELIVERED);
+
+        assertTrue(registry.getActiveDeliveries(5L).isEmpty());
+        assertEquals(1, sent.size());
+        assertEquals(OrderStatus.DELIVERED, update(0).getOrderStatus());
+        assertEquals(5L, update(0).getBikerId());
+    }
+
+    private OrderTrackingUpdate update(int index) {
+        return (OrderTrackingUpdate) sent.get(index).getPayload();
+    }
+
+    // Only the lookups and saves the status update path makes
+    private static OrderRepository orderRepository(Order order) {
+        return (OrderRepository) Proxy.newProxyInstance(OrderRepository.class.getClassLoader(),
+                new Class<?>[] { OrderRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByOrderId" -> Optional.of(order);
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "OrderRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
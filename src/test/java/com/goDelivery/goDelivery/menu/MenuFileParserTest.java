@@ -0,0 +1,179 @@
+package com.goDelivery.goDelivery.menu;
+
+import com.goDelivery.goDelivery.modules.restaurant.dto.MenuItemRequest;
+import com.goDelivery.goDelivery.modules.restaurant.service.MenuFileParser;
+import com.goDelivery.goDelivery.shared.ocr.OcrEnginePool;
+import net.sourceforge.tess4j.Tesseract;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MenuFileParser streaming row extraction
+ */
+class MenuFileParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final OcrEnginePool ocrEnginePool = new OcrEnginePool(Tesseract::new, 1, false, Duration.ofSeconds(1));
+    private final MenuFileParser parser = new MenuFileParser(ocrEnginePool);
+
+    @AfterEach
+    void tearDown() {
+        ocrEnginePool.shutdown();
+    }
+
+    @Test
+    void testStreamsExcelRowsSkippingHeaderAndEmptyRows() throws Exception {
+        Path file = tempDir.resolve("menu.xlsx");
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Menu");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Name");
+            header.createCell(2).setCellValue("Price");
+
+            CellStyle currency = workbook.createCellStyle();
+            currency.setDataFormat(workbook.createDataFormat().getFormat("\"$\"#,##0.00"));
+
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("Chicken Wrap");
+            first.createCell(1).setCellValue("Grilled chicken");
+            first.createCell(2).setCellValue(1250.5);
+            first.getCell(2).setCellStyle(currency);
+            first.createCell(4).setCellValue(20);
+
+            // Row 2 left empty on purpose
+            Row third = sheet.createRow(3);
+            third.createCell(0).setCellValue("Soda");
+            third.createCell(2).setCellValue(2);
+            workbook.write(out);
+        }
+
+        List<MenuItemRequest> rows = new ArrayList<>();
+        int count = parser.parse(file, "xlsx", 7L, 3L, rows::add);
+
+        assertEquals(2, count);
+        assertEquals(2, rows.size());
+        MenuItemRequest wrap = rows.get(0);
+        assertEquals("Chicken Wrap", wrap.getMenuItemName());
+        assertEquals("Grilled chicken", wrap.getDescription());
+        assertEquals(1250.5f, wrap.getPrice());
+        assertEquals("", wrap.getIngredients());
+        assertEquals(20, wrap.getPreparationTime());
+        assertEquals(7L, wrap.getCategoryId());
+        assertEquals(3L, wrap.getRestaurantId());
+
+        MenuItemRequest soda = rows.get(1);
+        assertEquals("Soda", soda.getMenuItemName());
+        assertEquals(2f, soda.getPrice());
+        assertEquals(15, soda.getPreparationTime());
+    }
+
+    @Test
+    void testStreamsLargeWorkbookWithoutCollectingRows() throws Exception {
+        int rowCount = 100_000;
+        Path file = largeWorkbook(rowCount);
+
+        AtomicInteger seen = new AtomicInteger();
+        AtomicReference<String> last = new AtomicReference<>();
+        int count = parser.parse(file, "xlsx", 1L, 1L, row -> {
+            seen.incrementAndGet();
+            last.set(row.getMenuItemName());
+        });
+
+        assertEquals(rowCount, count);
+        assertEquals(rowCount, seen.get());
+        assertEquals("Item " + rowCount, last.get());
+    }
+
+    /**
+     * Parse time of a workbook at the default {@code app.menu-upload.max-rows}.
+     * Wall-clock time depends on the machine, so this only runs with
+     * {@code -Dmenu.parser.performance=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "menu.parser.performance", matches = "true")
+    void testLargeWorkbookParseTime() throws Exception {
+        Path file = largeWorkbook(100_000);
+
+        long started = System.nanoTime();
+        int count = parser.parse(file, "xlsx", 1L, 1L, row -> {
+        });
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        System.out.println("Parsed " + count + " rows in " + elapsed.toMillis() + " ms");
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(60)) < 0, "Parsing took " + elapsed);
+    }
+
+    @Test
+    void testExtractsPdfPageByPage() throws Exception {
+        Path file = tempDir.resolve("menu.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (String line : List.of("Beef Burger 12.50", "Fruit Salad 4.00")) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText(line);
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+
+        List<MenuItemRequest> rows = new ArrayList<>();
+        parser.parse(file, "pdf", 2L, null, rows::add);
+
+        assertEquals(2, rows.size());
+        assertEquals("Beef Burger", rows.get(0).getMenuItemName());
+        assertEquals(12.5f, rows.get(0).getPrice());
+        assertEquals("Fruit Salad", rows.get(1).getMenuItemName());
+    }
+
+    // Written with the streaming writer too, so the test itself stays small
+    private Path largeWorkbook(int rowCount) throws Exception {
+        Path file = tempDir.resolve("large-menu.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Menu");
+            sheet.createRow(0).createCell(0).setCellValue("Name");
+            for (int i = 1; i <= rowCount; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("Item " + i);
+                row.createCell(1).setCellValue("Description of item " + i);
+                row.createCell(2).setCellValue(i % 500 + 0.5);
+                row.createCell(3).setCellValue("Ingredients " + i);
+                row.createCell(4).setCellValue(10);
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+        return file;
+    }
+}
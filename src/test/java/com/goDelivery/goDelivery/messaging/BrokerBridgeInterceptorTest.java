@@ -0,0 +1,68 @@
+package com.goDelivery.goDelivery.messaging;
+
+import com.goDelivery.goDelivery.shared.messaging.BrokerBridgeInterceptor;
+import com.goDelivery.goDelivery.shared.messaging.LocalBrokerBridge;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for forwarding broker messages between nodes over the local bridge
+ */
+class BrokerBridgeInterceptorTest {
+
+    @Test
+    void testMessageReachesOtherNodeOnce() {
+        LocalBrokerBridge bridge = new LocalBrokerBridge();
+        List<Message<?>> receivedByA = new CopyOnWriteArrayList<>();
+        List<Message<?>> receivedByB = new CopyOnWriteArrayList<>();
+        ExecutorSubscribableChannel channelA = channel("node-a", bridge, receivedByA);
+        channel("node-b", bridge, receivedByB);
+
+        channelA.send(message("/topic/orders/42/tracking", "{\"orderId\":42}"));
+
+        assertEquals(1, receivedByA.size());
+        assertEquals(1, receivedByB.size());
+        Message<?> bridged = receivedByB.get(0);
+        assertEquals("/topic/orders/42/tracking", SimpMessageHeaderAccessor.getDestination(bridged.getHeaders()));
+        assertEquals("{\"orderId\":42}", new String((byte[]) bridged.getPayload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNonTopicMessagesAreNotBridged() {
+        LocalBrokerBridge bridge = new LocalBrokerBridge();
+        List<Message<?>> receivedByB = new CopyOnWriteArrayList<>();
+        ExecutorSubscribableChannel channelA = channel("node-c", bridge, new CopyOnWriteArrayList<>());
+        channel("node-d", bridge, receivedByB);
+
+        channelA.send(message("/user/queue/errors", "{}"));
+
+        assertTrue(receivedByB.isEmpty());
+    }
+
+    // A synchronous broker channel for one node, recording what its broker receives
+    private static ExecutorSubscribableChannel channel(String nodeId, LocalBrokerBridge bridge,
+            List<Message<?>> received) {
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+        BrokerBridgeInterceptor interceptor = new BrokerBridgeInterceptor(bridge, nodeId, "/topic");
+        channel.addInterceptor(interceptor);
+        channel.subscribe(received::add);
+        interceptor.connect(channel);
+        return channel;
+    }
+
+    private static Message<byte[]> message(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
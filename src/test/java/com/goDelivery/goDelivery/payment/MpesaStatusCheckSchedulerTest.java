@@ -0,0 +1,173 @@
+package com.goDelivery.goDelivery.payment;
+
+import com.goDelivery.goDelivery.modules.ordering.model.Order;
+import com.goDelivery.goDelivery.modules.payment.model.MpesaStatusCheck;
+import com.goDelivery.goDelivery.modules.payment.model.MpesaTransaction;
+import com.goDelivery.goDelivery.modules.payment.repository.MpesaStatusCheckRepository;
+import com.goDelivery.goDelivery.modules.payment.repository.MpesaTransactionRepository;
+import com.goDelivery.goDelivery.modules.payment.service.MpesaPaymentService;
+import com.goDelivery.goDelivery.modules.payment.service.MpesaStatusCheckScheduler;
+import com.goDelivery.goDelivery.shared.config.MpesaConfig;
+import com.goDelivery.goDelivery.shared.enums.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for M-Pesa status checks scheduled from pending callbacks
+ */
+class MpesaStatusCheckSchedulerTest {
+
+    private final Map<Long, MpesaStatusCheck> checks = new ConcurrentHashMap<>();
+    private MpesaTransaction transaction;
+    private MpesaStatusCheckScheduler scheduler;
+    private MpesaPaymentService mpesaPaymentService;
+
+    @BeforeEach
+    void setUp() {
+        Order order = new Order();
+        order.setOrderId(42L);
+        transaction = new MpesaTransaction();
+        transaction.setTransactionId("TX-42");
+        transaction.setStatus(PaymentStatus.PENDING);
+        transaction.setOrder(order);
+
+        MpesaConfig mpesaConfig = new MpesaConfig();
+        mpesaConfig.setWebhookSignatureRequired(false);
+        scheduler = new MpesaStatusCheckScheduler(statusCheckRepository(checks), Runnable::run,
+                transactionManager(), 100, Duration.ofMinutes(5));
+        // No initial delay is injected, so the first check is due straight away
+        mpesaPaymentService = new MpesaPaymentService(mpesaConfig, null, null,
+                transactionRepository(transaction), null, scheduler, transactionManager());
+    }
+
+    @Test
+    void testPendingCallbackSchedulesCheckThatRunDueClaims() {
+        mpesaPaymentService.processWebhook(
+                "{\"transactionId\":\"TX-42\",\"transactionStatus\":\"PENDING\"}", null);
+        mpesaPaymentService.processWebhook(
+                "{\"transactionId\":\"TX-42\",\"transactionStatus\":\"PENDING\"}", null);
+
+        assertEquals(1, checks.size());
+        MpesaStatusCheck scheduled = checks.values().iterator().next();
+        assertEquals(42L, scheduled.getOrderId());
+        assertEquals("TX-42", scheduled.getTransactionId());
+
+        List<MpesaStatusCheck> ran = new CopyOnWriteArrayList<>();
+        scheduler.runDue(ran::add);
+
+        assertEquals(1, ran.size());
+        assertEquals(42L, ran.get(0).getOrderId());
+        assertNotNull(ran.get(0).getLeaseOwner());
+
+        // Leased checks are not handed out again
+        scheduler.runDue(ran::add);
+        assertEquals(1, ran.size());
+    }
+
+    @Test
+    void testFinalCallbackCancelsCheck() {
+        mpesaPaymentService.processWebhook(
+                "{\"transactionId\":\"TX-42\",\"transactionStatus\":\"PENDING\"}", null);
+        mpesaPaymentService.processWebhook(
+                "{\"transactionId\":\"TX-42\",\"transactionStatus\":\"COMPLETED\"}", null);
+
+        assertTrue(checks.isEmpty());
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    // Only the lookups and saves a callback makes
+    private static MpesaTransactionRepository transactionRepository(MpesaTransaction transaction) {
+        return (MpesaTransactionRepository) Proxy.newProxyInstance(
+                MpesaTransactionRepository.class.getClassLoader(),
+                new Class<?>[] { MpesaTransactionRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByTransactionId" -> Optional.of(transaction);
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "MpesaTransactionRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // The status check table kept in memory, with the same due and lease rules as the queries
+    @SuppressWarnings("unchecked")
+    private static MpesaStatusCheckRepository statusCheckRepository(Map<Long, MpesaStatusCheck> checks) {
+        AtomicLong ids = new AtomicLong();
+        return (MpesaStatusCheckRepository) Proxy.newProxyInstance(
+                MpesaStatusCheckRepository.class.getClassLoader(),
+                new Class<?>[] { MpesaStatusCheckRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "existsByOrderId" -> checks.values().stream()
+                            .anyMatch(c -> c.getOrderId().equals(args[0]));
+                    case "save" -> {
+                        MpesaStatusCheck check = (MpesaStatusCheck) args[0];
+                        check.setId(ids.incrementAndGet());
+                        checks.put(check.getId(), check);
+                        yield check;
+                    }
+                    case "findDueIds" -> checks.values().stream()
+                            .filter(c -> !c.getDueAt().isAfter((LocalDateTime) args[0]))
+                            .filter(c -> c.getLeaseExpiresAt() == null
+                                    || c.getLeaseExpiresAt().isBefore((LocalDateTime) args[0]))
+                            .map(MpesaStatusCheck::getId)
+                            .toList();
+                    case "claim" -> {
+                        int claimed = 0;
+                        for (Long id : (Collection<Long>) args[0]) {
+                            MpesaStatusCheck check = checks.get(id);
+                            if (check.getLeaseExpiresAt() == null
+                                    || check.getLeaseExpiresAt().isBefore((LocalDateTime) args[2])) {
+                                check.setLeaseOwner((String) args[1]);
+                                check.setLeaseExpiresAt((LocalDateTime) args[3]);
+                                claimed++;
+                            }
+                        }
+                        yield claimed;
+                    }
+                    case "findByLeaseOwner" -> checks.values().stream()
+                            .filter(c -> args[0].equals(c.getLeaseOwner()))
+                            .toList();
+                    case "deleteByOrderId" -> {
+                        int before = checks.size();
+                        checks.values().removeIf(c -> c.getOrderId().equals(args[0]));
+                        yield before - checks.size();
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "MpesaStatusCheckRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
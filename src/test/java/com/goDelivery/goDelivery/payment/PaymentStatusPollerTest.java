@@ -0,0 +1,83 @@
+package com.goDelivery.goDelivery.payment;
+
+import com.goDelivery.goDelivery.modules.payment.dto.PaymentStatusPollerStats;
+import com.goDelivery.goDelivery.modules.payment.service.PaymentStatusPoller;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentStatusPoller timing wheel scheduling
+ */
+class PaymentStatusPollerTest {
+
+    @Test
+    void testChecksEveryIntervalUntilFinal() {
+        // 1 second ticks and a check every 4 ticks, on a wheel of 3 slots so entries wait out full turns
+        PaymentStatusPoller poller = new PaymentStatusPoller(Runnable::run, 1000, Duration.ofSeconds(4),
+                Duration.ofHours(1), 3);
+        AtomicInteger checks = new AtomicInteger();
+
+        poller.track("collection:ref-1", () -> checks.incrementAndGet() == 3, null);
+        poller.track("collection:ref-1", () -> fail("Tracked twice"), null);
+
+        for (int i = 0; i < 3; i++) {
+            poller.tick();
+        }
+        assertEquals(0, checks.get());
+        poller.tick();
+        assertEquals(1, checks.get());
+        for (int i = 0; i < 8; i++) {
+            poller.tick();
+        }
+        assertEquals(3, checks.get());
+        assertFalse(poller.isTracking("collection:ref-1"));
+
+        PaymentStatusPollerStats stats = poller.getStats();
+        assertEquals(0, stats.getPending());
+        assertEquals(3, stats.getChecks());
+        assertEquals(1, stats.getCompleted());
+    }
+
+    @Test
+    void testGivesUpAfterMaxDuration() {
+        PaymentStatusPoller poller = new PaymentStatusPoller(Runnable::run, 1000, Duration.ofSeconds(1),
+                Duration.ZERO, 8);
+        AtomicBoolean expired = new AtomicBoolean();
+
+        poller.track("collection:ref-2", () -> {
+            throw new IllegalStateException("Provider unavailable");
+        }, () -> expired.set(true));
+        poller.tick();
+
+        assertTrue(expired.get());
+        assertFalse(poller.isTracking("collection:ref-2"));
+        assertEquals(1, poller.getStats().getCheckFailures());
+        assertEquals(1, poller.getStats().getTimedOut());
+    }
+
+    @Test
+    void testDefersChecksWhenWorkersAreBusy() {
+        AtomicBoolean busy = new AtomicBoolean(true);
+        PaymentStatusPoller poller = new PaymentStatusPoller(task -> {
+            if (busy.get()) {
+                throw new RejectedExecutionException("Queue full");
+            }
+            task.run();
+        }, 1000, Duration.ofSeconds(1), Duration.ofHours(1), 8);
+
+        poller.track("collection:ref-3", () -> true, null);
+        poller.tick();
+        assertTrue(poller.isTracking("collection:ref-3"));
+        assertEquals(1, poller.getStats().getDeferred());
+
+        busy.set(false);
+        poller.tick();
+        assertFalse(poller.isTracking("collection:ref-3"));
+    }
+}
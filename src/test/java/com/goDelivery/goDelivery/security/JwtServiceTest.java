@@ -0,0 +1,73 @@
+package com.goDelivery.goDelivery.security;
+
+import com.goDelivery.goDelivery.shared.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JwtService token verification and the verified-claims cache
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private static final UserDetails USER = new User("jane@example.com", "secret",
+            List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+
+    @Test
+    void testRepeatedVerificationIsServedFromCache() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+        String token = jwtService.generateToken(USER);
+
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        assertSame(first, second);
+        assertEquals("jane@example.com", first.getSubject());
+        assertTrue(jwtService.isTokenValid(first, USER));
+        assertTrue(jwtService.isTokenValid(token, USER));
+    }
+
+    @Test
+    void testValidationChecksSubject() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(USER));
+
+        UserDetails other = new User("john@example.com", "secret", List.of());
+        assertFalse(jwtService.isTokenValid(claims, other));
+    }
+
+    @Test
+    void testTamperedTokenIsRejectedEvenAfterValidOneWasCached() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+        String token = jwtService.generateToken(USER);
+        jwtService.extractAllClaims(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin@example.com\"}".getBytes());
+        String tampered = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tampered));
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tampered));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        JwtService jwtService = new JwtService(SECRET, -1_000, 100);
+        String token = jwtService.generateToken(USER);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractAllClaims(token));
+    }
+}
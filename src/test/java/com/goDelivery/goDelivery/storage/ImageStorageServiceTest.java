@@ -0,0 +1,136 @@
+package com.goDelivery.goDelivery.storage;
+
+import com.goDelivery.goDelivery.modules.branch.dto.ImageVariantUrls;
+import com.goDelivery.goDelivery.modules.branch.service.FileStorageService;
+import com.goDelivery.goDelivery.modules.branch.service.ImageStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ImageStorageService variant generation
+ */
+class ImageStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageStorageService imageStorageService;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "allowedImageTypes", "jpg,jpeg,png,gif");
+        ReflectionTestUtils.setField(fileStorageService, "allowedDocumentTypes", "pdf");
+        fileStorageService.init();
+        imageStorageService = new ImageStorageService(fileStorageService, 40_000_000L, 0.82f);
+    }
+
+    @Test
+    void testStoresResizedVariantsOnce() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("file", "burger.png", "image/png",
+                png(2000, 1000, BufferedImage.TYPE_INT_RGB));
+
+        String first = imageStorageService.storeImage(photo, "menu-items/images");
+        String second = imageStorageService.storeImage(photo, "menu-items/images");
+
+        assertEquals(first, second);
+        assertTrue(first.matches("images/[0-9a-f]{2}/[0-9a-f]{64}/full\\.jpg"), first);
+
+        ImageVariantUrls variants = ImageStorageService.variantsOf("/api/files/" + first);
+        assertNotNull(variants);
+        assertEquals(160, width(variants.getThumbnail()));
+        assertEquals(480, width(variants.getCard()));
+        assertEquals(1280, width(variants.getFull()));
+    }
+
+    @Test
+    void testKeepsTransparentImagesAsPng() throws Exception {
+        MockMultipartFile logo = new MockMultipartFile("file", "logo.png", "image/png",
+                png(100, 100, BufferedImage.TYPE_INT_ARGB));
+
+        String stored = imageStorageService.storeImage(logo, "restaurants/logo");
+
+        assertTrue(stored.endsWith("/full.png"), stored);
+        // Small images are never upscaled
+        assertEquals(100, width("/api/files/" + stored));
+    }
+
+    @Test
+    void testConcurrentUploadsOfSameImageBothSucceed() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("file", "pizza.png", "image/png",
+                png(1600, 1200, BufferedImage.TYPE_INT_RGB));
+        int uploads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return imageStorageService.storeImage(photo, "menu-items/images");
+                }));
+            }
+            start.countDown();
+
+            Set<String> stored = new HashSet<>();
+            for (Future<String> result : results) {
+                stored.add(result.get(60, TimeUnit.SECONDS));
+            }
+            assertEquals(1, stored.size());
+            assertEquals(1280, width("/api/files/" + stored.iterator().next()));
+        } finally {
+            executor.shutdownNow();
+        }
+        // No scratch directories are left behind
+        try (Stream<Path> files = Files.walk(uploadDir.resolve("images"))) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().startsWith(".tmp-")));
+        }
+    }
+
+    @Test
+    void testLegacyImagesHaveNoVariants() {
+        assertNull(ImageStorageService.variantsOf("/api/files/menu-items/images/0b1c_burger.png"));
+        assertNull(ImageStorageService.variantsOf(null));
+    }
+
+    private static byte[] png(int width, int height, int type) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private int width(String url) throws Exception {
+        Path file = uploadDir.resolve(url.substring("/api/files/".length()));
+        assertTrue(Files.exists(file), url);
+        return ImageIO.read(file.toFile()).getWidth();
+    }
+}
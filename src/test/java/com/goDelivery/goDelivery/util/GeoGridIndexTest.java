@@ -0,0 +1,82 @@
+package com.goDelivery.goDelivery.util;
+
+import com.goDelivery.goDelivery.shared.util.GeoGridIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for GeoGridIndex spatial lookups
+ */
+class GeoGridIndexTest {
+
+    // Kigali city centre
+    private static final double LAT = -1.9441;
+    private static final double LNG = 30.0619;
+
+    @Test
+    void testNearestMatchesBruteForce() {
+        GeoGridIndex<Long> index = new GeoGridIndex<>(0.01);
+        List<double[]> points = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (long id = 0; id < 2000; id++) {
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.4;
+            double lng = LNG + (random.nextDouble() - 0.5) * 0.4;
+            index.put(id, lat, lng);
+            points.add(new double[] { id, GeoGridIndex.haversineKm(LAT, LNG, lat, lng) });
+        }
+
+        points.sort(Comparator.comparingDouble(p -> p[1]));
+        List<GeoGridIndex.Neighbour<Long>> nearest = index.nearest(LAT, LNG, 10, 50.0);
+
+        assertEquals(10, nearest.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals((long) points.get(i)[0], nearest.get(i).getKey());
+        }
+    }
+
+    @Test
+    void testWithinRadius() {
+        GeoGridIndex<Long> index = new GeoGridIndex<>(0.01);
+        index.put(1L, LAT, LNG);
+        index.put(2L, LAT + 0.03, LNG); // ~3.3 km north
+        index.put(3L, LAT + 0.2, LNG); // ~22 km north
+
+        List<GeoGridIndex.Neighbour<Long>> result = index.withinRadius(LAT, LNG, 5.0);
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getKey());
+        assertEquals(2L, result.get(1).getKey());
+        assertTrue(result.get(1).getDistanceKm() > 3.0 && result.get(1).getDistanceKm() < 3.5);
+    }
+
+    @Test
+    void testMoveAndRemove() {
+        GeoGridIndex<Long> index = new GeoGridIndex<>(0.01);
+        index.put(1L, LAT, LNG);
+        index.put(1L, LAT + 0.5, LNG);
+
+        assertEquals(1, index.size());
+        assertTrue(index.withinRadius(LAT, LNG, 5.0).isEmpty());
+        assertEquals(1, index.withinRadius(LAT + 0.5, LNG, 1.0).size());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertTrue(index.nearest(LAT + 0.5, LNG, 1, 10.0).isEmpty());
+    }
+
+    @Test
+    void testNearestRespectsMaxDistance() {
+        GeoGridIndex<Long> index = new GeoGridIndex<>(0.01);
+        index.put(1L, LAT + 0.2, LNG); // ~22 km away
+
+        assertTrue(index.nearest(LAT, LNG, 1, 10.0).isEmpty());
+        assertEquals(1, index.nearest(LAT, LNG, 1, 30.0).size());
+    }
+}
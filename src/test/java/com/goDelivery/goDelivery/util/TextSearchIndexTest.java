@@ -0,0 +1,85 @@
+package com.goDelivery.goDelivery.util;
+
+import com.goDelivery.goDelivery.shared.util.TextSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TextSearchIndex matching and ranking
+ */
+class TextSearchIndexTest {
+
+    private static List<TextSearchIndex.Field> item(String name, String description) {
+        return List.of(TextSearchIndex.Field.of(name, 3.0), TextSearchIndex.Field.of(description, 1.0));
+    }
+
+    private static TextSearchIndex<Long> sampleIndex() {
+        TextSearchIndex<Long> index = new TextSearchIndex<>(0.5);
+        index.put(1L, item("Pizza Margherita", "Tomato, mozzarella and basil"));
+        index.put(2L, item("Cheese Burger", "Beef patty with cheddar"));
+        index.put(3L, item("Garden Salad", "Served with a slice of pizza bread"));
+        index.put(4L, item("Crème Brûlée", "Vanilla custard"));
+        return index;
+    }
+
+    @Test
+    void testToleratesTyposAndPrefixes() {
+        TextSearchIndex<Long> index = sampleIndex();
+
+        assertEquals(1L, index.search("piza", key -> true, 10).get(0).getKey());
+        assertEquals(2L, index.search("burg", key -> true, 10).get(0).getKey());
+        assertEquals(4L, index.search("creme brulee", key -> true, 10).get(0).getKey());
+        assertTrue(index.search("sushi", key -> true, 10).isEmpty());
+    }
+
+    @Test
+    void testNameMatchRanksAboveDescriptionMatch() {
+        List<TextSearchIndex.Hit<Long>> hits = sampleIndex().search("pizza", key -> true, 10);
+
+        assertEquals(2, hits.size());
+        assertEquals(1L, hits.get(0).getKey());
+        assertEquals(3L, hits.get(1).getKey());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testEveryQueryWordMustMatch() {
+        TextSearchIndex<Long> index = sampleIndex();
+
+        List<TextSearchIndex.Hit<Long>> hits = index.search("cheese burger", key -> true, 10);
+        assertEquals(1, hits.size());
+        assertEquals(2L, hits.get(0).getKey());
+
+        assertTrue(index.search("cheese pizza", key -> true, 10).isEmpty());
+    }
+
+    @Test
+    void testFilterAndLimit() {
+        TextSearchIndex<Long> index = sampleIndex();
+
+        List<TextSearchIndex.Hit<Long>> hits = index.search("pizza", key -> key != 1L, 10);
+        assertEquals(1, hits.size());
+        assertEquals(3L, hits.get(0).getKey());
+
+        assertEquals(1, index.search("pizza", key -> true, 1).size());
+    }
+
+    @Test
+    void testReplaceAndRemove() {
+        TextSearchIndex<Long> index = sampleIndex();
+
+        index.put(2L, item("Chicken Wrap", "Grilled chicken"));
+        assertTrue(index.search("burger", key -> true, 10).isEmpty());
+        assertEquals(2L, index.search("wrap", key -> true, 10).get(0).getKey());
+
+        index.remove(1L);
+        index.retainAll(List.of(2L, 3L));
+        assertFalse(index.contains(1L));
+        assertFalse(index.contains(4L));
+        assertEquals(2, index.size());
+        assertEquals(3L, index.search("pizza", key -> true, 10).get(0).getKey());
+    }
+}